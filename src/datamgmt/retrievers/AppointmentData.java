@@ -1,15 +1,30 @@
 package datamgmt.retrievers;
 
 import utils.appointments.Appointment;
+import utils.appointments.AppointmentExpiryScheduler;
+import utils.appointments.AppointmentListener;
+import utils.appointments.recurrence.RecurringAppointments;
+import utils.appointments.schedules.DoctorLoadBalancer;
+import utils.appointments.schedules.DoctorSchedule;
+import utils.appointments.schedules.DoctorScheduleViews;
+import utils.appointments.waitlist.Waitlist;
 import utils.enums.AppointmentStatus;
+import utils.resources.ResourceScheduler;
 import utils.env;
+import users.patient.Patient;
 import utils.medicalrecords.OutcomeRecord;
+import utils.medicalrecords.PendingPrescriptionQueue;
+import utils.medicalrecords.RefillScheduler;
+import utils.medicinemanagements.StockReservations;
 
 import java.io.*;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data handler for managing appointment records.
@@ -19,6 +34,17 @@ public class AppointmentData extends BaseDataHandler<Appointment> {
 
     private final env environment;
     private final String filePath;
+    private final AppointmentExpiryScheduler expiryScheduler = new AppointmentExpiryScheduler();
+    private final DoctorScheduleViews scheduleViews = new DoctorScheduleViews();
+    private final DoctorLoadBalancer loadBalancer = new DoctorLoadBalancer();
+    private final List<AppointmentListener> listeners = new ArrayList<>();
+    private final Waitlist waitlist;
+    private final RecurringAppointments recurringAppointments;
+    private final RefillScheduler refillScheduler;
+    private final ResourceScheduler resourceScheduler;
+    private final PendingPrescriptionQueue prescriptionQueue = new PendingPrescriptionQueue(this::findPatientName);
+    private final StockReservations stockReservations = new StockReservations();
+    private Map<String, String> patientNames;
 
     /**
      * Initializes the AppointmentData handler with the file path from the environment.
@@ -26,6 +52,113 @@ public class AppointmentData extends BaseDataHandler<Appointment> {
     public AppointmentData() {
         this.environment = new env();
         this.filePath = environment.getAppointmentDataPath();
+        this.waitlist = new Waitlist(new WaitlistData());
+        this.recurringAppointments = new RecurringAppointments(new AppointmentSeriesData());
+        this.refillScheduler = new RefillScheduler(new PrescriptionPlanData());
+        this.resourceScheduler = new ResourceScheduler(new ResourceData(), new ResourceBookingData());
+        addListener(scheduleViews);
+        addListener(loadBalancer);
+        addListener(waitlist);
+        addListener(resourceScheduler);
+        addListener(prescriptionQueue);
+        addListener(stockReservations);
+    }
+
+    /**
+     * Registers a listener that is notified of every change to the appointment data.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(AppointmentListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Retrieves the waitlist that is matched against cancelled appointments.
+     *
+     * @return the appointment waitlist
+     */
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    /**
+     * Retrieves the recurring appointment series, kept in rule form.
+     *
+     * @return the recurring appointments
+     */
+    public RecurringAppointments getRecurringAppointments() {
+        return recurringAppointments;
+    }
+
+    /**
+     * Retrieves the recurring prescription plans, indexed by next refill date.
+     *
+     * @return the refill scheduler
+     */
+    public RefillScheduler getRefillScheduler() {
+        return refillScheduler;
+    }
+
+    /**
+     * Retrieves the room and equipment allocator.
+     *
+     * @return the resource scheduler
+     */
+    public ResourceScheduler getResourceScheduler() {
+        return resourceScheduler;
+    }
+
+    /**
+     * Retrieves the queue of prescriptions waiting to be dispensed.
+     *
+     * @return the pending prescription queue
+     */
+    public PendingPrescriptionQueue getPrescriptionQueue() {
+        return prescriptionQueue;
+    }
+
+    /**
+     * Retrieves the stock reserved for prescriptions that have not been dispensed.
+     *
+     * @return the stock reservations
+     */
+    public StockReservations getStockReservations() {
+        return stockReservations;
+    }
+
+    /**
+     * Looks up a patient's name, loading the patient names once on first use.
+     */
+    private String findPatientName(String patientID) {
+        if (patientNames == null) {
+            patientNames = new HashMap<>();
+            PatientData patientData = new PatientData();
+            patientData.importData();
+            for (Patient patient : patientData.getAllData()) {
+                patientNames.put(patient.getUserID().toUpperCase(), patient.getName());
+            }
+        }
+        return patientNames.getOrDefault(patientID.toUpperCase(), "Unknown");
+    }
+
+    /**
+     * Retrieves the live per-doctor load counters used for automatic doctor assignment.
+     *
+     * @return the doctor load balancer
+     */
+    public DoctorLoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * Retrieves the incrementally maintained schedule of a doctor.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's schedule
+     */
+    public DoctorSchedule getDoctorSchedule(String doctorID) {
+        return scheduleViews.getSchedule(doctorID);
     }
 
     /**
@@ -57,42 +190,72 @@ public class AppointmentData extends BaseDataHandler<Appointment> {
 
         dataList.clear();
         dataList.addAll(appointments);
-        processOutdatedAppointments(); // Handle outdated appointments
+        expiryScheduler.rebuild(dataList);
+        for (AppointmentListener listener : listeners) {
+            listener.onAppointmentsLoaded(dataList);
+        }
+        expireDueAppointments(); // Handle appointments that became outdated since the last run
     }
 
     /**
-     * Processes outdated appointments:
+     * Processes appointments that have become outdated since they were last checked:
      * - Deletes pending appointments if their date has passed.
      * - Cancels confirmed appointments if their date has passed.
+     * Only appointments whose expiry is due are visited, and any changes are persisted in a single write.
+     *
+     * @return true if any appointment was deleted or cancelled
      */
-    private void processOutdatedAppointments() {
-        LocalDate currentDate = LocalDate.now();
-        List<Appointment> updatedAppointments = new ArrayList<>();
-
-        for (Appointment appointment : dataList) {
-            LocalDate appointmentDate = LocalDate.parse(appointment.getDate(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    public boolean expireDueAppointments() {
+        List<Appointment> dueAppointments = expiryScheduler.pollDue(LocalDateTime.now());
+        if (dueAppointments.isEmpty()) {
+            return false;
+        }
 
-            if (appointmentDate.isBefore(currentDate)) {
-                if (appointment.getStatus() == AppointmentStatus.PENDING) {
-                    System.out.println("Deleting outdated pending appointment: " + appointment.getAppointmentID());
-                    continue;
-                } else if (appointment.getStatus() == AppointmentStatus.ACCEPTED) {
-                    System.out.println("Cancelling outdated confirmed appointment: " + appointment.getAppointmentID());
-                    appointment.updateStatus(AppointmentStatus.CANCELLED);
+        Set<String> deletedIDs = new HashSet<>();
+        for (Appointment appointment : dueAppointments) {
+            if (appointment.getStatus() == AppointmentStatus.PENDING) {
+                System.out.println("Deleting outdated pending appointment: " + appointment.getAppointmentID());
+                deletedIDs.add(appointment.getAppointmentID());
+                for (AppointmentListener listener : listeners) {
+                    listener.onAppointmentRemoved(appointment);
+                }
+            } else if (appointment.getStatus() == AppointmentStatus.ACCEPTED) {
+                System.out.println("Cancelling outdated confirmed appointment: " + appointment.getAppointmentID());
+                appointment.updateStatus(AppointmentStatus.CANCELLED);
+                for (AppointmentListener listener : listeners) {
+                    listener.onAppointmentChanged(appointment);
                 }
             }
-            updatedAppointments.add(appointment);
+        }
+        if (!deletedIDs.isEmpty()) {
+            dataList.removeIf(appointment -> deletedIDs.contains(appointment.getAppointmentID()));
         }
 
-        dataList.clear();
-        dataList.addAll(updatedAppointments);
+        writeData();
+        resourceScheduler.flush();
+        return true;
+    }
+
+    /**
+     * Notifies the handler that an appointment was created, rescheduled or had its status changed,
+     * so that its expiry is tracked against its current date and status and all listeners are updated.
+     *
+     * @param appointment the appointment that changed
+     */
+    public void appointmentChanged(Appointment appointment) {
+        expiryScheduler.track(appointment);
+        for (AppointmentListener listener : listeners) {
+            listener.onAppointmentChanged(appointment);
+        }
     }
 
     /**
      * Writes appointment data directly to the file without using a temporary file.
      * Updates the file with complete OutcomeRecord details.
+     *
+     * @return true if the file was written
      */
-    public void writeData() {
+    public boolean writeData() {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, false))) {
             // Write header
             writer.write(getHeader());
@@ -103,8 +266,10 @@ public class AppointmentData extends BaseDataHandler<Appointment> {
                 writer.write(formatItem(appointment));
                 writer.newLine();
             }
+            return true;
         } catch (IOException e) {
             System.err.println("Error writing appointment data: " + e.getMessage());
+            return false;
         }
     }
     /**
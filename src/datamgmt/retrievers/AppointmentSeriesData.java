@@ -0,0 +1,103 @@
+package datamgmt.retrievers;
+
+import utils.appointments.recurrence.AppointmentSeries;
+import utils.env;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Manages the retrieval, parsing, and persistence of recurring appointment series
+ * from the file specified in the {@link env}.
+ */
+public class AppointmentSeriesData extends BaseDataHandler<AppointmentSeries> {
+    private final env environment;
+
+    /**
+     * Initializes the appointment series data handler with an environment configuration.
+     */
+    public AppointmentSeriesData() {
+        this.environment = new env();
+    }
+
+    /**
+     * Imports series data from the file path specified in the {@link env}.
+     * A missing file simply means no series has been booked yet.
+     */
+    public void importData() {
+        if (!new File(environment.getAppointmentSeriesDataPath()).exists()) {
+            return;
+        }
+        try {
+            loadData(environment.getAppointmentSeriesDataPath());
+        } catch (IOException e) {
+            System.err.println("Error reading appointment series data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads all series data by clearing existing data and re-importing it.
+     */
+    public void reloadData() {
+        clearData();
+        importData();
+    }
+
+    @Override
+    protected AppointmentSeries parseLine(String line) {
+        try {
+            return AppointmentSeries.fromCSV(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing appointment series data: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected String formatItem(AppointmentSeries series) {
+        return series.toCSV();
+    }
+
+    @Override
+    protected String getHeader() {
+        return "SeriesID,PatientID,DoctorID,StartDate,Time,Frequency,Interval,Occurrences,Status,Exceptions";
+    }
+
+    /**
+     * Retrieves all appointment series.
+     *
+     * @return a list of {@link AppointmentSeries} objects
+     */
+    public List<AppointmentSeries> getSeries() {
+        return getAllData();
+    }
+
+    /**
+     * Adds a new series and appends it to the file.
+     *
+     * @param series the series to add
+     */
+    public void addSeries(AppointmentSeries series) {
+        if (series == null) {
+            throw new IllegalArgumentException("Appointment series cannot be null.");
+        }
+        dataList.add(series);
+        try {
+            appendData(environment.getAppointmentSeriesDataPath(), series);
+        } catch (IOException e) {
+            System.err.println("Error appending appointment series: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all series to the file, e.g. after an occurrence was skipped or a series was cancelled.
+     */
+    public void saveSeries() {
+        try {
+            writeData(environment.getAppointmentSeriesDataPath());
+        } catch (IOException e) {
+            System.err.println("Error saving appointment series data: " + e.getMessage());
+        }
+    }
+}
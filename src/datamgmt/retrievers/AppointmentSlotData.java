@@ -2,19 +2,24 @@ package datamgmt.retrievers;
 
 import utils.ValidationUtils;
 import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.appointmentslots.TimeWindow;
+import utils.appointments.appointmentslots.WeeklyAvailability;
 import utils.enums.WorkingDay;
 import utils.env;
 
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Handles the retrieval and management of appointment slot data from the file specified in {@link env}.
  */
 public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
     private final env environment;
+    private final Map<String, WeeklyAvailability> availabilityByDoctor = new HashMap<>();
 
     /**
      * Initializes the appointment slot data handler.
@@ -27,6 +32,7 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
      * Imports appointment slot data from the file path specified in the {@link env}.
      */
     public void importData() {
+        availabilityByDoctor.clear();
         try {
             loadData(environment.getAppointmentSlotDataPath());
         } catch (IOException e) {
@@ -45,7 +51,7 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
     @Override
     protected AppointmentSlot parseLine(String line) {
         String[] data = line.split(",");
-        if (data.length != 4) {
+        if (data.length != 4 && data.length != 5) {
             System.err.println("Invalid data format: " + line);
             return null;
         }
@@ -63,7 +69,10 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
             // Parse and validate WorkingDays
             List<WorkingDay> workingDays = parseWorkingDays(data[3].trim());
 
-            return new AppointmentSlot(doctorID, startTime, endTime, workingDays);
+            // Breaks are optional so that rows written before they existed still load
+            List<TimeWindow> breaks = data.length == 5 ? parseBreaks(data[4].trim()) : List.of();
+
+            return new AppointmentSlot(doctorID, startTime, endTime, workingDays, breaks);
         } catch (IllegalArgumentException e) {
             System.err.println("Error parsing appointment slot data: " + line + " - " + e.getMessage());
             return null;
@@ -91,23 +100,42 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
         return workingDays;
     }
 
+    /**
+     * Parses a string of breaks such as "12:00-13:00;15:00-15:15" into a list of {@link TimeWindow}s.
+     *
+     * @param breaksString the string representation of breaks, separated by semicolons
+     * @return a list of breaks, empty if the string is empty
+     */
+    private List<TimeWindow> parseBreaks(String breaksString) {
+        List<TimeWindow> breaks = new ArrayList<>();
+        if (breaksString.isEmpty() || breaksString.equals("-")) {
+            return breaks;
+        }
+        for (String window : breaksString.split(";")) {
+            breaks.add(TimeWindow.parse(window));
+        }
+        return breaks;
+    }
+
     @Override
     protected String formatItem(AppointmentSlot slot) {
         String workingDaysString = String.join(";", slot.getWorkingDays().stream()
                 .map(WorkingDay::name)
                 .toArray(String[]::new));
-        return slot.getDoctorID() + "," + slot.getStartTime() + "," + slot.getEndTime() + "," + workingDaysString;
+        return slot.getDoctorID() + "," + slot.getStartTime() + "," + slot.getEndTime() + "," + workingDaysString
+                + slot.formatBreaks(",");
     }
 
     @Override
     protected String getHeader() {
-        return "DoctorID,StartTime,EndTime,WorkingDays";
+        return "DoctorID,StartTime,EndTime,WorkingDays,Breaks";
     }
 
     /**
-     * Saves all appointment slots to the file.
+     * Saves all appointment slots to the file. Private so that slots only change through
+     * {@link #replaceDoctorSlots(String, List)}, whose callers re-validate the doctor's appointments.
      */
-    public void saveAppointmentSlots() {
+    private void saveAppointmentSlots() {
         try {
             writeData(environment.getAppointmentSlotDataPath());
             System.out.println("Appointment slots saved successfully.");
@@ -115,24 +143,23 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
             System.err.println("Error saving appointment slots: " + e.getMessage());
         }
     }
-   /**
-     * Adds a new appointment slot and persists it to the CSV file.
+
+    /**
+     * Adds a new appointment slot to a doctor's slots and persists it to the CSV file.
+     * Callers should re-validate the doctor's future appointments against the new slots.
      *
      * @param slot the {@link AppointmentSlot} object to add
+     * @return the doctor's slots before the slot was added
      */
-    public void addSlot(AppointmentSlot slot) {
+    public List<AppointmentSlot> addSlot(AppointmentSlot slot) {
         if (slot == null) {
             throw new IllegalArgumentException("Appointment slot cannot be null.");
         }
-
-        try {
-            // Add slot to the in-memory data list managed by BaseDataHandler
-            dataList.add(slot); // This method ensures the slot is added to the internal list
-            saveAppointmentSlots(); // Save the updated list to the CSV file
-            System.out.println("Appointment slot added successfully.");
-        } catch (Exception e) {
-            System.err.println("Error adding appointment slot: " + e.getMessage());
-        }
+        List<AppointmentSlot> newSlots = getSlotsForDoctor(slot.getDoctorID());
+        newSlots.add(slot);
+        List<AppointmentSlot> previousSlots = replaceDoctorSlots(slot.getDoctorID(), newSlots);
+        System.out.println("Appointment slot added successfully.");
+        return previousSlots;
     }
 
     /**
@@ -143,5 +170,54 @@ public class AppointmentSlotData extends BaseDataHandler<AppointmentSlot> {
     public List<AppointmentSlot> getAllSlots() {
         return getAllData(); // Use the inherited getAllData method from BaseDataHandler
     }
+
+    /**
+     * Returns the appointment slots of a single doctor. Doctor IDs are matched ignoring case.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's {@link AppointmentSlot} objects
+     */
+    public List<AppointmentSlot> getSlotsForDoctor(String doctorID) {
+        List<AppointmentSlot> slots = new ArrayList<>();
+        for (AppointmentSlot slot : dataList) {
+            if (slot.getDoctorID().equalsIgnoreCase(doctorID)) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Returns a doctor's working hours compiled for fast lookups. The result is cached until
+     * the doctor's slots change. Doctor IDs are matched ignoring case.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's {@link WeeklyAvailability}
+     */
+    public WeeklyAvailability getAvailability(String doctorID) {
+        return availabilityByDoctor.computeIfAbsent(doctorID.toUpperCase(), id -> WeeklyAvailability.of(getSlotsForDoctor(id)));
+    }
+
+    /**
+     * Replaces all appointment slots of a doctor and persists the change in one write.
+     * Callers should re-validate the doctor's future appointments against the new slots.
+     *
+     * @param doctorID the doctor's ID
+     * @param newSlots the doctor's new appointment slots
+     * @return the slots that were replaced
+     */
+    public List<AppointmentSlot> replaceDoctorSlots(String doctorID, List<AppointmentSlot> newSlots) {
+        for (AppointmentSlot slot : newSlots) {
+            if (!slot.getDoctorID().equalsIgnoreCase(doctorID)) {
+                throw new IllegalArgumentException("Slot does not belong to doctor " + doctorID + ": " + slot);
+            }
+        }
+        List<AppointmentSlot> previousSlots = getSlotsForDoctor(doctorID);
+        dataList.removeIf(slot -> slot.getDoctorID().equalsIgnoreCase(doctorID));
+        dataList.addAll(newSlots);
+        availabilityByDoctor.remove(doctorID.toUpperCase());
+        saveAppointmentSlots();
+        return previousSlots;
+    }
     
 }
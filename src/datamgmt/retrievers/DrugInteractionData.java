@@ -0,0 +1,59 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.medicinemanagements.DrugInteraction;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File access for the drug interaction table. The table is maintained outside the system,
+ * so it is only ever read.
+ */
+public class DrugInteractionData {
+    private final File file;
+
+    /**
+     * Initializes the handler with the file path from the environment.
+     */
+    public DrugInteractionData() {
+        this.file = new File(new env().getDrugInteractionPath());
+    }
+
+    /**
+     * Returns when the interaction table was last modified.
+     *
+     * @return the modification time in milliseconds since the epoch, or 0 if the file does not exist
+     */
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    /**
+     * Reads all interactions from the file.
+     *
+     * @return the interactions, empty if the file does not exist
+     */
+    public List<DrugInteraction> loadInteractions() {
+        List<DrugInteraction> interactions = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine(); // Skip the header line
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    interactions.add(DrugInteraction.fromCSV(line));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping invalid drug interaction: " + line);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            return interactions; // No interaction table installed
+        } catch (IOException e) {
+            System.err.println("Error reading drug interactions: " + e.getMessage());
+        }
+        return interactions;
+    }
+}
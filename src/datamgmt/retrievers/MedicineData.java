@@ -1,42 +1,215 @@
 package datamgmt.retrievers;
 
+import utils.enums.StockMovementType;
+import utils.medicinemanagements.DemandForecaster;
+import utils.medicinemanagements.LotInventory;
+import utils.medicinemanagements.LowStockMonitor;
 import utils.medicinemanagements.Medicine;
+import utils.medicinemanagements.MedicineLot;
+import utils.medicinemanagements.MedicineNameIndex;
+import utils.medicinemanagements.StockChange;
+import utils.medicinemanagements.StockLedger;
 import utils.env;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Data handler for the medicine inventory.
+ * Stock changes are not written by rewriting the medicine file; they are queued as deltas and appended to
+ * a stock journal in batches. The journal is append-only: on import every delta is added to the saved stock,
+ * and when the full file is saved the journal is folded into it under a file lock before being cleared, so
+ * deltas appended by other writers are never lost.
+ */
 public class MedicineData {
+    private static final String ADMINISTRATOR = "ADMIN";
+
     private final List<Medicine> medicines;
+    private final MedicineNameIndex nameIndex = new MedicineNameIndex();
     private final String filePath;
+    private final String deltaFilePath;
+    private final Queue<String> pendingDeltas = new ConcurrentLinkedQueue<>();
+    private static final Object journalLock = new Object(); // Shared so instances never contend for the file lock
+    private static final String JOURNAL_HEADER = "Name,Delta,Version\n";
+    private final StockLedger ledger;
+    private final LowStockMonitor lowStockMonitor = new LowStockMonitor();
+    // Shared by every instance and built from the ledger once per process; dispenses keep it current afterwards
+    private static final DemandForecaster forecaster = new DemandForecaster();
+    private static final AtomicBoolean forecasterBuilt = new AtomicBoolean();
+    private final LotInventory lots = new LotInventory();
+    private final MedicineLotData lotData = new MedicineLotData();
 
     public MedicineData() {
         medicines = new ArrayList<>();
-        filePath = new env().getMedicinePath(); // Get the file path from the env class
+        env environment = new env();
+        filePath = environment.getMedicinePath(); // Get the file path from the env class
+        deltaFilePath = environment.getMedicineStockDeltaPath();
+        ledger = new StockLedger(new StockLedgerData());
+    }
+
+    /**
+     * Retrieves the stock movement ledger, used for stock history and point-in-time inventory.
+     *
+     * @return the stock ledger
+     */
+    public StockLedger getStockLedger() {
+        return ledger;
+    }
+
+    /**
+     * Retrieves the monitor that publishes low stock alerts when a stock change crosses a medicine's alert level.
+     *
+     * @return the low stock monitor
+     */
+    public LowStockMonitor getLowStockMonitor() {
+        return lowStockMonitor;
+    }
+
+    /**
+     * Retrieves the consumption forecaster, which is shared by all instances and updated on every dispense.
+     *
+     * @return the demand forecaster
+     */
+    public DemandForecaster getDemandForecaster() {
+        return forecaster;
+    }
+
+    /**
+     * Retrieves the lot inventory, which tracks stock by lot and expiry date.
+     *
+     * @return the lot inventory
+     */
+    public LotInventory getLotInventory() {
+        return lots;
     }
     
     /**
-     * Imports medicine data from the file specified in the env configuration.
+     * Imports medicine data from the file specified in the env configuration,
+     * then replays the stock changes journalled since the file was last saved.
+     * Rows whose names refer to the same medicine are merged, adding their stock together.
      */
     public void importData() {
         medicines.clear();
+        nameIndex.clear();
+        pendingDeltas.clear();
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             br.readLine(); // Skip the header line
             while ((line = br.readLine()) != null) {
                 String[] data = line.split(",");
-                if (data.length == 3) {
+                if (data.length == 3 || data.length == 4) {
                     String name = data[0].trim();
                     int initialStock = Integer.parseInt(data[1].trim());
                     int lowStockLevel = Integer.parseInt(data[2].trim());
-                    medicines.add(new Medicine(name, initialStock, lowStockLevel));
+                    Medicine medicine = new Medicine(name, initialStock, lowStockLevel);
+                    if (data.length == 4) {
+                        medicine.restoreStock(initialStock, Long.parseLong(data[3].trim()));
+                    }
+                    Medicine existing = nameIndex.find(name);
+                    if (existing == null) {
+                        medicines.add(medicine);
+                        nameIndex.add(medicine);
+                    } else {
+                        // Keep the stock of a duplicate row; the next save writes the merged medicine as one row
+                        existing.restoreStock(existing.getInitialStock() + medicine.getInitialStock(),
+                                Math.max(existing.getStockVersion(), medicine.getStockVersion()));
+                        System.err.println("Merged duplicate medicine entry '" + name + "' into '" + existing.getName()
+                                + "' (stock now " + existing.getInitialStock() + ").");
+                    }
                 }
             }
         } catch (IOException e) {
             System.err.println("Error importing medicine data: " + e.getMessage());
         }
+        replayStockDeltas();
+        lots.load(lotData.loadLots());
+
+        Map<String, Integer> currentStock = new HashMap<>();
+        for (Medicine medicine : medicines) {
+            currentStock.put(medicine.getName(), medicine.getInitialStock());
+            lowStockMonitor.seed(medicine);
+        }
+        ledger.ensureBaseline(currentStock);
+        if (forecasterBuilt.compareAndSet(false, true)) {
+            LocalDateTime now = LocalDateTime.now();
+            forecaster.rebuild(ledger.getMovements(null, now.minusDays(DemandForecaster.HISTORY_DAYS), now));
+        }
+    }
+
+    /**
+     * Adds every journalled stock change to the saved stock. Deltas are append-only and each one is
+     * applied exactly once, whichever writer appended it.
+     */
+    private void replayStockDeltas() {
+        Map<String, long[]> deltas;
+        synchronized (journalLock) {
+            try (FileChannel journal = FileChannel.open(Paths.get(deltaFilePath), StandardOpenOption.READ)) {
+                FileLock lock = journal.lock(0, Long.MAX_VALUE, true);
+                try {
+                    deltas = readStockDeltas(journal);
+                } finally {
+                    lock.release();
+                }
+            } catch (NoSuchFileException e) {
+                return; // No stock changes journalled yet
+            } catch (IOException e) {
+                System.err.println("Error reading medicine stock changes: " + e.getMessage());
+                return;
+            }
+        }
+
+        for (Medicine medicine : medicines) {
+            long[] delta = deltas.get(MedicineNameIndex.normalize(medicine.getName()));
+            if (delta != null) {
+                medicine.restoreStock((int) Math.max(0, medicine.getInitialStock() + delta[0]),
+                        medicine.getStockVersion() + delta[1]);
+            }
+        }
+    }
+
+    /**
+     * Sums the journalled stock changes per medicine.
+     *
+     * @param journal the journal, which is read from the start and left open
+     * @return the total delta and the number of changes, keyed by normalised medicine name
+     */
+    private static Map<String, long[]> readStockDeltas(FileChannel journal) throws IOException {
+        Map<String, long[]> deltas = new HashMap<>();
+        journal.position(0);
+        BufferedReader br = new BufferedReader(Channels.newReader(journal, StandardCharsets.UTF_8));
+        String line;
+        br.readLine(); // Skip the header line
+        while ((line = br.readLine()) != null) {
+            String[] data = line.split(",");
+            if (data.length != 3) {
+                continue;
+            }
+            try {
+                long[] total = deltas.computeIfAbsent(MedicineNameIndex.normalize(data[0]), n -> new long[2]);
+                total[0] += Integer.parseInt(data[1].trim());
+                total[1]++;
+            } catch (NumberFormatException e) {
+                System.err.println("Skipping invalid stock change: " + line);
+            }
+        }
+        return deltas;
     }
 
     /**
@@ -56,15 +229,35 @@ public class MedicineData {
     }
 
     /**
-     * Finds a medicine by its name.
+     * Finds a medicine by its name, ignoring case and extra whitespace.
      *
      * @param name the name of the medicine
      * @return an optional containing the medicine if found, or empty otherwise
      */
     public Optional<Medicine> findMedicineByName(String name) {
-        return medicines.stream()
-                .filter(medicine -> medicine.getName().equalsIgnoreCase(name))
-                .findFirst();
+        return Optional.ofNullable(nameIndex.find(name));
+    }
+
+    /**
+     * Suggests medicines whose names are similar to a name that was not found, for example because of a typo.
+     *
+     * @param name  the name as entered
+     * @param limit the maximum number of suggestions
+     * @return the suggested medicines, most similar first
+     */
+    public List<Medicine> suggestMedicines(String name, int limit) {
+        return nameIndex.suggest(name, limit);
+    }
+
+    /**
+     * Lists the medicines whose names start with a prefix, for autocompletion.
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of completions
+     * @return the matching medicines, in alphabetical order
+     */
+    public List<Medicine> completeMedicineName(String prefix, int limit) {
+        return nameIndex.complete(prefix, limit);
     }
 
     /**
@@ -77,7 +270,11 @@ public class MedicineData {
             throw new IllegalArgumentException("Medicine with name '" + medicine.getName() + "' already exists.");
         }
         medicines.add(medicine);
+        nameIndex.add(medicine);
+        ledger.record(medicine.getName(), StockMovementType.ADDED, medicine.getInitialStock(), ADMINISTRATOR, "-");
+        ledger.flush();
         saveData();
+        lowStockMonitor.onStockChanged(medicine, medicine.getInitialStock());
     }
 
     /**
@@ -89,6 +286,11 @@ public class MedicineData {
         Medicine medicine = findMedicineByName(name)
                 .orElseThrow(() -> new IllegalArgumentException("Medicine with name '" + name + "' not found."));
         medicines.remove(medicine);
+        nameIndex.remove(medicine.getName());
+        forecaster.forget(medicine.getName());
+        lots.removeMedicine(medicine.getName());
+        ledger.record(medicine.getName(), StockMovementType.REMOVED, -medicine.getInitialStock(), ADMINISTRATOR, "-");
+        ledger.flush();
         saveData();
     }
 
@@ -100,24 +302,248 @@ public class MedicineData {
     public void updateMedicine(Medicine medicine) {
         Medicine existingMedicine = findMedicineByName(medicine.getName())
                 .orElseThrow(() -> new IllegalArgumentException("Medicine with name '" + medicine.getName() + "' not found."));
-        existingMedicine.setInitialStock(medicine.getInitialStock());
+        // Journalled as a delta so that changes made meanwhile by other writers are kept
+        int stockChange = medicine.getInitialStock() - existingMedicine.getInitialStock();
         existingMedicine.setLowStockLevelAlert(medicine.getLowStockLevelAlert());
+        adjustStock(existingMedicine, stockChange, StockMovementType.ADJUSTMENT, ADMINISTRATOR, "-");
+        ledger.flush();
         saveData();
+        lowStockMonitor.onStockChanged(existingMedicine, existingMedicine.getInitialStock());
     }
 
     /**
-     * Saves all medicines to the file.
+     * Changes a medicine's stock atomically and queues the change for the stock journal and the movement ledger.
+     * Call {@link #flushStockChanges()} to persist the queued changes. A change that crosses the medicine's
+     * low stock alert level is published through the {@link LowStockMonitor}.
+     *
+     * @param medicine  the medicine
+     * @param delta     the quantity to add, or a negative quantity to remove
+     * @param type      the kind of movement
+     * @param actor     the ID of the staff member responsible
+     * @param reference the appointment or request the movement belongs to, or "-"
+     * @throws IllegalArgumentException if the stock would become negative
+     */
+    public void adjustStock(Medicine medicine, int delta, StockMovementType type, String actor, String reference) {
+        if (delta == 0) {
+            return;
+        }
+        StockChange change = medicine.changeStock(delta);
+        pendingDeltas.add(medicine.getName() + "," + delta + "," + change.getVersion());
+        ledger.record(medicine.getName(), type, delta, actor, reference);
+        if (type == StockMovementType.DISPENSE) {
+            forecaster.recordDispense(medicine.getName(), -delta, LocalDate.now());
+        }
+        lowStockMonitor.onStockChanged(medicine, change.getStockAfter());
+    }
+
+    /**
+     * Adds a received lot to a medicine's stock and to the lot inventory.
+     * Call {@link #flushStockChanges()} to persist the change.
+     *
+     * @param medicine   the medicine
+     * @param lotID      the lot number
+     * @param expiryDate the lot's expiry date
+     * @param quantity   the units received
+     * @param type       the kind of movement
+     * @param actor      the ID of the staff member responsible
+     * @param reference  the request the lot was received for, or "-"
+     * @throws IllegalArgumentException if the quantity is not positive or the lot exists with another expiry date
+     */
+    public void receiveLot(Medicine medicine, String lotID, LocalDate expiryDate, int quantity,
+                           StockMovementType type, String actor, String reference) {
+        lots.receive(medicine.getName(), lotID, expiryDate, quantity);
+        adjustStock(medicine, quantity, type, actor, reference);
+    }
+
+    /**
+     * Dispenses units of a medicine, drawing from its first-expiring unexpired lots first and from stock
+     * not held in any lot after that. Call {@link #flushStockChanges()} to persist the change.
+     *
+     * @param medicine  the medicine
+     * @param quantity  the units to dispense
+     * @param actor     the ID of the pharmacist dispensing
+     * @param reference the appointment the dispense belongs to
+     * @return the units taken from each lot
+     * @throws IllegalArgumentException if there is not enough unexpired stock
+     */
+    public List<MedicineLot> dispense(Medicine medicine, int quantity, String actor, String reference) {
+        List<MedicineLot> drawn = lots.draw(medicine.getName(), quantity, medicine.getInitialStock(), LocalDate.now());
+        try {
+            adjustStock(medicine, -quantity, StockMovementType.DISPENSE, actor, reference);
+        } catch (IllegalArgumentException e) {
+            lots.restore(drawn);
+            throw e;
+        }
+        return drawn;
+    }
+
+    /**
+     * Returns the units of a medicine that can be dispensed today, leaving out expired lots.
+     *
+     * @param medicine the medicine
+     * @return the dispensable quantity
+     */
+    public int getDispensableStock(Medicine medicine) {
+        return lots.getUsableQuantity(medicine.getName(), medicine.getInitialStock(), LocalDate.now());
+    }
+
+    /**
+     * Reverses a dispense that could not be completed, putting the units back into stock and into the
+     * lots they were drawn from. Call {@link #flushStockChanges()} to persist the change.
+     *
+     * @param medicine  the medicine
+     * @param drawn     the units taken from each lot, as returned by {@link #dispense}
+     * @param quantity  the units dispensed
+     * @param actor     the ID of the pharmacist reversing the dispense
+     * @param reference the appointment the dispense belonged to
+     */
+    public void reverseDispense(Medicine medicine, List<MedicineLot> drawn, int quantity, String actor, String reference) {
+        lots.restore(drawn);
+        adjustStock(medicine, quantity, StockMovementType.ADJUSTMENT, actor, "REVERSED " + reference);
+    }
+
+    /**
+     * Removes every lot that has expired from the lot inventory and from stock.
+     * Call {@link #flushStockChanges()} to persist the change.
+     *
+     * @param actor the ID of the staff member writing the lots off
+     * @return the lots written off
+     */
+    public List<MedicineLot> writeOffExpiredLots(String actor) {
+        List<MedicineLot> writtenOff = new ArrayList<>();
+        for (MedicineLot lot : lots.getExpiredLots(LocalDate.now())) {
+            Optional<Medicine> medicine = findMedicineByName(lot.getMedicineName());
+            int quantity = lots.remove(lot);
+            if (medicine.isPresent() && quantity > 0) {
+                int stockReduction = Math.min(quantity, medicine.get().getInitialStock());
+                if (stockReduction > 0) {
+                    adjustStock(medicine.get(), -stockReduction, StockMovementType.ADJUSTMENT, actor, "EXPIRED " + lot.getLotID());
+                }
+            }
+            writtenOff.add(lot);
+        }
+        return writtenOff;
+    }
+
+    /**
+     * Appends every queued stock change to the movement ledger and to the stock journal, one write each,
+     * and saves the lot inventory if it changed.
+     */
+    public void flushStockChanges() {
+        ledger.flush();
+        synchronized (journalLock) {
+            if (lots.isDirty()) {
+                lotData.saveLots(lots.drainForSave());
+            }
+            if (pendingDeltas.isEmpty()) {
+                return;
+            }
+            try (FileChannel journal = openJournal()) {
+                FileLock lock = journal.lock();
+                try {
+                    appendPendingDeltas(journal);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving medicine stock changes: " + e.getMessage());
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(Paths.get(deltaFilePath),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Appends the queued stock changes to the end of the journal in one write. Must hold the journal's file lock.
+     */
+    private void appendPendingDeltas(FileChannel journal) throws IOException {
+        StringBuilder batch = new StringBuilder();
+        if (journal.size() == 0) {
+            batch.append(JOURNAL_HEADER);
+        }
+        String delta;
+        while ((delta = pendingDeltas.poll()) != null) {
+            batch.append(delta).append('\n');
+        }
+        journal.position(journal.size());
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+    }
+
+    /**
+     * Saves all medicines to the file with their stock versions and saves the lot inventory if it changed.
+     * While holding the journal's file lock, the queued changes are appended, the stock saved on disk plus
+     * every journalled change (including other writers') is folded into the medicines, and only then is the
+     * journal cleared.
      */
     private void saveData() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
-            // Write the header
-            bw.write("Name,InitialStock,LowStockLevelAlert\n");
-            // Write each medicine's details
-            for (Medicine medicine : medicines) {
-                bw.write(medicine.getName() + "," + medicine.getInitialStock() + "," + medicine.getLowStockLevelAlert() + "\n");
+        synchronized (journalLock) {
+            try (FileChannel journal = openJournal()) {
+                FileLock lock = journal.lock();
+                try {
+                    appendPendingDeltas(journal);
+                    Map<String, Integer> savedStock = readSavedStock();
+                    Map<String, long[]> deltas = readStockDeltas(journal);
+                    for (Medicine medicine : medicines) {
+                        String key = MedicineNameIndex.normalize(medicine.getName());
+                        Integer stock = savedStock.get(key);
+                        if (stock != null) {
+                            long[] delta = deltas.getOrDefault(key, new long[2]);
+                            medicine.restoreStock((int) Math.max(0, stock + delta[0]), medicine.getStockVersion());
+                        }
+                    }
+
+                    try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+                        // Write the header
+                        bw.write("Name,InitialStock,LowStockLevelAlert,Version\n");
+                        // Write each medicine's details
+                        for (Medicine medicine : medicines) {
+                            bw.write(medicine.toCSV() + "\n");
+                        }
+                    }
+                    journal.truncate(0);
+                    appendPendingDeltas(journal);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving medicine data: " + e.getMessage());
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("Error saving medicine data: " + e.getMessage());
+            if (lots.isDirty()) {
+                lotData.saveLots(lots.drainForSave());
+            }
+        }
+    }
+
+    /**
+     * Reads the stock of each medicine as last saved to the medicine file.
+     *
+     * @return the saved stock, keyed by normalised medicine name, with duplicate rows added together
+     */
+    private Map<String, Integer> readSavedStock() throws IOException {
+        Map<String, Integer> savedStock = new HashMap<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            br.readLine(); // Skip the header line
+            while ((line = br.readLine()) != null) {
+                String[] data = line.split(",");
+                if (data.length == 3 || data.length == 4) {
+                    try {
+                        savedStock.merge(MedicineNameIndex.normalize(data[0]), Integer.parseInt(data[1].trim()), Integer::sum);
+                    } catch (NumberFormatException e) {
+                        System.err.println("Skipping invalid medicine: " + line);
+                    }
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing saved yet
         }
+        return savedStock;
     }
 }
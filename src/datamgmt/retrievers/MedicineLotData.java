@@ -0,0 +1,69 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.medicinemanagements.MedicineLot;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File access for medicine lots and their expiry dates.
+ */
+public class MedicineLotData {
+    private static final String HEADER = "LotID,MedicineName,ExpiryDate,Quantity";
+
+    private final String filePath;
+
+    /**
+     * Initializes the handler with the file path from the environment.
+     */
+    public MedicineLotData() {
+        this.filePath = new env().getMedicineLotPath();
+    }
+
+    /**
+     * Reads all lots from the file.
+     *
+     * @return the lots, empty if the file does not exist yet
+     */
+    public List<MedicineLot> loadLots() {
+        List<MedicineLot> lots = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line = reader.readLine(); // Skip the header line
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    lots.add(MedicineLot.fromCSV(line));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping invalid medicine lot: " + line);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            return lots; // No lots recorded yet
+        } catch (IOException e) {
+            System.err.println("Error reading medicine lots: " + e.getMessage());
+        }
+        return lots;
+    }
+
+    /**
+     * Writes all lots to the file, replacing its contents.
+     *
+     * @param lots the lots to save
+     */
+    public void saveLots(List<MedicineLot> lots) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (MedicineLot lot : lots) {
+                writer.write(lot.toCSV());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving medicine lots: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.medicalrecords.PrescriptionPlan;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Manages the retrieval, parsing, and persistence of recurring prescription plans
+ * from the file specified in the {@link env}.
+ */
+public class PrescriptionPlanData extends BaseDataHandler<PrescriptionPlan> {
+    private final env environment;
+
+    /**
+     * Initializes the prescription plan data handler with an environment configuration.
+     */
+    public PrescriptionPlanData() {
+        this.environment = new env();
+    }
+
+    /**
+     * Imports plan data from the file path specified in the {@link env}.
+     * A missing file simply means no plan has been created yet.
+     */
+    public void importData() {
+        if (!new File(environment.getPrescriptionPlanDataPath()).exists()) {
+            return;
+        }
+        try {
+            loadData(environment.getPrescriptionPlanDataPath());
+        } catch (IOException e) {
+            System.err.println("Error reading prescription plan data: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected PrescriptionPlan parseLine(String line) {
+        try {
+            return PrescriptionPlan.fromCSV(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing prescription plan data: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected String formatItem(PrescriptionPlan plan) {
+        return plan.toCSV();
+    }
+
+    @Override
+    protected String getHeader() {
+        return "PlanID,PatientID,DoctorID,Medication,Quantity,Frequency,Interval,NextRefill,RefillsRemaining,Status";
+    }
+
+    /**
+     * Retrieves all prescription plans.
+     *
+     * @return a list of {@link PrescriptionPlan} objects
+     */
+    public List<PrescriptionPlan> getPlans() {
+        return getAllData();
+    }
+
+    /**
+     * Adds a new plan and appends it to the file.
+     *
+     * @param plan the plan to add
+     */
+    public void addPlan(PrescriptionPlan plan) {
+        if (plan == null) {
+            throw new IllegalArgumentException("Prescription plan cannot be null.");
+        }
+        dataList.add(plan);
+        try {
+            appendData(environment.getPrescriptionPlanDataPath(), plan);
+        } catch (IOException e) {
+            System.err.println("Error appending prescription plan: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all plans to the file, e.g. after refills were issued or a plan was cancelled.
+     */
+    public void savePlans() {
+        try {
+            writeData(environment.getPrescriptionPlanDataPath());
+        } catch (IOException e) {
+            System.err.println("Error saving prescription plan data: " + e.getMessage());
+        }
+    }
+}
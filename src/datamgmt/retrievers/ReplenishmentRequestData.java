@@ -3,26 +3,50 @@ package datamgmt.retrievers;
 import utils.ValidationUtils;
 import utils.enums.RequestStatus;
 import utils.env;
+import utils.medicinemanagements.ReplenishmentOrder;
 import utils.medicinemanagements.ReplenishmentRequest;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 /**
  * Manages the retrieval, parsing, and management of replenishment request data
  * from the file specified in the {@link env}.
+ * Requests are indexed by ID, and partitioned by status, so lookups and status queries
+ * do not scan the full request history. Pending requests are also grouped by medicine
+ * so duplicate requests can be handled as one {@link ReplenishmentOrder}.
  */
 public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentRequest> {
+    private static final String ID_PREFIX = "R";
+    private static final int FIRST_ID_NUMBER = 1001;
+
     private final env environment;
+    private final Map<String, ReplenishmentRequest> requestsByID = new HashMap<>();
+    private final Map<String, Integer> positionsByID = new HashMap<>();
+    private final EnumMap<RequestStatus, Map<String, ReplenishmentRequest>> requestsByStatus = new EnumMap<>(RequestStatus.class);
+    private final Map<String, Map<String, ReplenishmentRequest>> pendingByMedicine = new LinkedHashMap<>();
+    private final Map<String, String> pendingMedicineByID = new HashMap<>();
+    private int nextIDNumber = FIRST_ID_NUMBER;
 
     /**
      * Initializes the replenishment request data handler with an environment configuration.
      */
     public ReplenishmentRequestData() {
         this.environment = new env();
+        for (RequestStatus status : RequestStatus.values()) {
+            requestsByStatus.put(status, new LinkedHashMap<>());
+        }
     }
 
     /**
      * Imports replenishment request data from the file path specified in the {@link env}.
+     * Rows saved before requests had IDs are given IDs, and the file is rewritten once so the IDs stay stable.
      */
     public void importData() {
         try {
@@ -30,6 +54,7 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
         } catch (IOException e) {
             System.err.println("Error reading replenishment request data: " + e.getMessage());
         }
+        rebuildIndexes();
     }
 
     /**
@@ -40,23 +65,40 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
         importData();
     }
 
+    @Override
+    public void clearData() {
+        super.clearData();
+        requestsByID.clear();
+        positionsByID.clear();
+        requestsByStatus.values().forEach(Map::clear);
+        pendingByMedicine.clear();
+        pendingMedicineByID.clear();
+        nextIDNumber = FIRST_ID_NUMBER;
+    }
+
     @Override
     protected ReplenishmentRequest parseLine(String line) {
         String[] data = line.split(",", -1); // Handle empty fields as well
-        if (data.length != 5) {
+        if (data.length != 5 && data.length != 6) {
             System.err.println("Invalid data format: " + line);
             return null;
         }
 
         try {
-            // Validate and parse each field
-            String medicineName = ValidationUtils.validateStringNotEmpty(data[0].trim(), "Medicine Name");
-            int requestedQuantity = Integer.parseInt(data[1].trim());
-            RequestStatus status = RequestStatus.valueOf(data[2].trim().toUpperCase());
-            String requestBy = ValidationUtils.validateStringNotEmpty(data[3].trim(), "Request By");
-            boolean isNewMedicine = Boolean.parseBoolean(data[4].trim());
-
-            return new ReplenishmentRequest(medicineName, requestedQuantity, requestBy, isNewMedicine, status);
+            // Rows without a leading request ID are from before IDs were introduced
+            int offset = data.length - 5;
+            String requestID = offset == 1 ? ValidationUtils.validateStringNotEmpty(data[0].trim(), "Request ID") : null;
+            String medicineName = ValidationUtils.validateStringNotEmpty(data[offset].trim(), "Medicine Name");
+            int requestedQuantity = Integer.parseInt(data[offset + 1].trim());
+            RequestStatus status = RequestStatus.valueOf(data[offset + 2].trim().toUpperCase());
+            String requestBy = ValidationUtils.validateStringNotEmpty(data[offset + 3].trim(), "Request By");
+            boolean isNewMedicine = Boolean.parseBoolean(data[offset + 4].trim());
+
+            ReplenishmentRequest request = new ReplenishmentRequest(medicineName, requestedQuantity, requestBy, isNewMedicine, status);
+            if (requestID != null) {
+                request.setRequestID(requestID);
+            }
+            return request;
         } catch (IllegalArgumentException e) {
             System.err.println("Error parsing replenishment request data: " + line + " - " + e.getMessage());
             return null;
@@ -66,6 +108,7 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
     @Override
     protected String formatItem(ReplenishmentRequest request) {
         return String.join(",",
+                request.getRequestID(),
                 request.getMedicineName(),
                 String.valueOf(request.getRequestedStock()),
                 request.getStatus().name(),
@@ -76,7 +119,7 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
 
     @Override
     protected String getHeader() {
-        return "MedicineName,RequestedQuantity,Status,RequestBy,IsNewMedicine";
+        return "RequestID,MedicineName,RequestedQuantity,Status,RequestBy,IsNewMedicine";
     }
 
     /**
@@ -89,7 +132,61 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
     }
 
     /**
-     * Adds a new replenishment request.
+     * Finds a replenishment request by its ID.
+     *
+     * @param requestID the request ID
+     * @return an optional containing the request if found, or empty otherwise
+     */
+    public Optional<ReplenishmentRequest> findRequestByID(String requestID) {
+        return Optional.ofNullable(requestsByID.get(requestID));
+    }
+
+    /**
+     * Retrieves the replenishment requests with the given status, in the order they entered that status.
+     *
+     * @param status the request status
+     * @return the matching requests
+     */
+    public List<ReplenishmentRequest> getRequestsByStatus(RequestStatus status) {
+        return new ArrayList<>(requestsByStatus.get(status).values());
+    }
+
+    /**
+     * Merges the pending requests into one order per medicine.
+     *
+     * @return the pending orders, in the order of each medicine's earliest pending request
+     */
+    public List<ReplenishmentOrder> getPendingOrders() {
+        List<ReplenishmentOrder> orders = new ArrayList<>(pendingByMedicine.size());
+        for (Map<String, ReplenishmentRequest> requests : pendingByMedicine.values()) {
+            orders.add(toOrder(requests));
+        }
+        return orders;
+    }
+
+    /**
+     * Finds the pending order for a medicine.
+     *
+     * @param medicineName the name of the medicine
+     * @return an optional containing the medicine's pending order, or empty if it has no pending requests
+     */
+    public Optional<ReplenishmentOrder> findPendingOrder(String medicineName) {
+        Map<String, ReplenishmentRequest> requests = pendingByMedicine.get(medicineName.toLowerCase());
+        return requests != null ? Optional.of(toOrder(requests)) : Optional.empty();
+    }
+
+    /**
+     * Checks whether a medicine has any pending request.
+     *
+     * @param medicineName the name of the medicine
+     * @return true if a request for the medicine is pending
+     */
+    public boolean hasPendingRequest(String medicineName) {
+        return pendingByMedicine.containsKey(medicineName.toLowerCase());
+    }
+
+    /**
+     * Adds a new replenishment request, assigning it an ID if it has none.
      *
      * @param request the {@link ReplenishmentRequest} object to add
      */
@@ -98,36 +195,130 @@ public class ReplenishmentRequestData extends BaseDataHandler<ReplenishmentReque
             throw new IllegalArgumentException("Replenishment request cannot be null.");
         }
 
-        if (!dataList.contains(request)) {
-            dataList.add(request);
-            try {
-                appendData(environment.getReplenishmentRequestDataPath(), request);
-            } catch (IOException e) {
-                System.err.println("Error appending replenishment request: " + e.getMessage());
-            }
-        } else {
-            System.err.println("Duplicate replenishment request detected: " + request.getMedicineName());
+        if (request.getRequestID() != null && requestsByID.containsKey(request.getRequestID())) {
+            System.err.println("Duplicate replenishment request detected: " + request.getRequestID());
+            return;
+        }
+        if (request.getRequestID() == null) {
+            request.setRequestID(generateNextRequestID());
+        }
+        dataList.add(request);
+        index(request, dataList.size() - 1);
+        try {
+            appendData(environment.getReplenishmentRequestDataPath(), request);
+        } catch (IOException e) {
+            System.err.println("Error appending replenishment request: " + e.getMessage());
         }
     }
 
     /**
-     * Updates an existing replenishment request in the file and memory.
+     * Updates an existing replenishment request, identified by its ID, in the file and memory.
      *
      * @param updatedRequest the updated {@link ReplenishmentRequest} object
      */
     public void updateRequest(ReplenishmentRequest updatedRequest) {
+        updateRequests(List.of(updatedRequest));
+    }
+
+    /**
+     * Updates several replenishment requests, identified by their IDs, and saves the file once.
+     * Requests that are not found are reported and skipped.
+     *
+     * @param updatedRequests the updated requests
+     */
+    public void updateRequests(Collection<ReplenishmentRequest> updatedRequests) {
+        boolean changed = false;
+        for (ReplenishmentRequest updatedRequest : updatedRequests) {
+            Integer position = positionsByID.get(updatedRequest.getRequestID());
+            if (position == null) {
+                System.err.println("Replenishment request not found for update: " + updatedRequest.getRequestID());
+                continue;
+            }
+            dataList.set(position, updatedRequest);
+            index(updatedRequest, position);
+            changed = true;
+        }
+        if (!changed) {
+            return;
+        }
+        try {
+            writeData(environment.getReplenishmentRequestDataPath());
+        } catch (IOException e) {
+            System.err.println("Error updating replenishment requests: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the next request ID, one above the highest ID in use.
+     *
+     * @return a new unique request ID
+     */
+    private String generateNextRequestID() {
+        return ID_PREFIX + nextIDNumber++;
+    }
+
+    /**
+     * Indexes every loaded request, assigning IDs to rows that have none and saving them if any were assigned.
+     */
+    private void rebuildIndexes() {
+        boolean assigned = false;
+        for (ReplenishmentRequest request : dataList) {
+            if (request.getRequestID() != null) {
+                reserveID(request.getRequestID());
+            }
+        }
         for (int i = 0; i < dataList.size(); i++) {
-            if (dataList.get(i).getMedicineName().equals(updatedRequest.getMedicineName()) &&
-                dataList.get(i).getRequestBy().equals(updatedRequest.getRequestBy())) {
-                dataList.set(i, updatedRequest);
-                try {
-                    writeData(environment.getReplenishmentRequestDataPath());
-                } catch (IOException e) {
-                    System.err.println("Error updating replenishment request: " + e.getMessage());
-                }
-                return;
+            ReplenishmentRequest request = dataList.get(i);
+            if (request.getRequestID() == null || requestsByID.containsKey(request.getRequestID())) {
+                request.setRequestID(generateNextRequestID());
+                assigned = true;
+            }
+            index(request, i);
+        }
+        if (assigned) {
+            try {
+                writeData(environment.getReplenishmentRequestDataPath());
+            } catch (IOException e) {
+                System.err.println("Error saving replenishment request IDs: " + e.getMessage());
+            }
+        }
+    }
+
+    private void reserveID(String requestID) {
+        if (requestID.startsWith(ID_PREFIX)) {
+            try {
+                nextIDNumber = Math.max(nextIDNumber, Integer.parseInt(requestID.substring(ID_PREFIX.length())) + 1);
+            } catch (NumberFormatException e) {
+                // IDs that do not follow the pattern cannot collide with generated ones
+            }
+        }
+    }
+
+    private void index(ReplenishmentRequest request, int position) {
+        ReplenishmentRequest previous = requestsByID.put(request.getRequestID(), request);
+        positionsByID.put(request.getRequestID(), position);
+        if (previous != null) {
+            requestsByStatus.values().forEach(partition -> partition.remove(request.getRequestID()));
+        }
+        requestsByStatus.get(request.getStatus()).put(request.getRequestID(), request);
+
+        String previousMedicine = pendingMedicineByID.remove(request.getRequestID());
+        if (previousMedicine != null) {
+            Map<String, ReplenishmentRequest> pending = pendingByMedicine.get(previousMedicine);
+            pending.remove(request.getRequestID());
+            if (pending.isEmpty()) {
+                pendingByMedicine.remove(previousMedicine);
             }
         }
-        System.err.println("Replenishment request not found for update: " + updatedRequest.getMedicineName());
+        if (request.getStatus() == RequestStatus.PENDING) {
+            String medicine = request.getMedicineName().toLowerCase();
+            pendingByMedicine.computeIfAbsent(medicine, m -> new LinkedHashMap<>()).put(request.getRequestID(), request);
+            pendingMedicineByID.put(request.getRequestID(), medicine);
+        }
+    }
+
+    private static ReplenishmentOrder toOrder(Map<String, ReplenishmentRequest> requests) {
+        List<ReplenishmentRequest> list = new ArrayList<>(requests.values());
+        return new ReplenishmentOrder(list.get(0).getMedicineName(), list);
     }
 }
@@ -0,0 +1,118 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.resources.ResourceBooking;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manages the retrieval, parsing, and persistence of resource bookings
+ * from the file specified in the {@link env}.
+ */
+public class ResourceBookingData extends BaseDataHandler<ResourceBooking> {
+    private final env environment;
+
+    /**
+     * Initializes the resource booking data handler with an environment configuration.
+     */
+    public ResourceBookingData() {
+        this.environment = new env();
+    }
+
+    /**
+     * Imports booking data from the file path specified in the {@link env}.
+     * A missing file simply means nothing has been booked yet.
+     */
+    public void importData() {
+        if (!new File(environment.getResourceBookingDataPath()).exists()) {
+            return;
+        }
+        try {
+            loadData(environment.getResourceBookingDataPath());
+        } catch (IOException e) {
+            System.err.println("Error reading resource booking data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads all booking data by clearing existing data and re-importing it.
+     */
+    public void reloadData() {
+        clearData();
+        importData();
+    }
+
+    @Override
+    protected ResourceBooking parseLine(String line) {
+        try {
+            return ResourceBooking.fromCSV(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing resource booking data: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected String formatItem(ResourceBooking booking) {
+        return booking.toCSV();
+    }
+
+    @Override
+    protected String getHeader() {
+        return "BookingID,ResourceID,AppointmentID,Date,StartTime,EndTime";
+    }
+
+    /**
+     * Retrieves all bookings.
+     *
+     * @return a list of {@link ResourceBooking} objects
+     */
+    public List<ResourceBooking> getBookings() {
+        return getAllData();
+    }
+
+    /**
+     * Adds new bookings and appends them to the file.
+     *
+     * @param bookings the bookings to add
+     */
+    public void addBookings(Collection<ResourceBooking> bookings) {
+        try {
+            for (ResourceBooking booking : bookings) {
+                dataList.add(booking);
+                appendData(environment.getResourceBookingDataPath(), booking);
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending resource bookings: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the given bookings from memory. Call {@link #saveBookings()} to persist the removal.
+     *
+     * @param bookings the bookings to remove
+     */
+    public void removeBookings(Collection<ResourceBooking> bookings) {
+        Set<String> bookingIDs = new HashSet<>();
+        for (ResourceBooking booking : bookings) {
+            bookingIDs.add(booking.getBookingID());
+        }
+        dataList.removeIf(booking -> bookingIDs.contains(booking.getBookingID()));
+    }
+
+    /**
+     * Saves all bookings to the file.
+     */
+    public void saveBookings() {
+        try {
+            writeData(environment.getResourceBookingDataPath());
+        } catch (IOException e) {
+            System.err.println("Error saving resource booking data: " + e.getMessage());
+        }
+    }
+}
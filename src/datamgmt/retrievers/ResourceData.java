@@ -0,0 +1,75 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.resources.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Manages the retrieval and parsing of room and equipment resources
+ * from the file specified in the {@link env}.
+ */
+public class ResourceData extends BaseDataHandler<Resource> {
+    private final env environment;
+
+    /**
+     * Initializes the resource data handler with an environment configuration.
+     */
+    public ResourceData() {
+        this.environment = new env();
+    }
+
+    /**
+     * Imports resource data from the file path specified in the {@link env}.
+     * A missing file means no resources are managed and appointments need none.
+     */
+    public void importData() {
+        if (!new File(environment.getResourceDataPath()).exists()) {
+            return;
+        }
+        try {
+            loadData(environment.getResourceDataPath());
+        } catch (IOException e) {
+            System.err.println("Error reading resource data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads all resource data by clearing existing data and re-importing it.
+     */
+    public void reloadData() {
+        clearData();
+        importData();
+    }
+
+    @Override
+    protected Resource parseLine(String line) {
+        try {
+            return Resource.fromCSV(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing resource data: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected String formatItem(Resource resource) {
+        return resource.toCSV();
+    }
+
+    @Override
+    protected String getHeader() {
+        return "ResourceID,Name,Type,Capacity";
+    }
+
+    /**
+     * Retrieves all resources.
+     *
+     * @return a list of {@link Resource} objects
+     */
+    public List<Resource> getResources() {
+        return getAllData();
+    }
+}
@@ -0,0 +1,167 @@
+package datamgmt.retrievers;
+
+import utils.env;
+import utils.medicinemanagements.StockMovement;
+import utils.medicinemanagements.StockSnapshot;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * File access for the append-only stock movement ledger and its snapshots.
+ * Snapshots record the byte offset in the ledger where replay has to start, so reading the stock
+ * at a point in time only reads the ledger from the nearest earlier snapshot onwards.
+ */
+public class StockLedgerData {
+    private static final String LEDGER_HEADER = "Timestamp,Medicine,Type,Quantity,Actor,Reference";
+    private static final String SNAPSHOT_HEADER = "Timestamp,LedgerOffset,Medicine,Stock";
+
+    private final String ledgerPath;
+    private final String snapshotPath;
+
+    /**
+     * Initializes the handler with the file paths from the environment, creating empty files if needed.
+     */
+    public StockLedgerData() {
+        env environment = new env();
+        this.ledgerPath = environment.getStockLedgerPath();
+        this.snapshotPath = environment.getStockSnapshotPath();
+        createIfMissing(ledgerPath, LEDGER_HEADER);
+        createIfMissing(snapshotPath, SNAPSHOT_HEADER);
+    }
+
+    /**
+     * Appends movements to the end of the ledger.
+     *
+     * @param movements the movements, in timestamp order
+     * @return the ledger length after the append
+     */
+    public long appendMovements(List<StockMovement> movements) {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(ledgerPath, true), StandardCharsets.UTF_8))) {
+            for (StockMovement movement : movements) {
+                writer.write(movement.toCSV());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending stock movements: " + e.getMessage());
+        }
+        return getLedgerLength();
+    }
+
+    /**
+     * Returns the current length of the ledger in bytes.
+     *
+     * @return the ledger length
+     */
+    public long getLedgerLength() {
+        return new File(ledgerPath).length();
+    }
+
+    /**
+     * Reads the ledger from a byte offset up to and including a moment.
+     *
+     * @param offset the byte offset to start at, which must be the start of a row
+     * @param until  the last timestamp to include, or null to read to the end
+     * @return the movements read, in ledger order
+     */
+    public List<StockMovement> readMovementsFrom(long offset, LocalDateTime until) {
+        List<StockMovement> movements = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Paths.get(ledgerPath), StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel.position(offset), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("Timestamp,")) {
+                    continue;
+                }
+                try {
+                    StockMovement movement = StockMovement.fromCSV(line);
+                    if (until != null && movement.getTimestamp().isAfter(until)) {
+                        break; // The ledger is in timestamp order
+                    }
+                    movements.add(movement);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping invalid stock movement: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading stock movements: " + e.getMessage());
+        }
+        return movements;
+    }
+
+    /**
+     * Loads all snapshots, ordered by timestamp.
+     *
+     * @return the snapshots by timestamp
+     */
+    public TreeMap<LocalDateTime, StockSnapshot> loadSnapshots() {
+        Map<LocalDateTime, Long> offsets = new HashMap<>();
+        Map<LocalDateTime, Map<String, Integer>> stocks = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(snapshotPath, StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // Skip the header line
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", -1);
+                if (fields.length != 4) {
+                    continue;
+                }
+                try {
+                    LocalDateTime timestamp = LocalDateTime.parse(fields[0].trim());
+                    offsets.put(timestamp, Long.parseLong(fields[1].trim()));
+                    stocks.computeIfAbsent(timestamp, t -> new HashMap<>())
+                            .put(fields[2].trim(), Integer.parseInt(fields[3].trim()));
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping invalid stock snapshot row: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading stock snapshots: " + e.getMessage());
+        }
+        TreeMap<LocalDateTime, StockSnapshot> snapshots = new TreeMap<>();
+        for (Map.Entry<LocalDateTime, Long> entry : offsets.entrySet()) {
+            snapshots.put(entry.getKey(), new StockSnapshot(entry.getKey(), entry.getValue(), stocks.get(entry.getKey())));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Appends a snapshot, one row per medicine.
+     *
+     * @param snapshot the snapshot to append
+     */
+    public void appendSnapshot(StockSnapshot snapshot) {
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(snapshotPath, true), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Integer> entry : snapshot.getStock().entrySet()) {
+                writer.write(String.join(",", snapshot.getTimestamp().toString(),
+                        String.valueOf(snapshot.getLedgerOffset()), entry.getKey(), String.valueOf(entry.getValue())));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending stock snapshot: " + e.getMessage());
+        }
+    }
+
+    private static void createIfMissing(String path, String header) {
+        File file = new File(path);
+        if (file.exists()) {
+            return;
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(header);
+            writer.newLine();
+        } catch (IOException e) {
+            System.err.println("Error creating " + path + ": " + e.getMessage());
+        }
+    }
+}
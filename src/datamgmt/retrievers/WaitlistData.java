@@ -0,0 +1,116 @@
+package datamgmt.retrievers;
+
+import utils.appointments.waitlist.WaitlistEntry;
+import utils.env;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manages the retrieval, parsing, and persistence of appointment waitlist entries
+ * from the file specified in the {@link env}.
+ */
+public class WaitlistData extends BaseDataHandler<WaitlistEntry> {
+    private final env environment;
+
+    /**
+     * Initializes the waitlist data handler with an environment configuration.
+     */
+    public WaitlistData() {
+        this.environment = new env();
+    }
+
+    /**
+     * Imports waitlist data from the file path specified in the {@link env}.
+     * A missing file simply means nobody is waiting yet.
+     */
+    public void importData() {
+        if (!new File(environment.getWaitlistDataPath()).exists()) {
+            return;
+        }
+        try {
+            loadData(environment.getWaitlistDataPath());
+        } catch (IOException e) {
+            System.err.println("Error reading waitlist data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads all waitlist data by clearing existing data and re-importing it.
+     */
+    public void reloadData() {
+        clearData();
+        importData();
+    }
+
+    @Override
+    protected WaitlistEntry parseLine(String line) {
+        try {
+            return WaitlistEntry.fromCSV(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing waitlist data: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected String formatItem(WaitlistEntry entry) {
+        return entry.toCSV();
+    }
+
+    @Override
+    protected String getHeader() {
+        return "EntryID,PatientID,DoctorID,Date,WindowStart,WindowEnd,CreatedAt";
+    }
+
+    /**
+     * Retrieves all waitlist entries.
+     *
+     * @return a list of {@link WaitlistEntry} objects
+     */
+    public List<WaitlistEntry> getEntries() {
+        return getAllData();
+    }
+
+    /**
+     * Adds a new waitlist entry and appends it to the file.
+     *
+     * @param entry the entry to add
+     */
+    public void addEntry(WaitlistEntry entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Waitlist entry cannot be null.");
+        }
+        dataList.add(entry);
+        try {
+            appendData(environment.getWaitlistDataPath(), entry);
+        } catch (IOException e) {
+            System.err.println("Error appending waitlist entry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the given entries and rewrites the file once.
+     *
+     * @param entries the entries to remove
+     */
+    public void removeEntries(Collection<WaitlistEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Set<String> entryIDs = new HashSet<>();
+        for (WaitlistEntry entry : entries) {
+            entryIDs.add(entry.getEntryID());
+        }
+        dataList.removeIf(entry -> entryIDs.contains(entry.getEntryID()));
+        try {
+            writeData(environment.getWaitlistDataPath());
+        } catch (IOException e) {
+            System.err.println("Error updating waitlist data: " + e.getMessage());
+        }
+    }
+}
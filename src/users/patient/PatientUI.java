@@ -4,11 +4,15 @@ import datamgmt.retrievers.AppointmentData;
 import datamgmt.retrievers.AppointmentSlotData;
 import datamgmt.retrievers.MedicalRecordData;
 import datamgmt.retrievers.StaffData;
+import users.Users;
 import users.ui.BaseUI;
 import utils.ValidationUtils;
 import utils.appointments.*;
 import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.appointmentslots.WeeklyAvailability;
+import utils.appointments.recurrence.AppointmentSeries;
 import utils.enums.AppointmentStatus;
+import utils.enums.Roles;
 import utils.enums.WorkingDay;
 import utils.medicalrecords.MedicalRecord;
 import utils.medicalrecords.OutcomeRecord;
@@ -59,11 +63,12 @@ public class PatientUI extends BaseUI {
             displayMenuOption(5, "Cancel an Appointment");
             displayMenuOption(6, "View Scheduled Appointments");
             displayMenuOption(7, "View Past Appointment Outcome Records");
-            displayMenuOption(8, "Logout");
+            displayMenuOption(8, "Join a Doctor's Waitlist");
+            displayMenuOption(9, "Logout");
 
             int choice = getMenuChoice();
 
-            if (!isValidChoice(choice, 1, 8)) {
+            if (!isValidChoice(choice, 1, 9)) {
                 displayInvalidInputMessage();
                 pauseForUser();
                 continue;
@@ -92,6 +97,9 @@ public class PatientUI extends BaseUI {
                     viewPastAppointments();
                     break;
                 case 8:
+                    joinWaitlist(scanner);
+                    break;
+                case 9:
                     System.out.println("Logging out...");
                     pauseForUser();
                     return;
@@ -155,7 +163,7 @@ public class PatientUI extends BaseUI {
             return;
         }
     
-        System.out.printf("%-15s %-30s %-15s %-15s %-30s%n", "Doctor ID", "Doctor Name", "Start Time", "End Time", "Working Days");
+        System.out.printf("%-15s %-30s %-15s %-15s %-30s %-20s%n", "Doctor ID", "Doctor Name", "Start Time", "End Time", "Working Days", "Breaks");
         System.out.println("-----------------------------------------------------------------------------------------");
     
         for (AppointmentSlot slot : slots) {
@@ -163,14 +171,15 @@ public class PatientUI extends BaseUI {
                     ? staffData.findUserById(slot.getDoctorID()).getName()
                     : "Unknown";
     
-            System.out.printf("%-15s %-30s %-15s %-15s %-30s%n",
+            System.out.printf("%-15s %-30s %-15s %-15s %-30s %-20s%n",
                     slot.getDoctorID(),
                     doctorName,
                     slot.getStartTime(),
                     slot.getEndTime(),
                     slot.getWorkingDays().stream()
                             .map(WorkingDay::name)
-                            .collect(Collectors.joining(", ")));
+                            .collect(Collectors.joining(", ")),
+                    slot.getBreaks().isEmpty() ? "-" : slot.formatBreaks(""));
         }
     }
     
@@ -184,21 +193,23 @@ public class PatientUI extends BaseUI {
         System.out.println("\n--- Schedule a New Appointment ---");
     
         // Prompt the user for the doctor ID
-        System.out.print("Enter Doctor ID (e.g., D001) or leave blank to cancel: ");
+        System.out.print("Enter Doctor ID (e.g., D001), ANY for any available doctor, or leave blank to cancel: ");
         String doctorID = scanner.nextLine().trim();
         if (doctorID.isEmpty()) {
             System.out.println("Operation cancelled.");
             return;
         }
+        if (doctorID.equalsIgnoreCase("ANY")) {
+            scheduleWithAnyAvailableDoctor(scanner);
+            return;
+        }
     
         // Load the doctor's slots
         AppointmentSlotData slotData = new AppointmentSlotData();
         slotData.reloadData();
     
-        List<AppointmentSlot> doctorSlots = slotData.getAllSlots()
-                .stream()
-                .filter(slot -> slot.getDoctorID().equalsIgnoreCase(doctorID))
-                .collect(Collectors.toList());
+        List<AppointmentSlot> doctorSlots = slotData.getSlotsForDoctor(doctorID);
+        WeeklyAvailability availability = slotData.getAvailability(doctorID);
     
         if (doctorSlots.isEmpty()) {
             System.out.println("No availability found for the specified doctor.");
@@ -207,10 +218,11 @@ public class PatientUI extends BaseUI {
     
         System.out.println("\nDoctor's Availability:");
         for (AppointmentSlot slot : doctorSlots) {
-            System.out.printf("Working Days: %s, Time: %s to %s%n",
+            System.out.printf("Working Days: %s, Time: %s to %s%s%n",
                     slot.getWorkingDays(),
                     slot.getStartTime(),
-                    slot.getEndTime());
+                    slot.getEndTime(),
+                    slot.formatBreaks(", Breaks: "));
         }
     
         // Get validated date and time
@@ -233,7 +245,7 @@ public class PatientUI extends BaseUI {
                 LocalDate date = LocalDate.parse(dateInput, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
                 LocalTime time = LocalTime.parse(timeInput, DateTimeFormatter.ofPattern("HH:mm"));
     
-                if (!ValidationUtils.isValidAppointmentTime(doctorSlots, date, time) && !ValidationUtils.isFutureDate(dateInput, timeInput, "dd/MM/yyyy", "HH:mm")) {
+                if (!ValidationUtils.isValidAppointmentTime(availability, date, time)) {
                     System.out.println("The selected time is not valid. Please choose another time.");
                     continue;
                 }
@@ -249,14 +261,92 @@ public class PatientUI extends BaseUI {
     }
     
 
+    /**
+     * Books the requested date and time with whichever available doctor currently has the lightest load.
+     */
+    private void scheduleWithAnyAvailableDoctor(Scanner scanner) {
+        AppointmentSlotData slotData = new AppointmentSlotData();
+        slotData.reloadData();
+        List<AppointmentSlot> slots = slotData.getAllSlots();
+
+        System.out.print("Enter Appointment Date (dd/MM/yyyy) or leave blank to cancel: ");
+        String dateInput = scanner.nextLine().trim();
+        if (dateInput.isEmpty()) {
+            System.out.println("Operation cancelled.");
+            return;
+        }
+        System.out.print("Enter Appointment Time (HH:mm) or leave blank to cancel: ");
+        String timeInput = scanner.nextLine().trim();
+        if (timeInput.isEmpty()) {
+            System.out.println("Operation cancelled.");
+            return;
+        }
+
+        try {
+            LocalDate.parse(dateInput, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            LocalTime.parse(timeInput, DateTimeFormatter.ofPattern("HH:mm"));
+        } catch (Exception e) {
+            System.out.println("Invalid input. Operation cancelled.");
+            return;
+        }
+
+        appointmentCRUD.scheduleWithAnyAvailableDoctor(patient.getUserID(), dateInput, timeInput, slots)
+                .ifPresent(assignedDoctorID -> {
+                    String doctorName = staffData.findUserById(assignedDoctorID) != null
+                            ? staffData.findUserById(assignedDoctorID).getName()
+                            : assignedDoctorID;
+                    System.out.println("Your appointment was assigned to " + doctorName + ".");
+                });
+    }
+
+    /**
+     * Allows the patient to wait for a slot with a fully booked doctor.
+     * The patient is booked automatically when a matching appointment is cancelled.
+     */
+    private void joinWaitlist(Scanner scanner) {
+        displayMenuHeader("JOIN A DOCTOR'S WAITLIST");
+
+        System.out.print("Enter Doctor ID (e.g., D001) or leave blank to cancel: ");
+        String doctorID = scanner.nextLine().trim();
+        if (doctorID.isEmpty()) {
+            System.out.println("Operation cancelled.");
+            return;
+        }
+        Users doctor = staffData.findUserById(doctorID);
+        if (doctor == null || doctor.getRole() != Roles.DOCTOR) {
+            System.out.println("Doctor not found.");
+            return;
+        }
+        doctorID = doctor.getUserID();
+
+        try {
+            System.out.print("Enter Date (dd/MM/yyyy): ");
+            LocalDate date = LocalDate.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            System.out.print("Enter earliest acceptable time (HH:mm): ");
+            LocalTime windowStart = LocalTime.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("HH:mm"));
+            System.out.print("Enter latest acceptable time (HH:mm): ");
+            LocalTime windowEnd = LocalTime.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("HH:mm"));
+
+            if (date.isBefore(LocalDate.now())) {
+                System.out.println("The selected date has already passed.");
+                return;
+            }
+            if (windowStart.isAfter(windowEnd)) {
+                System.out.println("The earliest time cannot be after the latest time.");
+                return;
+            }
+
+            appointmentCRUD.joinWaitlist(patient.getUserID(), doctorID, date, windowStart, windowEnd);
+        } catch (Exception e) {
+            System.out.println("Invalid input. Operation cancelled.");
+        }
+    }
+
     private void rescheduleAppointment(Scanner scanner) {
         displayMenuHeader("RESCHEDULE AN APPOINTMENT");
     
         // Retrieve appointments eligible for rescheduling
-        List<Appointment> appointments = appointmentCRUD.getAppointments(patient.getUserID(), null, null)
-                .stream()
-                .filter(appt -> appt.getStatus() == AppointmentStatus.PENDING || appt.getStatus() == AppointmentStatus.ACCEPTED)
-                .collect(Collectors.toList());
+        List<Appointment> appointments = getOpenAppointments();
     
         if (appointments.isEmpty()) {
             System.out.println("No appointments to reschedule.");
@@ -301,12 +391,9 @@ public class PatientUI extends BaseUI {
         AppointmentSlotData slotData = new AppointmentSlotData();
         slotData.reloadData();
     
-        List<AppointmentSlot> doctorSlots = slotData.getAllSlots()
-                .stream()
-                .filter(slot -> slot.getDoctorID().equals(selectedAppointment.getDoctorID()))
-                .collect(Collectors.toList());
+        WeeklyAvailability availability = slotData.getAvailability(selectedAppointment.getDoctorID());
     
-        if (doctorSlots.isEmpty()) {
+        if (availability.isEmpty()) {
             System.out.println("No available slots for the selected doctor.");
             return;
         }
@@ -331,18 +418,17 @@ public class PatientUI extends BaseUI {
                 LocalDate newDate = LocalDate.parse(newDateInput, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
                 LocalTime newTime = LocalTime.parse(newTimeInput, DateTimeFormatter.ofPattern("HH:mm"));
     
-                if (!ValidationUtils.isValidAppointmentTime(doctorSlots, newDate, newTime)) {
+                if (!ValidationUtils.isValidAppointmentTime(availability, newDate, newTime)) {
                     System.out.println("The selected time is not valid. Please choose another time.");
                     continue;
                 }
     
-                // Update the appointment and persist changes
-                selectedAppointment.setDate(newDateInput);
-                selectedAppointment.setTime(newTimeInput);
-                selectedAppointment.updateStatus(AppointmentStatus.PENDING);
-    
-                appointmentCRUD.updateAppointment(selectedAppointment);
-                System.out.println("Appointment rescheduled successfully.");
+                // Move the appointment, or the recurring occurrence, and persist changes
+                if (!appointmentCRUD.rescheduleAppointment(selectedAppointment.getAppointmentID(),
+                        newDateInput, newTimeInput, AppointmentStatus.PENDING)) {
+                    System.out.println("Please choose another time.");
+                    continue;
+                }
                 break;
             } catch (Exception e) {
                 System.out.println("Invalid input. Please try again.");
@@ -354,10 +440,7 @@ public class PatientUI extends BaseUI {
         displayMenuHeader("CANCEL AN APPOINTMENT");
     
         // Retrieve appointments with PENDING or ACCEPTED status
-        List<Appointment> appointments = appointmentCRUD.getAppointments(patient.getUserID(), null, null)
-                .stream()
-                .filter(appt -> appt.getStatus() == AppointmentStatus.PENDING || appt.getStatus() == AppointmentStatus.ACCEPTED)
-                .collect(Collectors.toList());
+        List<Appointment> appointments = getOpenAppointments();
     
         if (appointments.isEmpty()) {
             System.out.println("No pending or confirmed appointments to cancel.");
@@ -439,13 +522,29 @@ public class PatientUI extends BaseUI {
         displayMenuHeader("VIEW SCHEDULED APPOINTMENTS");
     
         // Retrieve appointments with status PENDING or CONFIRMED
-        List<Appointment> appointments = appointmentCRUD.getAppointments(patient.getUserID(), null, null)
-                .stream()
-                .filter(appt -> appt.getStatus() == AppointmentStatus.PENDING || appt.getStatus() == AppointmentStatus.ACCEPTED)
-                .collect(Collectors.toList());
+        List<Appointment> appointments = getOpenAppointments();
     
         // Use the new method to display appointments
         displayAppointments(appointments);
+
+        List<AppointmentSeries> series = appointmentCRUD.getSeriesForPatient(patient.getUserID()).stream()
+                .filter(AppointmentSeries::isOpen)
+                .collect(Collectors.toList());
+        if (!series.isEmpty()) {
+            System.out.println("\nRecurring Appointments:");
+            series.forEach(System.out::println);
+        }
+    }
+
+    /**
+     * Returns the patient's open appointments from today onwards, including every remaining
+     * occurrence of their recurring series.
+     */
+    private List<Appointment> getOpenAppointments() {
+        return appointmentCRUD.getAppointments(patient.getUserID(), null, null, LocalDate.now(), null)
+                .stream()
+                .filter(appt -> appt.getStatus() == AppointmentStatus.PENDING || appt.getStatus() == AppointmentStatus.ACCEPTED)
+                .collect(Collectors.toList());
     }
     
     
@@ -504,7 +603,7 @@ public class PatientUI extends BaseUI {
                     doctorName,
                     appointment.getDate(),
                     appointment.getTime(),
-                    appointment.getStatus(),
+                    appointment.isPrescriptionRefill() ? "REFILL" : appointment.getStatus(),
                     consultationNotes,
                     prescriptions
             );
@@ -1,11 +1,14 @@
 package users.staff;
 
+import datamgmt.retrievers.AppointmentData;
 import datamgmt.retrievers.AppointmentSlotData;
 import datamgmt.retrievers.StaffData;
 import users.Users;
 import users.usermgmt.PasswordHasher;
 import utils.env;
 import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.roster.DoctorConstraints;
+import utils.appointments.roster.RosterOptimizer;
 import utils.enums.Gender;
 import utils.enums.Roles;
 import utils.enums.WorkingDay;
@@ -13,6 +16,7 @@ import utils.enums.WorkingDay;
 import java.io.IOException;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +24,8 @@ import java.util.stream.Collectors;
  */
 public class StaffCRUD {
 
+    private static final int NEW_DOCTOR_ITERATIONS = 2000;
+
     private final StaffData data;
 
     /**
@@ -87,36 +93,63 @@ public class StaffCRUD {
     }
 
     /**
-     * Creates a default appointment time slot for doctors and appends it to the CSV.
+     * Creates the initial appointment time slots for a new doctor and appends them to the CSV.
+     * The doctor's shifts are placed where the existing roster covers historical demand worst,
+     * falling back to Monday to Friday, 09:00 to 17:00 if no roster can be generated.
      *
      * @param doctorID the ID of the doctor
      */
     private void createDefaultDoctorTimeSlot(String doctorID) {
         try {
             env environment = new env();
-            // Default working days and times for the doctor
-            List<WorkingDay> defaultWorkingDays = List.of(
-                    WorkingDay.MONDAY, WorkingDay.TUESDAY, WorkingDay.WEDNESDAY,
-                    WorkingDay.THURSDAY, WorkingDay.FRIDAY);
+            AppointmentSlotData slotData = new AppointmentSlotData();
+            slotData.importData(); // Ensure the environment and file path are loaded
 
-            LocalTime defaultStartTime = LocalTime.of(9, 0); // 9:00 AM
-            LocalTime defaultEndTime = LocalTime.of(17, 0);  // 5:00 PM
+            List<AppointmentSlot> slots = generateRosterSlots(doctorID, slotData);
+            if (slots.isEmpty()) {
+                // Default working days and times for the doctor
+                List<WorkingDay> defaultWorkingDays = List.of(
+                        WorkingDay.MONDAY, WorkingDay.TUESDAY, WorkingDay.WEDNESDAY,
+                        WorkingDay.THURSDAY, WorkingDay.FRIDAY);
 
-            // Create the default appointment slot
-            AppointmentSlot defaultSlot = new AppointmentSlot(doctorID, defaultStartTime, defaultEndTime, defaultWorkingDays);
+                LocalTime defaultStartTime = LocalTime.of(9, 0); // 9:00 AM
+                LocalTime defaultEndTime = LocalTime.of(17, 0);  // 5:00 PM
 
-            // Save the default slot to the CSV using appendData
-            AppointmentSlotData slotData = new AppointmentSlotData();
-            slotData.importData(); // Ensure the environment and file path are loaded
-            slotData.appendData(environment.getAppointmentSlotDataPath(), defaultSlot);
+                slots = List.of(new AppointmentSlot(doctorID, defaultStartTime, defaultEndTime, defaultWorkingDays));
+            }
+
+            // Save the slots to the CSV using appendData
+            for (AppointmentSlot slot : slots) {
+                slotData.appendData(environment.getAppointmentSlotDataPath(), slot);
+            }
 
-            System.out.println("Default appointment slot created and saved for doctor: " + doctorID);
+            System.out.println("Appointment slots created and saved for doctor: " + doctorID);
+            slots.forEach(slot -> System.out.println("  " + slot.displayData()));
         } catch (Exception e) {
             System.err.println("Error creating default appointment slot for doctor: " + e.getMessage());
         }
     }
 
-
+    /**
+     * Places a new doctor's shifts against historical demand, keeping every other doctor's roster fixed.
+     *
+     * @param doctorID the ID of the new doctor
+     * @param slotData the current appointment slots
+     * @return the generated slots, or an empty list if the roster could not be generated
+     */
+    private List<AppointmentSlot> generateRosterSlots(String doctorID, AppointmentSlotData slotData) {
+        try {
+            AppointmentData appointmentData = new AppointmentData();
+            appointmentData.importData();
+            RosterOptimizer optimizer = RosterOptimizer.fromHistory(appointmentData.getAppointments(), slotData.getAllSlots());
+            optimizer.addDoctor(DoctorConstraints.defaults(doctorID), Map.of());
+            optimizer.optimize(List.of(doctorID), NEW_DOCTOR_ITERATIONS);
+            return optimizer.toSlots(doctorID);
+        } catch (RuntimeException e) {
+            System.err.println("Could not generate a roster for doctor " + doctorID + ": " + e.getMessage());
+            return List.of();
+        }
+    }
 
     /**
      * Searches and displays staff members filtered by criteria.
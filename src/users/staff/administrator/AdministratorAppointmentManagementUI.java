@@ -2,17 +2,34 @@ package users.staff.administrator;
 
 import utils.appointments.AppointmentCRUD;
 import datamgmt.retrievers.AppointmentData;
+import datamgmt.retrievers.AppointmentSlotData;
 import datamgmt.retrievers.PatientData;
 import datamgmt.retrievers.StaffData;
 import utils.enums.AppointmentStatus;
+import utils.enums.RevalidationAction;
+import utils.enums.WorkingDay;
 import utils.appointments.Appointment;
+import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.appointmentslots.TimeWindow;
+import utils.appointments.appointmentslots.WeeklyAvailability;
+import utils.appointments.roster.RosterOptimizer;
 import utils.medicalrecords.OutcomeRecord;
+import utils.resources.Resource;
+import utils.resources.ResourceBooking;
+import utils.resources.ResourceScheduler;
 import users.patient.Patient;
 import users.ui.BaseUI;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -21,6 +38,8 @@ import java.util.Scanner;
  */
 public class AdministratorAppointmentManagementUI extends BaseUI {
 
+    private static final int ROSTER_ITERATIONS = 20000;
+
     private final AppointmentCRUD appointmentCRUD;
     private Scanner scanner;
     /**
@@ -39,11 +58,16 @@ public class AdministratorAppointmentManagementUI extends BaseUI {
             displayMenuOption(1, "View All Appointments");
             displayMenuOption(2, "Search Appointments");
             displayMenuOption(3, "Create and Send Receipt for a Completed Appointment");
-            displayMenuOption(4, "Go Back to Main Menu");
+            displayMenuOption(4, "Update Doctor Working Hours");
+            displayMenuOption(5, "View Room and Equipment Bookings");
+            displayMenuOption(6, "Optimise Doctor Roster");
+            displayMenuOption(7, "Cancel a Doctor's Appointments in Bulk");
+            displayMenuOption(8, "Move a Doctor's Appointments in Bulk");
+            displayMenuOption(9, "Go Back to Main Menu");
     
             int choice = getMenuChoice();
     
-            if (!isValidChoice(choice, 1, 4)) {
+            if (!isValidChoice(choice, 1, 9)) {
                 displayInvalidInputMessage();
                 pauseForUser(this.scanner);
                 continue;
@@ -60,6 +84,21 @@ public class AdministratorAppointmentManagementUI extends BaseUI {
                     createAndSendReceipt(scanner);
                     break;
                 case 4:
+                    updateDoctorWorkingHours(scanner);
+                    break;
+                case 5:
+                    viewResourceBookings(scanner);
+                    break;
+                case 6:
+                    optimiseDoctorRoster(scanner);
+                    break;
+                case 7:
+                    bulkCancelAppointments(scanner);
+                    break;
+                case 8:
+                    bulkMoveAppointments(scanner);
+                    break;
+                case 9:
                     System.out.println("Returning to the main menu...");
                     return;
             }
@@ -73,7 +112,7 @@ public class AdministratorAppointmentManagementUI extends BaseUI {
      */
     private void viewAllAppointments() {
         displayMenuHeader("ALL APPOINTMENTS");
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, null, null);
+        List<Appointment> appointments = appointmentCRUD.getAppointments(null, null, null, LocalDate.MIN, null);
 
         if (appointments.isEmpty()) {
             System.out.println("No appointments found.");
@@ -100,7 +139,7 @@ public class AdministratorAppointmentManagementUI extends BaseUI {
         String statusInput = scanner.nextLine().trim();
         AppointmentStatus status = statusInput.isEmpty() ? null : AppointmentStatus.valueOf(statusInput.toUpperCase());
 
-        List<Appointment> appointments = appointmentCRUD.getAppointments(patientID, doctorID, status);
+        List<Appointment> appointments = appointmentCRUD.getAppointments(patientID, doctorID, status, LocalDate.MIN, null);
 
         if (appointments.isEmpty()) {
             System.out.println("No appointments found matching the criteria.");
@@ -142,6 +181,217 @@ public class AdministratorAppointmentManagementUI extends BaseUI {
         }
     }
 
+    /**
+     * Replaces a doctor's working hours and re-validates the doctor's future appointments against them.
+     */
+    private void updateDoctorWorkingHours(Scanner scanner) {
+        displayMenuHeader("UPDATE DOCTOR WORKING HOURS");
+
+        try {
+            System.out.print("Enter Doctor ID: ");
+            String doctorID = scanner.nextLine().trim().toUpperCase();
+
+            AppointmentSlotData slotData = new AppointmentSlotData();
+            slotData.importData();
+            List<AppointmentSlot> currentSlots = slotData.getSlotsForDoctor(doctorID);
+            if (currentSlots.isEmpty()) {
+                System.out.println("No working hours found for doctor " + doctorID + ".");
+                return;
+            }
+            System.out.println("Current working hours:");
+            currentSlots.forEach(slot -> System.out.println("  " + slot.displayData()));
+
+            // Each window covers one set of days, so split shifts and different weekend hours are separate windows
+            List<AppointmentSlot> newSlots = new ArrayList<>();
+            do {
+                System.out.print("Enter Start Time (HH:mm): ");
+                LocalTime startTime = LocalTime.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("HH:mm"));
+                System.out.print("Enter End Time (HH:mm): ");
+                LocalTime endTime = LocalTime.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("HH:mm"));
+                System.out.print("Enter Working Days (e.g., MONDAY;WEDNESDAY;FRIDAY): ");
+                List<WorkingDay> workingDays = new ArrayList<>();
+                for (String day : scanner.nextLine().trim().split(";")) {
+                    workingDays.add(WorkingDay.valueOf(day.trim().toUpperCase()));
+                }
+                System.out.print("Enter Breaks (e.g., 12:00-13:00;15:00-15:15, or press Enter for none): ");
+                List<TimeWindow> breaks = new ArrayList<>();
+                String breaksInput = scanner.nextLine().trim();
+                if (!breaksInput.isEmpty()) {
+                    for (String window : breaksInput.split(";")) {
+                        breaks.add(TimeWindow.parse(window));
+                    }
+                }
+                newSlots.add(new AppointmentSlot(doctorID, startTime, endTime, workingDays, breaks));
+                System.out.print("Add another working window? (yes/no): ");
+            } while (scanner.nextLine().trim().equalsIgnoreCase("yes"));
+
+            System.out.print("Affected appointments - FLAG for review, RESCHEDULE automatically or NOTIFY only: ");
+            RevalidationAction action = RevalidationAction.valueOf(scanner.nextLine().trim().toUpperCase());
+
+            appointmentCRUD.updateDoctorSlots(slotData, doctorID, newSlots, action);
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid time format. Please use HH:mm.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-plans every doctor's working hours against historical demand and applies the accepted proposal.
+     * Doctors whose shifts change are updated one by one, revalidating their future appointments.
+     */
+    private void optimiseDoctorRoster(Scanner scanner) {
+        displayMenuHeader("OPTIMISE DOCTOR ROSTER");
+
+        AppointmentSlotData slotData = new AppointmentSlotData();
+        slotData.importData();
+        RosterOptimizer optimizer = RosterOptimizer.fromHistory(
+                appointmentCRUD.getAppointments(null, null, null), slotData.getAllSlots());
+        if (optimizer.getDoctorIDs().isEmpty()) {
+            System.out.println("No doctor working hours found.");
+            return;
+        }
+        long initialCost = optimizer.getCost();
+        int initialShortfall = optimizer.getShortfall();
+        optimizer.optimizeAll(ROSTER_ITERATIONS);
+
+        Map<String, List<AppointmentSlot>> changes = new LinkedHashMap<>();
+        for (String doctorID : optimizer.getDoctorIDs()) {
+            List<AppointmentSlot> proposed = optimizer.toSlots(doctorID);
+            List<AppointmentSlot> current = slotData.getSlotsForDoctor(doctorID);
+            if (!WeeklyAvailability.of(proposed).getChangedDays(WeeklyAvailability.of(current)).isEmpty()) {
+                changes.put(doctorID, proposed);
+            }
+        }
+        System.out.printf("Uncovered doctor-hours per week: %d -> %d (cost %d -> %d)%n",
+                initialShortfall, optimizer.getShortfall(), initialCost, optimizer.getCost());
+        for (String doctorID : optimizer.getFixedDoctorIDs()) {
+            System.out.println("\nDoctor " + doctorID + " works split shifts or shifts of different lengths; hours kept:");
+            optimizer.toSlots(doctorID).forEach(slot -> System.out.println("  kept:     " + slot.displayData()));
+        }
+        if (changes.isEmpty()) {
+            System.out.println("The current roster is already the best found. No changes proposed.");
+            return;
+        }
+        for (Map.Entry<String, List<AppointmentSlot>> change : changes.entrySet()) {
+            System.out.println("\nDoctor " + change.getKey() + ":");
+            slotData.getSlotsForDoctor(change.getKey()).forEach(slot -> System.out.println("  current:  " + slot.displayData()));
+            change.getValue().forEach(slot -> System.out.println("  proposed: " + slot.displayData()));
+        }
+
+        System.out.print("\nApply the proposed roster? (yes/no): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            System.out.println("Roster left unchanged.");
+            return;
+        }
+        try {
+            System.out.print("Affected appointments - FLAG for review, RESCHEDULE automatically or NOTIFY only: ");
+            RevalidationAction action = RevalidationAction.valueOf(scanner.nextLine().trim().toUpperCase());
+            for (Map.Entry<String, List<AppointmentSlot>> change : changes.entrySet()) {
+                appointmentCRUD.updateDoctorSlots(slotData, change.getKey(), change.getValue(), action);
+            }
+            System.out.println("Roster updated for " + changes.size() + " doctor(s).");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancels all open appointments of a doctor within a date range.
+     */
+    private void bulkCancelAppointments(Scanner scanner) {
+        displayMenuHeader("BULK CANCEL APPOINTMENTS");
+
+        try {
+            System.out.print("Enter Doctor ID: ");
+            String doctorID = scanner.nextLine().trim().toUpperCase();
+            System.out.print("Enter From Date (dd/MM/yyyy): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            System.out.print("Enter To Date (dd/MM/yyyy): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            AppointmentStatus status = readOptionalStatus(scanner);
+            System.out.print("Offer the freed slots to waitlisted patients? (yes/no): ");
+            boolean offerFreedSlots = scanner.nextLine().trim().equalsIgnoreCase("yes");
+
+            appointmentCRUD.bulkCancelAppointments(doctorID, from, to, status, offerFreedSlots).print();
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use dd/MM/yyyy.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves all open appointments of a doctor within a date range by a fixed number of days and minutes,
+     * optionally to another doctor.
+     */
+    private void bulkMoveAppointments(Scanner scanner) {
+        displayMenuHeader("BULK MOVE APPOINTMENTS");
+
+        try {
+            System.out.print("Enter Doctor ID: ");
+            String doctorID = scanner.nextLine().trim().toUpperCase();
+            System.out.print("Enter From Date (dd/MM/yyyy): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            System.out.print("Enter To Date (dd/MM/yyyy): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            AppointmentStatus status = readOptionalStatus(scanner);
+            System.out.print("Enter Target Doctor ID (or press Enter to keep the same doctor): ");
+            String targetDoctorID = scanner.nextLine().trim().toUpperCase();
+            if (targetDoctorID.isEmpty()) {
+                targetDoctorID = doctorID;
+            }
+            System.out.print("Move by how many days (e.g., 7 or -1): ");
+            int dayOffset = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Move by how many minutes within the day (e.g., 60, or 0): ");
+            int minuteOffset = Integer.parseInt(scanner.nextLine().trim());
+
+            AppointmentSlotData slotData = new AppointmentSlotData();
+            slotData.importData();
+            appointmentCRUD.bulkMoveAppointments(doctorID, from, to, status, targetDoctorID, dayOffset, minuteOffset,
+                    slotData.getAvailability(targetDoctorID)).print();
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use dd/MM/yyyy.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads an appointment status filter, where an empty answer means all open appointments.
+     */
+    private AppointmentStatus readOptionalStatus(Scanner scanner) {
+        System.out.print("Only appointments with status PENDING or ACCEPTED (or press Enter for both): ");
+        String input = scanner.nextLine().trim();
+        return input.isEmpty() ? null : AppointmentStatus.valueOf(input.toUpperCase());
+    }
+
+    /**
+     * Displays the bookings of every room and piece of equipment on a date.
+     */
+    private void viewResourceBookings(Scanner scanner) {
+        displayMenuHeader("ROOM AND EQUIPMENT BOOKINGS");
+
+        try {
+            System.out.print("Enter Date (dd/MM/yyyy): ");
+            LocalDate date = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            ResourceScheduler scheduler = appointmentCRUD.getResourceScheduler();
+            for (Resource resource : scheduler.getResources()) {
+                List<ResourceBooking> bookings = scheduler.getBookings(resource.getResourceID(), date);
+                System.out.printf("%n%-6s %-25s %-10s (capacity %d)%n", resource.getResourceID(), resource.getName(),
+                        resource.getType(), resource.getCapacity());
+                if (bookings.isEmpty()) {
+                    System.out.println("   Free all day");
+                }
+                for (ResourceBooking booking : bookings) {
+                    System.out.printf("   %s-%s  %s%n", booking.getStartTime(), booking.getEndTime(), booking.getAppointmentID());
+                }
+            }
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use dd/MM/yyyy.");
+        }
+    }
+
     private void createAndSendReceipt(Scanner scanner) {
         displayMenuHeader("CREATE AND SEND RECEIPT");
 
@@ -4,8 +4,15 @@ import datamgmt.retrievers.MedicineData;
 import datamgmt.retrievers.ReplenishmentRequestData;
 import utils.medicinemanagements.MedicineManager;
 import utils.medicinemanagements.ReplenishmentRequestManager;
+import utils.medicinemanagements.StockLedger;
+import utils.medicinemanagements.StockMovement;
 import users.ui.BaseUI;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -39,7 +46,9 @@ public class AdministratorInventoryManagementUI extends BaseUI {
             displayMenuOption(4, "Update Medicine Details");
             displayMenuOption(5, "Search Medicine by Name");
             displayMenuOption(6, "Manage Replenishment Requests");
-            displayMenuOption(7, "Go Back to Main Menu");
+            displayMenuOption(7, "View Stock History");
+            displayMenuOption(8, "View Expiring Lots");
+            displayMenuOption(9, "Go Back to Main Menu");
 
             int choice = getMenuChoice();
 
@@ -56,6 +65,10 @@ public class AdministratorInventoryManagementUI extends BaseUI {
             } else if (choice == 6) {
                 manageReplenishmentRequests(this.scanner);
             } else if (choice == 7) {
+                viewStockHistory(this.scanner);
+            } else if (choice == 8) {
+                medicineManager.displayExpiringLots(this.scanner);
+            } else if (choice == 9) {
                 System.out.println("Returning to the main menu...");
                 return;
             } else {
@@ -65,6 +78,42 @@ public class AdministratorInventoryManagementUI extends BaseUI {
         }
     }
 
+    /**
+     * Shows the inventory as it was at a given moment and the stock movements since then.
+     *
+     * @param scanner the Scanner for user input
+     */
+    private void viewStockHistory(Scanner scanner) {
+        displayMenuHeader("STOCK HISTORY");
+        System.out.print("Enter date and time (dd/MM/yyyy HH:mm): ");
+        LocalDateTime at;
+        try {
+            at = LocalDateTime.parse(scanner.nextLine().trim(), DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format. Please use dd/MM/yyyy HH:mm.");
+            return;
+        }
+        System.out.print("Enter medicine name (or press Enter for all): ");
+        String medicineName = scanner.nextLine().trim();
+
+        StockLedger ledger = medicineManager.getMedicineData().getStockLedger();
+        Map<String, Integer> inventory = ledger.getInventoryAt(at);
+        if (inventory.isEmpty()) {
+            System.out.println("No stock records exist for that time.");
+            return;
+        }
+        System.out.printf("%nStock at %s:%n", at.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
+        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
+            if (medicineName.isEmpty() || entry.getKey().equalsIgnoreCase(medicineName)) {
+                System.out.printf("  %-20s %d%n", entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<StockMovement> movements = ledger.getMovements(medicineName.isEmpty() ? null : medicineName, at, LocalDateTime.now());
+        System.out.printf("%nMovements since then (%d):%n", movements.size());
+        movements.forEach(movement -> System.out.println("  " + movement));
+    }
+
     /**
      * Manages replenishment requests by allowing approval, denial, and viewing requests.
      *
@@ -75,8 +124,10 @@ public class AdministratorInventoryManagementUI extends BaseUI {
             displayMenuHeader("REPLENISHMENT REQUESTS MANAGEMENT");
             displayMenuOption(1, "View All Replenishment Requests");
             displayMenuOption(2, "Approve or Deny Requests");
-            displayMenuOption(3, "Search Requests by Medicine Name");
-            displayMenuOption(4, "Return to Inventory Management");
+            displayMenuOption(3, "Batch Approve or Deny Requests");
+            displayMenuOption(4, "Search Requests by Medicine Name");
+            displayMenuOption(5, "Review Forecast Recommendations");
+            displayMenuOption(6, "Return to Inventory Management");
 
             int choice = getMenuChoice();
 
@@ -85,8 +136,12 @@ public class AdministratorInventoryManagementUI extends BaseUI {
             } else if (choice == 2) {
                 replenishmentRequestManager.managePendingRequests(scanner);
             } else if (choice == 3) {
-                replenishmentRequestManager.searchRequestByMedicineName(scanner);
+                replenishmentRequestManager.batchManagePendingRequests(scanner);
             } else if (choice == 4) {
+                replenishmentRequestManager.searchRequestByMedicineName(scanner);
+            } else if (choice == 5) {
+                replenishmentRequestManager.reviewForecastRecommendations(scanner);
+            } else if (choice == 6) {
                 System.out.println("Returning to Inventory Management...");
                 return;
             } else {
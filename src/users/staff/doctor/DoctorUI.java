@@ -1,26 +1,47 @@
 package users.staff.doctor;
 
 import datamgmt.retrievers.AppointmentData;
+import datamgmt.retrievers.AppointmentSlotData;
 import datamgmt.retrievers.MedicalRecordData;
+import datamgmt.retrievers.MedicineData;
 import users.ui.BaseUI;
 import utils.appointments.Appointment;
 import utils.appointments.AppointmentCRUD;
+import utils.appointments.appointmentslots.TimeWindow;
+import utils.appointments.appointmentslots.WeeklyAvailability;
+import utils.appointments.schedules.DaySchedule;
+import utils.appointments.schedules.DoctorSchedule;
 import utils.enums.AppointmentStatus;
+import utils.enums.RecurrenceFrequency;
+import utils.enums.ResourceType;
+import utils.enums.WorkingDay;
 import utils.medicalrecords.MedicalRecord;
 import utils.medicalrecords.OutcomeRecord;
 import utils.medicalrecords.Prescription;
+import utils.medicalrecords.PrescriptionPlan;
+import utils.medicinemanagements.InteractionScreener;
+import utils.medicinemanagements.PrescriptionStockCheck;
+import utils.resources.Resource;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class DoctorUI extends BaseUI {
     private final AppointmentCRUD appointmentCRUD;
     private final MedicalRecordData medicalRecordData;
     private final String doctorID;
+    private final WeeklyAvailability availability;
+    private final PrescriptionStockCheck stockCheck;
+    private final InteractionScreener interactionScreener;
 
     public DoctorUI(String doctorID) {
         AppointmentData appointmentData = new AppointmentData();
@@ -31,6 +52,15 @@ public class DoctorUI extends BaseUI {
         this.medicalRecordData.importData();
 
         this.doctorID = doctorID;
+
+        AppointmentSlotData slotData = new AppointmentSlotData();
+        slotData.importData();
+        this.availability = slotData.getAvailability(doctorID);
+
+        MedicineData medicineData = new MedicineData();
+        medicineData.importData();
+        this.stockCheck = new PrescriptionStockCheck(medicineData, appointmentData.getStockReservations());
+        this.interactionScreener = new InteractionScreener();
     }
 
     public void displayMenu() {
@@ -46,7 +76,9 @@ public class DoctorUI extends BaseUI {
             displayMenuOption(6, "Cancel an Appointment");
             displayMenuOption(7, "Record Appointment Outcome");
             displayMenuOption(8, "View Past Appointment Outcomes"); // New Option
-            displayMenuOption(9, "Logout");
+            displayMenuOption(9, "Schedule Recurring Follow-up");
+            displayMenuOption(10, "Manage Recurring Prescriptions");
+            displayMenuOption(11, "Logout");
     
             int choice = getMenuChoice();
             switch (choice) {
@@ -57,7 +89,7 @@ public class DoctorUI extends BaseUI {
                     updateMedicalRecords(scanner);
                     break;
                 case 3:
-                    viewPersonalSchedule();
+                    viewPersonalSchedule(scanner);
                     break;
                 case 4:
                     manageAppointmentRequests(scanner);
@@ -75,6 +107,12 @@ public class DoctorUI extends BaseUI {
                     viewPastAppointmentOutcomes(); // Call the new method
                     break;
                 case 9:
+                    scheduleRecurringFollowUp(scanner);
+                    break;
+                case 10:
+                    manageRecurringPrescriptions(scanner);
+                    break;
+                case 11:
                     System.out.println("Logging out...");
                     return;
                 default:
@@ -263,21 +301,181 @@ public class DoctorUI extends BaseUI {
     
     
 
-    private void viewPersonalSchedule() {
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, null);
+    /**
+     * Shows the doctor's schedule one week at a time, starting with the current week, and lets the
+     * doctor move to the next or previous week or jump to the week of a given date.
+     *
+     * @param scanner the Scanner for user input
+     */
+    private void viewPersonalSchedule(Scanner scanner) {
+        LocalDate weekOf = LocalDate.now();
+        while (true) {
+            printWeekSchedule(weekOf);
+            System.out.print("\nEnter N for next week, P for previous week, a date (dd/MM/yyyy) to view its week, "
+                    + "or press Enter to return: ");
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return;
+            } else if (input.equalsIgnoreCase("N")) {
+                weekOf = weekOf.plusWeeks(1);
+            } else if (input.equalsIgnoreCase("P")) {
+                weekOf = weekOf.minusWeeks(1);
+            } else {
+                try {
+                    weekOf = LocalDate.parse(input, Appointment.DATE_FORMAT);
+                } catch (DateTimeParseException e) {
+                    System.out.println("Invalid input. Please enter N, P or a date in dd/MM/yyyy format.");
+                }
+            }
+        }
+    }
 
-        if (appointments.isEmpty()) {
-            System.out.println("No scheduled appointments found.");
+    private void printWeekSchedule(LocalDate anyDayOfWeek) {
+        DoctorSchedule schedule = appointmentCRUD.getDoctorSchedule(doctorID);
+        List<DaySchedule> week = schedule.getWeek(anyDayOfWeek);
+        Map<LocalDate, List<Appointment>> recurring = appointmentCRUD.getRecurringOccurrences(null, doctorID,
+                        week.get(0).getDate(), week.get(week.size() - 1).getDate()).stream()
+                .filter(occurrence -> occurrence.getStatus() != AppointmentStatus.CANCELLED)
+                .collect(Collectors.groupingBy(Appointment::getLocalDate));
+
+        System.out.println("\n====================================");
+        System.out.printf(" Schedule for the week of %s%n", week.get(0).getDate().format(Appointment.DATE_FORMAT));
+        System.out.println("====================================");
+
+        for (DaySchedule day : week) {
+            WorkingDay workingDay = WorkingDay.valueOf(day.getDate().getDayOfWeek().name());
+            System.out.printf("%n%-10s %s  (Pending: %d, Accepted: %d, Completed: %d, Cancelled: %d)%n",
+                    workingDay,
+                    day.getDate().format(Appointment.DATE_FORMAT),
+                    day.getCount(AppointmentStatus.PENDING),
+                    day.getCount(AppointmentStatus.ACCEPTED),
+                    day.getCount(AppointmentStatus.COMPLETED),
+                    day.getCount(AppointmentStatus.CANCELLED));
+
+            for (Appointment appointment : day.getAppointments()) {
+                System.out.printf("   %-8s %-15s %-15s%n",
+                        appointment.getTime(),
+                        appointment.getPatientID(),
+                        appointment.getStatus());
+            }
+            for (Appointment occurrence : recurring.getOrDefault(day.getDate(), List.of())) {
+                System.out.printf("   %-8s %-15s %-15s (recurring)%n",
+                        occurrence.getTime(),
+                        occurrence.getPatientID(),
+                        occurrence.getStatus());
+            }
+
+            List<String> freeTimes = new ArrayList<>();
+            for (TimeWindow window : availability.getWindows(day.getDate().getDayOfWeek())) {
+                day.getFreeTimes(window.getStart(), window.getEnd()).stream()
+                        .filter(time -> !appointmentCRUD.isDoctorBooked(doctorID, day.getDate(), time))
+                        .forEach(time -> freeTimes.add(time.toString()));
+            }
+            System.out.println("   Free: " + (freeTimes.isEmpty() ? "-" : String.join(", ", freeTimes)));
+        }
+    }
+
+    /**
+     * Books a recurring follow-up series (e.g. weekly physiotherapy) for a patient with this doctor.
+     */
+    private void scheduleRecurringFollowUp(Scanner scanner) {
+        try {
+            System.out.print("Enter Patient ID: ");
+            String patientID = scanner.nextLine().trim();
+            if (patientID.isEmpty()) {
+                System.out.println("Operation cancelled.");
+                return;
+            }
+            System.out.print("Enter First Date (dd/MM/yyyy): ");
+            LocalDate startDate = LocalDate.parse(scanner.nextLine().trim(), Appointment.DATE_FORMAT);
+            System.out.print("Enter Time (HH:mm): ");
+            LocalTime time = LocalTime.parse(scanner.nextLine().trim(), Appointment.TIME_FORMAT);
+            System.out.print("Enter Frequency (DAILY/WEEKLY/MONTHLY): ");
+            RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(scanner.nextLine().trim().toUpperCase());
+            System.out.print("Repeat every how many " + frequency.name().toLowerCase() + " units? ");
+            int interval = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Enter Number of Occurrences: ");
+            int occurrences = Integer.parseInt(scanner.nextLine().trim());
+
+            appointmentCRUD.scheduleSeries(patientID, doctorID, startDate, time, frequency, interval, occurrences,
+                    AppointmentStatus.ACCEPTED, availability);
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date or time format.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lets the doctor view, create and cancel a patient's recurring prescriptions. Each plan issues
+     * a new PENDING prescription to the pharmacy whenever it falls due.
+     */
+    private void manageRecurringPrescriptions(Scanner scanner) {
+        System.out.print("Enter Patient ID: ");
+        String patientID = scanner.nextLine().trim();
+        if (patientID.isEmpty()) {
+            System.out.println("Operation cancelled.");
+            return;
+        }
+
+        List<PrescriptionPlan> plans = appointmentCRUD.getPrescriptionPlansForPatient(patientID);
+        if (plans.isEmpty()) {
+            System.out.println("No recurring prescriptions for this patient.");
         } else {
-            System.out.printf("%-15s %-15s %-15s %-15s%n", "Patient ID", "Date", "Time", "Status");
-            appointments.forEach(appointment -> 
-                System.out.printf("%-15s %-15s %-15s %-15s%n",
-                    appointment.getPatientID(),
-                    appointment.getDate(),
-                    appointment.getTime(),
-                    appointment.getStatus())
-            );
+            plans.forEach(plan -> System.out.println("  " + plan));
+        }
+
+        System.out.print("Create or cancel a recurring prescription? (create/cancel, or press Enter to exit): ");
+        String action = scanner.nextLine().trim().toLowerCase();
+        try {
+            if (action.equals("create")) {
+                createRecurringPrescription(scanner, patientID);
+            } else if (action.equals("cancel")) {
+                System.out.print("Enter the plan ID to cancel: ");
+                String planID = scanner.nextLine().trim().toUpperCase();
+                boolean ownPlan = plans.stream().anyMatch(plan -> plan.getPlanID().equals(planID));
+                if (ownPlan) {
+                    appointmentCRUD.cancelPrescriptionPlan(planID);
+                } else {
+                    System.out.println("No recurring prescription with ID " + planID + " for this patient.");
+                }
+            }
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    private void createRecurringPrescription(Scanner scanner, String patientID) {
+        System.out.print("Enter medication name: ");
+        String medicationName = stockCheck.resolveName(scanner, scanner.nextLine().trim());
+        Set<String> activeMedications = InteractionScreener.collectActiveMedications(
+                appointmentCRUD.getAppointments(patientID, null, null),
+                medicalRecordData.getMedicalRecordByPatientID(patientID), null);
+        for (PrescriptionPlan plan : appointmentCRUD.getPrescriptionPlansForPatient(patientID)) {
+            if (plan.isActive()) {
+                activeMedications.add(plan.getMedicationName());
+            }
+        }
+        if (!interactionScreener.confirm(scanner, medicationName, activeMedications)) {
+            System.out.println("Recurring prescription not created.");
+            return;
         }
+        System.out.print("Enter the quantity issued with each refill: ");
+        int quantity = Integer.parseInt(scanner.nextLine().trim());
+        System.out.print("Enter Frequency (DAILY/WEEKLY/MONTHLY): ");
+        RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(scanner.nextLine().trim().toUpperCase());
+        System.out.print("Refill every how many " + frequency.name().toLowerCase() + " units? ");
+        int interval = Integer.parseInt(scanner.nextLine().trim());
+        System.out.print("Enter the first refill date (dd/MM/yyyy, or press Enter for today): ");
+        String firstRefill = scanner.nextLine().trim();
+        LocalDate firstRefillDate = firstRefill.isEmpty() ? LocalDate.now() : LocalDate.parse(firstRefill, Appointment.DATE_FORMAT);
+        System.out.print("Enter the number of refills: ");
+        int refills = Integer.parseInt(scanner.nextLine().trim());
+
+        appointmentCRUD.createPrescriptionPlan(patientID, doctorID, medicationName, quantity, frequency, interval,
+                firstRefillDate, refills);
     }
 
     private void manageAppointmentRequests(Scanner scanner) {
@@ -308,6 +506,7 @@ public class DoctorUI extends BaseUI {
                     selectedAppointment.updateStatus(AppointmentStatus.ACCEPTED);
                     appointmentCRUD.updateAppointment(selectedAppointment);
                     System.out.println("Appointment accepted.");
+                    reserveEquipment(scanner, selectedAppointment);
                 } else if (action.equals("decline")) {
                     selectedAppointment.updateStatus(AppointmentStatus.CANCELLED);
                     appointmentCRUD.updateAppointment(selectedAppointment);
@@ -321,8 +520,35 @@ public class DoctorUI extends BaseUI {
         }
     }
 
+    /**
+     * Lets the doctor reserve equipment for an accepted appointment, on top of its consultation room.
+     */
+    private void reserveEquipment(Scanner scanner, Appointment appointment) {
+        List<Resource> equipment = appointmentCRUD.getResourceScheduler().getResources().stream()
+                .filter(resource -> resource.getType() == ResourceType.EQUIPMENT)
+                .collect(Collectors.toList());
+        if (equipment.isEmpty()) {
+            return;
+        }
+        System.out.println("Available equipment:");
+        equipment.forEach(resource -> System.out.printf("  %-6s %s%n", resource.getResourceID(), resource.getName()));
+        System.out.print("Enter equipment IDs needed, separated by ; (or press Enter for none): ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return;
+        }
+        List<String> resourceIDs = new ArrayList<>();
+        for (String resourceID : input.split(";")) {
+            resourceIDs.add(resourceID.trim().toUpperCase());
+        }
+        if (appointmentCRUD.reserveAdditionalResources(appointment.getAppointmentID(), resourceIDs)) {
+            System.out.println("Equipment reserved.");
+        }
+    }
+
     private void viewUpcomingAppointments() {
-        List<Appointment> upcomingAppointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED);
+        List<Appointment> upcomingAppointments = appointmentCRUD.getAppointments(null, doctorID,
+                AppointmentStatus.ACCEPTED, LocalDate.now(), null);
 
         if (upcomingAppointments.isEmpty()) {
             System.out.println("No upcoming appointments.");
@@ -382,7 +608,8 @@ public class DoctorUI extends BaseUI {
     }
     
     private void cancelAppointment(Scanner scanner) {
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED);
+        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED,
+                LocalDate.now(), null);
 
         if (appointments.isEmpty()) {
             System.out.println("No appointments to cancel.");
@@ -400,10 +627,8 @@ public class DoctorUI extends BaseUI {
             int choice = Integer.parseInt(scanner.nextLine().trim());
 
             if (choice > 0 && choice <= appointments.size()) {
-                Appointment selectedAppointment = appointments.get(choice - 1);
-                selectedAppointment.updateStatus(AppointmentStatus.CANCELLED);
-                appointmentCRUD.updateAppointment(selectedAppointment);
-                System.out.println("Appointment cancelled.");
+                // Series occurrences are not stored as appointments; cancelling one skips it in its series
+                appointmentCRUD.cancelAppointment(appointments.get(choice - 1).getAppointmentID());
             } else {
                 System.out.println("Invalid choice.");
             }
@@ -411,7 +636,9 @@ public class DoctorUI extends BaseUI {
     }
 
     private void recordAppointmentOutcome(Scanner scanner) {
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED);
+        // Includes the occurrences of accepted series, which are stored as appointments once completed
+        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED,
+                LocalDate.MIN, null);
 
         if (appointments.isEmpty()) {
             System.out.println("No eligible appointments for recording outcomes.");
@@ -445,23 +672,31 @@ public class DoctorUI extends BaseUI {
 
                 OutcomeRecord outcomeRecord = new OutcomeRecord(selectedAppointment.getDate(), serviceType, consultationNotes);
 
-                // Add prescriptions if needed
+                // Add prescriptions if needed, screening each against what the patient is already taking
+                String patientID = selectedAppointment.getPatientID();
+                Set<String> activeMedications = InteractionScreener.collectActiveMedications(
+                        appointmentCRUD.getAppointments(patientID, null, null),
+                        medicalRecordData.getMedicalRecordByPatientID(patientID), null);
                 while (true) {
                     System.out.print("Enter prescribed medication name (or press Enter to skip): ");
                     String medicationName = scanner.nextLine().trim();
                     if (medicationName.isEmpty()) break;
+                    medicationName = stockCheck.resolveName(scanner, medicationName);
 
                     System.out.print("Enter the quantity of the medication: ");
                     int quantity = Integer.parseInt(scanner.nextLine().trim());
-                    outcomeRecord.addPrescription(new Prescription(medicationName, quantity));
+                    if (interactionScreener.confirm(scanner, medicationName, activeMedications)
+                            && stockCheck.confirm(scanner, medicationName, quantity,
+                                    PrescriptionStockCheck.prescribedQuantity(outcomeRecord, medicationName))) {
+                        outcomeRecord.addPrescription(new Prescription(medicationName, quantity));
+                        activeMedications.add(medicationName);
+                    } else {
+                        System.out.println("Prescription not added.");
+                    }
                 }
 
-                selectedAppointment.setOutcomeRecord(outcomeRecord);
-                selectedAppointment.updateStatus(AppointmentStatus.COMPLETED);
-
                 try {
-                    appointmentCRUD.updateAppointment(selectedAppointment);
-                    System.out.println("Appointment outcome recorded successfully.");
+                    appointmentCRUD.completeAppointment(selectedAppointment.getAppointmentID(), outcomeRecord);
                 } catch (Exception e) {
                     System.err.println("Error recording appointment outcome: " + e.getMessage());
                 }
@@ -2,20 +2,27 @@ package users.staff.pharmacist;
 
 import datamgmt.retrievers.AppointmentData;
 import datamgmt.retrievers.MedicineData;
-import datamgmt.retrievers.PatientData;
 import datamgmt.retrievers.ReplenishmentRequestData;
 import utils.enums.PrescriptionStatus;
 import utils.medicinemanagements.Medicine;
+import utils.medicinemanagements.MedicineLot;
 import utils.medicinemanagements.MedicineManager;
 import utils.medicinemanagements.ReplenishmentRequestManager;
 import utils.appointments.Appointment;
 import utils.appointments.AppointmentCRUD;
+import utils.medicalrecords.PendingPrescription;
 import utils.medicalrecords.Prescription;
+import utils.medicalrecords.PrescriptionClaims;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * Provides the Pharmacist menu to manage prescriptions, inventory, and replenishment requests.
@@ -25,8 +32,8 @@ public class PharmacistUI {
     private final MedicineManager medicineManager;
     private final ReplenishmentRequestManager replenishmentRequestManager;
     private final AppointmentCRUD appointmentCRUD;
-    private final PatientData patientData;
     private final Pharmacist pharmacist;
+    private final long claimSession;
 
     /**
      * Initializes the PharmacistUI with necessary managers.
@@ -38,14 +45,14 @@ public class PharmacistUI {
         ReplenishmentRequestData requestData = new ReplenishmentRequestData();
         requestData.importData();
 
+        // Registered before loading so completed claims are kept for as long as this session's copy may be stale
+        this.claimSession = PrescriptionClaims.openSession();
         AppointmentData appointmentData = new AppointmentData();
         appointmentData.importData();
 
         this.medicineManager = new MedicineManager(medicineData);
         this.replenishmentRequestManager = new ReplenishmentRequestManager(requestData, medicineManager);
         this.appointmentCRUD = new AppointmentCRUD(appointmentData);
-        this.patientData = new PatientData();
-        this.patientData.importData();
         this.pharmacist = pharmacist;
     }
 
@@ -61,9 +68,10 @@ public class PharmacistUI {
             System.out.println("====================================");
             System.out.println("1. View Pending Prescriptions");
             System.out.println("2. Update Prescription Status");
-            System.out.println("3. View Medication Inventory");
-            System.out.println("4. Submit Replenishment Request");
-            System.out.println("5. Logout");
+            System.out.println("3. Dispense All for Appointment or Patient");
+            System.out.println("4. View Medication Inventory");
+            System.out.println("5. Submit Replenishment Request");
+            System.out.println("6. Logout");
             System.out.println("====================================");
             System.out.print("Enter your choice: ");
 
@@ -77,12 +85,16 @@ public class PharmacistUI {
                     updatePrescriptionStatus(scanner);
                     break;
                 case "3":
-                    viewInventory();
+                    dispenseAll(scanner);
                     break;
                 case "4":
-                    submitReplenishmentRequest(scanner);
+                    viewInventory();
                     break;
                 case "5":
+                    submitReplenishmentRequest(scanner);
+                    break;
+                case "6":
+                    PrescriptionClaims.closeSession(claimSession);
                     System.out.println("Logging out...");
                     return;
                 default:
@@ -101,33 +113,20 @@ public class PharmacistUI {
         System.out.println("        Pending Prescriptions       ");
         System.out.println("====================================");
 
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, null, null);
+        List<PendingPrescription> pendingPrescriptions = appointmentCRUD.getPendingPrescriptions();
 
-        boolean found = false;
         int index = 1;
-        for (Appointment appointment : appointments) {
-            if (appointment.getOutcomeRecord() != null) {
-                for (Prescription prescription : appointment.getOutcomeRecord().getPrescriptions()) {
-                    if (prescription.getStatus() == PrescriptionStatus.PENDING) {
-                        found = true;
-
-                        String patientName = "Unknown";
-                        if (patientData.findPatientById(appointment.getPatientID()) != null) {
-                            patientName = patientData.findPatientById(appointment.getPatientID()).getName();
-                        }
-
-                        System.out.printf("%d. Appointment ID: %s%n", index++, appointment.getAppointmentID());
-                        System.out.printf("   Patient Name  : %s (%s)%n", patientName, appointment.getPatientID());
-                        System.out.printf("   Medication    : %s%n", prescription.getMedicationName());
-                        System.out.printf("   Quantity      : %d%n", prescription.getQuantity());
-                        System.out.printf("   Status        : %s%n", prescription.getStatus());
-                        System.out.println("------------------------------------");
-                    }
-                }
-            }
+        for (PendingPrescription pending : pendingPrescriptions) {
+            Prescription prescription = pending.getPrescription();
+            System.out.printf("%d. Appointment ID: %s%n", index++, pending.getAppointmentID());
+            System.out.printf("   Patient Name  : %s (%s)%n", pending.getPatientName(), pending.getPatientID());
+            System.out.printf("   Medication    : %s%n", prescription.getMedicationName());
+            System.out.printf("   Quantity      : %d%n", prescription.getQuantity());
+            System.out.printf("   Status        : %s%n", prescription.getStatus());
+            System.out.println("------------------------------------");
         }
 
-        if (!found) {
+        if (pendingPrescriptions.isEmpty()) {
             System.out.println("No pending prescriptions found.");
         }
     }
@@ -143,27 +142,19 @@ public class PharmacistUI {
         System.out.println("         Update Prescription        ");
         System.out.println("====================================");
 
-        List<Appointment> appointments = appointmentCRUD.getAppointments(null, null, null);
+        List<PendingPrescription> pendingPrescriptions = appointmentCRUD.getPendingPrescriptions();
 
         int index = 1;
-        List<Prescription> pendingPrescriptions = new ArrayList<>();
-        List<Appointment> appointmentMapping = new ArrayList<>();
-
-        for (Appointment appointment : appointments) {
-            if (appointment.getOutcomeRecord() != null) {
-                for (Prescription prescription : appointment.getOutcomeRecord().getPrescriptions()) {
-                    if (prescription.getStatus() == PrescriptionStatus.PENDING) {
-                        System.out.printf("%d. Appointment ID: %s%n", index++, appointment.getAppointmentID());
-                        System.out.printf("   Patient ID   : %s%n", appointment.getPatientID());
-                        System.out.printf("   Medication   : %s%n", prescription.getMedicationName());
-                        System.out.printf("   Quantity     : %d%n", prescription.getQuantity());
-                        System.out.printf("   Status       : %s%n", prescription.getStatus());
-                        System.out.println("------------------------------------");
-                        pendingPrescriptions.add(prescription);
-                        appointmentMapping.add(appointment);
-                    }
-                }
-            }
+        for (PendingPrescription pending : pendingPrescriptions) {
+            Prescription prescription = pending.getPrescription();
+            System.out.printf("%d. Appointment ID: %s%n", index++, pending.getAppointmentID());
+            System.out.printf("   Patient      : %s (%s)%n", pending.getPatientName(), pending.getPatientID());
+            System.out.printf("   Medication   : %s%n", prescription.getMedicationName());
+            System.out.printf("   Quantity     : %d%n", prescription.getQuantity());
+            System.out.printf("   Status       : %s%n", PrescriptionClaims.getHolder(pending)
+                    .map(holder -> "being dispensed by " + holder)
+                    .orElse(prescription.getStatus().toString()));
+            System.out.println("------------------------------------");
         }
 
         if (pendingPrescriptions.isEmpty()) {
@@ -171,7 +162,7 @@ public class PharmacistUI {
             return;
         }
 
-        System.out.print("Enter the number of the prescription to update: ");
+        System.out.print("Enter the number of the prescription to update (or 0 for the next unclaimed one): ");
         int choice = -1;
 
         try {
@@ -181,44 +172,234 @@ public class PharmacistUI {
             return;
         }
 
-        if (choice < 1 || choice > pendingPrescriptions.size()) {
+        if (choice < 0 || choice > pendingPrescriptions.size()) {
             System.out.println("Invalid choice. Please try again.");
             return;
         }
 
-        Prescription selectedPrescription = pendingPrescriptions.get(choice - 1);
-        Appointment associatedAppointment = appointmentMapping.get(choice - 1);
+        // Claim the prescription first so no other pharmacist can dispense it at the same time
+        Optional<PrescriptionClaims.Claim> claim = choice == 0
+                ? PrescriptionClaims.claimNext(pendingPrescriptions, pharmacist.getUserID())
+                : PrescriptionClaims.claim(pendingPrescriptions.get(choice - 1), pharmacist.getUserID());
+        if (claim.isEmpty()) {
+            System.out.println(choice == 0
+                    ? "Every pending prescription is being dispensed by another pharmacist."
+                    : "This prescription is being dispensed by another pharmacist or was already dispensed.");
+            return;
+        }
+
+        Prescription selectedPrescription = claim.get().getPrescription();
+        PendingPrescription selectedPending = pendingPrescriptions.stream()
+                .filter(pending -> pending.getPrescription() == selectedPrescription)
+                .findFirst().get();
+        System.out.printf("Claimed %s x%d for appointment %s until %s.%n", selectedPrescription.getMedicationName(),
+                selectedPrescription.getQuantity(), selectedPending.getAppointmentID(),
+                claim.get().getExpiresAt().toLocalTime().withNano(0));
+        System.out.print("Dispense this prescription now? (yes/no): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            PrescriptionClaims.release(claim.get());
+            System.out.println("Prescription returned to the queue.");
+            return;
+        }
+
+        Optional<Medicine> medicine = medicineManager.getMedicineData().findMedicineByName(selectedPrescription.getMedicationName());
+        if (medicine.isEmpty()) {
+            PrescriptionClaims.release(claim.get());
+            System.out.println("Cannot dispense: " + selectedPrescription.getMedicationName()
+                    + " is not in the inventory. Prescription returned to the queue.");
+            return;
+        }
+
+        // Draw the stock first; the claim is only completed once the draw succeeded
+        applyDispenseBatch(Map.of(selectedPending, claim.get()), Map.of(selectedPending, medicine.get()));
+    }
 
-        // Update prescription status
-        selectedPrescription.updateStatus(PrescriptionStatus.DISPENSED);
+    /**
+     * Dispenses every pending prescription of one appointment, or of one patient, as a single batch.
+     * All prescriptions are claimed and their stock is checked before anything is dispensed; the stock
+     * changes are then flushed once and the appointments saved with one write.
+     *
+     * @param scanner the Scanner for user input
+     */
+    private void dispenseAll(Scanner scanner) {
+        System.out.println("\n====================================");
+        System.out.println("       Dispense All Prescriptions   ");
+        System.out.println("====================================");
 
+        Map<String, List<PendingPrescription>> byAppointment = new LinkedHashMap<>();
+        for (PendingPrescription pending : appointmentCRUD.getPendingPrescriptions()) {
+            byAppointment.computeIfAbsent(pending.getAppointmentID(), id -> new ArrayList<>()).add(pending);
+        }
+        if (byAppointment.isEmpty()) {
+            System.out.println("No pending prescriptions found.");
+            return;
+        }
+
+        List<List<PendingPrescription>> groups = new ArrayList<>(byAppointment.values());
+        int index = 1;
+        for (List<PendingPrescription> group : groups) {
+            PendingPrescription first = group.get(0);
+            System.out.printf("%d. Appointment ID: %s%n", index++, first.getAppointmentID());
+            System.out.printf("   Patient      : %s (%s)%n", first.getPatientName(), first.getPatientID());
+            for (PendingPrescription pending : group) {
+                System.out.printf("   - %s x%d%n", pending.getPrescription().getMedicationName(), pending.getPrescription().getQuantity());
+            }
+            System.out.println("------------------------------------");
+        }
+
+        System.out.print("Enter the number of the appointment, or a patient ID to dispense all of that patient's prescriptions (or 0 to exit): ");
+        String input = scanner.nextLine().trim();
+        List<PendingPrescription> selected = new ArrayList<>();
         try {
-            appointmentCRUD.updateAppointment(associatedAppointment);
-            System.out.println("Prescription status updated to DISPENSED.");
-
-            // Update medicine stock
-            String medicationName = selectedPrescription.getMedicationName();
-            int quantityDispensed = selectedPrescription.getQuantity();
-
-            Optional<Medicine> medicine = medicineManager.getMedicineData().findMedicineByName(medicationName);
-            if (medicine.isPresent()) {
-                Medicine updatedMedicine = medicine.get();
-                updatedMedicine.reduceStock(quantityDispensed); // Ensure Medicine class has this method
-
-                try {
-                    medicineManager.getMedicineData().updateMedicine(updatedMedicine);
-                    System.out.println("Medicine stock updated successfully.");
-                } catch (Exception e) {
-                    System.err.println("Error updating medicine stock: " + e.getMessage());
+            int choice = Integer.parseInt(input);
+            if (choice == 0) {
+                return;
+            }
+            if (choice < 0 || choice > groups.size()) {
+                System.out.println("Invalid choice. Please try again.");
+                return;
+            }
+            selected.addAll(groups.get(choice - 1));
+        } catch (NumberFormatException e) {
+            for (List<PendingPrescription> group : groups) {
+                if (group.get(0).getPatientID().equalsIgnoreCase(input)) {
+                    selected.addAll(group);
                 }
+            }
+            if (selected.isEmpty()) {
+                System.out.println("No pending prescriptions found for patient " + input + ".");
+                return;
+            }
+        }
+
+        // Claim every prescription first so no other pharmacist dispenses any of them meanwhile
+        Map<PendingPrescription, PrescriptionClaims.Claim> claims = new LinkedHashMap<>();
+        for (PendingPrescription pending : selected) {
+            Optional<PrescriptionClaims.Claim> claim = PrescriptionClaims.claim(pending, pharmacist.getUserID());
+            if (claim.isEmpty()) {
+                System.out.printf("%s for appointment %s is being dispensed by another pharmacist or was already dispensed.%n",
+                        pending.getPrescription().getMedicationName(), pending.getAppointmentID());
+                claims.values().forEach(PrescriptionClaims::release);
+                System.out.println("Nothing was dispensed.");
+                return;
+            }
+            claims.put(pending, claim.get());
+        }
+
+        // Check the stock for the whole batch, adding up lines for the same medicine
+        MedicineData medicineData = medicineManager.getMedicineData();
+        Map<PendingPrescription, Medicine> medicines = new LinkedHashMap<>();
+        Map<Medicine, Integer> required = new LinkedHashMap<>();
+        List<String> problems = new ArrayList<>();
+        for (PendingPrescription pending : claims.keySet()) {
+            Prescription prescription = pending.getPrescription();
+            Optional<Medicine> medicine = medicineData.findMedicineByName(prescription.getMedicationName());
+            if (medicine.isEmpty()) {
+                problems.add(prescription.getMedicationName() + " is not in the inventory.");
+                continue;
+            }
+            medicines.put(pending, medicine.get());
+            required.merge(medicine.get(), prescription.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Medicine, Integer> entry : required.entrySet()) {
+            int dispensable = medicineData.getDispensableStock(entry.getKey());
+            if (dispensable < entry.getValue()) {
+                problems.add(String.format("Not enough %s: %d needed, %d unexpired in stock.",
+                        entry.getKey().getName(), entry.getValue(), dispensable));
+            }
+        }
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> System.out.println("Cannot dispense: " + problem));
+            claims.values().forEach(PrescriptionClaims::release);
+            System.out.println("Nothing was dispensed; the prescriptions were returned to the queue.");
+            return;
+        }
+
+        System.out.printf("Claimed %d prescription(s) until %s.%n", claims.size(),
+                claims.values().iterator().next().getExpiresAt().toLocalTime().withNano(0));
+        System.out.print("Dispense all of them now? (yes/no): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            claims.values().forEach(PrescriptionClaims::release);
+            System.out.println("Prescriptions returned to the queue.");
+            return;
+        }
+
+        applyDispenseBatch(claims, medicines);
+    }
+
+    /**
+     * Dispenses a validated batch. If a stock change still fails part way, or the new prescription statuses
+     * cannot be saved, the lines already dispensed are reversed and every claim is released. A line whose
+     * claim expired and was taken over by another pharmacist has its stock put back, since that pharmacist
+     * dispenses it instead. Stock changes are flushed once, after the outcome of the batch is known.
+     */
+    private void applyDispenseBatch(Map<PendingPrescription, PrescriptionClaims.Claim> claims,
+                                    Map<PendingPrescription, Medicine> medicines) {
+        MedicineData medicineData = medicineManager.getMedicineData();
+        Map<PendingPrescription, List<MedicineLot>> drawn = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<PendingPrescription, Medicine> entry : medicines.entrySet()) {
+                PendingPrescription pending = entry.getKey();
+                drawn.put(pending, medicineData.dispense(entry.getValue(), pending.getPrescription().getQuantity(),
+                        pharmacist.getUserID(), pending.getAppointmentID()));
+            }
+        } catch (Exception e) {
+            System.err.println("Error updating stock, reversing the batch: " + e.getMessage());
+            drawn.forEach((pending, lots) -> reverseDispense(pending, medicines.get(pending), lots));
+            medicineData.flushStockChanges();
+            claims.values().forEach(PrescriptionClaims::release);
+            return;
+        }
+
+        Set<Appointment> changedAppointments = new LinkedHashSet<>();
+        Iterator<Map.Entry<PendingPrescription, List<MedicineLot>>> lines = drawn.entrySet().iterator();
+        while (lines.hasNext()) {
+            Map.Entry<PendingPrescription, List<MedicineLot>> entry = lines.next();
+            PendingPrescription pending = entry.getKey();
+            if (PrescriptionClaims.complete(claims.get(pending), PrescriptionStatus.DISPENSED)) {
+                changedAppointments.add(pending.getAppointment());
             } else {
-                System.out.println("Warning: Medicine not found in inventory. Stock update skipped.");
+                System.out.println("Your claim on " + pending.getPrescription().getMedicationName()
+                        + " expired and it was taken by another pharmacist; its stock was put back.");
+                reverseDispense(pending, medicines.get(pending), entry.getValue());
+                lines.remove();
             }
+        }
+        if (changedAppointments.isEmpty()) {
+            medicineData.flushStockChanges();
+            return;
+        }
+
+        boolean saved = false;
+        try {
+            saved = appointmentCRUD.updateAppointments(changedAppointments);
         } catch (Exception e) {
             System.err.println("Error updating prescription status: " + e.getMessage());
         }
+        if (!saved) {
+            System.err.println("Prescription status could not be saved, reversing the batch.");
+            drawn.forEach((pending, lots) -> reverseDispense(pending, medicines.get(pending), lots));
+            medicineData.flushStockChanges();
+            claims.values().forEach(PrescriptionClaims::reopen);
+            appointmentCRUD.refreshAppointments(changedAppointments);
+            return;
+        }
+        medicineData.flushStockChanges();
+        PrescriptionClaims.markSaved(claims.values());
+        for (Map.Entry<PendingPrescription, List<MedicineLot>> entry : drawn.entrySet()) {
+            Prescription prescription = entry.getKey().getPrescription();
+            System.out.printf("%s x%d dispensed.%n", prescription.getMedicationName(), prescription.getQuantity());
+            for (MedicineLot lot : entry.getValue()) {
+                System.out.printf("  Take %d unit(s) from lot %s (expires %s).%n", lot.getQuantity(), lot.getLotID(), lot.getExpiryDate());
+            }
+        }
+        System.out.println("Medicine stock updated successfully.");
     }
 
+    private void reverseDispense(PendingPrescription pending, Medicine medicine, List<MedicineLot> lots) {
+        medicineManager.getMedicineData().reverseDispense(medicine, lots, pending.getPrescription().getQuantity(),
+                pharmacist.getUserID(), pending.getAppointmentID());
+    }
 
     /**
      * Displays the inventory of medications.
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.regex.Pattern;
 
 import utils.appointments.appointmentslots.AppointmentSlot;
-import utils.enums.WorkingDay;
+import utils.appointments.appointmentslots.WeeklyAvailability;
 
 /**
  * Utility class for validating strings, dates, times, and general objects.
@@ -25,32 +25,33 @@ public class ValidationUtils {
      * @return {@code true} if the date and time are valid for the doctor's slots, otherwise {@code false}
      */
     public static boolean isValidAppointmentTime(List<AppointmentSlot> doctorSlots, LocalDate date, LocalTime time) {
+        return isValidAppointmentTime(WeeklyAvailability.of(doctorSlots), date, time);
+    }
+
+    /**
+     * Validates if the given date and time are in the future and within a doctor's compiled working hours.
+     * Prefer this overload when checking many times against the same doctor.
+     *
+     * @param availability the doctor's compiled {@link WeeklyAvailability}
+     * @param date         the appointment date to validate
+     * @param time         the appointment time to validate
+     * @return {@code true} if the date and time are valid for the doctor's working hours, otherwise {@code false}
+     */
+    public static boolean isValidAppointmentTime(WeeklyAvailability availability, LocalDate date, LocalTime time) {
         try {
-            // Combine date and time into a LocalDateTime
-            LocalDateTime appointmentDateTime = LocalDateTime.of(date, time);
-    
             // Check if the date and time are in the future
-            if (!appointmentDateTime.isAfter(LocalDateTime.now())) {
+            if (!LocalDateTime.of(date, time).isAfter(LocalDateTime.now())) {
                 return false;
             }
-    
-            // Get the working day corresponding to the appointment date
-            WorkingDay appointmentDay = WorkingDay.valueOf(date.getDayOfWeek().name());
-    
-            // Validate that the time falls within one of the doctor's slots for that working day
-            return doctorSlots.stream().anyMatch(slot ->
-                    slot.getWorkingDays().contains(appointmentDay) &&
-                    !time.isBefore(slot.getStartTime()) &&
-                    !time.isAfter(slot.getEndTime())
-            );
+
+            // Binary search the doctor's working windows for that day of the week
+            return availability.isAvailable(date.getDayOfWeek(), time);
         } catch (Exception e) {
             System.err.println("Error validating appointment time: " + e.getMessage());
             return false;
         }
     }
-    
-    
-    
+
     /** 
      * Validates if a string is null or empty.
      *
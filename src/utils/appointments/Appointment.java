@@ -3,10 +3,20 @@ package utils.appointments;
 import utils.enums.AppointmentStatus;
 import utils.medicalrecords.OutcomeRecord;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
 /**
  * Represents an appointment between a doctor and a patient.
  */
 public class Appointment {
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    /** Length of a consultation in minutes; appointments only record their start time. */
+    public static final int DURATION_MINUTES = 30;
+
     private String appointmentID;
     private String patientID;
     private String doctorID;
@@ -38,6 +48,10 @@ public class Appointment {
         return doctorID;
     }
 
+    public void setDoctorID(String doctorID) {
+        this.doctorID = doctorID;
+    }
+
     public String getDate() {
         return date;
     }
@@ -54,6 +68,33 @@ public class Appointment {
         this.time = time;
     }
 
+    /**
+     * Parses the appointment date.
+     *
+     * @return the date of the appointment
+     */
+    public LocalDate getLocalDate() {
+        return LocalDate.parse(date, DATE_FORMAT);
+    }
+
+    /**
+     * Parses the appointment start time.
+     *
+     * @return the start time of the appointment
+     */
+    public LocalTime getLocalTime() {
+        return LocalTime.parse(time, TIME_FORMAT);
+    }
+
+    /**
+     * Combines the appointment date and start time.
+     *
+     * @return the start date and time of the appointment
+     */
+    public LocalDateTime getDateTime() {
+        return LocalDateTime.of(getLocalDate(), getLocalTime());
+    }
+
     public AppointmentStatus getStatus() {
         return status;
     }
@@ -70,6 +111,15 @@ public class Appointment {
         this.outcomeRecord = outcomeRecord;
     }
 
+    /**
+     * Checks whether this record was issued by a recurring prescription plan rather than booked as a consultation.
+     *
+     * @return true if the record is a prescription refill
+     */
+    public boolean isPrescriptionRefill() {
+        return outcomeRecord != null && AppointmentCRUD.REFILL_SERVICE_TYPE.equals(outcomeRecord.getServiceType());
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -1,18 +1,60 @@
 package utils.appointments;
 
 import datamgmt.retrievers.AppointmentData;
+import datamgmt.retrievers.AppointmentSlotData;
+import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.appointmentslots.TimeWindow;
+import utils.appointments.appointmentslots.WeeklyAvailability;
+import utils.appointments.recurrence.AppointmentSeries;
+import utils.appointments.recurrence.RecurringAppointments;
+import utils.appointments.schedules.DaySchedule;
+import utils.appointments.schedules.DoctorLoadBalancer;
+import utils.appointments.schedules.DoctorSchedule;
+import utils.appointments.waitlist.WaitlistEntry;
+import utils.appointments.waitlist.WaitlistOffer;
 import utils.enums.AppointmentStatus;
+import utils.enums.PrescriptionPlanStatus;
+import utils.enums.RecurrenceFrequency;
+import utils.enums.ResourceType;
+import utils.enums.RevalidationAction;
 import utils.medicalrecords.OutcomeRecord;
+import utils.medicalrecords.PendingPrescription;
+import utils.medicalrecords.Prescription;
+import utils.medicalrecords.PrescriptionPlan;
+import utils.medicalrecords.RefillScheduler;
+import utils.resources.Resource;
+import utils.resources.ResourceBooking;
+import utils.resources.ResourceScheduler;
 import utils.ValidationUtils;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Provides CRUD operations for managing appointment data.
  */
 public class AppointmentCRUD {
+    public static final String REFILL_SERVICE_TYPE = "Prescription Refill";
+    private static final AtomicLong lastIssuedID = new AtomicLong();
+    private static final int RESCHEDULE_SEARCH_DAYS = 14;
+
     private final AppointmentData data;
 
     /**
@@ -45,6 +87,7 @@ public class AppointmentCRUD {
         }
 
         appointment.updateStatus(AppointmentStatus.ACCEPTED);
+        data.appointmentChanged(appointment);
         saveAppointments("Appointment confirmed successfully.");
     }
 
@@ -58,17 +101,190 @@ public class AppointmentCRUD {
      * @param status    the status of the appointment
      */
     public void scheduleAppointment(String patientID, String doctorID, String date, String time, AppointmentStatus status) {
+        scheduleAppointment(patientID, doctorID, date, time, status, List.of());
+    }
+
+    /**
+     * Schedules a new appointment together with the rooms and equipment it needs.
+     * A free consultation room is assigned automatically unless one is requested explicitly.
+     * The appointment is only created if every resource could be reserved.
+     *
+     * @param patientID   the patient's ID
+     * @param doctorID    the doctor's ID
+     * @param date        the appointment date in "dd/MM/yyyy"
+     * @param time        the appointment time in "HH:mm"
+     * @param status      the status of the appointment
+     * @param resourceIDs the IDs of additional resources (e.g. equipment) to reserve
+     */
+    public void scheduleAppointment(String patientID, String doctorID, String date, String time, AppointmentStatus status,
+                                    List<String> resourceIDs) {
         if (!ValidationUtils.isFutureDate(date, time, "dd/MM/yyyy", "HH:mm")) {
             System.out.println("Error: The selected date and time have already passed.");
             return;
         }
 
-        String appointmentID = "APPT" + System.currentTimeMillis();
+        LocalDate appointmentDate = LocalDate.parse(date, Appointment.DATE_FORMAT);
+        LocalTime appointmentTime = LocalTime.parse(time, Appointment.TIME_FORMAT);
+        if (data.getRecurringAppointments().isBooked(doctorID, appointmentDate, appointmentTime)) {
+            System.out.println("Error: The doctor has a recurring appointment at the selected date and time.");
+            return;
+        }
+
+        String appointmentID = nextID("APPT");
+        if (!reserveResources(appointmentID, appointmentDate, appointmentTime, resourceIDs)) {
+            return;
+        }
         Appointment newAppointment = new Appointment(appointmentID, patientID, doctorID, date, time, status, null);
 
         data.getAppointments().add(newAppointment);
+        data.appointmentChanged(newAppointment);
         saveAppointments("Appointment scheduled successfully.");
     }
+    /**
+     * Schedules a new appointment with the least-loaded doctor whose appointment slots cover
+     * the requested date and time and who is not already booked then.
+     *
+     * @param patientID the patient's ID
+     * @param date      the appointment date in "dd/MM/yyyy"
+     * @param time      the appointment time in "HH:mm"
+     * @param slots     the appointment slots of all doctors
+     * @return the ID of the assigned doctor, or empty if no doctor is available
+     */
+    public Optional<String> scheduleWithAnyAvailableDoctor(String patientID, String date, String time, List<AppointmentSlot> slots) {
+        if (!ValidationUtils.isFutureDate(date, time, "dd/MM/yyyy", "HH:mm")) {
+            System.out.println("Error: The selected date and time have already passed.");
+            return Optional.empty();
+        }
+
+        LocalDate appointmentDate = LocalDate.parse(date, Appointment.DATE_FORMAT);
+        LocalTime appointmentTime = LocalTime.parse(time, Appointment.TIME_FORMAT);
+        Map<String, WeeklyAvailability> availabilityByDoctor = slots.stream()
+                .collect(Collectors.groupingBy(AppointmentSlot::getDoctorID,
+                        Collectors.collectingAndThen(Collectors.toList(), WeeklyAvailability::of)));
+
+        data.expireDueAppointments();
+        DoctorLoadBalancer loadBalancer = data.getLoadBalancer();
+        loadBalancer.registerDoctors(availabilityByDoctor.keySet());
+        Optional<String> doctorID = loadBalancer.pickLeastLoaded(appointmentDate, candidate ->
+                availabilityByDoctor.containsKey(candidate)
+                        && ValidationUtils.isValidAppointmentTime(availabilityByDoctor.get(candidate), appointmentDate, appointmentTime)
+                        && !isDoctorBooked(candidate, appointmentDate, appointmentTime));
+
+        if (doctorID.isEmpty()) {
+            System.out.println("No doctor is available at the selected date and time.");
+            return doctorID;
+        }
+        scheduleAppointment(patientID, doctorID.get(), date, time, AppointmentStatus.PENDING);
+        return doctorID;
+    }
+
+    /**
+     * Books a recurring appointment series, stored once as a rule rather than as individual appointments.
+     * Every occurrence up to the series' end date must fall within the doctor's working hours.
+     * Conflicts are checked against the doctor's other series rule-to-rule, and against the doctor's
+     * concrete open appointments within the series' date range only.
+     *
+     * @param patientID    the patient's ID
+     * @param doctorID     the doctor's ID
+     * @param startDate    the date of the first occurrence
+     * @param time         the start time of every occurrence
+     * @param frequency    the unit the series repeats in
+     * @param interval     the number of units between occurrences
+     * @param occurrences  the total number of occurrences
+     * @param status       the status of the series
+     * @param availability the doctor's compiled working hours
+     * @return the booked series, or empty if it could not be booked
+     */
+    public Optional<AppointmentSeries> scheduleSeries(String patientID, String doctorID, LocalDate startDate, LocalTime time,
+                                                      RecurrenceFrequency frequency, int interval, int occurrences,
+                                                      AppointmentStatus status, WeeklyAvailability availability) {
+        if (!LocalDateTime.of(startDate, time).isAfter(LocalDateTime.now())) {
+            System.out.println("Error: The first occurrence has already passed.");
+            return Optional.empty();
+        }
+        AppointmentSeries series = new AppointmentSeries(nextID("SER"), patientID, doctorID, startDate, time,
+                frequency, interval, occurrences, status);
+
+        List<String> unavailableDates = series.getOccurrencesBetween(startDate, series.getEndDate()).stream()
+                .filter(date -> !ValidationUtils.isValidAppointmentTime(availability, date, time))
+                .map(date -> date.format(Appointment.DATE_FORMAT))
+                .collect(Collectors.toList());
+        if (!unavailableDates.isEmpty()) {
+            System.out.println("Error: The series falls outside the doctor's working hours on "
+                    + String.join(", ", unavailableDates) + ".");
+            return Optional.empty();
+        }
+
+        RecurringAppointments recurringAppointments = data.getRecurringAppointments();
+        Optional<AppointmentSeries> conflictingSeries = recurringAppointments.findConflict(series);
+        if (conflictingSeries.isPresent()) {
+            System.out.println("Error: The series collides with series " + conflictingSeries.get().getSeriesID() + ".");
+            return Optional.empty();
+        }
+        for (Appointment appointment : getDoctorSchedule(doctorID).getAppointmentsBetween(startDate, series.getEndDate(), null)) {
+            if ((appointment.getStatus() == AppointmentStatus.PENDING || appointment.getStatus() == AppointmentStatus.ACCEPTED)
+                    && series.conflictsWith(appointment.getLocalDate(), appointment.getLocalTime())) {
+                System.out.println("Error: The series collides with appointment " + appointment.getAppointmentID()
+                        + " on " + appointment.getDate() + " at " + appointment.getTime() + ".");
+                return Optional.empty();
+            }
+        }
+
+        recurringAppointments.add(series);
+        System.out.println("Recurring appointment series scheduled successfully: " + series);
+        return Optional.of(series);
+    }
+
+    /**
+     * Skips one occurrence of a recurring appointment series.
+     *
+     * @param seriesID the series ID
+     * @param date     the date of the occurrence to skip
+     */
+    public void skipSeriesOccurrence(String seriesID, LocalDate date) {
+        if (data.getRecurringAppointments().skipOccurrence(seriesID, date)) {
+            System.out.println("Occurrence on " + date.format(Appointment.DATE_FORMAT) + " skipped.");
+        } else {
+            System.out.println("No occurrence of series " + seriesID + " on " + date.format(Appointment.DATE_FORMAT) + ".");
+        }
+    }
+
+    /**
+     * Cancels all remaining occurrences of a recurring appointment series.
+     *
+     * @param seriesID the series ID
+     */
+    public void cancelSeries(String seriesID) {
+        if (data.getRecurringAppointments().updateStatus(seriesID, AppointmentStatus.CANCELLED)) {
+            System.out.println("Appointment series cancelled successfully.");
+        } else {
+            System.out.println("Appointment series not found.");
+        }
+    }
+
+    /**
+     * Returns the recurring appointment series of a patient.
+     *
+     * @param patientID the patient's ID
+     * @return the patient's series
+     */
+    public List<AppointmentSeries> getSeriesForPatient(String patientID) {
+        return data.getRecurringAppointments().getSeriesForPatient(patientID);
+    }
+
+    /**
+     * Checks whether a doctor already has an open appointment or series occurrence overlapping the given time.
+     *
+     * @param doctorID the doctor's ID
+     * @param date     the date
+     * @param time     the start time
+     * @return true if the doctor is booked at that time
+     */
+    public boolean isDoctorBooked(String doctorID, LocalDate date, LocalTime time) {
+        return data.getDoctorSchedule(doctorID).getDay(date).isBusy(time)
+                || data.getRecurringAppointments().isBooked(doctorID, date, time);
+    }
+
     /**
      * Updates an existing appointment in the system.
      *
@@ -76,62 +292,187 @@ public class AppointmentCRUD {
      * @throws IllegalArgumentException if the appointment is not found
      */
     public void updateAppointment(Appointment updatedAppointment) {
-        if (updatedAppointment == null || updatedAppointment.getAppointmentID() == null) {
-            throw new IllegalArgumentException("Updated appointment or its ID cannot be null.");
+        updateAppointments(Collections.singletonList(updatedAppointment));
+    }
+
+    /**
+     * Updates several existing appointments and saves them with a single write.
+     * Nothing is changed unless every appointment exists.
+     *
+     * @param updatedAppointments the updated Appointment objects
+     * @return true if the changes were written to the file
+     * @throws IllegalArgumentException if any appointment is not found
+     */
+    public boolean updateAppointments(Collection<Appointment> updatedAppointments) {
+        Map<String, Appointment> updatesByID = new HashMap<>();
+        for (Appointment updatedAppointment : updatedAppointments) {
+            if (updatedAppointment == null || updatedAppointment.getAppointmentID() == null) {
+                throw new IllegalArgumentException("Updated appointment or its ID cannot be null.");
+            }
+            updatesByID.put(updatedAppointment.getAppointmentID(), updatedAppointment);
         }
 
+        data.expireDueAppointments();
         List<Appointment> appointments = data.getAppointments();
-        Optional<Appointment> existingAppointmentOpt = appointments.stream()
-                .filter(appointment -> appointment.getAppointmentID().equals(updatedAppointment.getAppointmentID()))
-                .findFirst();
-
-        if (existingAppointmentOpt.isEmpty()) {
-            throw new IllegalArgumentException("Appointment with ID " + updatedAppointment.getAppointmentID() + " not found.");
+        Set<String> existingIDs = appointments.stream()
+                .map(Appointment::getAppointmentID)
+                .filter(updatesByID::containsKey)
+                .collect(Collectors.toSet());
+        for (String appointmentID : updatesByID.keySet()) {
+            if (!existingIDs.contains(appointmentID)) {
+                throw new IllegalArgumentException("Appointment with ID " + appointmentID + " not found.");
+            }
         }
 
-        // Replace the existing appointment with the updated one
-        appointments.replaceAll(appointment ->
-                appointment.getAppointmentID().equals(updatedAppointment.getAppointmentID())
-                        ? updatedAppointment
-                        : appointment);
+        // Replace the existing appointments with the updated ones
+        appointments.replaceAll(appointment -> updatesByID.getOrDefault(appointment.getAppointmentID(), appointment));
+        for (Appointment updatedAppointment : updatesByID.values()) {
+            data.appointmentChanged(updatedAppointment);
+        }
 
         // Persist the changes
+        boolean saved = false;
         try {
-            data.writeData();
-            System.out.println("Appointment updated successfully.");
+            saved = data.writeData();
+            if (saved) {
+                System.out.println("Appointment updated successfully.");
+            }
         } catch (Exception e) {
             System.err.println("Error saving updated appointment: " + e.getMessage());
         }
-        data.reloadData();
+        data.getResourceScheduler().flush();
+        bookWaitlistOffers();
+        return saved;
+    }
+    /**
+     * Brings the schedules, queues and reservations up to date with appointments that were changed in
+     * memory without being saved, e.g. after an unsaved change was undone.
+     *
+     * @param appointments the appointments in their current state
+     */
+    public void refreshAppointments(Collection<Appointment> appointments) {
+        for (Appointment appointment : appointments) {
+            data.appointmentChanged(appointment);
+        }
     }
+
     /**
      * Reschedules an existing appointment by updating its date and time.
      *
      * @param appointmentID the ID of the appointment to reschedule
      * @param newDate       the new date in "dd/MM/yyyy"
      * @param newTime       the new time in "HH:mm"
+     * @return true if the appointment was rescheduled
+     */
+    public boolean rescheduleAppointment(String appointmentID, String newDate, String newTime) {
+        return rescheduleAppointment(appointmentID, newDate, newTime, null);
+    }
+
+    /**
+     * Reschedules an existing appointment or series occurrence, rejecting the new time if the doctor
+     * already has another open appointment or series occurrence then. A rescheduled occurrence is
+     * skipped in its series and booked as a single appointment at the new time.
+     *
+     * @param appointmentID the ID of the appointment or occurrence to reschedule
+     * @param newDate       the new date in "dd/MM/yyyy"
+     * @param newTime       the new time in "HH:mm"
+     * @param newStatus     the status after rescheduling, or null to keep the current one
+     * @return true if the appointment was rescheduled
      */
-    public void rescheduleAppointment(String appointmentID, String newDate, String newTime) {
+    public boolean rescheduleAppointment(String appointmentID, String newDate, String newTime, AppointmentStatus newStatus) {
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = LocalDate.parse(newDate, Appointment.DATE_FORMAT);
+            time = LocalTime.parse(newTime, Appointment.TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date or time format.");
+            return false;
+        }
+        if (!LocalDateTime.of(date, time).isAfter(LocalDateTime.now())) {
+            System.out.println("Error: The selected date and time have already passed.");
+            return false;
+        }
+
+        Optional<AppointmentSeries> series = data.getRecurringAppointments().findByOccurrence(appointmentID);
+        if (series.isPresent()) {
+            return rescheduleOccurrence(series.get(), appointmentID, date, time, newStatus);
+        }
+
         Optional<Appointment> appointmentOpt = findAppointmentById(appointmentID);
 
         if (appointmentOpt.isEmpty()) {
             System.out.println("Appointment not found.");
-            return;
+            return false;
         }
 
         Appointment appointment = appointmentOpt.get();
+        if (isRescheduleConflict(appointment.getDoctorID(), date, time, appointment.getAppointmentID())) {
+            return false;
+        }
         appointment.setDate(newDate);
         appointment.setTime(newTime);
+        if (newStatus != null) {
+            appointment.updateStatus(newStatus);
+        }
+        data.appointmentChanged(appointment);
+
+        saveAppointments("Appointment rescheduled successfully.");
+        return true;
+    }
+
+    private boolean rescheduleOccurrence(AppointmentSeries series, String occurrenceID, LocalDate date, LocalTime time,
+                                         AppointmentStatus newStatus) {
+        if (isRescheduleConflict(series.getDoctorID(), date, time, occurrenceID)) {
+            return false;
+        }
 
+        String appointmentID = nextID("APPT");
+        if (!reserveResources(appointmentID, date, time, List.of())) {
+            return false;
+        }
+        Appointment appointment = new Appointment(appointmentID, series.getPatientID(), series.getDoctorID(),
+                date.format(Appointment.DATE_FORMAT), time.format(Appointment.TIME_FORMAT),
+                newStatus == null ? series.getStatus() : newStatus, null);
+        data.getRecurringAppointments().skipOccurrence(series.getSeriesID(), series.getOccurrenceDate(occurrenceID).get());
+        data.getAppointments().add(appointment);
+        data.appointmentChanged(appointment);
         saveAppointments("Appointment rescheduled successfully.");
+        return true;
+    }
+
+    /**
+     * Checks whether moving an appointment or occurrence to a new time would collide with the doctor's
+     * other open appointments or series occurrences, and reports the clash.
+     *
+     * @return true if the new time is taken
+     */
+    private boolean isRescheduleConflict(String doctorID, LocalDate date, LocalTime time, String movingID) {
+        String conflict = findMoveConflict(data.getDoctorSchedule(doctorID).getDay(date), time, Set.of(movingID));
+        if (conflict != null) {
+            System.out.println("Error: The new time collides with appointment " + conflict + ".");
+            return true;
+        }
+        if (data.getRecurringAppointments().isBooked(doctorID, date, time, movingID)) {
+            System.out.println("Error: The doctor has a recurring appointment at the selected date and time.");
+            return true;
+        }
+        return false;
     }
 
     /**
      * Cancels an appointment by setting its status to "CANCELLED".
+     * Cancelling a series occurrence skips that occurrence only.
      *
-     * @param appointmentID the ID of the appointment to cancel
+     * @param appointmentID the ID of the appointment or occurrence to cancel
      */
     public void cancelAppointment(String appointmentID) {
+        Optional<AppointmentSeries> series = data.getRecurringAppointments().findByOccurrence(appointmentID);
+        if (series.isPresent()) {
+            skipSeriesOccurrence(series.get().getSeriesID(), series.get().getOccurrenceDate(appointmentID).get());
+            return;
+        }
+
         Optional<Appointment> appointmentOpt = findAppointmentById(appointmentID);
 
         if (appointmentOpt.isEmpty()) {
@@ -141,17 +482,178 @@ public class AppointmentCRUD {
 
         Appointment appointment = appointmentOpt.get();
         appointment.updateStatus(AppointmentStatus.CANCELLED);
+        data.appointmentChanged(appointment);
 
         saveAppointments("Appointment cancelled successfully.");
     }
 
     /**
-     * Adds or updates an outcome record for an appointment.
+     * Cancels every open appointment of a doctor within a date range in one batch, e.g. when the doctor is off sick.
+     * Appointments are found through the doctor's schedule and all changes are persisted in a single write.
      *
-     * @param appointmentID the ID of the appointment
+     * @param doctorID        the doctor's ID
+     * @param from            the first date to include
+     * @param to              the last date to include
+     * @param status          the status to filter by, or null for all open appointments
+     * @param offerFreedSlots true to offer the freed slots to waitlisted patients of the same doctor
+     * @return the report of cancelled and skipped appointments
+     */
+    public BulkOperationResult bulkCancelAppointments(String doctorID, LocalDate from, LocalDate to,
+                                                      AppointmentStatus status, boolean offerFreedSlots) {
+        BulkOperationResult result = new BulkOperationResult("Cancel");
+        Set<String> cancelledIDs = new HashSet<>();
+        for (Appointment appointment : getDoctorSchedule(doctorID).getAppointmentsBetween(from, to, status)) {
+            if (!isOpen(appointment)) {
+                result.addSkipped(appointment, "already " + appointment.getStatus());
+                continue;
+            }
+            appointment.updateStatus(AppointmentStatus.CANCELLED);
+            data.appointmentChanged(appointment);
+            cancelledIDs.add(appointment.getAppointmentID());
+            result.addChanged(appointment, "cancelled " + appointment.getDate() + " " + appointment.getTime());
+        }
+        if (!offerFreedSlots) {
+            data.getWaitlist().withdrawOffers(cancelledIDs);
+        }
+        if (result.getChangedCount() > 0) {
+            saveAppointments(result.getChangedCount() + " appointment(s) cancelled.");
+        }
+        return result;
+    }
+
+    /**
+     * Moves every open appointment of a doctor within a date range in one batch, e.g. to shift a whole clinic
+     * session to another day, time or doctor. Moves are planned for the whole batch first, so appointments
+     * may move into times that other appointments of the same batch are vacating; appointments whose new time
+     * is outside the target doctor's working hours, in the past or taken are left unchanged and reported.
+     * All changes are persisted in a single write.
+     *
+     * @param doctorID           the doctor's ID
+     * @param from               the first date to include
+     * @param to                 the last date to include
+     * @param status             the status to filter by, or null for all open appointments
+     * @param targetDoctorID     the doctor to move the appointments to, or null to keep the same doctor
+     * @param dayOffset          the number of days to move the appointments by
+     * @param minuteOffset       the number of minutes to move the appointments by within the day
+     * @param targetAvailability the target doctor's working hours, or null to skip that check
+     * @return the report of moved and skipped appointments
+     */
+    public BulkOperationResult bulkMoveAppointments(String doctorID, LocalDate from, LocalDate to,
+                                                    AppointmentStatus status, String targetDoctorID,
+                                                    int dayOffset, int minuteOffset,
+                                                    WeeklyAvailability targetAvailability) {
+        BulkOperationResult result = new BulkOperationResult("Move");
+        String target = targetDoctorID != null ? targetDoctorID : doctorID;
+        boolean sameDoctor = target.equals(doctorID);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Appointment> byID = new HashMap<>();
+        Map<String, LocalDateTime> moves = new LinkedHashMap<>();
+        for (Appointment appointment : getDoctorSchedule(doctorID).getAppointmentsBetween(from, to, status)) {
+            if (!isOpen(appointment)) {
+                result.addSkipped(appointment, "already " + appointment.getStatus());
+                continue;
+            }
+            byID.put(appointment.getAppointmentID(), appointment);
+            LocalDateTime newTime = appointment.getDateTime().plusDays(dayOffset).plusMinutes(minuteOffset);
+            if (!newTime.toLocalDate().equals(appointment.getLocalDate().plusDays(dayOffset))) {
+                result.addSkipped(appointment, "new time would cross midnight");
+            } else if (!newTime.isAfter(now)) {
+                result.addSkipped(appointment, "new time " + newTime.format(Appointment.DATE_FORMAT) + " "
+                        + newTime.format(Appointment.TIME_FORMAT) + " is in the past");
+            } else if (targetAvailability != null
+                    && !ValidationUtils.isValidAppointmentTime(targetAvailability, newTime.toLocalDate(), newTime.toLocalTime())) {
+                result.addSkipped(appointment, "outside " + target + "'s working hours");
+            } else {
+                moves.put(appointment.getAppointmentID(), newTime);
+            }
+        }
+
+        // An appointment that cannot move keeps its time, which may block moves planned into it, so re-plan until stable
+        DoctorSchedule targetSchedule = data.getDoctorSchedule(target);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Map<LocalDate, List<LocalTime>> planned = new HashMap<>();
+            for (Map.Entry<String, LocalDateTime> move : moves.entrySet()) {
+                LocalDate date = move.getValue().toLocalDate();
+                LocalTime time = move.getValue().toLocalTime();
+                String conflict = findMoveConflict(targetSchedule.getDay(date), time, sameDoctor ? moves.keySet() : Set.of());
+                if (conflict == null && data.getRecurringAppointments().isBooked(target, date, time)) {
+                    conflict = "a recurring appointment";
+                }
+                if (conflict == null) {
+                    for (LocalTime other : planned.getOrDefault(date, List.of())) {
+                        if (Math.abs(Duration.between(other, time).toMinutes()) < Appointment.DURATION_MINUTES) {
+                            conflict = "another moved appointment";
+                            break;
+                        }
+                    }
+                }
+                if (conflict != null) {
+                    result.addSkipped(byID.get(move.getKey()), "new time " + date.format(Appointment.DATE_FORMAT) + " "
+                            + time.format(Appointment.TIME_FORMAT) + " clashes with " + conflict);
+                    moves.remove(move.getKey());
+                    changed = true;
+                    break;
+                }
+                planned.computeIfAbsent(date, d -> new ArrayList<>()).add(time);
+            }
+        }
+
+        for (Map.Entry<String, LocalDateTime> move : moves.entrySet()) {
+            Appointment appointment = byID.get(move.getKey());
+            String previous = appointment.getDate() + " " + appointment.getTime();
+            appointment.setDate(move.getValue().format(Appointment.DATE_FORMAT));
+            appointment.setTime(move.getValue().format(Appointment.TIME_FORMAT));
+            if (!sameDoctor) {
+                appointment.setDoctorID(target);
+                appointment.updateStatus(AppointmentStatus.PENDING); // The new doctor has to confirm
+            }
+            data.appointmentChanged(appointment);
+            result.addChanged(appointment, "moved from " + previous + " to " + appointment.getDate() + " "
+                    + appointment.getTime() + (sameDoctor ? "" : " with " + target));
+        }
+        if (result.getChangedCount() > 0) {
+            saveAppointments(result.getChangedCount() + " appointment(s) moved.");
+        }
+        return result;
+    }
+
+    /**
+     * Describes the open appointment that overlaps a new time, ignoring appointments that are moving away.
+     *
+     * @return a description of the clashing appointment, or null if the time is free
+     */
+    private static String findMoveConflict(DaySchedule day, LocalTime time, Set<String> movingIDs) {
+        for (Appointment appointment : day.getOpenAppointmentsOverlapping(time)) {
+            if (!movingIDs.contains(appointment.getAppointmentID())) {
+                return appointment.getAppointmentID();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOpen(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.ACCEPTED;
+    }
+
+    /**
+     * Adds or updates an outcome record for an appointment. A series occurrence is stored as a
+     * completed appointment carrying the outcome, and its date is skipped in the series.
+     *
+     * @param appointmentID the ID of the appointment or occurrence
      * @param outcomeRecord the outcome record to be added
      */
     public void addOutcomeRecord(String appointmentID, OutcomeRecord outcomeRecord) {
+        Optional<AppointmentSeries> series = data.getRecurringAppointments().findByOccurrence(appointmentID);
+        if (series.isPresent()) {
+            storeOccurrence(series.get(), appointmentID, AppointmentStatus.COMPLETED, outcomeRecord,
+                    "Outcome record added successfully.");
+            return;
+        }
+
         Optional<Appointment> appointmentOpt = findAppointmentById(appointmentID);
 
         if (appointmentOpt.isEmpty()) {
@@ -161,10 +663,169 @@ public class AppointmentCRUD {
 
         Appointment appointment = appointmentOpt.get();
         appointment.setOutcomeRecord(outcomeRecord);
+        data.appointmentChanged(appointment);
 
         saveAppointments("Outcome record added successfully.");
     }
 
+    /**
+     * Completes an appointment or series occurrence with its outcome record. An occurrence is stored as a
+     * concrete appointment and its date skipped in the series, so its outcome and prescriptions are kept
+     * like those of any other appointment.
+     *
+     * @param appointmentID the ID of the appointment or occurrence
+     * @param outcomeRecord the outcome record
+     * @return true if the completed appointment was saved
+     */
+    public boolean completeAppointment(String appointmentID, OutcomeRecord outcomeRecord) {
+        Optional<AppointmentSeries> series = data.getRecurringAppointments().findByOccurrence(appointmentID);
+        if (series.isPresent()) {
+            return storeOccurrence(series.get(), appointmentID, AppointmentStatus.COMPLETED, outcomeRecord,
+                    "Appointment outcome recorded successfully.");
+        }
+
+        Optional<Appointment> appointmentOpt = findAppointmentById(appointmentID);
+        if (appointmentOpt.isEmpty()) {
+            System.out.println("Appointment not found.");
+            return false;
+        }
+        Appointment appointment = appointmentOpt.get();
+        appointment.setOutcomeRecord(outcomeRecord);
+        appointment.updateStatus(AppointmentStatus.COMPLETED);
+        data.appointmentChanged(appointment);
+        return saveAppointments("Appointment outcome recorded successfully.");
+    }
+
+    /**
+     * Stores one occurrence of a series as a concrete appointment at the same date and time and skips
+     * that date in the series. The appointment is saved before the occurrence is skipped, so a failed
+     * write leaves the series unchanged.
+     *
+     * @return true if the appointment was saved
+     */
+    private boolean storeOccurrence(AppointmentSeries series, String occurrenceID, AppointmentStatus status,
+                                    OutcomeRecord outcomeRecord, String successMessage) {
+        LocalDate date = series.getOccurrenceDate(occurrenceID).get();
+        Appointment appointment = new Appointment(nextID("APPT"), series.getPatientID(), series.getDoctorID(),
+                date.format(Appointment.DATE_FORMAT), series.getTime().format(Appointment.TIME_FORMAT),
+                status, outcomeRecord);
+        data.getAppointments().add(appointment);
+        if (!data.writeData()) {
+            data.getAppointments().remove(appointment);
+            return false;
+        }
+        data.getRecurringAppointments().skipOccurrence(series.getSeriesID(), date);
+        data.appointmentChanged(appointment);
+        System.out.println(successMessage);
+        return true;
+    }
+
+    /**
+     * Retrieves the prescriptions waiting to be dispensed, oldest first, with the patients' names attached.
+     *
+     * @return the pending prescriptions
+     */
+    public List<PendingPrescription> getPendingPrescriptions() {
+        data.expireDueAppointments();
+        generateDueRefills();
+        return data.getPrescriptionQueue().getPending();
+    }
+
+    /**
+     * Creates a recurring prescription plan that issues the same prescription on a schedule.
+     *
+     * @param patientID      the patient's ID
+     * @param doctorID       the prescribing doctor's ID
+     * @param medicationName the medicine to issue
+     * @param quantity       the quantity issued with every refill
+     * @param frequency      the unit the refills repeat in
+     * @param interval       the number of units between refills
+     * @param firstRefill    the date the first refill is due
+     * @param refills        the total number of refills
+     * @return the created plan
+     */
+    public PrescriptionPlan createPrescriptionPlan(String patientID, String doctorID, String medicationName, int quantity,
+                                                   RecurrenceFrequency frequency, int interval, LocalDate firstRefill,
+                                                   int refills) {
+        if (firstRefill.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("The first refill cannot be in the past.");
+        }
+        if (refills < 1) {
+            throw new IllegalArgumentException("A plan needs at least one refill.");
+        }
+        PrescriptionPlan plan = new PrescriptionPlan(nextID("RXP"), patientID, doctorID, medicationName, quantity,
+                frequency, interval, firstRefill, refills, PrescriptionPlanStatus.ACTIVE);
+        data.getRefillScheduler().add(plan);
+        System.out.println("Recurring prescription created successfully: " + plan);
+        return plan;
+    }
+
+    /**
+     * Cancels a recurring prescription plan so no further refills are issued.
+     *
+     * @param planID the plan ID
+     */
+    public void cancelPrescriptionPlan(String planID) {
+        if (data.getRefillScheduler().cancel(planID)) {
+            System.out.println("Recurring prescription cancelled successfully.");
+        } else {
+            System.out.println("No active recurring prescription with ID " + planID + ".");
+        }
+    }
+
+    /**
+     * Returns the recurring prescription plans of a patient.
+     *
+     * @param patientID the patient's ID
+     * @return the patient's plans
+     */
+    public List<PrescriptionPlan> getPrescriptionPlansForPatient(String patientID) {
+        return data.getRefillScheduler().getPlansForPatient(patientID);
+    }
+
+    /**
+     * Issues the refills of every recurring prescription plan that has fallen due. The refills of one
+     * patient and doctor are issued together as a completed "Prescription Refill" record whose PENDING
+     * prescriptions join the pharmacist's queue. All refill records are saved with a single write.
+     *
+     * @return the number of refills issued
+     */
+    public int generateDueRefills() {
+        LocalDate today = LocalDate.now();
+        RefillScheduler refillScheduler = data.getRefillScheduler();
+        LocalDate nextRefill = refillScheduler.getNextRefillDate();
+        if (nextRefill == null || nextRefill.isAfter(today)) {
+            return 0;
+        }
+
+        List<PrescriptionPlan> due = refillScheduler.getDue(today);
+        String date = today.format(Appointment.DATE_FORMAT);
+        String time = LocalTime.now().format(Appointment.TIME_FORMAT);
+        Map<String, Appointment> refills = new LinkedHashMap<>();
+        for (PrescriptionPlan plan : due) {
+            Appointment refill = refills.computeIfAbsent(plan.getPatientID() + "|" + plan.getDoctorID(),
+                    key -> new Appointment(nextID("APPT"), plan.getPatientID(), plan.getDoctorID(), date, time,
+                            AppointmentStatus.COMPLETED, new OutcomeRecord(date, REFILL_SERVICE_TYPE, "Refill of")));
+            OutcomeRecord outcome = refill.getOutcomeRecord();
+            outcome.addPrescription(new Prescription(plan.getMedicationName(), plan.getQuantity()));
+            outcome.setConsultationNotes(outcome.getConsultationNotes() + " " + plan.getPlanID());
+        }
+
+        // The plans only move on once their refills are stored, so a failed write issues them again next time
+        data.getAppointments().addAll(refills.values());
+        if (!data.writeData()) {
+            data.getAppointments().removeAll(refills.values());
+            System.out.println("Prescription refills could not be saved and will be retried.");
+            return 0;
+        }
+        for (Appointment refill : refills.values()) {
+            data.appointmentChanged(refill);
+        }
+        refillScheduler.recordRefills(due, today);
+        System.out.println("Issued " + due.size() + " prescription refill(s).");
+        return due.size();
+    }
+
     /**
      * Retrieves appointments based on the specified filters.
      *
@@ -174,6 +835,7 @@ public class AppointmentCRUD {
      * @return a list of filtered appointments
      */
     public List<Appointment> getAppointments(String patientID, String doctorID, AppointmentStatus status) {
+        data.expireDueAppointments();
         return data.getAppointments().stream()
                 .filter(a -> (patientID == null || a.getPatientID().equals(patientID)) &&
                              (doctorID == null || a.getDoctorID().equals(doctorID)) &&
@@ -181,6 +843,171 @@ public class AppointmentCRUD {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves appointments within a date window, including the occurrences of recurring series,
+     * which are expanded for that window only.
+     *
+     * @param patientID the patient ID (optional)
+     * @param doctorID  the doctor ID (optional)
+     * @param status    the appointment status (optional)
+     * @param from      the first date of the window
+     * @param to        the last date of the window, or null for no upper bound
+     * @return the matching appointments and occurrences, in date and time order
+     */
+    public List<Appointment> getAppointments(String patientID, String doctorID, AppointmentStatus status,
+                                             LocalDate from, LocalDate to) {
+        List<Appointment> appointments;
+        if (doctorID != null) {
+            appointments = getDoctorSchedule(doctorID).getAppointmentsBetween(from, to, status).stream()
+                    .filter(a -> patientID == null || a.getPatientID().equals(patientID))
+                    .collect(Collectors.toList());
+        } else {
+            appointments = getAppointments(patientID, null, status).stream()
+                    .filter(a -> isWithin(a, from, to))
+                    .collect(Collectors.toList());
+        }
+        appointments.addAll(data.getRecurringAppointments().getOccurrences(patientID, doctorID, status, from, to));
+        appointments.sort(Comparator.comparing(Appointment::getDateTime));
+        return appointments;
+    }
+
+    /**
+     * Expands the occurrences of recurring series within a date window.
+     *
+     * @param patientID the patient ID (optional)
+     * @param doctorID  the doctor ID (optional)
+     * @param from      the first date of the window
+     * @param to        the last date of the window
+     * @return the occurrences within the window
+     */
+    public List<Appointment> getRecurringOccurrences(String patientID, String doctorID, LocalDate from, LocalDate to) {
+        return data.getRecurringAppointments().getOccurrences(patientID, doctorID, null, from, to);
+    }
+
+    private static boolean isWithin(Appointment appointment, LocalDate from, LocalDate to) {
+        try {
+            LocalDate date = appointment.getLocalDate();
+            return !date.isBefore(from) && (to == null || !date.isAfter(to));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves the incrementally maintained schedule of a doctor.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's schedule, organised by day
+     */
+    public DoctorSchedule getDoctorSchedule(String doctorID) {
+        data.expireDueAppointments();
+        return data.getDoctorSchedule(doctorID);
+    }
+
+    /**
+     * Replaces a doctor's appointment slots and re-validates the doctor's future appointments against them.
+     * Slot changes made from the menus go through here so they are never saved without re-validation.
+     *
+     * @param slotData the appointment slot data handler
+     * @param doctorID the doctor's ID
+     * @param newSlots the doctor's new appointment slots
+     * @param action   what to do with appointments that no longer fit the new slots
+     * @return the appointments that no longer fit the new slots
+     */
+    public List<Appointment> updateDoctorSlots(AppointmentSlotData slotData, String doctorID,
+                                               List<AppointmentSlot> newSlots, RevalidationAction action) {
+        List<AppointmentSlot> previousSlots = slotData.replaceDoctorSlots(doctorID, newSlots);
+        return revalidateDoctorAppointments(doctorID, previousSlots, newSlots, action);
+    }
+
+    /**
+     * Re-validates a doctor's future open appointments after the doctor's appointment slots changed.
+     * Only days of the week whose working hours actually changed are inspected, and only from today
+     * onwards in the doctor's schedule, so past history and untouched days are never scanned.
+     * All changes are persisted in a single write.
+     *
+     * @param doctorID      the doctor's ID
+     * @param previousSlots the doctor's slots before the change
+     * @param newSlots      the doctor's slots after the change
+     * @param action        FLAG to send affected appointments back to PENDING, RESCHEDULE to move them
+     *                      to the nearest free time within the new slots, or NOTIFY to only report them
+     * @return the appointments that no longer fit the new slots
+     */
+    public List<Appointment> revalidateDoctorAppointments(String doctorID, List<AppointmentSlot> previousSlots,
+                                                          List<AppointmentSlot> newSlots, RevalidationAction action) {
+        data.expireDueAppointments();
+        DoctorSchedule schedule = data.getDoctorSchedule(doctorID);
+        WeeklyAvailability availability = WeeklyAvailability.of(newSlots);
+        Set<DayOfWeek> changedDays = WeeklyAvailability.of(previousSlots).getChangedDays(availability);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Appointment> affected = new ArrayList<>();
+        for (DaySchedule day : schedule.getDaysFrom(now.toLocalDate())) {
+            if (!changedDays.contains(day.getDate().getDayOfWeek())
+                    || day.getCount(AppointmentStatus.PENDING) + day.getCount(AppointmentStatus.ACCEPTED) == 0) {
+                continue;
+            }
+            for (Appointment appointment : day.getAppointments()) {
+                if ((appointment.getStatus() == AppointmentStatus.PENDING || appointment.getStatus() == AppointmentStatus.ACCEPTED)
+                        && appointment.getDateTime().isAfter(now)
+                        && !ValidationUtils.isValidAppointmentTime(availability, day.getDate(), appointment.getLocalTime())) {
+                    affected.add(appointment);
+                }
+            }
+        }
+
+        if (affected.isEmpty()) {
+            System.out.println("No future appointments are affected by the slot change.");
+            return affected;
+        }
+        for (Appointment appointment : affected) {
+            String previous = appointment.getDate() + " " + appointment.getTime();
+            LocalDateTime newTime = action == RevalidationAction.RESCHEDULE
+                    ? findRescheduleTime(schedule, availability, appointment.getLocalDate(), now)
+                    : null;
+            if (newTime != null) {
+                appointment.setDate(newTime.format(Appointment.DATE_FORMAT));
+                appointment.setTime(newTime.format(Appointment.TIME_FORMAT));
+                appointment.updateStatus(AppointmentStatus.PENDING);
+                data.appointmentChanged(appointment);
+                System.out.printf("%s moved from %s to %s %s (awaiting confirmation).%n",
+                        appointment.getAppointmentID(), previous, appointment.getDate(), appointment.getTime());
+            } else if (action != RevalidationAction.NOTIFY) {
+                appointment.updateStatus(AppointmentStatus.PENDING);
+                data.appointmentChanged(appointment);
+                System.out.printf("%s on %s is outside the new working hours and needs review.%n",
+                        appointment.getAppointmentID(), previous);
+            } else {
+                System.out.printf("%s on %s (patient %s) is outside the new working hours.%n",
+                        appointment.getAppointmentID(), previous, appointment.getPatientID());
+            }
+        }
+        if (action != RevalidationAction.NOTIFY) {
+            saveAppointments(affected.size() + " affected appointment(s) updated.");
+        }
+        return affected;
+    }
+
+    /**
+     * Finds the earliest free consultation time within the given working hours, starting on the given date.
+     *
+     * @return the new date and time, or null if none is free within the search window
+     */
+    private LocalDateTime findRescheduleTime(DoctorSchedule schedule, WeeklyAvailability availability,
+                                             LocalDate from, LocalDateTime now) {
+        for (int offset = 0; offset < RESCHEDULE_SEARCH_DAYS; offset++) {
+            LocalDate date = from.plusDays(offset);
+            for (TimeWindow window : availability.getWindows(date.getDayOfWeek())) {
+                for (LocalTime time : schedule.getDay(date).getFreeTimes(window.getStart(), window.getEnd())) {
+                    if (LocalDateTime.of(date, time).isAfter(now)) {
+                        return LocalDateTime.of(date, time); // Windows are in order, so the first hit is the earliest
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Displays all appointments matching the given filters.
      *
@@ -205,6 +1032,7 @@ public class AppointmentCRUD {
      * @return an Optional containing the found appointment, or empty if not found
      */
     private Optional<Appointment> findAppointmentById(String appointmentID) {
+        data.expireDueAppointments();
         return data.getAppointments().stream()
                 .filter(a -> a.getAppointmentID().equalsIgnoreCase(appointmentID))
                 .findFirst();
@@ -215,13 +1043,173 @@ public class AppointmentCRUD {
      *
      * @param successMessage the message to display upon successful save
      */
-    private void saveAppointments(String successMessage) {
+    private boolean saveAppointments(String successMessage) {
+        boolean saved = false;
         try {
-            data.writeData();
-            System.out.println(successMessage);
+            saved = data.writeData();
+            if (saved) {
+                System.out.println(successMessage);
+            }
         } catch (Exception e) {
             System.err.println("Error saving appointment data: " + e.getMessage());
         }
-        data.reloadData();
+        data.getResourceScheduler().flush();
+        bookWaitlistOffers();
+        return saved;
+    }
+
+    /**
+     * Reserves the requested resources plus a free consultation room (if rooms are managed and none
+     * was requested) for an appointment, all or nothing.
+     *
+     * @return true if every resource was reserved
+     */
+    private boolean reserveResources(String appointmentID, LocalDate date, LocalTime time, List<String> resourceIDs) {
+        ResourceScheduler scheduler = data.getResourceScheduler();
+        List<String> required = new ArrayList<>(resourceIDs);
+        for (String resourceID : resourceIDs) {
+            if (scheduler.getResource(resourceID).isEmpty()) {
+                System.out.println("Error: Unknown resource " + resourceID + ".");
+                return false;
+            }
+        }
+        boolean roomRequested = resourceIDs.stream()
+                .anyMatch(id -> scheduler.getResource(id).get().getType() == ResourceType.ROOM);
+        if (!roomRequested && scheduler.hasResources(ResourceType.ROOM)) {
+            Optional<Resource> room = scheduler.findAvailable(ResourceType.ROOM, date, time);
+            if (room.isEmpty()) {
+                System.out.println("Error: No consultation room is free at the selected date and time.");
+                return false;
+            }
+            required.add(room.get().getResourceID());
+        }
+        if (required.isEmpty()) {
+            return true;
+        }
+        if (!scheduler.reserve(appointmentID, required, date, time)) {
+            System.out.println("Error: One or more requested resources are already booked at the selected date and time.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reserves additional resources, such as equipment, for an existing open appointment.
+     *
+     * @param appointmentID the ID of the appointment
+     * @param resourceIDs   the IDs of the resources to reserve
+     * @return true if every resource was reserved
+     */
+    public boolean reserveAdditionalResources(String appointmentID, List<String> resourceIDs) {
+        Optional<Appointment> appointmentOpt = findAppointmentById(appointmentID);
+        if (appointmentOpt.isEmpty()) {
+            System.out.println("Appointment not found.");
+            return false;
+        }
+        Appointment appointment = appointmentOpt.get();
+        ResourceScheduler scheduler = data.getResourceScheduler();
+        for (String resourceID : resourceIDs) {
+            if (scheduler.getResource(resourceID).isEmpty()) {
+                System.out.println("Error: Unknown resource " + resourceID + ".");
+                return false;
+            }
+        }
+        // Bookings of one appointment share its time, so they are replaced together
+        List<ResourceBooking> existing = scheduler.release(appointment.getAppointmentID());
+        List<String> required = new ArrayList<>(resourceIDs);
+        for (ResourceBooking booking : existing) {
+            if (!required.contains(booking.getResourceID())) {
+                required.add(booking.getResourceID());
+            }
+        }
+        boolean reserved = scheduler.reserve(appointment.getAppointmentID(), required,
+                appointment.getLocalDate(), appointment.getLocalTime());
+        if (!reserved) {
+            List<String> previous = new ArrayList<>();
+            existing.forEach(booking -> previous.add(booking.getResourceID()));
+            scheduler.reserve(appointment.getAppointmentID(), previous, appointment.getLocalDate(), appointment.getLocalTime());
+            System.out.println("Error: One or more requested resources are already booked at that time.");
+        }
+        scheduler.flush();
+        return reserved;
+    }
+
+    /**
+     * Returns the resources reserved for an appointment.
+     *
+     * @param appointmentID the ID of the appointment
+     * @return the appointment's resource bookings
+     */
+    public List<ResourceBooking> getResourceBookings(String appointmentID) {
+        return data.getResourceScheduler().getBookingsForAppointment(appointmentID);
+    }
+
+    /**
+     * Returns the room and equipment allocator.
+     *
+     * @return the resource scheduler
+     */
+    public ResourceScheduler getResourceScheduler() {
+        return data.getResourceScheduler();
+    }
+
+    /**
+     * Adds a patient to the waitlist for a doctor on a given date and time window.
+     *
+     * @param patientID   the patient's ID
+     * @param doctorID    the doctor's ID
+     * @param date        the requested date
+     * @param windowStart the earliest acceptable start time
+     * @param windowEnd   the latest acceptable start time
+     */
+    public void joinWaitlist(String patientID, String doctorID, LocalDate date, LocalTime windowStart, LocalTime windowEnd) {
+        WaitlistEntry entry = new WaitlistEntry(nextID("WL"), patientID, doctorID,
+                date, windowStart, windowEnd, System.currentTimeMillis());
+        data.getWaitlist().join(entry);
+        System.out.println("Added to the waitlist. You will be booked automatically if a matching slot is freed.");
+    }
+
+    /**
+     * Books every freed slot that the waitlist matched to a waiting patient, persisting them in one write.
+     * Backfilled appointments start as PENDING so the doctor still confirms them.
+     */
+    private void bookWaitlistOffers() {
+        List<WaitlistOffer> offers = data.getWaitlist().drainOffers();
+        if (offers.isEmpty()) {
+            return;
+        }
+        for (WaitlistOffer offer : offers) {
+            WaitlistEntry entry = offer.getEntry();
+            Appointment backfill = new Appointment(nextID("APPT"), entry.getPatientID(), entry.getDoctorID(),
+                    offer.getDate().format(Appointment.DATE_FORMAT), offer.getTime().format(Appointment.TIME_FORMAT),
+                    AppointmentStatus.PENDING, null);
+            if (!reserveResources(backfill.getAppointmentID(), offer.getDate(), offer.getTime(), List.of())) {
+                data.getWaitlist().join(entry);
+                System.out.printf("No room free for the slot from %s; patient %s stays on the waitlist.%n",
+                        offer.getCancelledAppointmentID(), entry.getPatientID());
+                continue;
+            }
+            data.getAppointments().add(backfill);
+            data.appointmentChanged(backfill);
+            System.out.printf("Freed slot from %s offered to waitlisted patient %s (%s %s).%n",
+                    offer.getCancelledAppointmentID(), entry.getPatientID(), backfill.getDate(), backfill.getTime());
+        }
+        try {
+            data.writeData();
+        } catch (Exception e) {
+            System.err.println("Error saving backfilled appointments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates a unique ID based on the current time.
+     * IDs issued within the same millisecond are bumped so they never collide.
+     *
+     * @param prefix the ID prefix, e.g. "APPT"
+     * @return the new ID
+     */
+    private static String nextID(String prefix) {
+        long now = System.currentTimeMillis();
+        return prefix + lastIssuedID.updateAndGet(last -> Math.max(last + 1, now));
     }
 }
@@ -0,0 +1,135 @@
+package utils.appointments;
+
+import utils.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Tracks open appointments (PENDING or ACCEPTED) in a min-heap ordered by the moment
+ * they become outdated, so expiry only ever touches appointments that are actually due.
+ * An appointment becomes outdated at the start of the day after its scheduled date.
+ */
+public class AppointmentExpiryScheduler {
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(Entry::getExpiresAt));
+    private final Map<String, Entry> liveEntries = new HashMap<>();
+
+    /**
+     * Replaces all tracked appointments with the given ones.
+     *
+     * @param appointments the appointments to track
+     */
+    public void rebuild(Collection<Appointment> appointments) {
+        queue.clear();
+        liveEntries.clear();
+        List<Entry> entries = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            Entry entry = createEntry(appointment);
+            if (entry != null) {
+                entries.add(entry);
+                liveEntries.put(appointment.getAppointmentID(), entry);
+            }
+        }
+        queue.addAll(entries);
+    }
+
+    /**
+     * Starts or refreshes tracking for an appointment after it was created, rescheduled or updated.
+     * Appointments that are no longer open are dropped from tracking.
+     *
+     * @param appointment the appointment that changed
+     */
+    public void track(Appointment appointment) {
+        Entry previous = liveEntries.remove(appointment.getAppointmentID());
+        Entry entry = createEntry(appointment);
+        if (entry == null) {
+            return; // The stale heap entry, if any, is skipped when it reaches the head
+        }
+        if (previous != null && previous.getAppointment() == appointment
+                && previous.getExpiresAt().equals(entry.getExpiresAt())) {
+            liveEntries.put(appointment.getAppointmentID(), previous);
+            return;
+        }
+        liveEntries.put(appointment.getAppointmentID(), entry);
+        queue.add(entry);
+    }
+
+    /**
+     * Removes and returns every tracked appointment whose expiry has been reached.
+     * Each appointment is returned at most once per tracked date.
+     *
+     * @param now the current date and time
+     * @return the open appointments that are now outdated
+     */
+    public List<Appointment> pollDue(LocalDateTime now) {
+        List<Appointment> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().getExpiresAt().isAfter(now)) {
+            Entry entry = queue.poll();
+            String appointmentID = entry.getAppointment().getAppointmentID();
+            if (liveEntries.get(appointmentID) != entry) {
+                continue; // Superseded by a reschedule or status change
+            }
+            liveEntries.remove(appointmentID);
+            if (isOpen(entry.getAppointment())) {
+                due.add(entry.getAppointment());
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Returns the moment the next tracked appointment becomes outdated.
+     *
+     * @return the next expiry, or null if nothing is tracked
+     */
+    public LocalDateTime nextExpiry() {
+        return queue.isEmpty() ? null : queue.peek().getExpiresAt();
+    }
+
+    private Entry createEntry(Appointment appointment) {
+        if (!isOpen(appointment)) {
+            return null;
+        }
+        try {
+            LocalDate date = appointment.getLocalDate();
+            return new Entry(appointment, date.plusDays(1).atStartOfDay());
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid appointment date for " + appointment.getAppointmentID() + ": " + appointment.getDate());
+            return null;
+        }
+    }
+
+    private boolean isOpen(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.ACCEPTED;
+    }
+
+    /**
+     * A heap entry pairing an appointment with the moment it becomes outdated.
+     */
+    private static class Entry {
+        private final Appointment appointment;
+        private final LocalDateTime expiresAt;
+
+        Entry(Appointment appointment, LocalDateTime expiresAt) {
+            this.appointment = appointment;
+            this.expiresAt = expiresAt;
+        }
+
+        Appointment getAppointment() {
+            return appointment;
+        }
+
+        LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package utils.appointments;
+
+import java.util.List;
+
+/**
+ * Receives notifications whenever the in-memory appointment data changes,
+ * allowing derived views and indexes to be maintained incrementally.
+ */
+public interface AppointmentListener {
+    /**
+     * Called after the appointment data has been (re)loaded from the file.
+     *
+     * @param appointments all loaded appointments
+     */
+    void onAppointmentsLoaded(List<Appointment> appointments);
+
+    /**
+     * Called after an appointment was created or its date, time, status or outcome changed.
+     *
+     * @param appointment the appointment in its current state
+     */
+    void onAppointmentChanged(Appointment appointment);
+
+    /**
+     * Called after an appointment was removed from the data.
+     *
+     * @param appointment the removed appointment
+     */
+    void onAppointmentRemoved(Appointment appointment);
+}
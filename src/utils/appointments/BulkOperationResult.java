@@ -0,0 +1,55 @@
+package utils.appointments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports what a bulk appointment operation changed and which matching appointments it left alone, and why.
+ */
+public class BulkOperationResult {
+    private final String operation;
+    private final List<String> changed = new ArrayList<>();
+    private final List<String> skipped = new ArrayList<>();
+
+    /**
+     * Constructs an empty result.
+     *
+     * @param operation a short description of the operation, e.g. "Cancel"
+     */
+    public BulkOperationResult(String operation) {
+        this.operation = operation;
+    }
+
+    void addChanged(Appointment appointment, String detail) {
+        changed.add(appointment.getAppointmentID() + " (patient " + appointment.getPatientID() + "): " + detail);
+    }
+
+    void addSkipped(Appointment appointment, String reason) {
+        skipped.add(appointment.getAppointmentID() + " (patient " + appointment.getPatientID() + "): " + reason);
+    }
+
+    public int getChangedCount() {
+        return changed.size();
+    }
+
+    public int getSkippedCount() {
+        return skipped.size();
+    }
+
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    public List<String> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Prints a summary followed by one line per changed and skipped appointment.
+     */
+    public void print() {
+        System.out.printf("%s: %d appointment(s) changed, %d skipped.%n", operation, changed.size(), skipped.size());
+        changed.forEach(line -> System.out.println("  changed  " + line));
+        skipped.forEach(line -> System.out.println("  skipped  " + line));
+    }
+}
@@ -6,13 +6,15 @@ import utils.enums.AppointmentStatus;
 import utils.medicalrecords.MedicalRecord;
 import utils.medicalrecords.OutcomeRecord;
 import utils.medicalrecords.Prescription;
+import utils.medicinemanagements.InteractionScreener;
+import utils.medicinemanagements.PrescriptionStockCheck;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * Provides functionality for doctors to manage their schedule,
@@ -22,6 +24,8 @@ public class DoctorScheduleManager {
     private final AppointmentCRUD appointmentCRUD;
     private final MedicalRecordData medicalRecordData;
     private final String doctorID;
+    private final PrescriptionStockCheck stockCheck;
+    private final InteractionScreener interactionScreener;
 
     /**
      * Constructs a DoctorScheduleManager for a specific doctor.
@@ -29,11 +33,15 @@ public class DoctorScheduleManager {
      * @param appointmentData   the data handler for appointments
      * @param medicalRecordData the data handler for medical records
      * @param doctorID          the doctor's ID
+     * @param stockCheck        the prescription stock check, sharing the caller's medicine inventory
      */
-    public DoctorScheduleManager(AppointmentData appointmentData, MedicalRecordData medicalRecordData, String doctorID) {
+    public DoctorScheduleManager(AppointmentData appointmentData, MedicalRecordData medicalRecordData, String doctorID,
+                                 PrescriptionStockCheck stockCheck) {
         this.appointmentCRUD = new AppointmentCRUD(appointmentData);
         this.medicalRecordData = medicalRecordData;
         this.doctorID = doctorID;
+        this.stockCheck = stockCheck;
+        this.interactionScreener = new InteractionScreener();
     }
 
     /**
@@ -104,33 +112,13 @@ public class DoctorScheduleManager {
     }
 
     /**
-     * Gets and sorts the appointments.
+     * Gets the appointments and series occurrences from yesterday onward, in date and time order.
      *
      * @param today the current date
      * @return sorted list of appointments
      */
     private List<Appointment> getSortedAppointments(LocalDate today) {
-        List<Appointment> appointments = new ArrayList<>();
-        for (Appointment appointment : appointmentCRUD.getAppointments(null, doctorID, null)) {
-            LocalDate appointmentDate = LocalDate.parse(
-                    appointment.getDate(),
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-            if (!appointmentDate.isBefore(today.minusDays(1))) {
-                appointments.add(appointment);
-            }
-        }
-
-        appointments.sort((a1, a2) -> {
-            LocalDateTime dateTime1 = LocalDateTime.parse(
-                    a1.getDate() + " " + a1.getTime(),
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            LocalDateTime dateTime2 = LocalDateTime.parse(
-                    a2.getDate() + " " + a2.getTime(),
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-            return dateTime1.compareTo(dateTime2);
-        });
-
-        return appointments;
+        return appointmentCRUD.getAppointments(null, doctorID, null, today.minusDays(1), null);
     }
 
     /**
@@ -140,10 +128,7 @@ public class DoctorScheduleManager {
      * @return true if the appointment is in the past, false otherwise
      */
     private boolean isPastAppointment(Appointment appointment) {
-        LocalDateTime appointmentDateTime = LocalDateTime.parse(
-                appointment.getDate() + " " + appointment.getTime(),
-                DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-        return appointmentDateTime.isBefore(LocalDateTime.now());
+        return appointment.getDateTime().isBefore(LocalDateTime.now());
     }
 
     /**
@@ -159,12 +144,12 @@ public class DoctorScheduleManager {
         String choice = scanner.nextLine().trim().toLowerCase();
 
         if ("yes".equals(choice)) {
-            appointment.updateStatus(AppointmentStatus.COMPLETED);
-
-            // Update outcome record
+            // Update outcome record; a series occurrence is stored as an appointment when it is completed
             System.out.println("Updating Outcome Record...");
-            OutcomeRecord outcomeRecord = createOutcomeRecord(scanner);
-            appointmentCRUD.addOutcomeRecord(appointment.getAppointmentID(), outcomeRecord);
+            OutcomeRecord outcomeRecord = createOutcomeRecord(scanner, appointment.getPatientID());
+            if (!appointmentCRUD.completeAppointment(appointment.getAppointmentID(), outcomeRecord)) {
+                return;
+            }
 
             // Update medical record
             System.out.println("Updating Medical Record...");
@@ -206,7 +191,8 @@ public class DoctorScheduleManager {
      */
     private void rescheduleAppointment(Scanner scanner) {
         System.out.println("\n--- Reschedule Appointment ---");
-        List<Appointment> appointments = new ArrayList<>(appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED));
+        List<Appointment> appointments = appointmentCRUD.getAppointments(null, doctorID, AppointmentStatus.ACCEPTED,
+                LocalDate.now(), null);
 
         if (appointments.isEmpty()) {
             System.out.println("No accepted appointments to reschedule.");
@@ -290,10 +276,11 @@ public class DoctorScheduleManager {
     /**
      * Creates an outcome record based on user input.
      *
-     * @param scanner the scanner for user input
+     * @param scanner   the scanner for user input
+     * @param patientID the ID of the patient the outcome is for
      * @return the created outcome record
      */
-    private OutcomeRecord createOutcomeRecord(Scanner scanner) {
+    private OutcomeRecord createOutcomeRecord(Scanner scanner, String patientID) {
         System.out.print("Enter date of appointment outcome (dd/MM/yyyy): ");
         String date = scanner.nextLine().trim();
         System.out.print("Enter service type: ");
@@ -305,13 +292,23 @@ public class DoctorScheduleManager {
 
         System.out.print("Enter number of prescriptions: ");
         int prescriptionCount = Integer.parseInt(scanner.nextLine().trim());
+        Set<String> activeMedications = InteractionScreener.collectActiveMedications(
+                appointmentCRUD.getAppointments(patientID, null, null),
+                medicalRecordData.getMedicalRecordByPatientID(patientID), null);
 
         for (int i = 0; i < prescriptionCount; i++) {
             System.out.printf("Prescription %d - Enter medication name: ", i + 1);
-            String medicationName = scanner.nextLine().trim();
+            String medicationName = stockCheck.resolveName(scanner, scanner.nextLine().trim());
             System.out.print("Enter quantity: ");
             int quantity = Integer.parseInt(scanner.nextLine().trim());
-            outcomeRecord.addPrescription(new Prescription(medicationName, quantity));
+            int alreadyPrescribed = PrescriptionStockCheck.prescribedQuantity(outcomeRecord, medicationName);
+            if (interactionScreener.confirm(scanner, medicationName, activeMedications)
+                    && stockCheck.confirm(scanner, medicationName, quantity, alreadyPrescribed)) {
+                outcomeRecord.addPrescription(new Prescription(medicationName, quantity));
+                activeMedications.add(medicationName);
+            } else {
+                System.out.println("Prescription not added.");
+            }
         }
 
         return outcomeRecord;
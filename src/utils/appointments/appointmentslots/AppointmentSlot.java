@@ -15,6 +15,7 @@ public class AppointmentSlot {
     private final LocalTime startTime;
     private final LocalTime endTime;
     private final List<WorkingDay> workingDays; // List of working days as enums
+    private final List<TimeWindow> breaks;
 
     /**
      * Constructs an AppointmentSlot instance.
@@ -25,6 +26,20 @@ public class AppointmentSlot {
      * @param workingDays the list of working days for the slot
      */
     public AppointmentSlot(String doctorID, LocalTime startTime, LocalTime endTime, List<WorkingDay> workingDays) {
+        this(doctorID, startTime, endTime, workingDays, List.of());
+    }
+
+    /**
+     * Constructs an AppointmentSlot with break periods during which no appointment may start.
+     *
+     * @param doctorID    the ID of the doctor
+     * @param startTime   the start time of the slot
+     * @param endTime     the end time of the slot
+     * @param workingDays the list of working days for the slot
+     * @param breaks      the breaks within the slot
+     */
+    public AppointmentSlot(String doctorID, LocalTime startTime, LocalTime endTime, List<WorkingDay> workingDays,
+                           List<TimeWindow> breaks) {
         if (startTime.isAfter(endTime)) {
             throw new IllegalArgumentException("Start time cannot be after end time.");
         }
@@ -32,6 +47,7 @@ public class AppointmentSlot {
         this.startTime = startTime;
         this.endTime = endTime;
         this.workingDays = List.copyOf(workingDays); // Ensure immutability
+        this.breaks = List.copyOf(breaks);
     }
 
     /**
@@ -70,6 +86,15 @@ public class AppointmentSlot {
         return workingDays;
     }
 
+    /**
+     * Retrieves the breaks within this slot.
+     *
+     * @return an immutable list of breaks
+     */
+    public List<TimeWindow> getBreaks() {
+        return breaks;
+    }
+
     /**
      * Converts the list of working days into a semicolon-separated string.
      *
@@ -88,7 +113,22 @@ public class AppointmentSlot {
      */
     @Override
     public String toString() {
-        return doctorID + "," + startTime + "," + endTime + "," + formatWorkingDays();
+        return doctorID + "," + startTime + "," + endTime + "," + formatWorkingDays() + formatBreaks(",");
+    }
+
+    /**
+     * Converts the breaks into a semicolon-separated string, e.g. "12:00-13:00;15:00-15:15".
+     *
+     * @param prefix the text to put before the breaks, if there are any
+     * @return the formatted breaks, or an empty string if there are none
+     */
+    public String formatBreaks(String prefix) {
+        if (breaks.isEmpty()) {
+            return "";
+        }
+        return prefix + breaks.stream()
+                .map(TimeWindow::toString)
+                .collect(Collectors.joining(";"));
     }
 
     /**
@@ -102,6 +142,7 @@ public class AppointmentSlot {
                 ", End Time: " + endTime +
                 ", Working Days: " + workingDays.stream()
                                                 .map(WorkingDay::name)
-                                                .collect(Collectors.joining(", "));
+                                                .collect(Collectors.joining(", "))
+                + formatBreaks(", Breaks: ");
     }
 }
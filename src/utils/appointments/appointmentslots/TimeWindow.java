@@ -0,0 +1,76 @@
+package utils.appointments.appointmentslots;
+
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * A period within a day, from a start time up to (but not including) an end time,
+ * such as a working window or a break.
+ */
+public class TimeWindow {
+    private final LocalTime start;
+    private final LocalTime end;
+
+    /**
+     * Constructs a TimeWindow.
+     *
+     * @param start the start of the window
+     * @param end   the end of the window
+     */
+    public TimeWindow(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Time window start and end cannot be null.");
+        }
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Time window start must be before its end.");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalTime getStart() {
+        return start;
+    }
+
+    public LocalTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Parses a window written as "HH:mm-HH:mm".
+     *
+     * @param value the window string
+     * @return the parsed TimeWindow
+     * @throws IllegalArgumentException if the string is invalid
+     */
+    public static TimeWindow parse(String value) {
+        String[] parts = value.trim().split("-");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid time window: " + value);
+        }
+        try {
+            return new TimeWindow(LocalTime.parse(parts[0].trim()), LocalTime.parse(parts[1].trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid time window: " + value, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TimeWindow)) {
+            return false;
+        }
+        TimeWindow other = (TimeWindow) o;
+        return start.equals(other.start) && end.equals(other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -0,0 +1,185 @@
+package utils.appointments.appointmentslots;
+
+import utils.appointments.Appointment;
+import utils.enums.WorkingDay;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A doctor's weekly working hours compiled from their appointment slots into sorted,
+ * non-overlapping minute-of-week intervals, with breaks already cut out.
+ * Checking whether an appointment may start at a given time is a binary search; an interval cut short
+ * by a break also requires the whole {@link Appointment#DURATION_MINUTES} consultation to fit before it.
+ *
+ * <p>Intervals are half-open. A slot's end time is itself a valid start time (as it always has been),
+ * so a slot from 09:00 to 17:00 becomes the interval [09:00, 17:01).
+ */
+public class WeeklyAvailability {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean[] endsAtBreak;
+
+    private WeeklyAvailability(int[] starts, int[] ends, boolean[] endsAtBreak) {
+        this.starts = starts;
+        this.ends = ends;
+        this.endsAtBreak = endsAtBreak;
+    }
+
+    /**
+     * Compiles the availability of a doctor from their appointment slots.
+     * Overlapping or adjacent windows from different slots are merged.
+     *
+     * @param slots the doctor's appointment slots
+     * @return the compiled weekly availability
+     */
+    public static WeeklyAvailability of(List<AppointmentSlot> slots) {
+        List<int[]> intervals = new ArrayList<>();
+        for (AppointmentSlot slot : slots) {
+            int slotStart = minuteOfDay(slot.getStartTime());
+            int slotEnd = minuteOfDay(slot.getEndTime()) + 1;
+            for (WorkingDay day : slot.getWorkingDays()) {
+                int base = DayOfWeek.valueOf(day.name()).ordinal() * MINUTES_PER_DAY;
+                intervals.addAll(subtractBreaks(base + slotStart, base + slotEnd, base, slot.getBreaks()));
+            }
+        }
+        intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        int[] starts = new int[intervals.size()];
+        int[] ends = new int[intervals.size()];
+        boolean[] endsAtBreak = new boolean[intervals.size()];
+        int count = 0;
+        for (int[] interval : intervals) {
+            boolean atBreak = interval[2] == 1;
+            if (count > 0 && interval[0] <= ends[count - 1]) {
+                if (interval[1] > ends[count - 1]) {
+                    ends[count - 1] = interval[1];
+                    endsAtBreak[count - 1] = atBreak;
+                } else if (interval[1] == ends[count - 1]) {
+                    endsAtBreak[count - 1] &= atBreak;
+                }
+            } else {
+                starts[count] = interval[0];
+                ends[count] = interval[1];
+                endsAtBreak[count] = atBreak;
+                count++;
+            }
+        }
+        return new WeeklyAvailability(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count),
+                Arrays.copyOf(endsAtBreak, count));
+    }
+
+    /**
+     * Checks whether an appointment may start at the given day and time.
+     *
+     * @param day  the day of the week
+     * @param time the start time
+     * @return true if the time lies within a working window and the consultation would not run into a break
+     */
+    public boolean isAvailable(DayOfWeek day, LocalTime time) {
+        int minute = day.ordinal() * MINUTES_PER_DAY + minuteOfDay(time);
+        int index = floorIndex(minute);
+        if (index < 0 || minute >= ends[index]) {
+            return false;
+        }
+        // A consultation may run past the end of a slot, but not into a break
+        return !endsAtBreak[index] || minute + Appointment.DURATION_MINUTES <= ends[index];
+    }
+
+    /**
+     * Returns the working windows of a day, in order, with breaks cut out.
+     * Each window's end is exclusive.
+     *
+     * @param day the day of the week
+     * @return the working windows of the day
+     */
+    public List<TimeWindow> getWindows(DayOfWeek day) {
+        int dayStart = day.ordinal() * MINUTES_PER_DAY;
+        int dayEnd = dayStart + MINUTES_PER_DAY;
+        List<TimeWindow> windows = new ArrayList<>();
+        int index = Math.max(0, floorIndex(dayStart));
+        for (; index < starts.length && starts[index] < dayEnd; index++) {
+            int start = Math.max(starts[index], dayStart);
+            int end = Math.min(ends[index], dayEnd);
+            if (start < end) {
+                windows.add(new TimeWindow(toTime(start - dayStart), toTime(end - dayStart)));
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Returns the days of the week whose working windows differ from another availability.
+     *
+     * @param other the availability to compare with
+     * @return the days whose working hours changed, empty if both are the same
+     */
+    public Set<DayOfWeek> getChangedDays(WeeklyAvailability other) {
+        Set<DayOfWeek> changed = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (!getWindows(day).equals(other.getWindows(day))) {
+                changed.add(day);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether the doctor works at all.
+     *
+     * @return true if there are no working windows
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Returns the index of the last interval starting at or before the given minute, or -1 if there is none.
+     */
+    private int floorIndex(int minute) {
+        int index = Arrays.binarySearch(starts, minute);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Cuts the breaks out of a working window. Each piece is {start, end, 1 if it ends at a break else 0}.
+     */
+    private static List<int[]> subtractBreaks(int start, int end, int base, List<TimeWindow> breaks) {
+        List<int[]> pieces = new ArrayList<>();
+        pieces.add(new int[]{start, end, 0});
+        for (TimeWindow pause : breaks) {
+            int pauseStart = base + minuteOfDay(pause.getStart());
+            int pauseEnd = base + minuteOfDay(pause.getEnd());
+            List<int[]> remaining = new ArrayList<>();
+            for (int[] piece : pieces) {
+                if (pauseEnd <= piece[0] || pauseStart >= piece[1]) {
+                    remaining.add(piece);
+                    continue;
+                }
+                if (piece[0] < pauseStart) {
+                    remaining.add(new int[]{piece[0], pauseStart, 1});
+                }
+                if (pauseEnd < piece[1]) {
+                    remaining.add(new int[]{pauseEnd, piece[1], piece[2]});
+                }
+            }
+            pieces = remaining;
+        }
+        return pieces;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime toTime(int minuteOfDay) {
+        return minuteOfDay >= MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
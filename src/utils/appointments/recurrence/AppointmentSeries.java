@@ -0,0 +1,340 @@
+package utils.appointments.recurrence;
+
+import utils.CSVSerializable;
+import utils.appointments.Appointment;
+import utils.enums.AppointmentStatus;
+import utils.enums.RecurrenceFrequency;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * A recurring appointment stored as a rule (start date, time, frequency, interval and number of
+ * occurrences) plus the dates that were skipped. Occurrences are computed on demand rather than stored.
+ */
+public class AppointmentSeries implements CSVSerializable {
+    private static final DateTimeFormatter OCCURRENCE_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final String seriesID;
+    private final String patientID;
+    private final String doctorID;
+    private final LocalDate startDate;
+    private final LocalTime time;
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final int occurrences;
+    private AppointmentStatus status;
+    private final NavigableSet<LocalDate> exceptions = new TreeSet<>();
+
+    /**
+     * Constructs an AppointmentSeries.
+     *
+     * @param seriesID    the unique ID of the series
+     * @param patientID   the patient's ID
+     * @param doctorID    the doctor's ID
+     * @param startDate   the date of the first occurrence
+     * @param time        the start time of every occurrence
+     * @param frequency   the unit the series repeats in
+     * @param interval    the number of units between occurrences, e.g. 2 for every other week
+     * @param occurrences the total number of occurrences
+     * @param status      the status shared by all occurrences
+     */
+    public AppointmentSeries(String seriesID, String patientID, String doctorID, LocalDate startDate, LocalTime time,
+                             RecurrenceFrequency frequency, int interval, int occurrences, AppointmentStatus status) {
+        if (seriesID == null || seriesID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Series ID cannot be null or empty.");
+        }
+        if (patientID == null || patientID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Patient ID cannot be null or empty.");
+        }
+        if (doctorID == null || doctorID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Doctor ID cannot be null or empty.");
+        }
+        if (startDate == null || time == null || frequency == null || status == null) {
+            throw new IllegalArgumentException("Series start date, time, frequency and status cannot be null.");
+        }
+        if (interval < 1 || occurrences < 1) {
+            throw new IllegalArgumentException("Series interval and number of occurrences must be positive.");
+        }
+        this.seriesID = seriesID;
+        this.patientID = patientID;
+        this.doctorID = doctorID;
+        this.startDate = startDate;
+        this.time = time;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.occurrences = occurrences;
+        this.status = status;
+    }
+
+    public String getSeriesID() {
+        return seriesID;
+    }
+
+    public String getPatientID() {
+        return patientID;
+    }
+
+    public String getDoctorID() {
+        return doctorID;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public AppointmentStatus getStatus() {
+        return status;
+    }
+
+    public void updateStatus(AppointmentStatus status) {
+        this.status = status;
+    }
+
+    public NavigableSet<LocalDate> getExceptions() {
+        return Collections.unmodifiableNavigableSet(exceptions);
+    }
+
+    /**
+     * Skips a single occurrence of the series.
+     *
+     * @param date the date of the occurrence to skip
+     * @return true if the date was an occurrence that had not been skipped yet
+     */
+    public boolean addException(LocalDate date) {
+        return occursOn(date) && exceptions.add(date);
+    }
+
+    /**
+     * Checks whether the series is open, i.e. its occurrences still block the doctor's time.
+     *
+     * @return true if the series is PENDING or ACCEPTED
+     */
+    public boolean isOpen() {
+        return status == AppointmentStatus.PENDING || status == AppointmentStatus.ACCEPTED;
+    }
+
+    /**
+     * Returns the date of the last occurrence according to the rule.
+     *
+     * @return the end date of the series
+     */
+    public LocalDate getEndDate() {
+        return dateOf(occurrences - 1);
+    }
+
+    /**
+     * Checks whether the series has a (non-skipped) occurrence on the given date, without expanding it.
+     *
+     * @param date the date to check
+     * @return true if an occurrence falls on that date
+     */
+    public boolean occursOn(LocalDate date) {
+        if (date.isBefore(startDate) || date.isAfter(getEndDate()) || exceptions.contains(date)) {
+            return false;
+        }
+        if (frequency == RecurrenceFrequency.MONTHLY) {
+            long months = ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(date));
+            return months % interval == 0 && startDate.plusMonths(months).equals(date);
+        }
+        return ChronoUnit.DAYS.between(startDate, date) % daysPerStep() == 0;
+    }
+
+    /**
+     * Checks whether an occurrence overlaps a consultation starting at the given date and time.
+     *
+     * @param date the consultation date
+     * @param start the consultation start time
+     * @return true if the two overlap
+     */
+    public boolean conflictsWith(LocalDate date, LocalTime start) {
+        return overlapsTime(start) && occursOn(date);
+    }
+
+    /**
+     * Checks whether any occurrence of this series overlaps an occurrence of another series.
+     * Only the occurrences of this series within the period both series are active are visited.
+     *
+     * @param other the other series
+     * @return true if the two series collide at least once
+     */
+    public boolean conflictsWith(AppointmentSeries other) {
+        if (!overlapsTime(other.time)) {
+            return false;
+        }
+        LocalDate from = startDate.isAfter(other.startDate) ? startDate : other.startDate;
+        LocalDate to = getEndDate().isBefore(other.getEndDate()) ? getEndDate() : other.getEndDate();
+        if (from.isAfter(to)) {
+            return false;
+        }
+        for (LocalDate date : getOccurrencesBetween(from, to)) {
+            if (other.occursOn(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expands the (non-skipped) occurrence dates within a window.
+     *
+     * @param from the first date of the window
+     * @param to   the last date of the window
+     * @return the occurrence dates, in order
+     */
+    public List<LocalDate> getOccurrencesBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (to.isBefore(startDate)) {
+            return dates;
+        }
+        // Jump straight to the first occurrence at or before the window instead of walking from the start
+        long index = 0;
+        if (from.isAfter(startDate)) {
+            index = frequency == RecurrenceFrequency.MONTHLY
+                    ? ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(from)) / interval
+                    : ChronoUnit.DAYS.between(startDate, from) / daysPerStep();
+        }
+        for (; index < occurrences; index++) {
+            LocalDate date = dateOf(index);
+            if (date.isAfter(to)) {
+                break;
+            }
+            if (!date.isBefore(from) && !exceptions.contains(date)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Creates a transient appointment representing one occurrence of the series.
+     * Its ID combines the series ID and the occurrence date.
+     *
+     * @param date the occurrence date
+     * @return the occurrence as an appointment
+     */
+    public Appointment toOccurrence(LocalDate date) {
+        return new Appointment(seriesID + "-" + date.format(OCCURRENCE_ID_FORMAT), patientID, doctorID,
+                date.format(Appointment.DATE_FORMAT), time.format(Appointment.TIME_FORMAT), status, null);
+    }
+
+    /**
+     * Resolves the date of an occurrence from its ID, as created by {@link #toOccurrence(LocalDate)}.
+     *
+     * @param occurrenceID the occurrence ID
+     * @return the occurrence date, or empty if the ID does not name an occurrence of this series
+     */
+    public Optional<LocalDate> getOccurrenceDate(String occurrenceID) {
+        String prefix = seriesID + "-";
+        if (occurrenceID == null || !occurrenceID.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        try {
+            LocalDate date = LocalDate.parse(occurrenceID.substring(prefix.length()), OCCURRENCE_ID_FORMAT);
+            return occursOn(date) ? Optional.of(date) : Optional.empty();
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private LocalDate dateOf(long index) {
+        return frequency == RecurrenceFrequency.MONTHLY
+                ? startDate.plusMonths(index * interval)
+                : startDate.plusDays(index * daysPerStep());
+    }
+
+    private long daysPerStep() {
+        return frequency == RecurrenceFrequency.WEEKLY ? 7L * interval : interval;
+    }
+
+    private boolean overlapsTime(LocalTime other) {
+        return Math.abs(ChronoUnit.MINUTES.between(time, other)) < Appointment.DURATION_MINUTES;
+    }
+
+    @Override
+    public String toCSV() {
+        List<String> skipped = new ArrayList<>();
+        for (LocalDate date : exceptions) {
+            skipped.add(date.format(Appointment.DATE_FORMAT));
+        }
+        return String.join(",", seriesID, patientID, doctorID,
+                startDate.format(Appointment.DATE_FORMAT),
+                time.format(Appointment.TIME_FORMAT),
+                frequency.name(),
+                String.valueOf(interval),
+                String.valueOf(occurrences),
+                status.name(),
+                skipped.isEmpty() ? "-" : String.join(";", skipped));
+    }
+
+    /**
+     * Parses a CSV string to create an AppointmentSeries.
+     *
+     * @param csvLine the CSV string
+     * @return the parsed AppointmentSeries
+     * @throws IllegalArgumentException if the CSV string is invalid
+     */
+    public static AppointmentSeries fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 10) {
+            throw new IllegalArgumentException("Invalid CSV format for AppointmentSeries: " + csvLine);
+        }
+        try {
+            AppointmentSeries series = new AppointmentSeries(
+                    fields[0].trim(),
+                    fields[1].trim(),
+                    fields[2].trim(),
+                    LocalDate.parse(fields[3].trim(), Appointment.DATE_FORMAT),
+                    LocalTime.parse(fields[4].trim(), Appointment.TIME_FORMAT),
+                    RecurrenceFrequency.valueOf(fields[5].trim()),
+                    Integer.parseInt(fields[6].trim()),
+                    Integer.parseInt(fields[7].trim()),
+                    AppointmentStatus.valueOf(fields[8].trim()));
+            String skipped = fields[9].trim();
+            if (!skipped.isEmpty() && !skipped.equals("-")) {
+                for (String date : skipped.split(";")) {
+                    series.exceptions.add(LocalDate.parse(date.trim(), Appointment.DATE_FORMAT));
+                }
+            }
+            return series;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Failed to parse AppointmentSeries from CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String unit = frequency == RecurrenceFrequency.DAILY ? "day(s)"
+                : frequency == RecurrenceFrequency.WEEKLY ? "week(s)" : "month(s)";
+        return String.format("Series ID: %s, Patient ID: %s, Doctor ID: %s, %s every %d %s from %s until %s, Status: %s",
+                seriesID, patientID, doctorID, time.format(Appointment.TIME_FORMAT), interval,
+                unit, startDate.format(Appointment.DATE_FORMAT),
+                getEndDate().format(Appointment.DATE_FORMAT), status);
+    }
+}
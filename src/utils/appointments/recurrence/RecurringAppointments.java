@@ -0,0 +1,203 @@
+package utils.appointments.recurrence;
+
+import datamgmt.retrievers.AppointmentSeriesData;
+import utils.appointments.Appointment;
+import utils.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds all recurring appointment series, indexed by doctor and patient. Series are kept in their
+ * compact rule form; occurrences are expanded only for the date window a caller asks for, and
+ * availability checks are answered directly from the rules.
+ */
+public class RecurringAppointments {
+    private final AppointmentSeriesData data;
+    private final Map<String, AppointmentSeries> seriesByID = new HashMap<>();
+    private final Map<String, List<AppointmentSeries>> seriesByDoctor = new HashMap<>();
+    private final Map<String, List<AppointmentSeries>> seriesByPatient = new HashMap<>();
+
+    /**
+     * Constructs the RecurringAppointments and indexes all persisted series.
+     *
+     * @param data the series data handler
+     */
+    public RecurringAppointments(AppointmentSeriesData data) {
+        this.data = data;
+        this.data.importData();
+        for (AppointmentSeries series : data.getSeries()) {
+            addToIndex(series);
+        }
+    }
+
+    /**
+     * Adds a new series and persists it.
+     *
+     * @param series the series to add
+     */
+    public void add(AppointmentSeries series) {
+        data.addSeries(series);
+        addToIndex(series);
+    }
+
+    /**
+     * Finds a series by its ID.
+     *
+     * @param seriesID the series ID
+     * @return the series, or empty if not found
+     */
+    public Optional<AppointmentSeries> find(String seriesID) {
+        return Optional.ofNullable(seriesByID.get(seriesID));
+    }
+
+    /**
+     * Finds the series an occurrence belongs to, given the occurrence's ID.
+     *
+     * @param occurrenceID the ID of an expanded occurrence
+     * @return the owning series, or empty if the ID is not an occurrence of any series
+     */
+    public Optional<AppointmentSeries> findByOccurrence(String occurrenceID) {
+        int separator = occurrenceID == null ? -1 : occurrenceID.lastIndexOf('-');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        return find(occurrenceID.substring(0, separator))
+                .filter(series -> series.getOccurrenceDate(occurrenceID).isPresent());
+    }
+
+    /**
+     * Returns the series booked for a patient.
+     *
+     * @param patientID the patient's ID
+     * @return the patient's series
+     */
+    public List<AppointmentSeries> getSeriesForPatient(String patientID) {
+        return new ArrayList<>(seriesByPatient.getOrDefault(patientID, List.of()));
+    }
+
+    /**
+     * Checks whether an open series occurrence of the doctor overlaps a consultation at the given date and time.
+     *
+     * @param doctorID the doctor's ID
+     * @param date     the consultation date
+     * @param time     the consultation start time
+     * @return true if the doctor is already booked by a series at that time
+     */
+    public boolean isBooked(String doctorID, LocalDate date, LocalTime time) {
+        return isBooked(doctorID, date, time, null);
+    }
+
+    /**
+     * Checks whether an open series occurrence of the doctor, other than the given one, overlaps a
+     * consultation at the given date and time. Used when an occurrence itself is being moved.
+     *
+     * @param doctorID            the doctor's ID
+     * @param date                the consultation date
+     * @param time                the consultation start time
+     * @param ignoredOccurrenceID the ID of an occurrence to disregard, or null
+     * @return true if the doctor is already booked by a series at that time
+     */
+    public boolean isBooked(String doctorID, LocalDate date, LocalTime time, String ignoredOccurrenceID) {
+        for (AppointmentSeries series : seriesByDoctor.getOrDefault(doctorID, List.of())) {
+            if (series.isOpen() && series.conflictsWith(date, time)
+                    && !series.getOccurrenceDate(ignoredOccurrenceID).filter(date::equals).isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds an open series of the same doctor that collides with the given series.
+     *
+     * @param candidate the series to check
+     * @return the first conflicting series, or empty if there is none
+     */
+    public Optional<AppointmentSeries> findConflict(AppointmentSeries candidate) {
+        for (AppointmentSeries series : seriesByDoctor.getOrDefault(candidate.getDoctorID(), List.of())) {
+            if (series.isOpen() && series.conflictsWith(candidate)) {
+                return Optional.of(series);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Expands the occurrences within a date window into transient appointments.
+     *
+     * @param patientID the patient ID (optional)
+     * @param doctorID  the doctor ID (optional)
+     * @param status    the series status (optional)
+     * @param from      the first date of the window
+     * @param to        the last date of the window, or null to expand each series up to its end date
+     * @return the occurrences within the window
+     */
+    public List<Appointment> getOccurrences(String patientID, String doctorID, AppointmentStatus status,
+                                            LocalDate from, LocalDate to) {
+        List<AppointmentSeries> candidates;
+        if (doctorID != null) {
+            candidates = seriesByDoctor.getOrDefault(doctorID, List.of());
+        } else if (patientID != null) {
+            candidates = seriesByPatient.getOrDefault(patientID, List.of());
+        } else {
+            candidates = new ArrayList<>(seriesByID.values());
+        }
+
+        List<Appointment> occurrences = new ArrayList<>();
+        for (AppointmentSeries series : candidates) {
+            if ((patientID != null && !series.getPatientID().equals(patientID))
+                    || (status != null && series.getStatus() != status)) {
+                continue;
+            }
+            for (LocalDate date : series.getOccurrencesBetween(from, to == null ? series.getEndDate() : to)) {
+                occurrences.add(series.toOccurrence(date));
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Skips a single occurrence of a series and persists the change.
+     *
+     * @param seriesID the series ID
+     * @param date     the date of the occurrence to skip
+     * @return true if the occurrence existed and was skipped
+     */
+    public boolean skipOccurrence(String seriesID, LocalDate date) {
+        AppointmentSeries series = seriesByID.get(seriesID);
+        if (series == null || !series.addException(date)) {
+            return false;
+        }
+        data.saveSeries();
+        return true;
+    }
+
+    /**
+     * Changes the status of a whole series and persists the change.
+     *
+     * @param seriesID the series ID
+     * @param status   the new status
+     * @return true if the series was found
+     */
+    public boolean updateStatus(String seriesID, AppointmentStatus status) {
+        AppointmentSeries series = seriesByID.get(seriesID);
+        if (series == null) {
+            return false;
+        }
+        series.updateStatus(status);
+        data.saveSeries();
+        return true;
+    }
+
+    private void addToIndex(AppointmentSeries series) {
+        seriesByID.put(series.getSeriesID(), series);
+        seriesByDoctor.computeIfAbsent(series.getDoctorID(), d -> new ArrayList<>()).add(series);
+        seriesByPatient.computeIfAbsent(series.getPatientID(), p -> new ArrayList<>()).add(series);
+    }
+}
@@ -0,0 +1,82 @@
+package utils.appointments.roster;
+
+import utils.appointments.Appointment;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Historical appointment demand per weekday and hour, averaged over the weeks the history covers.
+ */
+public class DemandProfile {
+    private final double[][] averagePerWeek = new double[7][24];
+
+    /**
+     * Builds the profile from past appointment requests, whatever their final status.
+     *
+     * @param appointments the appointment history
+     * @return the demand profile
+     */
+    public static DemandProfile fromAppointments(List<Appointment> appointments) {
+        DemandProfile profile = new DemandProfile();
+        int[][] counts = new int[7][24];
+        Set<String> weeks = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            LocalDateTime dateTime;
+            try {
+                dateTime = appointment.getDateTime();
+            } catch (Exception e) {
+                continue;
+            }
+            counts[dateTime.getDayOfWeek().ordinal()][dateTime.getHour()]++;
+            weeks.add(dateTime.get(IsoFields.WEEK_BASED_YEAR) + "-" + dateTime.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+        int weekCount = Math.max(1, weeks.size());
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                profile.averagePerWeek[day][hour] = (double) counts[day][hour] / weekCount;
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Returns the average number of appointments requested in an hour of a weekday.
+     *
+     * @param day  the day of the week
+     * @param hour the hour of the day
+     * @return the average weekly demand for that hour
+     */
+    public double getAverage(DayOfWeek day, int hour) {
+        return averagePerWeek[day.ordinal()][hour];
+    }
+
+    /**
+     * Converts the demand into the number of doctors needed per weekday and hour.
+     * Every hour within the clinic's opening hours on weekdays gets at least the minimum coverage.
+     *
+     * @param consultationsPerHour the number of consultations one doctor handles per hour
+     * @param minCoverage          the minimum number of doctors during opening hours
+     * @param openFrom             the first opening hour
+     * @param openUntil            the hour the clinic closes
+     * @return the target number of doctors, indexed by weekday ordinal and hour
+     */
+    public int[][] toTargets(int consultationsPerHour, int minCoverage, int openFrom, int openUntil) {
+        int[][] targets = new int[7][24];
+        for (int day = 0; day < 7; day++) {
+            boolean weekday = day < DayOfWeek.SATURDAY.ordinal();
+            for (int hour = 0; hour < 24; hour++) {
+                int needed = (int) Math.ceil(averagePerWeek[day][hour] / consultationsPerHour);
+                if (weekday && hour >= openFrom && hour < openUntil) {
+                    needed = Math.max(needed, minCoverage);
+                }
+                targets[day][hour] = needed;
+            }
+        }
+        return targets;
+    }
+}
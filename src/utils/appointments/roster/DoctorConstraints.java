@@ -0,0 +1,90 @@
+package utils.appointments.roster;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What a doctor's roster may look like: on which days they can work, how many days a week,
+ * how long a shift lasts and the earliest start and latest end of a shift.
+ */
+public class DoctorConstraints {
+    private final String doctorID;
+    private final Set<DayOfWeek> allowedDays;
+    private final int daysPerWeek;
+    private final int shiftHours;
+    private final int earliestStart;
+    private final int latestEnd;
+
+    /**
+     * Constructs DoctorConstraints.
+     *
+     * @param doctorID      the doctor's ID
+     * @param allowedDays   the days the doctor may work
+     * @param daysPerWeek   the number of days the doctor works each week
+     * @param shiftHours    the length of each shift in hours
+     * @param earliestStart the earliest hour a shift may start
+     * @param latestEnd     the latest hour a shift may end
+     */
+    public DoctorConstraints(String doctorID, Set<DayOfWeek> allowedDays, int daysPerWeek, int shiftHours,
+                             int earliestStart, int latestEnd) {
+        if (doctorID == null || doctorID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Doctor ID cannot be null or empty.");
+        }
+        if (allowedDays == null || allowedDays.isEmpty()) {
+            throw new IllegalArgumentException("A doctor must be allowed to work on at least one day.");
+        }
+        if (daysPerWeek < 1 || daysPerWeek > allowedDays.size()) {
+            throw new IllegalArgumentException("Days per week must be between 1 and the number of allowed days.");
+        }
+        if (shiftHours < 1 || earliestStart < 0 || latestEnd > 24 || earliestStart + shiftHours > latestEnd) {
+            throw new IllegalArgumentException("The shift does not fit between the earliest start and latest end.");
+        }
+        this.doctorID = doctorID;
+        this.allowedDays = EnumSet.copyOf(allowedDays);
+        this.daysPerWeek = daysPerWeek;
+        this.shiftHours = shiftHours;
+        this.earliestStart = earliestStart;
+        this.latestEnd = latestEnd;
+    }
+
+    /**
+     * Returns the constraints used for a newly added doctor: five days a week, Monday to Friday,
+     * eight hour shifts between 08:00 and 20:00.
+     *
+     * @param doctorID the doctor's ID
+     * @return the default constraints
+     */
+    public static DoctorConstraints defaults(String doctorID) {
+        return new DoctorConstraints(doctorID, EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), 5, 8, 8, 20);
+    }
+
+    public String getDoctorID() {
+        return doctorID;
+    }
+
+    public Set<DayOfWeek> getAllowedDays() {
+        return allowedDays;
+    }
+
+    public int getDaysPerWeek() {
+        return daysPerWeek;
+    }
+
+    public int getShiftHours() {
+        return shiftHours;
+    }
+
+    public int getEarliestStart() {
+        return earliestStart;
+    }
+
+    /**
+     * Returns the latest hour a shift may start so that it still ends in time.
+     *
+     * @return the latest start hour
+     */
+    public int getLatestStart() {
+        return latestEnd - shiftHours;
+    }
+}
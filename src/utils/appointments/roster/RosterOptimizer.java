@@ -0,0 +1,557 @@
+package utils.appointments.roster;
+
+import utils.appointments.Appointment;
+import utils.appointments.appointmentslots.AppointmentSlot;
+import utils.appointments.appointmentslots.TimeWindow;
+import utils.enums.WorkingDay;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Builds doctors' weekly rosters that match the number of doctors on duty to the demand in every
+ * weekday hour, using simulated annealing over single-shift moves.
+ *
+ * <p>The optimizer keeps a live coverage matrix (doctors on duty per weekday and hour), so the cost
+ * change of a move is computed from the handful of hours the move touches rather than by re-scoring
+ * the whole roster. After a small change, such as adding a doctor or adjusting a target, the current
+ * roster is improved from where it is instead of being solved again from scratch.
+ *
+ * <p>Each movable doctor works one shift of a fixed length per day, with the same breaks at the same
+ * offsets into every shift. Doctors whose current hours do not fit that model, because they work split
+ * shifts or shifts of different lengths, are kept exactly as they are and only count towards coverage.
+ */
+public class RosterOptimizer {
+    /** Missing doctors hurt more than idle ones, and the penalty grows with the shortfall. */
+    private static final int UNDER_COVERAGE_WEIGHT = 10;
+    private static final int OVER_COVERAGE_WEIGHT = 1;
+    private static final double START_TEMPERATURE = 20.0;
+    private static final double END_TEMPERATURE = 0.05;
+
+    /** Default planning parameters used when building a roster from history. */
+    public static final int CONSULTATIONS_PER_HOUR = 60 / Appointment.DURATION_MINUTES;
+    public static final int MIN_COVERAGE = 1;
+    public static final int OPEN_FROM = 9;
+    public static final int OPEN_UNTIL = 17;
+
+    private final int[][] targets;
+    private final int[][] coverage = new int[7][24];
+    private final Map<String, DoctorConstraints> constraints = new LinkedHashMap<>();
+    private final Map<String, int[]> shifts = new HashMap<>(); // Start hour per weekday ordinal, -1 for a day off
+    private final Map<String, List<int[]>> breakOffsets = new HashMap<>(); // Minutes from the shift start
+    private final Map<String, boolean[]> workedHours = new HashMap<>(); // Per hour of the shift, false during a break
+    private final Map<String, List<AppointmentSlot>> fixedSlots = new TreeMap<>();
+    private final Random random;
+    private long cost;
+
+    /**
+     * Constructs an optimizer for the given targets with no doctors yet.
+     *
+     * @param targets the number of doctors needed, indexed by weekday ordinal and hour
+     * @param seed    the random seed, so that results are reproducible
+     */
+    public RosterOptimizer(int[][] targets, long seed) {
+        this.targets = new int[7][];
+        for (int day = 0; day < 7; day++) {
+            this.targets[day] = Arrays.copyOf(targets[day], 24);
+        }
+        this.random = new Random(seed);
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                cost += cellCost(0, this.targets[day][hour]);
+            }
+        }
+    }
+
+    /**
+     * Builds an optimizer whose targets come from the appointment history and whose starting roster
+     * is the doctors' current appointment slots. Breaks are carried over into the proposed shifts;
+     * doctors with split shifts or shifts of different lengths are kept fixed.
+     *
+     * @param appointments the appointment history
+     * @param slots        the current appointment slots of all doctors
+     * @return the optimizer, with every current doctor added
+     */
+    public static RosterOptimizer fromHistory(List<Appointment> appointments, List<AppointmentSlot> slots) {
+        int[][] targets = DemandProfile.fromAppointments(appointments)
+                .toTargets(CONSULTATIONS_PER_HOUR, MIN_COVERAGE, OPEN_FROM, OPEN_UNTIL);
+        RosterOptimizer optimizer = new RosterOptimizer(targets, 42L);
+
+        Map<String, List<AppointmentSlot>> slotsByDoctor = new TreeMap<>();
+        for (AppointmentSlot slot : slots) {
+            slotsByDoctor.computeIfAbsent(slot.getDoctorID(), d -> new ArrayList<>()).add(slot);
+        }
+        for (Map.Entry<String, List<AppointmentSlot>> entry : slotsByDoctor.entrySet()) {
+            List<AppointmentSlot> doctorSlots = entry.getValue();
+            Map<DayOfWeek, Integer> current = new EnumMap<>(DayOfWeek.class);
+            AppointmentSlot first = doctorSlots.get(0);
+            boolean regular = true;
+            int earliest = 8;
+            int latest = 20;
+            for (AppointmentSlot slot : doctorSlots) {
+                regular &= isOnTheHour(slot) && shiftHours(slot) == shiftHours(first)
+                        && breakOffsets(slot).equals(breakOffsets(first));
+                earliest = Math.min(earliest, slot.getStartTime().getHour());
+                latest = Math.max(latest, slot.getStartTime().getHour() + shiftHours(slot));
+                for (WorkingDay day : slot.getWorkingDays()) {
+                    // A second window on the same day is a split shift
+                    regular &= current.put(DayOfWeek.valueOf(day.name()), slot.getStartTime().getHour()) == null;
+                }
+            }
+            if (current.isEmpty()) {
+                continue;
+            }
+            if (!regular) {
+                optimizer.addFixedDoctor(entry.getKey(), doctorSlots);
+                continue;
+            }
+            Set<DayOfWeek> allowed = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+            allowed.addAll(current.keySet());
+            List<int[]> breaks = new ArrayList<>();
+            for (List<Integer> offsets : breakOffsets(first)) {
+                breaks.add(new int[]{offsets.get(0), offsets.get(1)});
+            }
+            optimizer.addDoctor(new DoctorConstraints(entry.getKey(), allowed, current.size(),
+                    shiftHours(first), earliest, latest), current, breaks);
+        }
+        return optimizer;
+    }
+
+    private static boolean isOnTheHour(AppointmentSlot slot) {
+        return slot.getStartTime().getMinute() == 0
+                && (slot.getEndTime().getMinute() == 0 || slot.getEndTime().equals(LocalTime.of(23, 59)));
+    }
+
+    private static int shiftHours(AppointmentSlot slot) {
+        int end = slot.getEndTime().getHour() + (slot.getEndTime().getMinute() > 0 ? 1 : 0);
+        return Math.max(1, Math.min(24, end) - slot.getStartTime().getHour());
+    }
+
+    /**
+     * Returns a slot's breaks as minutes from the start of the slot, in order, clipped to the slot.
+     */
+    private static List<List<Integer>> breakOffsets(AppointmentSlot slot) {
+        int start = minuteOfDay(slot.getStartTime());
+        int length = shiftHours(slot) * 60;
+        List<List<Integer>> offsets = new ArrayList<>();
+        for (TimeWindow pause : slot.getBreaks()) {
+            int from = Math.max(0, minuteOfDay(pause.getStart()) - start);
+            int to = Math.min(length, minuteOfDay(pause.getEnd()) - start);
+            if (from < to) {
+                offsets.add(List.of(from, to));
+            }
+        }
+        offsets.sort((a, b) -> Integer.compare(a.get(0), b.get(0)));
+        return offsets;
+    }
+
+    /**
+     * Keeps a doctor's current slots exactly as they are. They count towards coverage in every hour the
+     * doctor works part of, but are never moved.
+     *
+     * @param doctorID the doctor's ID
+     * @param slots    the doctor's current appointment slots
+     */
+    public void addFixedDoctor(String doctorID, List<AppointmentSlot> slots) {
+        removeDoctor(doctorID);
+        fixedSlots.put(doctorID, new ArrayList<>(slots));
+        applyFixedCoverage(slots, 1);
+    }
+
+    /**
+     * Adds or removes one doctor over fixed slots in the coverage matrix, updating the cost.
+     */
+    private void applyFixedCoverage(List<AppointmentSlot> slots, int change) {
+        for (AppointmentSlot slot : slots) {
+            int start = minuteOfDay(slot.getStartTime());
+            int end = minuteOfDay(slot.getEndTime());
+            List<int[]> breaks = new ArrayList<>();
+            for (TimeWindow pause : slot.getBreaks()) {
+                breaks.add(new int[]{minuteOfDay(pause.getStart()), minuteOfDay(pause.getEnd())});
+            }
+            for (WorkingDay day : slot.getWorkingDays()) {
+                int d = DayOfWeek.valueOf(day.name()).ordinal();
+                for (int hour = start / 60; hour * 60 < end; hour++) {
+                    if (worksDuring(start, end, breaks, hour * 60)) {
+                        cost -= cellCost(coverage[d][hour], targets[d][hour]);
+                        coverage[d][hour] += change;
+                        cost += cellCost(coverage[d][hour], targets[d][hour]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether any minute of the hour starting at the given minute is worked, i.e. lies within
+     * the window and outside every break.
+     */
+    private static boolean worksDuring(int windowStart, int windowEnd, List<int[]> breaks, int hourStart) {
+        for (int minute = Math.max(windowStart, hourStart); minute < Math.min(windowEnd, hourStart + 60); minute++) {
+            boolean onBreak = false;
+            for (int[] pause : breaks) {
+                onBreak |= minute >= pause[0] && minute < pause[1];
+            }
+            if (!onBreak) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime timeAt(int minuteOfDay) {
+        return minuteOfDay >= 24 * 60 ? LocalTime.of(23, 59) : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Adds a doctor to the roster. Their shifts start from the given assignment where it respects
+     * the constraints, and are otherwise placed greedily where they are needed most.
+     *
+     * @param doctor  the doctor's constraints
+     * @param initial the doctor's current start hour per day, or an empty map
+     */
+    public void addDoctor(DoctorConstraints doctor, Map<DayOfWeek, Integer> initial) {
+        addDoctor(doctor, initial, List.of());
+    }
+
+    private void addDoctor(DoctorConstraints doctor, Map<DayOfWeek, Integer> initial, List<int[]> breaks) {
+        removeDoctor(doctor.getDoctorID());
+        constraints.put(doctor.getDoctorID(), doctor);
+        breakOffsets.put(doctor.getDoctorID(), breaks);
+        boolean[] worked = new boolean[doctor.getShiftHours()];
+        for (int hour = 0; hour < worked.length; hour++) {
+            worked[hour] = worksDuring(0, doctor.getShiftHours() * 60, breaks, hour * 60);
+        }
+        workedHours.put(doctor.getDoctorID(), worked);
+        int[] starts = new int[7];
+        Arrays.fill(starts, -1);
+        shifts.put(doctor.getDoctorID(), starts);
+
+        int assigned = 0;
+        for (Map.Entry<DayOfWeek, Integer> entry : initial.entrySet()) {
+            int start = entry.getValue();
+            if (assigned < doctor.getDaysPerWeek() && doctor.getAllowedDays().contains(entry.getKey())
+                    && start >= doctor.getEarliestStart() && start <= doctor.getLatestStart()) {
+                assign(doctor, entry.getKey().ordinal(), start);
+                assigned++;
+            }
+        }
+        while (assigned < doctor.getDaysPerWeek()) {
+            int bestDay = -1;
+            int bestStart = -1;
+            long bestDelta = Long.MAX_VALUE;
+            for (DayOfWeek day : doctor.getAllowedDays()) {
+                if (starts[day.ordinal()] >= 0) {
+                    continue;
+                }
+                for (int start = doctor.getEarliestStart(); start <= doctor.getLatestStart(); start++) {
+                    long delta = addDelta(doctor, day.ordinal(), start);
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestDay = day.ordinal();
+                        bestStart = start;
+                    }
+                }
+            }
+            assign(doctor, bestDay, bestStart);
+            assigned++;
+        }
+    }
+
+    /**
+     * Removes a doctor and their shifts from the roster.
+     *
+     * @param doctorID the doctor's ID
+     */
+    public void removeDoctor(String doctorID) {
+        List<AppointmentSlot> fixed = fixedSlots.remove(doctorID);
+        if (fixed != null) {
+            applyFixedCoverage(fixed, -1);
+        }
+        DoctorConstraints doctor = constraints.get(doctorID);
+        int[] starts = shifts.get(doctorID);
+        if (doctor == null) {
+            return;
+        }
+        for (int day = 0; day < 7; day++) {
+            if (starts[day] >= 0) {
+                cost += applyShift(doctor, day, starts[day], -1);
+            }
+        }
+        constraints.remove(doctorID);
+        shifts.remove(doctorID);
+        breakOffsets.remove(doctorID);
+        workedHours.remove(doctorID);
+    }
+
+    /**
+     * Changes the number of doctors needed in one weekday hour.
+     *
+     * @param day    the day of the week
+     * @param hour   the hour of the day
+     * @param target the new target
+     */
+    public void setTarget(DayOfWeek day, int hour, int target) {
+        int d = day.ordinal();
+        cost -= cellCost(coverage[d][hour], targets[d][hour]);
+        targets[d][hour] = target;
+        cost += cellCost(coverage[d][hour], targets[d][hour]);
+    }
+
+    /**
+     * Improves the shifts of the given doctors by simulated annealing, keeping every other doctor fixed.
+     * The best roster seen is kept.
+     *
+     * @param doctorIDs  the doctors whose shifts may change
+     * @param iterations the number of moves to try
+     * @return the cost reduction achieved
+     */
+    public long optimize(Collection<String> doctorIDs, int iterations) {
+        List<DoctorConstraints> movable = new ArrayList<>();
+        for (String doctorID : doctorIDs) {
+            if (constraints.containsKey(doctorID)) {
+                movable.add(constraints.get(doctorID));
+            }
+        }
+        if (movable.isEmpty() || iterations <= 0) {
+            return 0;
+        }
+
+        long initialCost = cost;
+        long bestCost = cost;
+        Map<String, int[]> best = snapshot(movable);
+        double cooling = Math.pow(END_TEMPERATURE / START_TEMPERATURE, 1.0 / iterations);
+        double temperature = START_TEMPERATURE;
+
+        for (int i = 0; i < iterations; i++, temperature *= cooling) {
+            DoctorConstraints doctor = movable.get(random.nextInt(movable.size()));
+            int[] starts = shifts.get(doctor.getDoctorID());
+            int fromDay = pickWorkedDay(starts);
+            int fromStart = starts[fromDay];
+            int toDay = random.nextInt(3) == 0 ? pickFreeAllowedDay(doctor, starts, fromDay) : fromDay;
+            int toStart = doctor.getEarliestStart() + random.nextInt(doctor.getLatestStart() - doctor.getEarliestStart() + 1);
+            if (toDay == fromDay && toStart == fromStart) {
+                continue;
+            }
+
+            // Apply the move, measuring its effect on the touched hours only, and undo it if rejected
+            long delta = applyShift(doctor, fromDay, fromStart, -1)
+                    + applyShift(doctor, toDay, toStart, 1);
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                starts[fromDay] = -1;
+                starts[toDay] = toStart;
+                cost += delta;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = snapshot(movable);
+                }
+            } else {
+                applyShift(doctor, toDay, toStart, -1);
+                applyShift(doctor, fromDay, fromStart, 1);
+            }
+        }
+
+        restore(movable, best);
+        return initialCost - cost;
+    }
+
+    /**
+     * Improves every doctor's shifts.
+     *
+     * @param iterations the number of moves to try
+     * @return the cost reduction achieved
+     */
+    public long optimizeAll(int iterations) {
+        return optimize(new ArrayList<>(constraints.keySet()), iterations);
+    }
+
+    /**
+     * Returns the current roster cost; lower is better.
+     *
+     * @return the cost
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the total number of missing doctor-hours across the week.
+     *
+     * @return the coverage shortfall
+     */
+    public int getShortfall() {
+        int shortfall = 0;
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                shortfall += Math.max(0, targets[day][hour] - coverage[day][hour]);
+            }
+        }
+        return shortfall;
+    }
+
+    /**
+     * Returns the doctors in the roster.
+     *
+     * @return the doctor IDs
+     */
+    public Set<String> getDoctorIDs() {
+        return constraints.keySet();
+    }
+
+    /**
+     * Returns the doctors whose current slots are kept exactly as they are, because they work split
+     * shifts or shifts of different lengths.
+     *
+     * @return the IDs of the fixed doctors
+     */
+    public Set<String> getFixedDoctorIDs() {
+        return fixedSlots.keySet();
+    }
+
+    /**
+     * Converts a doctor's shifts into appointment slots, one per distinct start time, with the doctor's
+     * breaks at the same offsets into each shift. A fixed doctor's slots are returned unchanged.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's appointment slots
+     */
+    public List<AppointmentSlot> toSlots(String doctorID) {
+        if (fixedSlots.containsKey(doctorID)) {
+            return new ArrayList<>(fixedSlots.get(doctorID));
+        }
+        DoctorConstraints doctor = constraints.get(doctorID);
+        int[] starts = shifts.get(doctorID);
+        List<AppointmentSlot> slots = new ArrayList<>();
+        if (doctor == null) {
+            return slots;
+        }
+        Map<Integer, List<WorkingDay>> daysByStart = new TreeMap<>();
+        for (int day = 0; day < 7; day++) {
+            if (starts[day] >= 0) {
+                daysByStart.computeIfAbsent(starts[day], s -> new ArrayList<>())
+                        .add(WorkingDay.valueOf(DayOfWeek.of(day + 1).name()));
+            }
+        }
+        for (Map.Entry<Integer, List<WorkingDay>> entry : daysByStart.entrySet()) {
+            int end = entry.getKey() + doctor.getShiftHours();
+            List<TimeWindow> breaks = new ArrayList<>();
+            for (int[] offsets : breakOffsets.get(doctorID)) {
+                breaks.add(new TimeWindow(timeAt(entry.getKey() * 60 + offsets[0]), timeAt(entry.getKey() * 60 + offsets[1])));
+            }
+            slots.add(new AppointmentSlot(doctorID, LocalTime.of(entry.getKey(), 0),
+                    end >= 24 ? LocalTime.of(23, 59) : LocalTime.of(end, 0), entry.getValue(), breaks));
+        }
+        return slots;
+    }
+
+    private void assign(DoctorConstraints doctor, int day, int start) {
+        shifts.get(doctor.getDoctorID())[day] = start;
+        cost += applyShift(doctor, day, start, 1);
+    }
+
+    /**
+     * Adds or removes one doctor over a shift in the coverage matrix.
+     *
+     * @return the resulting change in cost
+     */
+    private long applyShift(DoctorConstraints doctor, int day, int start, int change) {
+        boolean[] worked = workedHours.get(doctor.getDoctorID());
+        long delta = 0;
+        for (int hour = start; hour < start + doctor.getShiftHours(); hour++) {
+            if (!worked[hour - start]) {
+                continue;
+            }
+            int target = targets[day][hour];
+            delta -= cellCost(coverage[day][hour], target);
+            coverage[day][hour] += change;
+            delta += cellCost(coverage[day][hour], target);
+        }
+        return delta;
+    }
+
+    /**
+     * Returns the change in cost of adding one doctor over a shift, without applying it.
+     */
+    private long addDelta(DoctorConstraints doctor, int day, int start) {
+        boolean[] worked = workedHours.get(doctor.getDoctorID());
+        long delta = 0;
+        for (int hour = start; hour < start + doctor.getShiftHours(); hour++) {
+            if (!worked[hour - start]) {
+                continue;
+            }
+            delta += cellCost(coverage[day][hour] + 1, targets[day][hour]) - cellCost(coverage[day][hour], targets[day][hour]);
+        }
+        return delta;
+    }
+
+    private static long cellCost(int onDuty, int target) {
+        int difference = onDuty - target;
+        return difference < 0
+                ? (long) UNDER_COVERAGE_WEIGHT * difference * difference
+                : (long) OVER_COVERAGE_WEIGHT * difference;
+    }
+
+    private int pickWorkedDay(int[] starts) {
+        int chosen = -1;
+        int seen = 0;
+        for (int day = 0; day < 7; day++) {
+            if (starts[day] >= 0 && random.nextInt(++seen) == 0) {
+                chosen = day;
+            }
+        }
+        return chosen;
+    }
+
+    private int pickFreeAllowedDay(DoctorConstraints doctor, int[] starts, int fallback) {
+        int chosen = fallback;
+        int seen = 0;
+        for (DayOfWeek day : doctor.getAllowedDays()) {
+            if (starts[day.ordinal()] < 0 && random.nextInt(++seen) == 0) {
+                chosen = day.ordinal();
+            }
+        }
+        return chosen;
+    }
+
+    private Map<String, int[]> snapshot(List<DoctorConstraints> doctors) {
+        Map<String, int[]> copy = new HashMap<>();
+        for (DoctorConstraints doctor : doctors) {
+            copy.put(doctor.getDoctorID(), shifts.get(doctor.getDoctorID()).clone());
+        }
+        return copy;
+    }
+
+    private void restore(List<DoctorConstraints> doctors, Map<String, int[]> saved) {
+        for (DoctorConstraints doctor : doctors) {
+            int[] current = shifts.get(doctor.getDoctorID());
+            int[] target = saved.get(doctor.getDoctorID());
+            for (int day = 0; day < 7; day++) {
+                if (current[day] != target[day]) {
+                    if (current[day] >= 0) {
+                        cost += applyShift(doctor, day, current[day], -1);
+                    }
+                    if (target[day] >= 0) {
+                        cost += applyShift(doctor, day, target[day], 1);
+                    }
+                    current[day] = target[day];
+                }
+            }
+        }
+    }
+}
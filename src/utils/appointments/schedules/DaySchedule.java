@@ -0,0 +1,150 @@
+package utils.appointments.schedules;
+
+import utils.appointments.Appointment;
+import utils.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds a single doctor's appointments for one day, ordered by start time,
+ * together with per-status counts.
+ */
+public class DaySchedule {
+    private final LocalDate date;
+    private final TreeMap<LocalTime, Map<String, Appointment>> appointmentsByTime = new TreeMap<>();
+    private final EnumMap<AppointmentStatus, Integer> statusCounts = new EnumMap<>(AppointmentStatus.class);
+    private int size;
+
+    /**
+     * Constructs an empty schedule for the given date.
+     *
+     * @param date the date of the schedule
+     */
+    public DaySchedule(LocalDate date) {
+        this.date = date;
+    }
+
+    void add(Appointment appointment, LocalTime time, AppointmentStatus status) {
+        appointmentsByTime.computeIfAbsent(time, t -> new LinkedHashMap<>())
+                .put(appointment.getAppointmentID(), appointment);
+        statusCounts.merge(status, 1, Integer::sum);
+        size++;
+    }
+
+    void remove(String appointmentID, LocalTime time, AppointmentStatus status) {
+        Map<String, Appointment> atTime = appointmentsByTime.get(time);
+        if (atTime == null || atTime.remove(appointmentID) == null) {
+            return;
+        }
+        if (atTime.isEmpty()) {
+            appointmentsByTime.remove(time);
+        }
+        statusCounts.computeIfPresent(status, (s, count) -> count > 1 ? count - 1 : null);
+        size--;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of appointments with the given status on this day.
+     *
+     * @param status the appointment status
+     * @return the number of appointments with that status
+     */
+    public int getCount(AppointmentStatus status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    /**
+     * Returns all appointments of the day, ordered by start time.
+     *
+     * @return the appointments of the day
+     */
+    public List<Appointment> getAppointments() {
+        List<Appointment> appointments = new ArrayList<>(size);
+        for (Map<String, Appointment> atTime : appointmentsByTime.values()) {
+            appointments.addAll(atTime.values());
+        }
+        return appointments;
+    }
+
+    /**
+     * Checks whether an open (PENDING or ACCEPTED) appointment overlaps the consultation starting at the given time.
+     *
+     * @param time the start time to check
+     * @return true if the doctor is busy at that time
+     */
+    public boolean isBusy(LocalTime time) {
+        for (Map<String, Appointment> atTime : overlapping(time).values()) {
+            for (Appointment appointment : atTime.values()) {
+                if (isOpen(appointment)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the open (PENDING or ACCEPTED) appointments that overlap the consultation starting at the given time.
+     *
+     * @param time the start time to check
+     * @return the overlapping open appointments, in start time order
+     */
+    public List<Appointment> getOpenAppointmentsOverlapping(LocalTime time) {
+        List<Appointment> appointments = new ArrayList<>();
+        for (Map<String, Appointment> atTime : overlapping(time).values()) {
+            for (Appointment appointment : atTime.values()) {
+                if (isOpen(appointment)) {
+                    appointments.add(appointment);
+                }
+            }
+        }
+        return appointments;
+    }
+
+    private Map<LocalTime, Map<String, Appointment>> overlapping(LocalTime time) {
+        // Two consultations overlap when their start times are less than one duration apart
+        int minuteOfDay = time.toSecondOfDay() / 60;
+        int from = Math.max(0, minuteOfDay - Appointment.DURATION_MINUTES + 1);
+        int to = Math.min(24 * 60 - 1, minuteOfDay + Appointment.DURATION_MINUTES - 1);
+        return appointmentsByTime.subMap(LocalTime.ofSecondOfDay(from * 60L), true, LocalTime.ofSecondOfDay(to * 60L), true);
+    }
+
+    private static boolean isOpen(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.ACCEPTED;
+    }
+
+    /**
+     * Lists the consultation start times within a working window that are not taken by an open appointment.
+     *
+     * @param start the start of the working window
+     * @param end   the end of the working window
+     * @return the free start times, in order
+     */
+    public List<LocalTime> getFreeTimes(LocalTime start, LocalTime end) {
+        List<LocalTime> freeTimes = new ArrayList<>();
+        LocalTime time = start;
+        while (!time.plusMinutes(Appointment.DURATION_MINUTES).isAfter(end) && !time.isBefore(start)) {
+            if (!isBusy(time)) {
+                freeTimes.add(time);
+            }
+            time = time.plusMinutes(Appointment.DURATION_MINUTES);
+        }
+        return freeTimes;
+    }
+}
@@ -0,0 +1,211 @@
+package utils.appointments.schedules;
+
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+import utils.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Keeps live per-doctor load counters (open bookings per day and pending request queue length)
+ * in lock-free concurrent structures, and ranks doctors per day so the least-loaded available
+ * doctor can be picked without scanning the whole roster.
+ */
+public class DoctorLoadBalancer implements AppointmentListener {
+    private final Set<String> doctorIDs = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> pendingCounts = new ConcurrentHashMap<>();
+    private final Map<String, Map<LocalDate, AtomicInteger>> dailyCounts = new ConcurrentHashMap<>();
+    private final Map<LocalDate, ConcurrentSkipListSet<LoadKey>> rankings = new ConcurrentHashMap<>();
+    private final Map<String, Booking> countedBookings = new ConcurrentHashMap<>();
+
+    /**
+     * Makes doctors eligible for automatic assignment even if they have no appointments yet.
+     *
+     * @param doctors the IDs of the doctors to register
+     */
+    public void registerDoctors(Collection<String> doctors) {
+        for (String doctorID : doctors) {
+            registerDoctor(doctorID);
+        }
+    }
+
+    /**
+     * Picks the least-loaded doctor for a date among those accepted by the availability check.
+     * Doctors are visited in order of open bookings on that date; ties are broken by
+     * the shorter pending request queue.
+     *
+     * @param date      the appointment date
+     * @param available a check that the doctor works and is free at the requested time
+     * @return the chosen doctor's ID, or empty if no doctor is available
+     */
+    public Optional<String> pickLeastLoaded(LocalDate date, Predicate<String> available) {
+        String best = null;
+        int bestBookings = Integer.MAX_VALUE;
+        for (LoadKey key : ranking(date)) {
+            if (key.bookings > bestBookings) {
+                break; // Every remaining doctor is more loaded than the current choice
+            }
+            if (!available.test(key.doctorID)) {
+                continue;
+            }
+            if (best == null || getPendingCount(key.doctorID) < getPendingCount(best)) {
+                best = key.doctorID;
+                bestBookings = key.bookings;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Returns the number of open (PENDING or ACCEPTED) bookings a doctor has on a date.
+     *
+     * @param doctorID the doctor's ID
+     * @param date     the date
+     * @return the number of open bookings
+     */
+    public int getBookingCount(String doctorID, LocalDate date) {
+        AtomicInteger count = dailyCounts.getOrDefault(doctorID, Map.of()).get(date);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the number of PENDING requests waiting for a doctor's decision.
+     *
+     * @param doctorID the doctor's ID
+     * @return the pending queue length
+     */
+    public int getPendingCount(String doctorID) {
+        AtomicInteger count = pendingCounts.get(doctorID);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        pendingCounts.clear();
+        dailyCounts.clear();
+        rankings.clear();
+        countedBookings.clear();
+        for (Appointment appointment : appointments) {
+            onAppointmentChanged(appointment);
+        }
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        registerDoctor(appointment.getDoctorID());
+        uncount(countedBookings.remove(appointment.getAppointmentID()));
+
+        if (appointment.getStatus() != AppointmentStatus.PENDING
+                && appointment.getStatus() != AppointmentStatus.ACCEPTED) {
+            return;
+        }
+        LocalDate date;
+        try {
+            date = appointment.getLocalDate();
+        } catch (Exception e) {
+            return;
+        }
+        Booking booking = new Booking(appointment.getDoctorID(), date, appointment.getStatus() == AppointmentStatus.PENDING);
+        countedBookings.put(appointment.getAppointmentID(), booking);
+        adjust(booking, 1);
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        uncount(countedBookings.remove(appointment.getAppointmentID()));
+    }
+
+    private void registerDoctor(String doctorID) {
+        if (doctorIDs.add(doctorID)) {
+            for (Map.Entry<LocalDate, ConcurrentSkipListSet<LoadKey>> ranking : rankings.entrySet()) {
+                ranking.getValue().add(new LoadKey(doctorID, getBookingCount(doctorID, ranking.getKey())));
+            }
+        }
+    }
+
+    private void uncount(Booking booking) {
+        if (booking != null) {
+            adjust(booking, -1);
+        }
+    }
+
+    private void adjust(Booking booking, int delta) {
+        if (booking.pending) {
+            pendingCounts.computeIfAbsent(booking.doctorID, d -> new AtomicInteger()).addAndGet(delta);
+        }
+        AtomicInteger dayCount = dailyCounts.computeIfAbsent(booking.doctorID, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(booking.date, d -> new AtomicInteger());
+        int updated = dayCount.addAndGet(delta);
+        ConcurrentSkipListSet<LoadKey> ranking = rankings.get(booking.date);
+        if (ranking != null) {
+            ranking.remove(new LoadKey(booking.doctorID, updated - delta));
+            ranking.add(new LoadKey(booking.doctorID, updated));
+        }
+    }
+
+    /**
+     * Returns the ranking for a date, seeding it with every known doctor on first use.
+     */
+    private ConcurrentSkipListSet<LoadKey> ranking(LocalDate date) {
+        return rankings.computeIfAbsent(date, d -> {
+            ConcurrentSkipListSet<LoadKey> ranking = new ConcurrentSkipListSet<>();
+            for (String doctorID : doctorIDs) {
+                ranking.add(new LoadKey(doctorID, getBookingCount(doctorID, d)));
+            }
+            return ranking;
+        });
+    }
+
+    /**
+     * Orders doctors by their number of bookings on a date, then by ID.
+     */
+    private static class LoadKey implements Comparable<LoadKey> {
+        private final String doctorID;
+        private final int bookings;
+
+        LoadKey(String doctorID, int bookings) {
+            this.doctorID = doctorID;
+            this.bookings = bookings;
+        }
+
+        @Override
+        public int compareTo(LoadKey other) {
+            int byBookings = Integer.compare(bookings, other.bookings);
+            return byBookings != 0 ? byBookings : doctorID.compareTo(other.doctorID);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LoadKey && compareTo((LoadKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * doctorID.hashCode() + bookings;
+        }
+    }
+
+    /**
+     * Records which counters an appointment currently contributes to.
+     */
+    private static class Booking {
+        private final String doctorID;
+        private final LocalDate date;
+        private final boolean pending;
+
+        Booking(String doctorID, LocalDate date, boolean pending) {
+            this.doctorID = doctorID;
+            this.date = date;
+            this.pending = pending;
+        }
+    }
+}
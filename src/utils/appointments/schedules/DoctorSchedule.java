@@ -0,0 +1,184 @@
+package utils.appointments.schedules;
+
+import utils.appointments.Appointment;
+import utils.enums.AppointmentStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An incrementally maintained calendar of one doctor's appointments, organised by day.
+ * Day lookups are hash-based, while a date-ordered index serves range queries such as
+ * upcoming appointments without touching past history.
+ */
+public class DoctorSchedule {
+    private final String doctorID;
+    private final Map<LocalDate, DaySchedule> days = new HashMap<>();
+    private final TreeMap<LocalDate, DaySchedule> orderedDays = new TreeMap<>();
+    private final Map<String, Placement> placements = new HashMap<>();
+    private final EnumMap<AppointmentStatus, Integer> statusCounts = new EnumMap<>(AppointmentStatus.class);
+
+    /**
+     * Constructs an empty schedule for a doctor.
+     *
+     * @param doctorID the doctor's ID
+     */
+    public DoctorSchedule(String doctorID) {
+        this.doctorID = doctorID;
+    }
+
+    /**
+     * Adds an appointment, or moves it if it was already placed under a different date, time or status.
+     *
+     * @param appointment the appointment in its current state
+     */
+    void put(Appointment appointment) {
+        remove(appointment.getAppointmentID());
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = appointment.getLocalDate();
+            time = appointment.getLocalTime();
+        } catch (Exception e) {
+            System.err.println("Skipping appointment with invalid date/time in schedule: " + appointment.getAppointmentID());
+            return;
+        }
+        DaySchedule day = days.computeIfAbsent(date, d -> {
+            DaySchedule created = new DaySchedule(d);
+            orderedDays.put(d, created);
+            return created;
+        });
+        day.add(appointment, time, appointment.getStatus());
+        placements.put(appointment.getAppointmentID(), new Placement(date, time, appointment.getStatus()));
+        statusCounts.merge(appointment.getStatus(), 1, Integer::sum);
+    }
+
+    /**
+     * Removes an appointment from the schedule.
+     *
+     * @param appointmentID the ID of the appointment to remove
+     */
+    void remove(String appointmentID) {
+        Placement placement = placements.remove(appointmentID);
+        if (placement == null) {
+            return;
+        }
+        DaySchedule day = days.get(placement.date);
+        day.remove(appointmentID, placement.time, placement.status);
+        if (day.isEmpty()) {
+            days.remove(placement.date);
+            orderedDays.remove(placement.date);
+        }
+        statusCounts.computeIfPresent(placement.status, (s, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public String getDoctorID() {
+        return doctorID;
+    }
+
+    /**
+     * Returns the schedule for a single day.
+     *
+     * @param date the date
+     * @return the day's schedule, empty if the doctor has no appointments that day
+     */
+    public DaySchedule getDay(LocalDate date) {
+        DaySchedule day = days.get(date);
+        return day != null ? day : new DaySchedule(date);
+    }
+
+    /**
+     * Returns the seven day schedules (Monday to Sunday) of the week containing the given date.
+     *
+     * @param anyDayOfWeek any date within the week
+     * @return the day schedules of the week
+     */
+    public List<DaySchedule> getWeek(LocalDate anyDayOfWeek) {
+        LocalDate monday = anyDayOfWeek.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<DaySchedule> week = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            week.add(getDay(monday.plusDays(i)));
+        }
+        return week;
+    }
+
+    /**
+     * Returns the appointments scheduled on or after the given date, in date and time order.
+     *
+     * @param from the first date to include
+     * @param status the status to filter by, or null for all statuses
+     * @return the matching appointments
+     */
+    public List<Appointment> getAppointmentsFrom(LocalDate from, AppointmentStatus status) {
+        return getAppointmentsBetween(from, null, status);
+    }
+
+    /**
+     * Returns the appointments scheduled within a date range, in date and time order.
+     *
+     * @param from   the first date to include
+     * @param to     the last date to include, or null for no upper bound
+     * @param status the status to filter by, or null for all statuses
+     * @return the matching appointments
+     */
+    public List<Appointment> getAppointmentsBetween(LocalDate from, LocalDate to, AppointmentStatus status) {
+        Map<LocalDate, DaySchedule> range = to == null
+                ? orderedDays.tailMap(from, true)
+                : orderedDays.subMap(from, true, to, true);
+        List<Appointment> appointments = new ArrayList<>();
+        for (DaySchedule day : range.values()) {
+            if (status != null && day.getCount(status) == 0) {
+                continue;
+            }
+            for (Appointment appointment : day.getAppointments()) {
+                if (status == null || appointment.getStatus() == status) {
+                    appointments.add(appointment);
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Returns the day schedules on or after the given date that have appointments, in date order.
+     *
+     * @param from the first date to include
+     * @return the non-empty day schedules
+     */
+    public List<DaySchedule> getDaysFrom(LocalDate from) {
+        return new ArrayList<>(orderedDays.tailMap(from, true).values());
+    }
+
+    /**
+     * Returns the total number of appointments with the given status.
+     *
+     * @param status the appointment status
+     * @return the number of appointments with that status
+     */
+    public int getCount(AppointmentStatus status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    /**
+     * Records where an appointment was last placed so it can be removed when it changes.
+     */
+    private static class Placement {
+        private final LocalDate date;
+        private final LocalTime time;
+        private final AppointmentStatus status;
+
+        Placement(LocalDate date, LocalTime time, AppointmentStatus status) {
+            this.date = date;
+            this.time = time;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package utils.appointments.schedules;
+
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains a {@link DoctorSchedule} per doctor, updated on every appointment event,
+ * so schedule screens are served without filtering and sorting the full appointment list.
+ * Prescription refill records are not consultations and are left out of the schedules.
+ * Doctor IDs are matched regardless of case, as in the appointment slot data.
+ */
+public class DoctorScheduleViews implements AppointmentListener {
+    private final Map<String, DoctorSchedule> schedules = new HashMap<>();
+    private final Map<String, String> doctorByAppointment = new HashMap<>();
+
+    /**
+     * Returns the schedule of a doctor.
+     *
+     * @param doctorID the doctor's ID
+     * @return the doctor's schedule, empty if the doctor has no appointments
+     */
+    public DoctorSchedule getSchedule(String doctorID) {
+        DoctorSchedule schedule = schedules.get(doctorID.toUpperCase());
+        return schedule != null ? schedule : new DoctorSchedule(doctorID.toUpperCase());
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        schedules.clear();
+        doctorByAppointment.clear();
+        for (Appointment appointment : appointments) {
+            onAppointmentChanged(appointment);
+        }
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        if (appointment.isPrescriptionRefill()) {
+            onAppointmentRemoved(appointment);
+            return;
+        }
+        String doctorID = appointment.getDoctorID().toUpperCase();
+        String previousDoctor = doctorByAppointment.put(appointment.getAppointmentID(), doctorID);
+        if (previousDoctor != null && !previousDoctor.equals(doctorID)) {
+            schedules.get(previousDoctor).remove(appointment.getAppointmentID());
+        }
+        schedules.computeIfAbsent(doctorID, DoctorSchedule::new).put(appointment);
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        String doctorID = doctorByAppointment.remove(appointment.getAppointmentID());
+        if (doctorID != null) {
+            schedules.get(doctorID).remove(appointment.getAppointmentID());
+        }
+    }
+}
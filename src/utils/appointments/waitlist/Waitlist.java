@@ -0,0 +1,219 @@
+package utils.appointments.waitlist;
+
+import datamgmt.retrievers.WaitlistData;
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+import utils.enums.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Holds patients waiting for a slot with a doctor, indexed by doctor, date and window start,
+ * and matches them against appointments as soon as those are cancelled.
+ * Matched offers are queued until the caller books them.
+ */
+public class Waitlist implements AppointmentListener {
+    private final WaitlistData data;
+    private final Map<String, Map<LocalDate, TreeMap<LocalTime, List<WaitlistEntry>>>> index = new HashMap<>();
+    private final Set<String> openAppointmentIDs = new HashSet<>();
+    private final List<WaitlistOffer> pendingOffers = new ArrayList<>();
+
+    /**
+     * Constructs the Waitlist, indexes all entries that are still in the future and removes
+     * the entries whose date has passed from the file.
+     *
+     * @param data the waitlist data handler
+     */
+    public Waitlist(WaitlistData data) {
+        this.data = data;
+        this.data.importData();
+        LocalDate today = LocalDate.now();
+        List<WaitlistEntry> expired = new ArrayList<>();
+        for (WaitlistEntry entry : data.getEntries()) {
+            if (entry.getDate().isBefore(today)) {
+                expired.add(entry);
+            } else {
+                addToIndex(entry);
+            }
+        }
+        data.removeEntries(expired);
+    }
+
+    /**
+     * Adds a patient to the waitlist and persists the entry.
+     *
+     * @param entry the waitlist entry
+     */
+    public void join(WaitlistEntry entry) {
+        data.addEntry(entry);
+        addToIndex(entry);
+    }
+
+    /**
+     * Returns the waitlist entries of a patient that are still in the future.
+     *
+     * @param patientID the patient's ID
+     * @return the patient's waitlist entries
+     */
+    public List<WaitlistEntry> getEntriesForPatient(String patientID) {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (WaitlistEntry entry : data.getEntries()) {
+            if (entry.getPatientID().equals(patientID) && !entry.getDate().isBefore(today)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes and returns all offers matched since the last call, and removes
+     * the matched entries from the persisted waitlist in a single write.
+     *
+     * @return the offers to book
+     */
+    public List<WaitlistOffer> drainOffers() {
+        if (pendingOffers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<WaitlistOffer> offers = new ArrayList<>(pendingOffers);
+        pendingOffers.clear();
+        List<WaitlistEntry> matchedEntries = new ArrayList<>();
+        for (WaitlistOffer offer : offers) {
+            matchedEntries.add(offer.getEntry());
+        }
+        data.removeEntries(matchedEntries);
+        return offers;
+    }
+
+    /**
+     * Withdraws the offers matched to the given cancelled appointments and puts their patients
+     * back on the waitlist, e.g. when the slots were freed because the doctor is unavailable.
+     *
+     * @param cancelledAppointmentIDs the IDs of the cancelled appointments
+     * @return the number of offers withdrawn
+     */
+    public int withdrawOffers(Set<String> cancelledAppointmentIDs) {
+        int withdrawn = 0;
+        Iterator<WaitlistOffer> iterator = pendingOffers.iterator();
+        while (iterator.hasNext()) {
+            WaitlistOffer offer = iterator.next();
+            if (cancelledAppointmentIDs.contains(offer.getCancelledAppointmentID())) {
+                iterator.remove();
+                addToIndex(offer.getEntry());
+                withdrawn++;
+            }
+        }
+        return withdrawn;
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        openAppointmentIDs.clear();
+        for (Appointment appointment : appointments) {
+            if (isOpen(appointment)) {
+                openAppointmentIDs.add(appointment.getAppointmentID());
+            }
+        }
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        boolean wasOpen = isOpen(appointment)
+                ? !openAppointmentIDs.add(appointment.getAppointmentID())
+                : openAppointmentIDs.remove(appointment.getAppointmentID());
+        if (wasOpen && appointment.getStatus() == AppointmentStatus.CANCELLED) {
+            offerFreedSlot(appointment);
+        }
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        openAppointmentIDs.remove(appointment.getAppointmentID());
+    }
+
+    private void offerFreedSlot(Appointment cancelled) {
+        LocalDateTime slotStart;
+        try {
+            slotStart = cancelled.getDateTime();
+        } catch (Exception e) {
+            return;
+        }
+        if (!slotStart.isAfter(LocalDateTime.now())) {
+            return; // A slot in the past cannot be backfilled
+        }
+        WaitlistEntry best = takeBestMatch(cancelled.getDoctorID(), slotStart.toLocalDate(),
+                slotStart.toLocalTime(), cancelled.getPatientID());
+        if (best != null) {
+            pendingOffers.add(new WaitlistOffer(best, cancelled.getAppointmentID(),
+                    slotStart.toLocalDate(), slotStart.toLocalTime()));
+        }
+    }
+
+    /**
+     * Finds the longest-waiting patient whose window contains the given time and removes them from the index.
+     * Only windows that start at or before the time are visited.
+     */
+    private WaitlistEntry takeBestMatch(String doctorID, LocalDate date, LocalTime time, String excludedPatientID) {
+        Map<LocalDate, TreeMap<LocalTime, List<WaitlistEntry>>> byDate = index.get(doctorID);
+        TreeMap<LocalTime, List<WaitlistEntry>> byWindowStart = byDate != null ? byDate.get(date) : null;
+        if (byWindowStart == null) {
+            return null;
+        }
+
+        WaitlistEntry best = null;
+        for (List<WaitlistEntry> entries : byWindowStart.headMap(time, true).values()) {
+            for (WaitlistEntry entry : entries) {
+                if (entry.accepts(time) && !entry.getPatientID().equals(excludedPatientID)
+                        && (best == null || entry.getCreatedAt() < best.getCreatedAt())) {
+                    best = entry;
+                }
+            }
+        }
+        if (best != null) {
+            removeFromIndex(best);
+        }
+        return best;
+    }
+
+    private void addToIndex(WaitlistEntry entry) {
+        index.computeIfAbsent(entry.getDoctorID(), d -> new HashMap<>())
+                .computeIfAbsent(entry.getDate(), d -> new TreeMap<>())
+                .computeIfAbsent(entry.getWindowStart(), t -> new ArrayList<>())
+                .add(entry);
+    }
+
+    private void removeFromIndex(WaitlistEntry entry) {
+        Map<LocalDate, TreeMap<LocalTime, List<WaitlistEntry>>> byDate = index.get(entry.getDoctorID());
+        TreeMap<LocalTime, List<WaitlistEntry>> byWindowStart = byDate.get(entry.getDate());
+        List<WaitlistEntry> entries = byWindowStart.get(entry.getWindowStart());
+        Iterator<WaitlistEntry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == entry) {
+                iterator.remove();
+                break;
+            }
+        }
+        if (entries.isEmpty()) {
+            byWindowStart.remove(entry.getWindowStart());
+            if (byWindowStart.isEmpty()) {
+                byDate.remove(entry.getDate());
+            }
+        }
+    }
+
+    private boolean isOpen(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.ACCEPTED;
+    }
+}
@@ -0,0 +1,137 @@
+package utils.appointments.waitlist;
+
+import utils.CSVSerializable;
+import utils.appointments.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Represents a patient waiting for a free slot with a specific doctor on a given date,
+ * within an acceptable window of start times.
+ */
+public class WaitlistEntry implements CSVSerializable {
+    private final String entryID;
+    private final String patientID;
+    private final String doctorID;
+    private final LocalDate date;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final long createdAt;
+
+    /**
+     * Constructs a WaitlistEntry.
+     *
+     * @param entryID     the unique ID of the entry
+     * @param patientID   the waiting patient's ID
+     * @param doctorID    the requested doctor's ID
+     * @param date        the requested date
+     * @param windowStart the earliest acceptable start time
+     * @param windowEnd   the latest acceptable start time
+     * @param createdAt   the time the patient joined the waitlist, in epoch milliseconds
+     */
+    public WaitlistEntry(String entryID, String patientID, String doctorID, LocalDate date,
+                         LocalTime windowStart, LocalTime windowEnd, long createdAt) {
+        if (entryID == null || entryID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Waitlist entry ID cannot be null or empty.");
+        }
+        if (patientID == null || patientID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Patient ID cannot be null or empty.");
+        }
+        if (doctorID == null || doctorID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Doctor ID cannot be null or empty.");
+        }
+        if (date == null || windowStart == null || windowEnd == null) {
+            throw new IllegalArgumentException("Waitlist date and time window cannot be null.");
+        }
+        if (windowStart.isAfter(windowEnd)) {
+            throw new IllegalArgumentException("Window start cannot be after window end.");
+        }
+        this.entryID = entryID;
+        this.patientID = patientID;
+        this.doctorID = doctorID;
+        this.date = date;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.createdAt = createdAt;
+    }
+
+    public String getEntryID() {
+        return entryID;
+    }
+
+    public String getPatientID() {
+        return patientID;
+    }
+
+    public String getDoctorID() {
+        return doctorID;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getWindowStart() {
+        return windowStart;
+    }
+
+    public LocalTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Checks whether a slot starting at the given time is acceptable to the patient.
+     *
+     * @param time the slot start time
+     * @return true if the time lies within the patient's window
+     */
+    public boolean accepts(LocalTime time) {
+        return !time.isBefore(windowStart) && !time.isAfter(windowEnd);
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", entryID, patientID, doctorID,
+                date.format(Appointment.DATE_FORMAT),
+                windowStart.format(Appointment.TIME_FORMAT),
+                windowEnd.format(Appointment.TIME_FORMAT),
+                String.valueOf(createdAt));
+    }
+
+    /**
+     * Parses a CSV string to create a WaitlistEntry.
+     *
+     * @param csvLine the CSV string
+     * @return the parsed WaitlistEntry
+     * @throws IllegalArgumentException if the CSV string is invalid
+     */
+    public static WaitlistEntry fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Invalid CSV format for WaitlistEntry: " + csvLine);
+        }
+        try {
+            return new WaitlistEntry(
+                    fields[0].trim(),
+                    fields[1].trim(),
+                    fields[2].trim(),
+                    LocalDate.parse(fields[3].trim(), Appointment.DATE_FORMAT),
+                    LocalTime.parse(fields[4].trim(), Appointment.TIME_FORMAT),
+                    LocalTime.parse(fields[5].trim(), Appointment.TIME_FORMAT),
+                    Long.parseLong(fields[6].trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Failed to parse WaitlistEntry from CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Waitlist ID: %s, Patient ID: %s, Doctor ID: %s, Date: %s, Window: %s - %s",
+                entryID, patientID, doctorID, date.format(Appointment.DATE_FORMAT), windowStart, windowEnd);
+    }
+}
@@ -0,0 +1,45 @@
+package utils.appointments.waitlist;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A freed appointment slot matched to a waiting patient, ready to be booked.
+ */
+public class WaitlistOffer {
+    private final WaitlistEntry entry;
+    private final String cancelledAppointmentID;
+    private final LocalDate date;
+    private final LocalTime time;
+
+    /**
+     * Constructs a WaitlistOffer.
+     *
+     * @param entry                  the matched waitlist entry
+     * @param cancelledAppointmentID the ID of the cancelled appointment that freed the slot
+     * @param date                   the date of the freed slot
+     * @param time                   the start time of the freed slot
+     */
+    public WaitlistOffer(WaitlistEntry entry, String cancelledAppointmentID, LocalDate date, LocalTime time) {
+        this.entry = entry;
+        this.cancelledAppointmentID = cancelledAppointmentID;
+        this.date = date;
+        this.time = time;
+    }
+
+    public WaitlistEntry getEntry() {
+        return entry;
+    }
+
+    public String getCancelledAppointmentID() {
+        return cancelledAppointmentID;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+}
@@ -0,0 +1,10 @@
+package utils.enums;
+
+/**
+ * How serious a drug-drug interaction is, from least to most serious.
+ */
+public enum InteractionSeverity {
+    MINOR,
+    MODERATE,
+    MAJOR
+}
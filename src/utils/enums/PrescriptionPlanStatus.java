@@ -0,0 +1,10 @@
+package utils.enums;
+
+/**
+ * The state of a recurring prescription plan.
+ */
+public enum PrescriptionPlanStatus {
+    ACTIVE,    // Refills are still generated
+    COMPLETED, // Every refill has been generated
+    CANCELLED
+}
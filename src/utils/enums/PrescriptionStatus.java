@@ -5,5 +5,6 @@ public enum PrescriptionStatus
     //ACCEPTED,
     DISPENSED, 
     PENDING,
+    CLAIMED, // Held by a pharmacist while dispensing; never persisted
     REJECTED
 }
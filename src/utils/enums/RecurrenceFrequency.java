@@ -0,0 +1,10 @@
+package utils.enums;
+
+/**
+ * How often the occurrences of a recurring appointment series repeat.
+ */
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
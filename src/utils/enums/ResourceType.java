@@ -0,0 +1,9 @@
+package utils.enums;
+
+/**
+ * The kinds of hospital resources that appointments can reserve.
+ */
+public enum ResourceType {
+    ROOM,
+    EQUIPMENT
+}
@@ -0,0 +1,10 @@
+package utils.enums;
+
+/**
+ * What to do with future appointments that no longer fit a doctor's changed appointment slots.
+ */
+public enum RevalidationAction {
+    FLAG,
+    RESCHEDULE,
+    NOTIFY
+}
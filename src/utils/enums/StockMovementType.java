@@ -0,0 +1,10 @@
+package utils.enums;
+
+public enum StockMovementType {
+    DISPENSE,
+    REFILL,
+    REPLENISHMENT,
+    ADJUSTMENT,
+    ADDED,
+    REMOVED
+}
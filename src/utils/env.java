@@ -7,11 +7,21 @@ package utils;
 public class env {
     private final String appointmentSlotDataPath;
     private final String appointmentDataPath;
+    private final String appointmentSeriesDataPath;
+    private final String drugInteractionPath;
     private final String medicalRecordPath;
     private final String medicinePath;
+    private final String medicineLotPath;
+    private final String medicineStockDeltaPath;
     private final String patientDataPath;
+    private final String prescriptionPlanDataPath;
     private final String replenishmentRequestDataPath;
+    private final String resourceDataPath;
+    private final String resourceBookingDataPath;
     private final String staffListPath;
+    private final String stockLedgerPath;
+    private final String stockSnapshotPath;
+    private final String waitlistDataPath;
 
     /**
      * Initializes the environment configuration with predefined file paths.
@@ -19,11 +29,21 @@ public class env {
     public env() {
         this.appointmentSlotDataPath = "src/datamgmt/datastores/AppointmentSlotData.csv";
         this.appointmentDataPath = "src/datamgmt/datastores/AppointmentData.csv";
+        this.appointmentSeriesDataPath = "src/datamgmt/datastores/AppointmentSeriesData.csv";
+        this.drugInteractionPath = "src/datamgmt/datastores/DrugInteractionData.csv";
         this.medicalRecordPath = "src/datamgmt/datastores/MedicalRecordsData.csv";
         this.medicinePath = "src/datamgmt/datastores/MedicineData.csv";
+        this.medicineLotPath = "src/datamgmt/datastores/MedicineLotData.csv";
+        this.medicineStockDeltaPath = "src/datamgmt/datastores/MedicineStockDelta.csv";
         this.patientDataPath = "src/datamgmt/datastores/PatientData.csv";
+        this.prescriptionPlanDataPath = "src/datamgmt/datastores/PrescriptionPlanData.csv";
         this.replenishmentRequestDataPath = "src/datamgmt/datastores/ReplenishmentRequestData.csv";
+        this.resourceDataPath = "src/datamgmt/datastores/ResourceData.csv";
+        this.resourceBookingDataPath = "src/datamgmt/datastores/ResourceBookingData.csv";
         this.staffListPath = "src/datamgmt/datastores/StaffData.csv";
+        this.stockLedgerPath = "src/datamgmt/datastores/StockLedger.csv";
+        this.stockSnapshotPath = "src/datamgmt/datastores/StockSnapshotData.csv";
+        this.waitlistDataPath = "src/datamgmt/datastores/WaitlistData.csv";
     }
 
     /**
@@ -44,6 +64,24 @@ public class env {
         return appointmentDataPath;
     }
 
+    /**
+     * Gets the file path for recurring appointment series data.
+     * 
+     * @return the file path for recurring appointment series data
+     */
+    public String getAppointmentSeriesDataPath() {
+        return appointmentSeriesDataPath;
+    }
+
+    /**
+     * Gets the file path for the drug interaction table.
+     * 
+     * @return the file path for drug interaction data
+     */
+    public String getDrugInteractionPath() {
+        return drugInteractionPath;
+    }
+
     /**
      * Gets the file path for medical records data.
      * 
@@ -62,6 +100,24 @@ public class env {
         return medicinePath;
     }
 
+    /**
+     * Gets the file path for medicine lot data.
+     * 
+     * @return the file path for medicine lots and their expiry dates
+     */
+    public String getMedicineLotPath() {
+        return medicineLotPath;
+    }
+
+    /**
+     * Gets the file path for the medicine stock change journal.
+     * 
+     * @return the file path for the medicine stock change journal
+     */
+    public String getMedicineStockDeltaPath() {
+        return medicineStockDeltaPath;
+    }
+
     /**
      * Gets the file path for patient data.
      * 
@@ -71,6 +127,15 @@ public class env {
         return patientDataPath;
     }
 
+    /**
+     * Gets the file path for recurring prescription plan data.
+     * 
+     * @return the file path for recurring prescription plan data
+     */
+    public String getPrescriptionPlanDataPath() {
+        return prescriptionPlanDataPath;
+    }
+
     /**
      * Gets the file path for replenishment requests data.
      * 
@@ -80,6 +145,24 @@ public class env {
         return replenishmentRequestDataPath;
     }
 
+    /**
+     * Gets the file path for room and equipment resource data.
+     * 
+     * @return the file path for resource data
+     */
+    public String getResourceDataPath() {
+        return resourceDataPath;
+    }
+
+    /**
+     * Gets the file path for resource booking data.
+     * 
+     * @return the file path for resource booking data
+     */
+    public String getResourceBookingDataPath() {
+        return resourceBookingDataPath;
+    }
+
     /**
      * Gets the file path for staff list data.
      * 
@@ -88,4 +171,31 @@ public class env {
     public String getStaffListPath() {
         return staffListPath;
     }
+
+    /**
+     * Gets the file path for the stock movement ledger.
+     * 
+     * @return the file path for the stock movement ledger
+     */
+    public String getStockLedgerPath() {
+        return stockLedgerPath;
+    }
+
+    /**
+     * Gets the file path for stock snapshots.
+     * 
+     * @return the file path for stock snapshots
+     */
+    public String getStockSnapshotPath() {
+        return stockSnapshotPath;
+    }
+
+    /**
+     * Gets the file path for appointment waitlist data.
+     * 
+     * @return the file path for appointment waitlist data
+     */
+    public String getWaitlistDataPath() {
+        return waitlistDataPath;
+    }
 }
@@ -0,0 +1,55 @@
+package utils.medicalrecords;
+
+import utils.appointments.Appointment;
+
+/**
+ * A prescription waiting to be dispensed, together with its appointment and the patient's name,
+ * so the pharmacist's queue can be shown without looking anything up.
+ */
+public class PendingPrescription {
+    private final Appointment appointment;
+    private final int prescriptionIndex;
+    private final String patientName;
+
+    /**
+     * Constructs a PendingPrescription.
+     *
+     * @param appointment       the appointment whose outcome record holds the prescription
+     * @param prescriptionIndex the position of the prescription in the outcome record
+     * @param patientName       the patient's name
+     */
+    public PendingPrescription(Appointment appointment, int prescriptionIndex, String patientName) {
+        this.appointment = appointment;
+        this.prescriptionIndex = prescriptionIndex;
+        this.patientName = patientName;
+    }
+
+    public Appointment getAppointment() {
+        return appointment;
+    }
+
+    public String getAppointmentID() {
+        return appointment.getAppointmentID();
+    }
+
+    public int getPrescriptionIndex() {
+        return prescriptionIndex;
+    }
+
+    public String getPatientID() {
+        return appointment.getPatientID();
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    /**
+     * Returns the prescription as currently held by the appointment's outcome record.
+     *
+     * @return the prescription
+     */
+    public Prescription getPrescription() {
+        return appointment.getOutcomeRecord().getPrescriptions().get(prescriptionIndex);
+    }
+}
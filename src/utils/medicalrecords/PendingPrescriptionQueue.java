@@ -0,0 +1,121 @@
+package utils.medicalrecords;
+
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+import utils.enums.PrescriptionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps the prescriptions that are waiting to be dispensed in the order they were prescribed.
+ * Entries are added when an outcome record with PENDING prescriptions is saved and dropped as soon as
+ * the prescription is dispensed or rejected, so the pharmacist's view costs O(pending).
+ * Prescriptions claimed by a pharmacist stay in the queue until the claim completes.
+ */
+public class PendingPrescriptionQueue implements AppointmentListener {
+    private final Function<String, String> patientNames;
+    private final Map<String, PendingPrescription> queue = new LinkedHashMap<>();
+    private final Map<String, List<String>> keysByAppointment = new HashMap<>();
+
+    /**
+     * Constructs an empty queue.
+     *
+     * @param patientNames looks up a patient's name by ID; only called for patients with pending prescriptions
+     */
+    public PendingPrescriptionQueue(Function<String, String> patientNames) {
+        this.patientNames = patientNames;
+    }
+
+    /**
+     * Returns the pending prescriptions, oldest first.
+     *
+     * @return the pending prescriptions
+     */
+    public List<PendingPrescription> getPending() {
+        return new ArrayList<>(queue.values());
+    }
+
+    /**
+     * Returns the number of pending prescriptions.
+     *
+     * @return the queue length
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        queue.clear();
+        keysByAppointment.clear();
+        for (Appointment appointment : appointments) {
+            onAppointmentChanged(appointment);
+        }
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        String appointmentID = appointment.getAppointmentID();
+        List<String> previousKeys = keysByAppointment.remove(appointmentID);
+        List<String> keys = new ArrayList<>();
+        OutcomeRecord outcome = appointment.getOutcomeRecord();
+        if (outcome != null) {
+            List<Prescription> prescriptions = outcome.getPrescriptions();
+            for (int i = 0; i < prescriptions.size(); i++) {
+                PrescriptionStatus status = prescriptions.get(i).getStatus();
+                if (status == PrescriptionStatus.PENDING || status == PrescriptionStatus.CLAIMED) {
+                    keys.add(key(appointmentID, i));
+                }
+            }
+        }
+        if (previousKeys != null) {
+            for (String key : previousKeys) {
+                if (!keys.contains(key)) {
+                    queue.remove(key);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        // Entries that are still pending keep their place in the queue
+        String patientName = null;
+        for (String key : keys) {
+            PendingPrescription existing = queue.get(key);
+            if (existing != null && existing.getAppointment() == appointment) {
+                continue;
+            }
+            if (patientName == null) {
+                patientName = patientNames.apply(appointment.getPatientID());
+            }
+            PendingPrescription entry = new PendingPrescription(appointment, indexOf(key), patientName);
+            if (existing != null) {
+                queue.replace(key, entry);
+            } else {
+                queue.put(key, entry);
+            }
+        }
+        keysByAppointment.put(appointmentID, keys);
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        List<String> keys = keysByAppointment.remove(appointment.getAppointmentID());
+        if (keys != null) {
+            keys.forEach(queue::remove);
+        }
+    }
+
+    private static String key(String appointmentID, int prescriptionIndex) {
+        return appointmentID + "#" + prescriptionIndex;
+    }
+
+    private static int indexOf(String key) {
+        return Integer.parseInt(key.substring(key.lastIndexOf('#') + 1));
+    }
+}
@@ -3,11 +3,13 @@ package utils.medicalrecords;
 import utils.CSVSerializable;
 import utils.enums.PrescriptionStatus;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 public class Prescription implements CSVSerializable {
 
     private String medicationName;
     private int quantity;
-    private PrescriptionStatus status;
+    private final AtomicReference<PrescriptionStatus> status = new AtomicReference<>();
 
     /**
      * Constructor to initialize a Prescription with medication name and quantity.
@@ -25,7 +27,7 @@ public class Prescription implements CSVSerializable {
         }
         this.medicationName = medicationName;
         this.quantity = quantity;
-        this.status = PrescriptionStatus.PENDING;
+        this.status.set(PrescriptionStatus.PENDING);
     }
 
     /**
@@ -47,7 +49,7 @@ public class Prescription implements CSVSerializable {
         }
         this.medicationName = medicationName;
         this.quantity = quantity;
-        this.status = status;
+        this.status.set(status);
     }
 
     // Getters and Setters
@@ -74,14 +76,28 @@ public class Prescription implements CSVSerializable {
     }
 
     public PrescriptionStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     public void updateStatus(PrescriptionStatus newStatus) {
         if (newStatus == null) {
             throw new IllegalArgumentException("Prescription status cannot be null.");
         }
-        this.status = newStatus;
+        this.status.set(newStatus);
+    }
+
+    /**
+     * Atomically changes the status if it still has the expected value.
+     *
+     * @param expected  the status the prescription must currently have
+     * @param newStatus the new status
+     * @return true if the status was changed
+     */
+    public boolean compareAndSetStatus(PrescriptionStatus expected, PrescriptionStatus newStatus) {
+        if (newStatus == null) {
+            throw new IllegalArgumentException("Prescription status cannot be null.");
+        }
+        return status.compareAndSet(expected, newStatus);
     }
 
     // Implementation of CSVSerializable interface
@@ -93,7 +109,9 @@ public class Prescription implements CSVSerializable {
      */
     @Override
     public String toCSV() {
-        return String.join(",", medicationName, String.valueOf(quantity), status.name());
+        // A claim only lives as long as the pharmacist's session, so it is stored as still pending
+        PrescriptionStatus stored = status.get() == PrescriptionStatus.CLAIMED ? PrescriptionStatus.PENDING : status.get();
+        return String.join(",", medicationName, String.valueOf(quantity), stored.name());
     }
 
     /**
@@ -122,6 +140,9 @@ public class Prescription implements CSVSerializable {
         PrescriptionStatus status;
         try {
             status = PrescriptionStatus.valueOf(fields[2]);
+            if (status == PrescriptionStatus.CLAIMED) {
+                status = PrescriptionStatus.PENDING; // A claim never outlives the session that made it
+            }
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid prescription status: " + fields[2]);
         }
@@ -131,6 +152,6 @@ public class Prescription implements CSVSerializable {
 
     @Override
     public String toString() {
-        return String.format("%s (Quantity: %d, Status: %s)", medicationName, quantity, status);
+        return String.format("%s (Quantity: %d, Status: %s)", medicationName, quantity, status.get());
     }
 }
@@ -0,0 +1,236 @@
+package utils.medicalrecords;
+
+import utils.enums.PrescriptionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets several pharmacists dispense from the pending queue at the same time without a global lock.
+ * A pharmacist first claims a prescription, which atomically moves it from PENDING to CLAIMED and
+ * registers a lease shared by every pharmacist session in the application; only the holder of a live
+ * lease can complete it, so each prescription is dispensed, and its stock reduced, exactly once.
+ * Leases that are not completed in time expire and the prescription can be claimed again.
+ * A completed claim is kept only until every open pharmacist session loaded its appointments after the
+ * final status was saved; from then on the saved status alone stops the prescription being claimed again.
+ */
+public final class PrescriptionClaims {
+    public static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final Map<String, Claim> claims = new ConcurrentHashMap<>();
+    private static final NavigableSet<Long> openSessions = new ConcurrentSkipListSet<>();
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private PrescriptionClaims() {
+    }
+
+    /**
+     * Claims a pending prescription for a pharmacist.
+     *
+     * @param pending      the pending prescription
+     * @param pharmacistID the ID of the pharmacist claiming it
+     * @return the claim, or empty if another pharmacist holds it or it was already dispensed or rejected
+     */
+    public static Optional<Claim> claim(PendingPrescription pending, String pharmacistID) {
+        String key = key(pending);
+        Prescription prescription = pending.getPrescription();
+        LocalDateTime now = LocalDateTime.now();
+        while (true) {
+            Claim current = claims.get(key);
+            if (current != null && (current.finalStatus != null || !current.isExpired(now))) {
+                if (current.finalStatus != null) {
+                    // Completed in another session; bring this session's copy up to date
+                    prescription.updateStatus(current.finalStatus);
+                }
+                return Optional.empty();
+            }
+            Claim claim = new Claim(key, pharmacistID, prescription, now.plus(LEASE_DURATION), null);
+            boolean registered = current == null ? claims.putIfAbsent(key, claim) == null : claims.replace(key, current, claim);
+            if (!registered) {
+                continue; // Another pharmacist got there first; look again
+            }
+            // An expired lease from this session leaves the prescription CLAIMED, so take it over as it is
+            if (prescription.compareAndSetStatus(PrescriptionStatus.PENDING, PrescriptionStatus.CLAIMED)
+                    || (current != null && prescription.getStatus() == PrescriptionStatus.CLAIMED)) {
+                return Optional.of(claim);
+            }
+            claims.remove(key, claim);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Claims the oldest pending prescription that no other pharmacist holds.
+     *
+     * @param pending      the pending prescriptions, oldest first
+     * @param pharmacistID the ID of the pharmacist claiming it
+     * @return the claim, or empty if every pending prescription is taken
+     */
+    public static Optional<Claim> claimNext(List<PendingPrescription> pending, String pharmacistID) {
+        for (PendingPrescription candidate : pending) {
+            Optional<Claim> claim = claim(candidate, pharmacistID);
+            if (claim.isPresent()) {
+                return claim;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Completes a claim by giving the prescription its final status. Succeeds only while the claim is still
+     * the registered one, i.e. it has not expired and been taken over by another pharmacist.
+     *
+     * @param claim       the claim to complete
+     * @param finalStatus DISPENSED or REJECTED
+     * @return true if the prescription now has the final status and the caller should apply its effects
+     */
+    public static boolean complete(Claim claim, PrescriptionStatus finalStatus) {
+        if (finalStatus != PrescriptionStatus.DISPENSED && finalStatus != PrescriptionStatus.REJECTED) {
+            throw new IllegalArgumentException("A claim can only be completed as DISPENSED or REJECTED.");
+        }
+        Claim completed = new Claim(claim.key, claim.pharmacistID, claim.prescription, claim.expiresAt, finalStatus);
+        if (!claims.replace(claim.key, claim, completed)) {
+            return false;
+        }
+        return claim.prescription.compareAndSetStatus(PrescriptionStatus.CLAIMED, finalStatus);
+    }
+
+    /**
+     * Records that the final status of completed claims has been saved, and evicts every completed claim
+     * that no open session still needs.
+     *
+     * @param completedClaims the claims whose appointments were saved
+     */
+    public static void markSaved(Collection<Claim> completedClaims) {
+        long savedAt = sequence.incrementAndGet();
+        for (Claim claim : completedClaims) {
+            Claim current = claims.get(claim.key);
+            if (current != null && current.finalStatus != null && current.prescription == claim.prescription) {
+                current.savedAt = savedAt;
+            }
+        }
+        evictRedundant();
+    }
+
+    /**
+     * Registers a pharmacist session. Must be called before the session loads its appointments.
+     *
+     * @return the session token to pass to {@link #closeSession(long)}
+     */
+    public static long openSession() {
+        long session = sequence.incrementAndGet();
+        openSessions.add(session);
+        return session;
+    }
+
+    /**
+     * Unregisters a pharmacist session and evicts the completed claims that only it still needed.
+     *
+     * @param session the token returned by {@link #openSession()}
+     */
+    public static void closeSession(long session) {
+        openSessions.remove(session);
+        evictRedundant();
+    }
+
+    /**
+     * Removes completed claims saved before the oldest open session loaded its appointments; every open
+     * session then already holds the final status.
+     */
+    private static void evictRedundant() {
+        Long oldestSession = openSessions.isEmpty() ? null : openSessions.first();
+        claims.values().removeIf(claim -> claim.savedAt != 0
+                && (oldestSession == null || claim.savedAt < oldestSession));
+    }
+
+    /**
+     * Gives a claimed prescription back to the queue without dispensing it.
+     *
+     * @param claim the claim to release
+     */
+    public static void release(Claim claim) {
+        if (claims.remove(claim.key, claim)) {
+            claim.prescription.compareAndSetStatus(PrescriptionStatus.CLAIMED, PrescriptionStatus.PENDING);
+        }
+    }
+
+    /**
+     * Undoes a claim, e.g. because the final status of a batch could not be saved: a completed claim is
+     * forgotten and its prescription returned from its final status to PENDING, and a live claim is released.
+     *
+     * @param claim the claim as returned by {@link #claim(PendingPrescription, String)}
+     */
+    public static void reopen(Claim claim) {
+        Claim current = claims.get(claim.key);
+        if (current != null && current.finalStatus != null && current.prescription == claim.prescription) {
+            if (claims.remove(claim.key, current)) {
+                claim.prescription.compareAndSetStatus(current.finalStatus, PrescriptionStatus.PENDING);
+            }
+            return;
+        }
+        release(claim);
+    }
+
+    /**
+     * Returns the pharmacist currently holding a live claim on a prescription.
+     *
+     * @param pending the pending prescription
+     * @return the pharmacist's ID, or empty if the prescription is not claimed
+     */
+    public static Optional<String> getHolder(PendingPrescription pending) {
+        Claim claim = claims.get(key(pending));
+        if (claim == null || claim.finalStatus != null || claim.isExpired(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(claim.pharmacistID);
+    }
+
+    private static String key(PendingPrescription pending) {
+        return pending.getAppointmentID() + "#" + pending.getPrescriptionIndex();
+    }
+
+    /**
+     * A pharmacist's lease on one prescription, or the record that it was completed.
+     */
+    public static class Claim {
+        private final String key;
+        private final String pharmacistID;
+        private final Prescription prescription;
+        private final LocalDateTime expiresAt;
+        private final PrescriptionStatus finalStatus;
+        private volatile long savedAt; // Sequence number at which the final status was saved, or 0
+
+        Claim(String key, String pharmacistID, Prescription prescription, LocalDateTime expiresAt,
+              PrescriptionStatus finalStatus) {
+            this.key = key;
+            this.pharmacistID = pharmacistID;
+            this.prescription = prescription;
+            this.expiresAt = expiresAt;
+            this.finalStatus = finalStatus;
+        }
+
+        public String getPharmacistID() {
+            return pharmacistID;
+        }
+
+        public Prescription getPrescription() {
+            return prescription;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        boolean isExpired(LocalDateTime now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
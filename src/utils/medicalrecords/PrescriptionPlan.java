@@ -0,0 +1,198 @@
+package utils.medicalrecords;
+
+import utils.CSVSerializable;
+import utils.appointments.Appointment;
+import utils.enums.PrescriptionPlanStatus;
+import utils.enums.RecurrenceFrequency;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A repeat prescription for a chronic patient: the same medicine and quantity, issued as a new PENDING
+ * prescription every time the plan falls due, until its refills run out or it is cancelled.
+ */
+public class PrescriptionPlan implements CSVSerializable {
+    private final String planID;
+    private final String patientID;
+    private final String doctorID;
+    private final String medicationName;
+    private final int quantity;
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private LocalDate nextRefillDate;
+    private int refillsRemaining;
+    private PrescriptionPlanStatus status;
+
+    /**
+     * Constructs a PrescriptionPlan.
+     *
+     * @param planID           the unique ID of the plan
+     * @param patientID        the patient's ID
+     * @param doctorID         the ID of the prescribing doctor
+     * @param medicationName   the medicine to issue
+     * @param quantity         the quantity issued with every refill
+     * @param frequency        the unit the refills repeat in
+     * @param interval         the number of units between refills, e.g. 2 for every other week
+     * @param nextRefillDate   the date the next refill is due
+     * @param refillsRemaining the number of refills still to be issued
+     * @param status           the plan status
+     */
+    public PrescriptionPlan(String planID, String patientID, String doctorID, String medicationName, int quantity,
+                            RecurrenceFrequency frequency, int interval, LocalDate nextRefillDate, int refillsRemaining,
+                            PrescriptionPlanStatus status) {
+        if (planID == null || planID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Plan ID cannot be null or empty.");
+        }
+        if (patientID == null || patientID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Patient ID cannot be null or empty.");
+        }
+        if (doctorID == null || doctorID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Doctor ID cannot be null or empty.");
+        }
+        if (medicationName == null || medicationName.trim().isEmpty() || medicationName.contains(",")) {
+            throw new IllegalArgumentException("Medication name cannot be empty or contain commas.");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive number.");
+        }
+        if (frequency == null || nextRefillDate == null || status == null) {
+            throw new IllegalArgumentException("Plan frequency, next refill date and status cannot be null.");
+        }
+        if (interval < 1 || refillsRemaining < 0) {
+            throw new IllegalArgumentException("Plan interval must be positive and refills cannot be negative.");
+        }
+        this.planID = planID;
+        this.patientID = patientID;
+        this.doctorID = doctorID;
+        this.medicationName = medicationName.trim();
+        this.quantity = quantity;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.nextRefillDate = nextRefillDate;
+        this.refillsRemaining = refillsRemaining;
+        this.status = refillsRemaining == 0 && status == PrescriptionPlanStatus.ACTIVE ? PrescriptionPlanStatus.COMPLETED : status;
+    }
+
+    public String getPlanID() {
+        return planID;
+    }
+
+    public String getPatientID() {
+        return patientID;
+    }
+
+    public String getDoctorID() {
+        return doctorID;
+    }
+
+    public String getMedicationName() {
+        return medicationName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getNextRefillDate() {
+        return nextRefillDate;
+    }
+
+    public int getRefillsRemaining() {
+        return refillsRemaining;
+    }
+
+    public PrescriptionPlanStatus getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return status == PrescriptionPlanStatus.ACTIVE;
+    }
+
+    /**
+     * Records that a refill was issued and moves the next refill date past the given date.
+     * Refills missed while the system was not in use are not issued again; the plan simply carries on.
+     *
+     * @param today the date the refill was issued
+     */
+    void recordRefill(LocalDate today) {
+        refillsRemaining--;
+        if (refillsRemaining <= 0) {
+            refillsRemaining = 0;
+            status = PrescriptionPlanStatus.COMPLETED;
+            return;
+        }
+        while (!nextRefillDate.isAfter(today)) {
+            nextRefillDate = step(nextRefillDate);
+        }
+    }
+
+    void cancel() {
+        status = PrescriptionPlanStatus.CANCELLED;
+    }
+
+    private LocalDate step(LocalDate date) {
+        return frequency == RecurrenceFrequency.MONTHLY
+                ? date.plusMonths(interval)
+                : date.plusDays(frequency == RecurrenceFrequency.WEEKLY ? 7L * interval : interval);
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", planID, patientID, doctorID, medicationName,
+                String.valueOf(quantity),
+                frequency.name(),
+                String.valueOf(interval),
+                nextRefillDate.format(Appointment.DATE_FORMAT),
+                String.valueOf(refillsRemaining),
+                status.name());
+    }
+
+    /**
+     * Parses a CSV string to create a PrescriptionPlan.
+     *
+     * @param csvLine the CSV string
+     * @return the parsed PrescriptionPlan
+     * @throws IllegalArgumentException if the CSV string is invalid
+     */
+    public static PrescriptionPlan fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 10) {
+            throw new IllegalArgumentException("Invalid CSV format for PrescriptionPlan: " + csvLine);
+        }
+        try {
+            return new PrescriptionPlan(
+                    fields[0].trim(),
+                    fields[1].trim(),
+                    fields[2].trim(),
+                    fields[3].trim(),
+                    Integer.parseInt(fields[4].trim()),
+                    RecurrenceFrequency.valueOf(fields[5].trim()),
+                    Integer.parseInt(fields[6].trim()),
+                    LocalDate.parse(fields[7].trim(), Appointment.DATE_FORMAT),
+                    Integer.parseInt(fields[8].trim()),
+                    PrescriptionPlanStatus.valueOf(fields[9].trim()));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid prescription plan data: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        String unit = frequency == RecurrenceFrequency.DAILY ? "day" : frequency == RecurrenceFrequency.WEEKLY ? "week" : "month";
+        String schedule = String.format("every %d %s(s)", interval, unit);
+        return String.format("%s: %s x%d for %s, %s, %s", planID, medicationName, quantity, patientID, schedule,
+                isActive()
+                        ? refillsRemaining + " refill(s) left, next on " + nextRefillDate.format(Appointment.DATE_FORMAT)
+                        : status.name());
+    }
+}
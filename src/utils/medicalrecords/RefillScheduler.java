@@ -0,0 +1,150 @@
+package utils.medicalrecords;
+
+import datamgmt.retrievers.PrescriptionPlanData;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Holds the recurring prescription plans, with the active ones indexed by their next refill date.
+ * Due plans are taken from the head of the index in one pass, so checking for refills costs nothing
+ * when none is due and never scans the appointments or the plans that are not due.
+ */
+public class RefillScheduler {
+    private final PrescriptionPlanData data;
+    private final Map<String, PrescriptionPlan> plansByID = new HashMap<>();
+    private final Map<String, List<PrescriptionPlan>> plansByPatient = new HashMap<>();
+    private final TreeMap<LocalDate, Set<PrescriptionPlan>> plansByNextRefill = new TreeMap<>();
+
+    /**
+     * Constructs the RefillScheduler and indexes all persisted plans.
+     *
+     * @param data the plan data handler
+     */
+    public RefillScheduler(PrescriptionPlanData data) {
+        this.data = data;
+        this.data.importData();
+        for (PrescriptionPlan plan : data.getPlans()) {
+            addToIndex(plan);
+        }
+    }
+
+    /**
+     * Adds a new plan and persists it.
+     *
+     * @param plan the plan to add
+     */
+    public void add(PrescriptionPlan plan) {
+        data.addPlan(plan);
+        addToIndex(plan);
+    }
+
+    /**
+     * Finds a plan by its ID.
+     *
+     * @param planID the plan ID
+     * @return the plan, or empty if not found
+     */
+    public Optional<PrescriptionPlan> find(String planID) {
+        return Optional.ofNullable(plansByID.get(planID));
+    }
+
+    /**
+     * Returns the plans of a patient.
+     *
+     * @param patientID the patient's ID
+     * @return the patient's plans
+     */
+    public List<PrescriptionPlan> getPlansForPatient(String patientID) {
+        return new ArrayList<>(plansByPatient.getOrDefault(patientID, List.of()));
+    }
+
+    /**
+     * Returns the date the next refill of any plan is due.
+     *
+     * @return the earliest next refill date, or null if no plan is active
+     */
+    public LocalDate getNextRefillDate() {
+        return plansByNextRefill.isEmpty() ? null : plansByNextRefill.firstKey();
+    }
+
+    /**
+     * Cancels a plan so no further refills are issued, and persists the change.
+     *
+     * @param planID the plan ID
+     * @return true if the plan was found and still active
+     */
+    public boolean cancel(String planID) {
+        PrescriptionPlan plan = plansByID.get(planID);
+        if (plan == null || !plan.isActive()) {
+            return false;
+        }
+        unindexRefill(plan);
+        plan.cancel();
+        data.savePlans();
+        return true;
+    }
+
+    /**
+     * Returns every plan due on or before the given date, without changing them. Once the refills are
+     * stored, pass the plans to {@link #recordRefills(List, LocalDate)}.
+     *
+     * @param today the current date
+     * @return the plans a refill is due for
+     */
+    public List<PrescriptionPlan> getDue(LocalDate today) {
+        List<PrescriptionPlan> due = new ArrayList<>();
+        for (Set<PrescriptionPlan> plans : plansByNextRefill.headMap(today, true).values()) {
+            due.addAll(plans);
+        }
+        return due;
+    }
+
+    /**
+     * Records a refill on each plan, re-indexes those that still have refills left and persists the plans.
+     *
+     * @param plans the plans whose refills were issued
+     * @param today the date the refills were issued
+     */
+    public void recordRefills(List<PrescriptionPlan> plans, LocalDate today) {
+        for (PrescriptionPlan plan : plans) {
+            unindexRefill(plan);
+            plan.recordRefill(today);
+            indexRefill(plan);
+        }
+        save();
+    }
+
+    /**
+     * Persists all plans, e.g. after refills were issued.
+     */
+    public void save() {
+        data.savePlans();
+    }
+
+    private void addToIndex(PrescriptionPlan plan) {
+        plansByID.put(plan.getPlanID(), plan);
+        plansByPatient.computeIfAbsent(plan.getPatientID(), p -> new ArrayList<>()).add(plan);
+        indexRefill(plan);
+    }
+
+    private void indexRefill(PrescriptionPlan plan) {
+        if (plan.isActive()) {
+            plansByNextRefill.computeIfAbsent(plan.getNextRefillDate(), d -> new LinkedHashSet<>()).add(plan);
+        }
+    }
+
+    private void unindexRefill(PrescriptionPlan plan) {
+        Set<PrescriptionPlan> plans = plansByNextRefill.get(plan.getNextRefillDate());
+        if (plans != null && plans.remove(plan) && plans.isEmpty()) {
+            plansByNextRefill.remove(plan.getNextRefillDate());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package utils.medicinemanagements;
+
+import utils.enums.StockMovementType;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Forecasts medicine consumption from dispensing history. Each medicine keeps an exponentially weighted
+ * moving average of its daily dispensed quantity and a seasonal factor per weekday, both updated in
+ * constant time as dispenses are recorded. Dispenses accumulate into the current day, which is folded
+ * into the averages once a later day is seen.
+ */
+public class DemandForecaster {
+    /** The weight of the latest day in the daily average. */
+    public static final double LEVEL_SMOOTHING = 0.2;
+    /** The weight of the latest day in its weekday's seasonal factor. */
+    public static final double SEASONAL_SMOOTHING = 0.1;
+    /** The stock, in days of forecast consumption, that recommendations aim for. */
+    public static final int DEFAULT_DAYS_OF_COVER = 14;
+    /** The number of days of dispensing history replayed when the forecaster is rebuilt. */
+    public static final int HISTORY_DAYS = 56;
+
+    private static final double MIN_SEASONAL_FACTOR = 0.2;
+    private static final double MAX_SEASONAL_FACTOR = 5.0;
+
+    private final Map<String, ConsumptionStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces all statistics with those derived from the given stock movements. Only dispenses are counted.
+     *
+     * @param movements the stock movements, in timestamp order
+     */
+    public void rebuild(List<StockMovement> movements) {
+        stats.clear();
+        for (StockMovement movement : movements) {
+            if (movement.getType() == StockMovementType.DISPENSE) {
+                recordDispense(movement.getMedicineName(), -movement.getQuantity(), movement.getTimestamp().toLocalDate());
+            }
+        }
+    }
+
+    /**
+     * Adds a dispensed quantity to a medicine's consumption for the given day.
+     *
+     * @param medicineName the name of the medicine
+     * @param quantity     the quantity dispensed
+     * @param date         the day of the dispense
+     */
+    public void recordDispense(String medicineName, int quantity, LocalDate date) {
+        if (quantity <= 0) {
+            return;
+        }
+        stats.computeIfAbsent(medicineName.toLowerCase(), n -> new ConsumptionStats()).add(date, quantity);
+    }
+
+    /**
+     * Drops the statistics of a medicine, for example when it is removed from the inventory.
+     *
+     * @param medicineName the name of the medicine
+     */
+    public void forget(String medicineName) {
+        stats.remove(medicineName.toLowerCase());
+    }
+
+    /**
+     * Recommends a replenishment for one medicine.
+     *
+     * @param medicine    the medicine
+     * @param from        the first day of the cover period
+     * @param daysOfCover the number of days the stock should last
+     * @return the recommendation
+     */
+    public ReplenishmentRecommendation recommend(Medicine medicine, LocalDate from, int daysOfCover) {
+        ConsumptionStats medicineStats = stats.get(medicine.getName().toLowerCase());
+        double demand = medicineStats != null ? medicineStats.forecast(from, daysOfCover) : 0;
+        int stock = medicine.getInitialStock();
+        double dailyDemand = demand / daysOfCover;
+        double cover = dailyDemand > 0 ? stock / dailyDemand : Double.POSITIVE_INFINITY;
+        int quantity = (int) Math.max(0, Math.ceil(demand) - stock);
+        return new ReplenishmentRecommendation(medicine.getName(), stock, dailyDemand, cover, quantity);
+    }
+
+    /**
+     * Forecasts the whole catalogue in one parallel pass and returns the medicines that need replenishing,
+     * those with the least cover first.
+     *
+     * @param medicines   the medicines to forecast
+     * @param from        the first day of the cover period
+     * @param daysOfCover the number of days the stock should last
+     * @return the recommendations with a positive quantity
+     */
+    public List<ReplenishmentRecommendation> forecast(Collection<Medicine> medicines, LocalDate from, int daysOfCover) {
+        return medicines.parallelStream()
+                .map(medicine -> recommend(medicine, from, daysOfCover))
+                .filter(recommendation -> recommendation.getRecommendedQuantity() > 0)
+                .sorted(Comparator.comparingDouble(ReplenishmentRecommendation::getDaysOfCover))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Consumption statistics of a single medicine.
+     */
+    private static class ConsumptionStats {
+        private final double[] seasonalFactors = {1, 1, 1, 1, 1, 1, 1}; // Indexed by day of week, Monday first
+        private LocalDate openDay;
+        private int openQuantity;
+        private double level;
+        private boolean hasClosedDay;
+
+        synchronized void add(LocalDate date, int quantity) {
+            advanceTo(date);
+            openQuantity += quantity; // Late records are counted in the open day
+        }
+
+        /**
+         * Returns the total forecast consumption over a period, folding in the days that have passed.
+         */
+        synchronized double forecast(LocalDate from, int days) {
+            advanceTo(from);
+            double dailyLevel = hasClosedDay ? level : openQuantity;
+            double total = 0;
+            for (int i = 0; i < days; i++) {
+                total += dailyLevel * seasonalFactors[from.plusDays(i).getDayOfWeek().getValue() - 1];
+            }
+            return total;
+        }
+
+        /**
+         * Closes the open day and any days without dispenses up to the given date. At most
+         * {@link #HISTORY_DAYS} empty days are folded in, which is enough for the averages to settle.
+         */
+        private void advanceTo(LocalDate date) {
+            if (openDay == null) {
+                openDay = date;
+                return;
+            }
+            if (!date.isAfter(openDay)) {
+                return;
+            }
+            closeDay(openDay, openQuantity);
+            long emptyDays = Math.min(ChronoUnit.DAYS.between(openDay, date) - 1, HISTORY_DAYS);
+            for (long i = emptyDays; i > 0; i--) {
+                closeDay(date.minusDays(i), 0);
+            }
+            openDay = date;
+            openQuantity = 0;
+        }
+
+        private void closeDay(LocalDate day, int quantity) {
+            int weekday = day.getDayOfWeek().getValue() - 1;
+            double deseasonalised = quantity / seasonalFactors[weekday];
+            level = hasClosedDay ? LEVEL_SMOOTHING * deseasonalised + (1 - LEVEL_SMOOTHING) * level : deseasonalised;
+            hasClosedDay = true;
+            if (level > 0) {
+                double factor = SEASONAL_SMOOTHING * (quantity / level) + (1 - SEASONAL_SMOOTHING) * seasonalFactors[weekday];
+                seasonalFactors[weekday] = Math.min(MAX_SEASONAL_FACTOR, Math.max(MIN_SEASONAL_FACTOR, factor));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package utils.medicinemanagements;
+
+import utils.CSVSerializable;
+import utils.enums.InteractionSeverity;
+
+/**
+ * A known interaction between two medicines. The pair is unordered.
+ */
+public class DrugInteraction implements CSVSerializable {
+    private final String drugA;
+    private final String drugB;
+    private final InteractionSeverity severity;
+    private final String description;
+
+    /**
+     * Constructs a DrugInteraction.
+     *
+     * @param drugA       the name of one medicine
+     * @param drugB       the name of the other medicine
+     * @param severity    how serious the interaction is
+     * @param description what happens when the two are taken together
+     */
+    public DrugInteraction(String drugA, String drugB, InteractionSeverity severity, String description) {
+        if (drugA == null || drugA.trim().isEmpty() || drugB == null || drugB.trim().isEmpty()) {
+            throw new IllegalArgumentException("Interacting medicine names cannot be null or empty.");
+        }
+        if (MedicineNameIndex.normalize(drugA).equals(MedicineNameIndex.normalize(drugB))) {
+            throw new IllegalArgumentException("A medicine cannot interact with itself: " + drugA);
+        }
+        if (severity == null) {
+            throw new IllegalArgumentException("Interaction severity cannot be null.");
+        }
+        this.drugA = drugA.trim();
+        this.drugB = drugB.trim();
+        this.severity = severity;
+        this.description = description == null ? "" : description.trim();
+    }
+
+    public String getDrugA() {
+        return drugA;
+    }
+
+    public String getDrugB() {
+        return drugB;
+    }
+
+    public InteractionSeverity getSeverity() {
+        return severity;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", drugA, drugB, severity.name(), description);
+    }
+
+    /**
+     * Parses an interaction row. The description is the last column and may itself contain commas.
+     *
+     * @param csvLine the CSV row
+     * @return the parsed interaction
+     * @throws IllegalArgumentException if the row is invalid
+     */
+    public static DrugInteraction fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", 4);
+        if (fields.length < 3) {
+            throw new IllegalArgumentException("Invalid CSV format for DrugInteraction: " + csvLine);
+        }
+        InteractionSeverity severity;
+        try {
+            severity = InteractionSeverity.valueOf(fields[2].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid interaction severity: " + fields[2]);
+        }
+        return new DrugInteraction(fields[0], fields[1], severity, fields.length == 4 ? fields[3] : "");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s + %s [%s]%s", drugA, drugB, severity,
+                description.isEmpty() ? "" : ": " + description);
+    }
+}
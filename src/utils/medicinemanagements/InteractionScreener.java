@@ -0,0 +1,158 @@
+package utils.medicinemanagements;
+
+import datamgmt.retrievers.DrugInteractionData;
+import utils.appointments.Appointment;
+import utils.enums.InteractionSeverity;
+import utils.enums.PrescriptionStatus;
+import utils.medicalrecords.MedicalRecord;
+import utils.medicalrecords.OutcomeRecord;
+import utils.medicalrecords.Prescription;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * Screens new prescriptions against the medicines a patient is already taking, using the compiled
+ * {@link InteractionTable}. The table file is checked for changes at most once a second and recompiled
+ * when it has been modified, so edits to the table take effect without a restart.
+ */
+public class InteractionScreener {
+    /** Dispensed prescriptions are considered active for this many days after the appointment. */
+    public static final int ACTIVE_DAYS = 30;
+    private static final long RELOAD_CHECK_INTERVAL_MS = 1000;
+
+    private final DrugInteractionData interactionData;
+    private volatile InteractionTable table;
+    private volatile long loadedModified;
+    private volatile long lastCheckedAt;
+
+    /**
+     * Constructs an InteractionScreener that reads the interaction table from the configured file.
+     */
+    public InteractionScreener() {
+        this(new DrugInteractionData());
+    }
+
+    /**
+     * Constructs an InteractionScreener and compiles the interaction table.
+     *
+     * @param interactionData the interaction table file
+     */
+    public InteractionScreener(DrugInteractionData interactionData) {
+        this.interactionData = interactionData;
+        reload();
+    }
+
+    /**
+     * Returns the current interaction table, recompiling it first if the file has changed.
+     *
+     * @return the interaction table
+     */
+    public InteractionTable getTable() {
+        long now = System.currentTimeMillis();
+        if (now - lastCheckedAt >= RELOAD_CHECK_INTERVAL_MS) {
+            lastCheckedAt = now;
+            if (interactionData.lastModified() != loadedModified) {
+                reload();
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Recompiles the interaction table from the file.
+     */
+    public synchronized void reload() {
+        long modified = interactionData.lastModified();
+        table = InteractionTable.compile(interactionData.loadInteractions());
+        loadedModified = modified;
+    }
+
+    /**
+     * Finds the interactions between a medicine and a patient's active medicines, most severe first.
+     *
+     * @param medicationName     the medicine being prescribed
+     * @param activeMedications the names of the medicines the patient is taking
+     * @return the interactions found
+     */
+    public List<DrugInteraction> screen(String medicationName, Collection<String> activeMedications) {
+        InteractionTable current = getTable();
+        List<DrugInteraction> interactions = current.check(medicationName, current.encode(activeMedications));
+        interactions.sort(Comparator.comparing(DrugInteraction::getSeverity).reversed());
+        return interactions;
+    }
+
+    /**
+     * Prints any interactions between a medicine and a patient's active medicines and, unless they are all
+     * minor, asks whether to prescribe anyway.
+     *
+     * @param scanner            the Scanner for user input
+     * @param medicationName     the medicine being prescribed
+     * @param activeMedications the names of the medicines the patient is taking
+     * @return true if the prescription should be added
+     */
+    public boolean confirm(Scanner scanner, String medicationName, Collection<String> activeMedications) {
+        List<DrugInteraction> interactions = screen(medicationName, activeMedications);
+        if (interactions.isEmpty()) {
+            return true;
+        }
+        System.out.println("Interaction warning for " + medicationName + ":");
+        interactions.forEach(interaction -> System.out.println("  - " + interaction));
+        if (interactions.get(0).getSeverity() == InteractionSeverity.MINOR) {
+            return true;
+        }
+        System.out.print("Prescribe anyway? (yes/no): ");
+        return scanner.nextLine().trim().equalsIgnoreCase("yes");
+    }
+
+    /**
+     * Collects the medicines a patient is taking: undispensed prescriptions, prescriptions dispensed within
+     * the last {@value #ACTIVE_DAYS} days, the treatments in the medical record, and the prescriptions
+     * already added to the outcome being recorded.
+     *
+     * @param patientAppointments the patient's appointments
+     * @param medicalRecord       the patient's medical record, or null if there is none
+     * @param current             the outcome record being entered, or null
+     * @return the names of the active medicines
+     */
+    public static Set<String> collectActiveMedications(List<Appointment> patientAppointments, MedicalRecord medicalRecord,
+                                                       OutcomeRecord current) {
+        Set<String> active = new LinkedHashSet<>();
+        LocalDate dispensedSince = LocalDate.now().minusDays(ACTIVE_DAYS);
+        for (Appointment appointment : patientAppointments) {
+            OutcomeRecord outcome = appointment.getOutcomeRecord();
+            if (outcome == null) {
+                continue;
+            }
+            for (Prescription prescription : outcome.getPrescriptions()) {
+                PrescriptionStatus status = prescription.getStatus();
+                if (status == PrescriptionStatus.PENDING || status == PrescriptionStatus.CLAIMED
+                        || (status == PrescriptionStatus.DISPENSED && isOnOrAfter(appointment, dispensedSince))) {
+                    active.add(prescription.getMedicationName());
+                }
+            }
+        }
+        if (medicalRecord != null) {
+            active.addAll(medicalRecord.getTreatments());
+        }
+        if (current != null) {
+            for (Prescription prescription : current.getPrescriptions()) {
+                active.add(prescription.getMedicationName());
+            }
+        }
+        return active;
+    }
+
+    private static boolean isOnOrAfter(Appointment appointment, LocalDate date) {
+        try {
+            return !appointment.getLocalDate().isBefore(date);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
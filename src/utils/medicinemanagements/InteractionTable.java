@@ -0,0 +1,109 @@
+package utils.medicinemanagements;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled form of the drug interaction table. Every medicine named in the table is given
+ * a small integer ID and its interacting medicines are held as a bitset, so checking a medicine against
+ * a patient's active medicines is a single bitset intersection.
+ */
+public class InteractionTable {
+    private final Map<String, Integer> idsByName;
+    private final BitSet[] adjacency;
+    private final Map<Long, DrugInteraction> interactionsByPair;
+
+    private InteractionTable(Map<String, Integer> idsByName, BitSet[] adjacency, Map<Long, DrugInteraction> interactionsByPair) {
+        this.idsByName = idsByName;
+        this.adjacency = adjacency;
+        this.interactionsByPair = interactionsByPair;
+    }
+
+    /**
+     * Compiles a list of interactions. If a pair is listed more than once, the most severe entry is kept.
+     *
+     * @param interactions the interactions to compile
+     * @return the compiled table
+     */
+    public static InteractionTable compile(List<DrugInteraction> interactions) {
+        Map<String, Integer> idsByName = new HashMap<>();
+        Map<Long, DrugInteraction> interactionsByPair = new HashMap<>();
+        for (DrugInteraction interaction : interactions) {
+            int a = idsByName.computeIfAbsent(MedicineNameIndex.normalize(interaction.getDrugA()), name -> idsByName.size());
+            int b = idsByName.computeIfAbsent(MedicineNameIndex.normalize(interaction.getDrugB()), name -> idsByName.size());
+            interactionsByPair.merge(pairKey(a, b), interaction,
+                    (existing, added) -> added.getSeverity().compareTo(existing.getSeverity()) > 0 ? added : existing);
+        }
+        BitSet[] adjacency = new BitSet[idsByName.size()];
+        for (int id = 0; id < adjacency.length; id++) {
+            adjacency[id] = new BitSet(adjacency.length);
+        }
+        for (long key : interactionsByPair.keySet()) {
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            adjacency[a].set(b);
+            adjacency[b].set(a);
+        }
+        return new InteractionTable(idsByName, adjacency, interactionsByPair);
+    }
+
+    /**
+     * Returns the number of medicines named in the table.
+     *
+     * @return the number of medicines with at least one known interaction
+     */
+    public int size() {
+        return adjacency.length;
+    }
+
+    /**
+     * Encodes a set of medicine names as a bitset of table IDs. Medicines without known interactions are left out.
+     *
+     * @param medicineNames the names to encode
+     * @return the bitset of IDs
+     */
+    public BitSet encode(Collection<String> medicineNames) {
+        BitSet encoded = new BitSet(adjacency.length);
+        for (String name : medicineNames) {
+            int id = idOf(name);
+            if (id >= 0) {
+                encoded.set(id);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Finds the interactions between a medicine and a set of encoded medicines.
+     *
+     * @param medicineName the medicine being prescribed
+     * @param active       the patient's active medicines, as returned by {@link #encode}
+     * @return the interactions found, empty if there are none
+     */
+    public List<DrugInteraction> check(String medicineName, BitSet active) {
+        List<DrugInteraction> found = new ArrayList<>();
+        int id = idOf(medicineName);
+        if (id < 0 || !adjacency[id].intersects(active)) {
+            return found;
+        }
+        BitSet hits = (BitSet) adjacency[id].clone();
+        hits.and(active);
+        for (int other = hits.nextSetBit(0); other >= 0; other = hits.nextSetBit(other + 1)) {
+            found.add(interactionsByPair.get(pairKey(id, other)));
+        }
+        return found;
+    }
+
+    private int idOf(String medicineName) {
+        Integer id = idsByName.get(MedicineNameIndex.normalize(medicineName));
+        return id != null ? id : -1;
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,321 @@
+package utils.medicinemanagements;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Tracks medicine stock by lot. Each medicine's lots are held in a priority queue ordered by expiry,
+ * so dispensing draws first-expiry-first-out from the head, and a global index keyed by expiry date
+ * answers "which lots expire in this period" as a range query.
+ * Stock received before lots were tracked has no lot; it is drawn after the medicine's unexpired lots.
+ */
+public class LotInventory {
+    private static final Comparator<MedicineLot> FIRST_EXPIRY_FIRST =
+            Comparator.comparing(MedicineLot::getExpiryDate).thenComparing(MedicineLot::getLotID);
+
+    private final Map<String, PriorityQueue<MedicineLot>> lotsByMedicine = new HashMap<>();
+    private final Map<String, Integer> lotTotals = new HashMap<>();
+    private final TreeMap<LocalDate, Map<String, MedicineLot>> lotsByExpiry = new TreeMap<>();
+    private boolean dirty;
+
+    /**
+     * Replaces all lots with the given ones.
+     *
+     * @param lots the lots to track
+     */
+    public synchronized void load(Collection<MedicineLot> lots) {
+        lotsByMedicine.clear();
+        lotTotals.clear();
+        lotsByExpiry.clear();
+        for (MedicineLot lot : lots) {
+            if (lot.getQuantity() > 0) {
+                add(lot);
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Adds units to a lot, creating the lot if the medicine has no lot with that ID.
+     *
+     * @param medicineName the name of the medicine
+     * @param lotID        the lot number
+     * @param expiryDate   the lot's expiry date
+     * @param quantity     the units received
+     * @throws IllegalArgumentException if the lot exists with a different expiry date
+     */
+    public synchronized void receive(String medicineName, String lotID, LocalDate expiryDate, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Received quantity must be positive.");
+        }
+        MedicineLot existing = findLot(medicineName, lotID);
+        if (existing == null) {
+            add(new MedicineLot(lotID, medicineName, expiryDate, quantity));
+        } else if (!existing.getExpiryDate().equals(expiryDate)) {
+            throw new IllegalArgumentException("Lot " + lotID + " is already recorded with expiry " + existing.getExpiryDate() + ".");
+        } else {
+            existing.setQuantity(existing.getQuantity() + quantity);
+            lotTotals.merge(key(medicineName), quantity, Integer::sum);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Takes units of a medicine from its unexpired lots, first-expiring lot first, and from
+     * untracked stock once the lots are used up. Nothing is taken unless the whole quantity is available.
+     *
+     * @param medicineName the name of the medicine
+     * @param quantity     the units to take
+     * @param totalStock   the medicine's total stock, including units not in any lot
+     * @param today        the current date; lots that expired before it are not used
+     * @return the units taken from each lot; units from untracked stock are not listed
+     * @throws IllegalArgumentException if not enough unexpired stock is available
+     */
+    public synchronized List<MedicineLot> draw(String medicineName, int quantity, int totalStock, LocalDate today) {
+        PriorityQueue<MedicineLot> lots = lotsByMedicine.get(key(medicineName));
+        List<MedicineLot> expired = new ArrayList<>();
+        int usable = 0;
+        if (lots != null) {
+            // Expired lots expire first, so they sit at the head; set them aside while drawing
+            while (!lots.isEmpty() && lots.peek().isExpired(today)) {
+                expired.add(lots.poll());
+            }
+            for (MedicineLot lot : lots) {
+                usable += lot.getQuantity();
+            }
+        }
+        int untracked = Math.max(0, totalStock - getTrackedQuantity(medicineName));
+        if (usable + untracked < quantity) {
+            if (lots != null) {
+                lots.addAll(expired);
+            }
+            throw new IllegalArgumentException("Only " + (usable + untracked) + " unexpired unit(s) of " + medicineName + " in stock.");
+        }
+
+        List<MedicineLot> drawn = new ArrayList<>();
+        int remaining = quantity;
+        while (remaining > 0 && lots != null && !lots.isEmpty()) {
+            MedicineLot lot = lots.peek();
+            int taken = Math.min(remaining, lot.getQuantity());
+            drawn.add(new MedicineLot(lot.getLotID(), lot.getMedicineName(), lot.getExpiryDate(), taken));
+            reduce(lot, taken);
+            remaining -= taken;
+        }
+        if (lots != null) {
+            lots.addAll(expired);
+        }
+        if (!drawn.isEmpty()) {
+            dirty = true;
+        }
+        return drawn;
+    }
+
+    /**
+     * Puts units back into the lots they were drawn from, for example when a dispense could not be completed.
+     *
+     * @param drawn the units drawn, as returned by {@link #draw}
+     */
+    public synchronized void restore(List<MedicineLot> drawn) {
+        for (MedicineLot lot : drawn) {
+            receive(lot.getMedicineName(), lot.getLotID(), lot.getExpiryDate(), lot.getQuantity());
+        }
+    }
+
+    /**
+     * Removes a lot entirely, for example when it is written off after expiring.
+     *
+     * @param lot the lot to remove
+     * @return the units the lot held, 0 if it was not tracked
+     */
+    public synchronized int remove(MedicineLot lot) {
+        MedicineLot tracked = findLot(lot.getMedicineName(), lot.getLotID());
+        if (tracked == null) {
+            return 0;
+        }
+        int quantity = tracked.getQuantity();
+        reduce(tracked, quantity);
+        dirty = true;
+        return quantity;
+    }
+
+    /**
+     * Drops every lot of a medicine.
+     *
+     * @param medicineName the name of the medicine
+     */
+    public synchronized void removeMedicine(String medicineName) {
+        PriorityQueue<MedicineLot> lots = lotsByMedicine.remove(key(medicineName));
+        lotTotals.remove(key(medicineName));
+        if (lots != null) {
+            for (MedicineLot lot : lots) {
+                unindex(lot);
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Returns a medicine's lots, first-expiring first.
+     *
+     * @param medicineName the name of the medicine
+     * @return copies of the medicine's lots
+     */
+    public synchronized List<MedicineLot> getLots(String medicineName) {
+        PriorityQueue<MedicineLot> lots = lotsByMedicine.get(key(medicineName));
+        List<MedicineLot> copies = new ArrayList<>();
+        if (lots != null) {
+            for (MedicineLot lot : lots) {
+                copies.add(copy(lot));
+            }
+            copies.sort(FIRST_EXPIRY_FIRST);
+        }
+        return copies;
+    }
+
+    /**
+     * Returns the number of units of a medicine held in lots.
+     *
+     * @param medicineName the name of the medicine
+     * @return the tracked quantity
+     */
+    public synchronized int getTrackedQuantity(String medicineName) {
+        return lotTotals.getOrDefault(key(medicineName), 0);
+    }
+
+    /**
+     * Returns the number of units of a medicine that can be dispensed: those in unexpired lots
+     * plus those not held in any lot.
+     *
+     * @param medicineName the name of the medicine
+     * @param totalStock   the medicine's total stock, including units not in any lot
+     * @param today        the current date; lots that expired before it are not counted
+     * @return the dispensable quantity
+     */
+    public synchronized int getUsableQuantity(String medicineName, int totalStock, LocalDate today) {
+        int usable = 0;
+        PriorityQueue<MedicineLot> lots = lotsByMedicine.get(key(medicineName));
+        if (lots != null) {
+            for (MedicineLot lot : lots) {
+                if (!lot.isExpired(today)) {
+                    usable += lot.getQuantity();
+                }
+            }
+        }
+        return usable + Math.max(0, totalStock - getTrackedQuantity(medicineName));
+    }
+
+    /**
+     * Returns the lots expiring within a date range, in expiry order.
+     *
+     * @param from the first expiry date to include
+     * @param to   the last expiry date to include
+     * @return copies of the matching lots
+     */
+    public synchronized List<MedicineLot> getLotsExpiringBetween(LocalDate from, LocalDate to) {
+        List<MedicineLot> lots = new ArrayList<>();
+        for (Map<String, MedicineLot> onDate : lotsByExpiry.subMap(from, true, to, true).values()) {
+            for (MedicineLot lot : onDate.values()) {
+                lots.add(copy(lot));
+            }
+        }
+        return lots;
+    }
+
+    /**
+     * Returns the lots that expired before the given date, in expiry order.
+     *
+     * @param today the current date
+     * @return copies of the expired lots
+     */
+    public synchronized List<MedicineLot> getExpiredLots(LocalDate today) {
+        List<MedicineLot> lots = new ArrayList<>();
+        for (Map<String, MedicineLot> onDate : lotsByExpiry.headMap(today, false).values()) {
+            for (MedicineLot lot : onDate.values()) {
+                lots.add(copy(lot));
+            }
+        }
+        return lots;
+    }
+
+    /**
+     * Returns every lot, for saving, and marks the inventory as saved.
+     *
+     * @return copies of all lots
+     */
+    public synchronized List<MedicineLot> drainForSave() {
+        List<MedicineLot> lots = new ArrayList<>();
+        for (Map<String, MedicineLot> onDate : lotsByExpiry.values()) {
+            for (MedicineLot lot : onDate.values()) {
+                lots.add(copy(lot));
+            }
+        }
+        dirty = false;
+        return lots;
+    }
+
+    /**
+     * Checks whether lots changed since they were loaded or last saved.
+     *
+     * @return true if there are unsaved changes
+     */
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    private void add(MedicineLot lot) {
+        lotsByMedicine.computeIfAbsent(key(lot.getMedicineName()), k -> new PriorityQueue<>(FIRST_EXPIRY_FIRST)).add(lot);
+        lotTotals.merge(key(lot.getMedicineName()), lot.getQuantity(), Integer::sum);
+        lotsByExpiry.computeIfAbsent(lot.getExpiryDate(), d -> new LinkedHashMap<>()).put(indexKey(lot), lot);
+    }
+
+    private void reduce(MedicineLot lot, int quantity) {
+        lot.setQuantity(lot.getQuantity() - quantity);
+        lotTotals.merge(key(lot.getMedicineName()), -quantity, Integer::sum);
+        if (lot.getQuantity() == 0) {
+            lotsByMedicine.get(key(lot.getMedicineName())).remove(lot);
+            unindex(lot);
+        }
+    }
+
+    private void unindex(MedicineLot lot) {
+        Map<String, MedicineLot> onDate = lotsByExpiry.get(lot.getExpiryDate());
+        if (onDate != null) {
+            onDate.remove(indexKey(lot));
+            if (onDate.isEmpty()) {
+                lotsByExpiry.remove(lot.getExpiryDate());
+            }
+        }
+    }
+
+    private MedicineLot findLot(String medicineName, String lotID) {
+        PriorityQueue<MedicineLot> lots = lotsByMedicine.get(key(medicineName));
+        if (lots != null) {
+            for (MedicineLot lot : lots) {
+                if (lot.getLotID().equalsIgnoreCase(lotID.trim())) {
+                    return lot;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MedicineLot copy(MedicineLot lot) {
+        return new MedicineLot(lot.getLotID(), lot.getMedicineName(), lot.getExpiryDate(), lot.getQuantity());
+    }
+
+    private static String key(String medicineName) {
+        return medicineName.toLowerCase();
+    }
+
+    private static String indexKey(MedicineLot lot) {
+        return key(lot.getMedicineName()) + "#" + lot.getLotID().toLowerCase();
+    }
+}
@@ -0,0 +1,71 @@
+package utils.medicinemanagements;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects when a medicine's stock crosses its low stock alert level on the stock update path and
+ * publishes the crossing to subscribers. Detection is edge-triggered: an alert is raised once when the
+ * stock falls to the alert level, and cleared only when the stock climbs back above the level by a
+ * margin, so small movements around the level do not raise repeated alerts. Updates that cross nothing
+ * cost two comparisons.
+ */
+public class LowStockMonitor {
+    /** The stock must exceed the alert level by this share of the level (at least one unit) to clear an alert. */
+    public static final int HYSTERESIS_PERCENT = 20;
+
+    private final Map<String, StockAlertListener> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a listener for low stock alerts. A listener registered under the same name
+     * replaces the earlier one, so screens that are reopened do not subscribe twice.
+     *
+     * @param name     the name of the subscription
+     * @param listener the listener
+     */
+    public void subscribe(String name, StockAlertListener listener) {
+        listeners.put(name, listener);
+    }
+
+    /**
+     * Sets a medicine's alert flag from its current stock without publishing anything,
+     * so medicines that were already low when loaded do not raise an alert on every start.
+     *
+     * @param medicine the medicine
+     */
+    public void seed(Medicine medicine) {
+        boolean low = medicine.getInitialStock() <= medicine.getLowStockLevelAlert();
+        medicine.compareAndSetLowStockAlerted(!low, low);
+    }
+
+    /**
+     * Checks a medicine's new stock against its alert level and publishes a crossing, if any.
+     *
+     * @param medicine   the medicine
+     * @param stockAfter the stock after the change
+     */
+    public void onStockChanged(Medicine medicine, int stockAfter) {
+        int alertLevel = medicine.getLowStockLevelAlert();
+        if (!medicine.isLowStockAlerted()) {
+            if (stockAfter <= alertLevel && medicine.compareAndSetLowStockAlerted(false, true)) {
+                for (StockAlertListener listener : listeners.values()) {
+                    listener.onLowStock(medicine, stockAfter);
+                }
+            }
+        } else if (stockAfter >= getRecoveryLevel(alertLevel) && medicine.compareAndSetLowStockAlerted(true, false)) {
+            for (StockAlertListener listener : listeners.values()) {
+                listener.onStockRecovered(medicine, stockAfter);
+            }
+        }
+    }
+
+    /**
+     * Returns the stock a medicine must reach for a raised alert to clear.
+     *
+     * @param alertLevel the medicine's low stock alert level
+     * @return the recovery level
+     */
+    public static int getRecoveryLevel(int alertLevel) {
+        return alertLevel + Math.max(1, alertLevel * HYSTERESIS_PERCENT / 100);
+    }
+}
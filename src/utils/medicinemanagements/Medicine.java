@@ -1,12 +1,19 @@
 package utils.medicinemanagements;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Represents a medicine with a name, initial stock, and low stock alert threshold.
+ * The stock level and its version number are packed into one atomic word and changed with
+ * compare-and-set, so concurrent refills and dispenses never lose an update and the stock
+ * can never go negative. The version increases by one with every stock change.
  */
 public class Medicine {
     private String name;
-    private int initialStock;
+    private final AtomicLong stockState = new AtomicLong(); // Version in the high 32 bits, stock in the low 32 bits
     private int lowStockLevelAlert;
+    private final AtomicBoolean lowStockAlerted = new AtomicBoolean();
 
     /**
      * Constructs a Medicine object with the given details.
@@ -27,7 +34,7 @@ public class Medicine {
         }
 
         this.name = name;
-        this.initialStock = initialStock;
+        this.stockState.set(pack(initialStock, 0));
         this.lowStockLevelAlert = lowStockLevelAlert;
     }
 
@@ -38,7 +45,16 @@ public class Medicine {
     }
 
     public int getInitialStock() {
-        return initialStock;
+        return stockOf(stockState.get());
+    }
+
+    /**
+     * Returns the number of stock changes applied to this medicine since its version was last restored.
+     *
+     * @return the stock version
+     */
+    public long getStockVersion() {
+        return versionOf(stockState.get());
     }
 
     public int getLowStockLevelAlert() {
@@ -49,7 +65,20 @@ public class Medicine {
         if (initialStock < 0) {
             throw new IllegalArgumentException("Initial stock cannot be negative.");
         }
-        this.initialStock = initialStock;
+        stockState.updateAndGet(state -> pack(initialStock, versionOf(state) + 1));
+    }
+
+    /**
+     * Restores a stock level and version read from storage.
+     *
+     * @param stock   the stock level
+     * @param version the stock version
+     */
+    public void restoreStock(int stock, long version) {
+        if (stock < 0) {
+            throw new IllegalArgumentException("Initial stock cannot be negative.");
+        }
+        stockState.set(pack(stock, version));
     }
 
     public void setLowStockLevelAlert(int lowStockLevelAlert) {
@@ -63,29 +92,94 @@ public class Medicine {
      * Refills the stock of the medicine by the specified quantity.
      *
      * @param quantity the quantity to add to the stock
+     * @return the stock version after the refill
      */
-    public void refillStock(int quantity) {
+    public long refillStock(int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Refill quantity must be positive.");
         }
-        this.initialStock += quantity;
+        return changeStock(quantity).getVersion();
     }
-     /**
+
+    /**
      * Reduces the stock of the medicine by the specified quantity.
      *
      * @param quantity the quantity to subtract from the stock
+     * @return the stock version after the reduction
+     * @throws IllegalArgumentException if there is not enough stock
      */
-    public void reduceStock(int quantity) {
+    public long reduceStock(int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Reduction quantity must be positive.");
         }
-        if (quantity > this.initialStock) {
-            throw new IllegalArgumentException("Insufficient stock to fulfill the request.");
+        return changeStock(-quantity).getVersion();
+    }
+
+    /**
+     * Adds or removes stock atomically.
+     *
+     * @param delta the quantity to add, or a negative quantity to remove
+     * @return the stock levels before and after the change, and the new version
+     * @throws IllegalArgumentException if there is not enough stock
+     */
+    public StockChange changeStock(int delta) {
+        while (true) {
+            long state = stockState.get();
+            long updatedStock = (long) stockOf(state) + delta;
+            if (updatedStock < 0) {
+                throw new IllegalArgumentException("Insufficient stock to fulfill the request.");
+            }
+            long updated = pack(Math.toIntExact(updatedStock), versionOf(state) + 1);
+            if (stockState.compareAndSet(state, updated)) {
+                return new StockChange(stockOf(state), stockOf(updated), versionOf(updated));
+            }
         }
-        this.initialStock -= quantity;
     }
+
+    /**
+     * Returns whether a low stock alert is currently raised for this medicine.
+     *
+     * @return true if the stock fell to the alert level and has not recovered since
+     */
+    public boolean isLowStockAlerted() {
+        return lowStockAlerted.get();
+    }
+
+    /**
+     * Atomically raises or clears the low stock alert flag, so each crossing is reported once.
+     *
+     * @param expected the expected current value
+     * @param alerted  the new value
+     * @return true if the flag was changed
+     */
+    public boolean compareAndSetLowStockAlerted(boolean expected, boolean alerted) {
+        return lowStockAlerted.compareAndSet(expected, alerted);
+    }
+
+    private static long pack(int stock, long version) {
+        return (version << 32) | (stock & 0xFFFFFFFFL);
+    }
+
+    private static int stockOf(long state) {
+        return (int) state;
+    }
+
+    private static long versionOf(long state) {
+        return state >>> 32;
+    }
+
+    /**
+     * Converts the medicine to a CSV row, reading the stock and its version together.
+     *
+     * @return the CSV row: name, stock, low stock alert, stock version
+     */
+    public String toCSV() {
+        long state = stockState.get();
+        return name + "," + stockOf(state) + "," + lowStockLevelAlert + "," + versionOf(state);
+    }
+
     @Override
     public String toString() {
-        return String.format("Name: %s, Initial Stock: %d, Low Stock Alert: %d", name, initialStock, lowStockLevelAlert);
+        return String.format("Name: %s, Initial Stock: %d, Low Stock Alert: %d", name, getInitialStock(), lowStockLevelAlert);
     }
 }
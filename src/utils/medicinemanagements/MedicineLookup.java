@@ -0,0 +1,60 @@
+package utils.medicinemanagements;
+
+import datamgmt.retrievers.MedicineData;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+
+/**
+ * Resolves a medicine name typed by a user. When there is no exact match, similar names are offered
+ * so that a typo does not end up being treated as a new medicine.
+ */
+public class MedicineLookup {
+    /** The maximum number of similar names offered. */
+    public static final int MAX_SUGGESTIONS = 5;
+
+    private final MedicineData medicineData;
+
+    /**
+     * Constructs a MedicineLookup.
+     *
+     * @param medicineData the medicine inventory
+     */
+    public MedicineLookup(MedicineData medicineData) {
+        this.medicineData = medicineData;
+    }
+
+    /**
+     * Finds a medicine by name, offering similar names to choose from if there is no exact match.
+     *
+     * @param scanner the Scanner for user input
+     * @param name    the name as entered
+     * @return the medicine found or chosen, or empty if the user chose none
+     */
+    public Optional<Medicine> resolve(Scanner scanner, String name) {
+        Optional<Medicine> exact = medicineData.findMedicineByName(name);
+        if (exact.isPresent() || name.isBlank()) {
+            return exact;
+        }
+        List<Medicine> suggestions = medicineData.suggestMedicines(name, MAX_SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            return Optional.empty();
+        }
+        System.out.println("'" + name + "' is not in the inventory. Did you mean:");
+        for (int i = 0; i < suggestions.size(); i++) {
+            System.out.printf("%d. %s%n", i + 1, suggestions.get(i).getName());
+        }
+        System.out.print("Enter a number to use that medicine, or press Enter to keep '" + name + "': ");
+        String input = scanner.nextLine().trim();
+        try {
+            int choice = Integer.parseInt(input);
+            if (choice >= 1 && choice <= suggestions.size()) {
+                return Optional.of(suggestions.get(choice - 1));
+            }
+        } catch (NumberFormatException e) {
+            // Keep the name as entered
+        }
+        return Optional.empty();
+    }
+}
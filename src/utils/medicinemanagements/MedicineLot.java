@@ -0,0 +1,103 @@
+package utils.medicinemanagements;
+
+import utils.CSVSerializable;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A batch of one medicine received together and sharing an expiry date.
+ */
+public class MedicineLot implements CSVSerializable {
+    private final String lotID;
+    private final String medicineName;
+    private final LocalDate expiryDate;
+    private int quantity;
+
+    /**
+     * Constructs a MedicineLot.
+     *
+     * @param lotID        the lot number, unique per medicine
+     * @param medicineName the name of the medicine
+     * @param expiryDate   the date the lot expires
+     * @param quantity     the number of units in the lot
+     */
+    public MedicineLot(String lotID, String medicineName, LocalDate expiryDate, int quantity) {
+        if (lotID == null || lotID.trim().isEmpty() || lotID.contains(",")) {
+            throw new IllegalArgumentException("Lot ID cannot be empty or contain commas.");
+        }
+        if (medicineName == null || medicineName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Medicine name cannot be null or empty.");
+        }
+        if (expiryDate == null) {
+            throw new IllegalArgumentException("Expiry date cannot be null.");
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Lot quantity cannot be negative.");
+        }
+        this.lotID = lotID.trim();
+        this.medicineName = medicineName;
+        this.expiryDate = expiryDate;
+        this.quantity = quantity;
+    }
+
+    public String getLotID() {
+        return lotID;
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * Checks whether the lot has expired. A lot can be used up to and including its expiry date.
+     *
+     * @param today the current date
+     * @return true if the expiry date is before today
+     */
+    public boolean isExpired(LocalDate today) {
+        return expiryDate.isBefore(today);
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", lotID, medicineName, expiryDate.toString(), String.valueOf(quantity));
+    }
+
+    /**
+     * Parses a lot row.
+     *
+     * @param csvLine the CSV row
+     * @return the lot
+     * @throws IllegalArgumentException if the row is invalid
+     */
+    public static MedicineLot fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Invalid CSV format for MedicineLot: " + csvLine);
+        }
+        try {
+            return new MedicineLot(fields[0].trim(), fields[1].trim(), LocalDate.parse(fields[2].trim()),
+                    Integer.parseInt(fields[3].trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid lot expiry date: " + fields[2]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lot %s of %s, expires %s, %d unit(s)", lotID, medicineName, expiryDate, quantity);
+    }
+}
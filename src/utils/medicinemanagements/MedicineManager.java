@@ -1,7 +1,11 @@
 package utils.medicinemanagements;
 
 import datamgmt.retrievers.MedicineData;
+import utils.enums.StockMovementType;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 
@@ -10,6 +14,8 @@ import java.util.Scanner;
  * removing medicines, adding new medicines, displaying inventory, and updating medicine details.
  */
 public class MedicineManager {
+    private static final int MAX_COMPLETIONS = 20;
+
     private final MedicineData medicineData;
 
     /**
@@ -20,6 +26,18 @@ public class MedicineManager {
     public MedicineManager(MedicineData medicineData) {
         this.medicineData = medicineData;
         this.medicineData.reloadData();
+        this.medicineData.getLowStockMonitor().subscribe("console", new StockAlertListener() {
+            @Override
+            public void onLowStock(Medicine medicine, int stock) {
+                System.out.println("Low stock alert: " + medicine.getName() + " is down to " + stock
+                        + " (alert level " + medicine.getLowStockLevelAlert() + ").");
+            }
+
+            @Override
+            public void onStockRecovered(Medicine medicine, int stock) {
+                System.out.println("Stock recovered: " + medicine.getName() + " is back to " + stock + ".");
+            }
+        });
     }
 
     /**
@@ -55,21 +73,81 @@ public class MedicineManager {
      * @param scanner the Scanner for user input
      */
     public void searchMedicineByName(Scanner scanner) {
-        System.out.print("Enter the name of the medicine to search: ");
+        System.out.print("Enter the name of the medicine to search (end with * to list names starting with it): ");
         String name = scanner.nextLine().trim();
 
-        Optional<Medicine> medicine = medicineData.findMedicineByName(name);
+        if (name.endsWith("*")) {
+            List<Medicine> completions = medicineData.completeMedicineName(name.substring(0, name.length() - 1), MAX_COMPLETIONS);
+            if (completions.isEmpty()) {
+                System.out.println("No medicines start with that name.");
+                return;
+            }
+            completions.forEach(completion -> System.out.println("  " + completion.getName()));
+            System.out.print("Enter the full name of the medicine to view (or press Enter to exit): ");
+            name = scanner.nextLine().trim();
+            if (name.isEmpty()) {
+                return;
+            }
+        }
+
+        Optional<Medicine> medicine = new MedicineLookup(medicineData).resolve(scanner, name);
         if (medicine.isPresent()) {
             System.out.println("\n--- Medicine Details ---");
             System.out.printf("Name: %s%nInitial Stock: %d%nLow Stock Alert: %d%n",
                     medicine.get().getName(),
                     medicine.get().getInitialStock(),
                     medicine.get().getLowStockLevelAlert());
+            List<MedicineLot> lots = medicineData.getLotInventory().getLots(medicine.get().getName());
+            for (MedicineLot lot : lots) {
+                System.out.printf("  Lot %-12s expires %s  %d unit(s)%n", lot.getLotID(), lot.getExpiryDate(), lot.getQuantity());
+            }
         } else {
             System.out.println("Medicine not found.");
         }
     }
 
+    /**
+     * Lists the lots expiring within a number of days and offers to write off lots that have already expired.
+     *
+     * @param scanner the Scanner for user input
+     */
+    public void displayExpiringLots(Scanner scanner) {
+        System.out.print("Show lots expiring within how many days? ");
+        int days;
+        try {
+            days = Integer.parseInt(scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input. Please enter a number of days.");
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        LotInventory lots = medicineData.getLotInventory();
+        List<MedicineLot> expired = lots.getExpiredLots(today);
+        List<MedicineLot> expiring = lots.getLotsExpiringBetween(today, today.plusDays(Math.max(0, days)));
+
+        System.out.println("\n--- Expired Lots ---");
+        if (expired.isEmpty()) {
+            System.out.println("No expired lots.");
+        }
+        expired.forEach(lot -> System.out.println(lot));
+        System.out.println("\n--- Lots Expiring Within " + days + " Day(s) ---");
+        if (expiring.isEmpty()) {
+            System.out.println("No lots expire in that period.");
+        }
+        expiring.forEach(lot -> System.out.println(lot));
+
+        if (expired.isEmpty()) {
+            return;
+        }
+        System.out.print("\nWrite off the expired lots and remove them from stock? (yes/no): ");
+        if (scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            List<MedicineLot> writtenOff = medicineData.writeOffExpiredLots("ADMIN");
+            medicineData.flushStockChanges();
+            System.out.println(writtenOff.size() + " expired lot(s) written off.");
+        }
+    }
+
     /**
      * Adds a new medicine to the inventory.
      *
@@ -112,14 +190,25 @@ public class MedicineManager {
 
         System.out.print("Enter the quantity to add to the stock: ");
         int quantityToAdd = Integer.parseInt(scanner.nextLine().trim());
+        if (quantityToAdd <= 0) {
+            System.out.println("Error refilling stock: Refill quantity must be positive.");
+            return;
+        }
 
-        Medicine updatedMedicine = medicine.get();
-        updatedMedicine.refillStock(quantityToAdd);
+        System.out.print("Enter the lot number (leave blank if the stock has no lot): ");
+        String lotID = scanner.nextLine().trim();
 
         try {
-            medicineData.updateMedicine(updatedMedicine);
+            if (lotID.isEmpty()) {
+                medicineData.adjustStock(medicine.get(), quantityToAdd, StockMovementType.REFILL, "ADMIN", "-");
+            } else {
+                System.out.print("Enter the lot's expiry date (yyyy-MM-dd): ");
+                LocalDate expiryDate = LocalDate.parse(scanner.nextLine().trim());
+                medicineData.receiveLot(medicine.get(), lotID, expiryDate, quantityToAdd, StockMovementType.REFILL, "ADMIN", "-");
+            }
+            medicineData.flushStockChanges();
             System.out.println("Stock refilled successfully.");
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | DateTimeParseException e) {
             System.out.println("Error refilling stock: " + e.getMessage());
         }
     }
@@ -162,7 +251,9 @@ public class MedicineManager {
         System.out.print("Enter new initial stock (leave blank to keep unchanged): ");
         String initialStockInput = scanner.nextLine().trim();
         if (!initialStockInput.isEmpty()) {
-            existingMedicine.setInitialStock(Integer.parseInt(initialStockInput));
+            medicineData.adjustStock(existingMedicine, Integer.parseInt(initialStockInput) - existingMedicine.getInitialStock(),
+                    StockMovementType.ADJUSTMENT, "ADMIN", "-");
+            medicineData.flushStockChanges();
         }
 
         System.out.print("Enter new low stock alert threshold (leave blank to keep unchanged): ");
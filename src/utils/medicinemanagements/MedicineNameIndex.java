@@ -0,0 +1,226 @@
+package utils.medicinemanagements;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Looks medicines up by name. Names are normalised (trimmed, lower case, single spaces) and held in
+ * a hash index for exact matches, a trigram index for suggestions when a name is mistyped, and a
+ * prefix trie for autocompletion. All three are updated as medicines are added and removed.
+ */
+public class MedicineNameIndex {
+    /** Candidates sharing less than this share of trigrams with the query are not suggested. */
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final Map<String, Medicine> byName = new HashMap<>();
+    private final Map<String, Set<String>> namesByTrigram = new HashMap<>();
+    private final Map<String, Integer> trigramCounts = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+
+    /**
+     * Normalises a medicine name for lookups.
+     *
+     * @param name the name as entered
+     * @return the name trimmed, in lower case, with runs of whitespace collapsed to one space
+     */
+    public static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    /**
+     * Adds a medicine, replacing any medicine with the same normalised name.
+     *
+     * @param medicine the medicine to add
+     */
+    public synchronized void add(Medicine medicine) {
+        String key = normalize(medicine.getName());
+        if (byName.put(key, medicine) != null) {
+            return; // Already indexed under this name
+        }
+        Set<String> trigrams = trigrams(key);
+        for (String trigram : trigrams) {
+            namesByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key);
+        }
+        trigramCounts.put(key, trigrams.size());
+        TrieNode node = root;
+        for (char c : key.toCharArray()) {
+            node = node.children.computeIfAbsent(c, ch -> new TrieNode());
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Removes a medicine by name.
+     *
+     * @param name the medicine's name
+     */
+    public synchronized void remove(String name) {
+        String key = normalize(name);
+        if (byName.remove(key) == null) {
+            return;
+        }
+        for (String trigram : trigrams(key)) {
+            Set<String> names = namesByTrigram.get(trigram);
+            names.remove(key);
+            if (names.isEmpty()) {
+                namesByTrigram.remove(trigram);
+            }
+        }
+        trigramCounts.remove(key);
+        removeFromTrie(root, key, 0);
+    }
+
+    /**
+     * Removes every medicine.
+     */
+    public synchronized void clear() {
+        byName.clear();
+        namesByTrigram.clear();
+        trigramCounts.clear();
+        root.children.clear();
+        root.terminal = false;
+    }
+
+    /**
+     * Finds a medicine by exact name, ignoring case and surrounding or repeated whitespace.
+     *
+     * @param name the name to look up
+     * @return the medicine, or null if there is none with that name
+     */
+    public synchronized Medicine find(String name) {
+        return byName.get(normalize(name));
+    }
+
+    /**
+     * Suggests the medicines whose names are most similar to a possibly mistyped name.
+     *
+     * @param query the name as entered
+     * @param limit the maximum number of suggestions
+     * @return the suggested medicines, most similar first
+     */
+    public synchronized List<Medicine> suggest(String query, int limit) {
+        String key = normalize(query);
+        Set<String> queryTrigrams = trigrams(key);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String name : namesByTrigram.getOrDefault(trigram, Set.of())) {
+                shared.merge(name, 1, Integer::sum);
+            }
+        }
+        List<String> candidates = new ArrayList<>();
+        Map<String, Double> similarity = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            double dice = 2.0 * entry.getValue() / (queryTrigrams.size() + trigramCounts.get(entry.getKey()));
+            if (dice >= MIN_SIMILARITY) {
+                candidates.add(entry.getKey());
+                similarity.put(entry.getKey(), dice);
+            }
+        }
+        candidates.sort(Comparator.comparingInt((String name) -> editDistance(key, name))
+                .thenComparing(name -> -similarity.get(name))
+                .thenComparing(name -> name));
+        List<Medicine> suggestions = new ArrayList<>();
+        for (String name : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            suggestions.add(byName.get(name));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Lists the medicines whose names start with a prefix, in alphabetical order.
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of completions
+     * @return the matching medicines
+     */
+    public synchronized List<Medicine> complete(String prefix, int limit) {
+        String key = prefix.isBlank() ? "" : normalize(prefix);
+        TrieNode node = root;
+        for (char c : key.toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                return new ArrayList<>();
+            }
+        }
+        List<Medicine> completions = new ArrayList<>();
+        collect(node, new StringBuilder(key), completions, limit);
+        return completions;
+    }
+
+    private void collect(TrieNode node, StringBuilder name, List<Medicine> completions, int limit) {
+        if (completions.size() >= limit) {
+            return;
+        }
+        if (node.terminal) {
+            completions.add(byName.get(name.toString()));
+        }
+        for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+            name.append(child.getKey());
+            collect(child.getValue(), name, completions, limit);
+            name.setLength(name.length() - 1);
+        }
+    }
+
+    /**
+     * Unmarks a name in the trie and prunes the branches left without names.
+     *
+     * @return true if the node no longer holds any name and can be removed
+     */
+    private static boolean removeFromTrie(TrieNode node, String key, int depth) {
+        if (depth == key.length()) {
+            node.terminal = false;
+        } else {
+            TrieNode child = node.children.get(key.charAt(depth));
+            if (child != null && removeFromTrie(child, key, depth + 1)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return !node.terminal && node.children.isEmpty();
+    }
+
+    /**
+     * Returns the trigrams of a name padded with spaces, so that short names and word starts count too.
+     */
+    private static Set<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * A trie node; children are kept sorted so completions come out in alphabetical order.
+     */
+    private static class TrieNode {
+        private final TreeMap<Character, TrieNode> children = new TreeMap<>();
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,87 @@
+package utils.medicinemanagements;
+
+import datamgmt.retrievers.MedicineData;
+import utils.medicalrecords.OutcomeRecord;
+import utils.medicalrecords.Prescription;
+
+import java.util.Optional;
+import java.util.Scanner;
+
+/**
+ * Shows a doctor how much of a medicine is available while prescribing, and asks for confirmation
+ * before prescribing more than is available or a medicine that is not in the inventory.
+ */
+public class PrescriptionStockCheck {
+    private final MedicineData medicineData;
+    private final StockReservations reservations;
+
+    /**
+     * Constructs a PrescriptionStockCheck.
+     *
+     * @param medicineData the medicine inventory
+     * @param reservations the stock reserved for undispensed prescriptions
+     */
+    public PrescriptionStockCheck(MedicineData medicineData, StockReservations reservations) {
+        this.medicineData = medicineData;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Resolves a prescribed medicine's name against the inventory, offering similar names if there is no exact match.
+     *
+     * @param scanner        the Scanner for user input
+     * @param medicationName the name as entered
+     * @return the inventory name of the medicine found or chosen, or the name as entered
+     */
+    public String resolveName(Scanner scanner, String medicationName) {
+        return new MedicineLookup(medicineData).resolve(scanner, medicationName)
+                .map(Medicine::getName)
+                .orElse(medicationName);
+    }
+
+    /**
+     * Prints the availability of a medicine and, if the prescription cannot be covered, asks whether to prescribe anyway.
+     *
+     * @param scanner           the Scanner for user input
+     * @param medicationName    the prescribed medicine
+     * @param quantity          the prescribed quantity
+     * @param alreadyPrescribed the quantity of the same medicine already prescribed in the outcome being recorded
+     * @return true if the prescription should be added
+     */
+    public boolean confirm(Scanner scanner, String medicationName, int quantity, int alreadyPrescribed) {
+        Optional<Medicine> medicine = medicineData.findMedicineByName(medicationName);
+        if (medicine.isEmpty()) {
+            System.out.println("Warning: " + medicationName + " is not in the inventory.");
+            return askToPrescribeAnyway(scanner);
+        }
+        int available = reservations.getAvailable(medicine.get()) - alreadyPrescribed;
+        System.out.printf("%s: %d available (%d on hand, %d reserved).%n", medicine.get().getName(),
+                Math.max(0, available), medicine.get().getInitialStock(),
+                reservations.getReserved(medicationName) + alreadyPrescribed);
+        if (quantity > available) {
+            System.out.println("Warning: not enough " + medicine.get().getName() + " is available for this prescription.");
+            return askToPrescribeAnyway(scanner);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the quantity of a medicine already prescribed in an outcome record that is being entered,
+     * to be passed to {@link #confirm(Scanner, String, int, int)}.
+     *
+     * @param outcomeRecord  the outcome record being entered
+     * @param medicationName the medicine
+     * @return the quantity prescribed so far
+     */
+    public static int prescribedQuantity(OutcomeRecord outcomeRecord, String medicationName) {
+        return outcomeRecord.getPrescriptions().stream()
+                .filter(prescription -> prescription.getMedicationName().equalsIgnoreCase(medicationName))
+                .mapToInt(Prescription::getQuantity)
+                .sum();
+    }
+
+    private static boolean askToPrescribeAnyway(Scanner scanner) {
+        System.out.print("Prescribe anyway? (yes/no): ");
+        return scanner.nextLine().trim().equalsIgnoreCase("yes");
+    }
+}
@@ -0,0 +1,86 @@
+package utils.medicinemanagements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The pending replenishment requests for one medicine, merged into a single order
+ * so they can be approved or denied together.
+ */
+public class ReplenishmentOrder {
+    private final String medicineName;
+    private final List<ReplenishmentRequest> requests;
+
+    /**
+     * Constructs a ReplenishmentOrder.
+     *
+     * @param medicineName the name of the medicine
+     * @param requests     the pending requests for the medicine, in the order they were made
+     */
+    public ReplenishmentOrder(String medicineName, List<ReplenishmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("A replenishment order needs at least one request.");
+        }
+        this.medicineName = medicineName;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public List<ReplenishmentRequest> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the combined quantity of all requests in the order.
+     *
+     * @return the total requested quantity
+     */
+    public int getTotalQuantity() {
+        int total = 0;
+        for (ReplenishmentRequest request : requests) {
+            total += request.getRequestedStock();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the distinct requesters, in the order of their first request.
+     *
+     * @return the requester IDs
+     */
+    public List<String> getRequesters() {
+        Set<String> requesters = new LinkedHashSet<>();
+        for (ReplenishmentRequest request : requests) {
+            requesters.add(request.getRequestBy());
+        }
+        return new ArrayList<>(requesters);
+    }
+
+    /**
+     * Returns whether any request in the order is for a medicine not yet in the inventory.
+     *
+     * @return true if the order includes a new medicine request
+     */
+    public boolean includesNewMedicine() {
+        return requests.stream().anyMatch(ReplenishmentRequest::isNewMedicineRequest);
+    }
+
+    /**
+     * Returns the IDs of the merged requests joined by semicolons, for use as a stock movement reference.
+     *
+     * @return the joined request IDs
+     */
+    public String getReference() {
+        List<String> ids = new ArrayList<>(requests.size());
+        for (ReplenishmentRequest request : requests) {
+            ids.add(request.getRequestID());
+        }
+        return String.join(";", ids);
+    }
+}
@@ -0,0 +1,55 @@
+package utils.medicinemanagements;
+
+/**
+ * A suggested replenishment for one medicine, derived from its forecast consumption.
+ */
+public class ReplenishmentRecommendation {
+    private final String medicineName;
+    private final int currentStock;
+    private final double dailyDemand;
+    private final double daysOfCover;
+    private final int recommendedQuantity;
+
+    /**
+     * Constructs a ReplenishmentRecommendation.
+     *
+     * @param medicineName        the name of the medicine
+     * @param currentStock        the medicine's current stock
+     * @param dailyDemand         the average forecast daily consumption over the cover period
+     * @param daysOfCover         the number of days the current stock is expected to last
+     * @param recommendedQuantity the quantity to order to reach the target cover, 0 if none is needed
+     */
+    public ReplenishmentRecommendation(String medicineName, int currentStock, double dailyDemand,
+                                       double daysOfCover, int recommendedQuantity) {
+        this.medicineName = medicineName;
+        this.currentStock = currentStock;
+        this.dailyDemand = dailyDemand;
+        this.daysOfCover = daysOfCover;
+        this.recommendedQuantity = recommendedQuantity;
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public int getCurrentStock() {
+        return currentStock;
+    }
+
+    public double getDailyDemand() {
+        return dailyDemand;
+    }
+
+    /**
+     * Returns the number of days the current stock is expected to last.
+     *
+     * @return the days of cover, or {@link Double#POSITIVE_INFINITY} if no consumption is forecast
+     */
+    public double getDaysOfCover() {
+        return daysOfCover;
+    }
+
+    public int getRecommendedQuantity() {
+        return recommendedQuantity;
+    }
+}
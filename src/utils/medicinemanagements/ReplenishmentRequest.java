@@ -6,6 +6,7 @@ import utils.enums.RequestStatus;
  * Represents a replenishment request for medication inventory.
  */
 public class ReplenishmentRequest {
+    private String requestID;
     private String medicineName;
     private int requestedStock;
     private RequestStatus status;
@@ -55,6 +56,15 @@ public class ReplenishmentRequest {
     }
 
     // Getters
+    /**
+     * Returns the request's unique ID.
+     *
+     * @return the request ID, or null if the request has not been added yet
+     */
+    public String getRequestID() {
+        return requestID;
+    }
+
     public String getMedicineName() {
         return medicineName;
     }
@@ -76,6 +86,18 @@ public class ReplenishmentRequest {
     }
 
     // Setters
+    /**
+     * Sets the request's ID. IDs are assigned by the data handler when a request is added or loaded.
+     *
+     * @param requestID the request ID
+     */
+    public void setRequestID(String requestID) {
+        if (requestID == null || requestID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Request ID cannot be null or empty.");
+        }
+        this.requestID = requestID;
+    }
+
     public void setMedicineName(String medicineName) {
         if (medicineName == null || medicineName.trim().isEmpty()) {
             throw new IllegalArgumentException("Medicine name cannot be null or empty.");
@@ -111,8 +133,8 @@ public class ReplenishmentRequest {
     @Override
     public String toString() {
         return String.format(
-                "Medicine Name: %s, Requested Stock: %d, Status: %s, Requested By: %s, Is New Medicine: %s",
-                medicineName, requestedStock, status, requestBy, isNewMedicine ? "Yes" : "No"
+                "Request ID: %s, Medicine Name: %s, Requested Stock: %d, Status: %s, Requested By: %s, Is New Medicine: %s",
+                requestID, medicineName, requestedStock, status, requestBy, isNewMedicine ? "Yes" : "No"
         );
     }
 
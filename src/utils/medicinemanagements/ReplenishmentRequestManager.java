@@ -1,9 +1,16 @@
 package utils.medicinemanagements;
 
+import datamgmt.retrievers.MedicineData;
 import datamgmt.retrievers.ReplenishmentRequestData;
 import utils.enums.RequestStatus;
+import utils.enums.StockMovementType;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.stream.Collectors;
@@ -13,6 +20,11 @@ import java.util.stream.Collectors;
  * of requests for medication stock.
  */
 public class ReplenishmentRequestManager {
+    /** The requester recorded on requests raised automatically by low stock alerts. */
+    public static final String SYSTEM_REQUESTER = "SYSTEM";
+    /** Automatic requests top the stock up to this multiple of the medicine's alert level. */
+    private static final int TARGET_STOCK_MULTIPLIER = 2;
+
     private final ReplenishmentRequestData requestData;
     private final MedicineManager medicineManager;
 
@@ -26,6 +38,56 @@ public class ReplenishmentRequestManager {
         this.requestData = requestData;
         this.medicineManager = medicineManager;
         this.requestData.reloadData();
+        medicineManager.getMedicineData().getLowStockMonitor().subscribe("replenishment", new StockAlertListener() {
+            @Override
+            public void onLowStock(Medicine medicine, int stock) {
+                createAutomaticRequest(medicine, stock);
+            }
+
+            @Override
+            public void onStockRecovered(Medicine medicine, int stock) {
+                // Pending requests are left for an administrator to approve or deny
+            }
+        });
+    }
+
+    /**
+     * Raises a PENDING replenishment request for a medicine whose stock fell to its alert level,
+     * unless one is already pending. The requested quantity covers the forecast consumption for
+     * {@link DemandForecaster#DEFAULT_DAYS_OF_COVER} days, and at least tops the stock up to twice the alert level.
+     * Stock is only added once the request is approved.
+     *
+     * @param medicine the medicine that is low on stock
+     * @param stock    the medicine's current stock
+     */
+    private void createAutomaticRequest(Medicine medicine, int stock) {
+        if (requestData.hasPendingRequest(medicine.getName())) {
+            return;
+        }
+        int forecastQuantity = suggestQuantity(medicine);
+        int quantity = Math.max(forecastQuantity, Math.max(1, medicine.getLowStockLevelAlert() * TARGET_STOCK_MULTIPLIER - stock));
+        submitSystemRequest(medicine.getName(), quantity);
+    }
+
+    /**
+     * Suggests a request quantity for a medicine from its forecast consumption.
+     *
+     * @param medicine the medicine
+     * @return the quantity needed for {@link DemandForecaster#DEFAULT_DAYS_OF_COVER} days of cover, 0 if stock suffices
+     */
+    private int suggestQuantity(Medicine medicine) {
+        return medicineManager.getMedicineData().getDemandForecaster()
+                .recommend(medicine, LocalDate.now(), DemandForecaster.DEFAULT_DAYS_OF_COVER)
+                .getRecommendedQuantity();
+    }
+
+    private void submitSystemRequest(String medicineName, int quantity) {
+        try {
+            requestData.addRequest(new ReplenishmentRequest(medicineName, quantity, SYSTEM_REQUESTER, false, RequestStatus.PENDING));
+            System.out.println("Replenishment request for " + quantity + " units of " + medicineName + " raised automatically.");
+        } catch (Exception e) {
+            System.err.println("Error creating automatic replenishment request: " + e.getMessage());
+        }
     }
     /**
      * Allows a pharmacist to create a new replenishment request.
@@ -40,12 +102,13 @@ public class ReplenishmentRequestManager {
         System.out.print("Enter the medicine name: ");
         String medicineName = scanner.nextLine().trim();
 
-        // Check if the medicine exists in the inventory
-        Optional<Medicine> medicine = medicineManager.getMedicineData().findMedicineByName(medicineName);
+        // Check if the medicine exists in the inventory, offering close matches for typos
+        Optional<Medicine> medicine = new MedicineLookup(medicineManager.getMedicineData()).resolve(scanner, medicineName);
 
         boolean isNewMedicine = false;
         if (medicine.isPresent()) {
-            System.out.println("Medicine found in inventory.");
+            medicineName = medicine.get().getName();
+            System.out.println("Medicine found in inventory: " + medicineName + ".");
         } else {
             // Prompt for new medicine confirmation
             System.out.print("This medicine is not in the inventory. Is it a new medicine? (yes/no): ");
@@ -58,11 +121,20 @@ public class ReplenishmentRequestManager {
             }
         }
 
-        // Prompt for requested quantity
-        System.out.print("Enter the quantity requested: ");
+        // Prompt for requested quantity, suggesting one from forecast consumption where there is history
+        int suggestedQuantity = medicine.map(this::suggestQuantity).orElse(0);
+        if (suggestedQuantity > 0) {
+            System.out.printf("Suggested quantity for %d days of cover: %d%n", DemandForecaster.DEFAULT_DAYS_OF_COVER, suggestedQuantity);
+            System.out.print("Enter the quantity requested (or press Enter to accept the suggestion): ");
+        } else {
+            System.out.print("Enter the quantity requested: ");
+        }
         int requestedQuantity;
         try {
-            requestedQuantity = Integer.parseInt(scanner.nextLine().trim());
+            String quantityInput = scanner.nextLine().trim();
+            requestedQuantity = quantityInput.isEmpty() && suggestedQuantity > 0
+                    ? suggestedQuantity
+                    : Integer.parseInt(quantityInput);
             if (requestedQuantity <= 0) {
                 System.out.println("Quantity must be greater than zero. Request not created.");
                 return;
@@ -83,18 +155,17 @@ public class ReplenishmentRequestManager {
 
         try {
             requestData.addRequest(newRequest);
-            System.out.println("Replenishment request created successfully.");
+            System.out.println("Replenishment request " + newRequest.getRequestID() + " created successfully.");
         } catch (Exception e) {
             System.err.println("Error creating request: " + e.getMessage());
         }
 
         // Automatically update stock for existing medicines
         if (medicine.isPresent()) {
-            Medicine existingMedicine = medicine.get();
-            existingMedicine.refillStock(requestedQuantity);
-
             try {
-                medicineManager.getMedicineData().updateMedicine(existingMedicine);
+                medicineManager.getMedicineData().adjustStock(medicine.get(), requestedQuantity,
+                        StockMovementType.REPLENISHMENT, pharmacistID, newRequest.getRequestID());
+                medicineManager.getMedicineData().flushStockChanges();
                 System.out.println("Stock updated successfully for existing medicine.");
             } catch (Exception e) {
                 System.err.println("Error updating stock: " + e.getMessage());
@@ -107,115 +178,315 @@ public class ReplenishmentRequestManager {
      */
     public void displayPendingRequests() {
         System.out.println("\n======== Pending Replenishment Requests ========");
-        List<ReplenishmentRequest> pendingRequests = requestData.getRequests().stream()
-                .filter(request -> request.getStatus() == RequestStatus.PENDING)
-                .collect(Collectors.toList());
+        List<ReplenishmentRequest> pendingRequests = requestData.getRequestsByStatus(RequestStatus.PENDING);
 
         if (pendingRequests.isEmpty()) {
             System.out.println("No pending replenishment requests found.");
             return;
         }
 
-        System.out.printf("%-5s %-20s %-15s %-20s %-10s%n", "No.", "Medicine Name", "Requested Qty", "Requested By", "New Medicine");
-        System.out.println("-------------------------------------------------------------------------------");
+        System.out.printf("%-5s %-10s %-20s %-15s %-20s %-10s%n", "No.", "Request ID", "Medicine Name", "Requested Qty", "Requested By", "New Medicine");
+        System.out.println("------------------------------------------------------------------------------------------");
         int index = 1;
         for (ReplenishmentRequest request : pendingRequests) {
-            System.out.printf("%-5d %-20s %-15d %-20s %-10s%n",
+            System.out.printf("%-5d %-10s %-20s %-15d %-20s %-10s%n",
                     index++,
+                    request.getRequestID(),
                     request.getMedicineName(),
                     request.getRequestedStock(),
                     request.getRequestBy(),
                     request.getIsNewMedicine() ? "Yes" : "No");
         }
-        System.out.println("===============================================================================");
+        System.out.println("==========================================================================================");
     }
 
     /**
-     * Allows administrators to approve or deny pending replenishment requests.
+     * Allows administrators to approve or deny pending replenishment requests. Pending requests for the
+     * same medicine are merged into one order, and the decision applies to every request in it.
      *
      * @param scanner the Scanner for user input
      */
     public void managePendingRequests(Scanner scanner) {
         System.out.println("\n======== Manage Pending Replenishment Requests ========");
-        List<ReplenishmentRequest> pendingRequests = requestData.getRequests().stream()
-                .filter(request -> request.getStatus() == RequestStatus.PENDING)
-                .collect(Collectors.toList());
+        List<ReplenishmentOrder> pendingOrders = requestData.getPendingOrders();
 
-        if (pendingRequests.isEmpty()) {
+        if (pendingOrders.isEmpty()) {
             System.out.println("No pending requests to manage.");
             return;
         }
 
-        System.out.printf("%-5s %-20s %-15s %-20s %-10s%n", "No.", "Medicine Name", "Requested Qty", "Requested By", "New Medicine");
-        System.out.println("-------------------------------------------------------------------------------");
+        System.out.printf("%-5s %-20s %-12s %-10s %-25s %-10s%n", "No.", "Medicine Name", "Total Qty", "Requests", "Requested By", "New Medicine");
+        System.out.println("------------------------------------------------------------------------------------------");
         int index = 1;
-        for (ReplenishmentRequest request : pendingRequests) {
-            System.out.printf("%-5d %-20s %-15d %-20s %-10s%n",
+        for (ReplenishmentOrder order : pendingOrders) {
+            System.out.printf("%-5d %-20s %-12d %-10d %-25s %-10s%n",
                     index++,
-                    request.getMedicineName(),
-                    request.getRequestedStock(),
-                    request.getRequestBy(),
-                    request.getIsNewMedicine() ? "Yes" : "No");
-        }
-        System.out.println("===============================================================================");
-
-        System.out.print("Enter the number of the request to manage (or 0 to exit): ");
-        int choice;
-        try {
-            choice = Integer.parseInt(scanner.nextLine().trim());
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a valid number.");
-            return;
+                    order.getMedicineName(),
+                    order.getTotalQuantity(),
+                    order.getRequests().size(),
+                    String.join(" ", order.getRequesters()),
+                    order.includesNewMedicine() ? "Yes" : "No");
         }
+        System.out.println("==========================================================================================");
 
-        if (choice == 0) {
+        System.out.print("Enter the number, request ID or medicine name of the order to manage (or 0 to exit): ");
+        String input = scanner.nextLine().trim();
+        if (input.equals("0")) {
             System.out.println("Exiting request management.");
             return;
         }
 
-        if (choice < 1 || choice > pendingRequests.size()) {
-            System.out.println("Invalid choice. Please try again.");
+        Optional<ReplenishmentOrder> found = findPendingOrder(input, pendingOrders);
+        if (found.isEmpty()) {
+            System.out.println("Invalid choice. Please enter a listed number, a pending request ID or a medicine name.");
             return;
         }
 
-        ReplenishmentRequest selectedRequest = pendingRequests.get(choice - 1);
+        ReplenishmentOrder selectedOrder = found.get();
 
-        System.out.println("\nSelected Request:");
-        System.out.printf("Medicine: %s%nQuantity: %d%nRequested By: %s%nNew Medicine: %s%n",
-                selectedRequest.getMedicineName(),
-                selectedRequest.getRequestedStock(),
-                selectedRequest.getRequestBy(),
-                selectedRequest.getIsNewMedicine() ? "Yes" : "No");
+        System.out.println("\nSelected Order:");
+        System.out.printf("Medicine: %s%nTotal Quantity: %d%nRequested By: %s%nNew Medicine: %s%n",
+                selectedOrder.getMedicineName(),
+                selectedOrder.getTotalQuantity(),
+                String.join(", ", selectedOrder.getRequesters()),
+                selectedOrder.includesNewMedicine() ? "Yes" : "No");
+        for (ReplenishmentRequest request : selectedOrder.getRequests()) {
+            System.out.printf("  %-10s %-8d %s%n", request.getRequestID(), request.getRequestedStock(), request.getRequestBy());
+        }
 
-        System.out.print("Approve or Deny this request? (approve/deny): ");
+        System.out.print("Approve or Deny this order? (approve/deny): ");
         String action = scanner.nextLine().trim().toLowerCase();
 
         if (action.equals("approve")) {
-            selectedRequest.setStatus(RequestStatus.FULFILLED);
+            if (approveOrders(List.of(selectedOrder))) {
+                System.out.println("Order approved (" + selectedOrder.getRequests().size() + " request(s)).");
+            }
+        } else if (action.equals("deny")) {
+            closeRequests(List.of(selectedOrder), RequestStatus.CANCELLED);
+            System.out.println("Order denied (" + selectedOrder.getRequests().size() + " request(s)).");
+        } else {
+            System.out.println("Invalid action. Order remains unchanged.");
+        }
+    }
+
+    /**
+     * Resolves an order from a list number, the ID of one of its requests, or its medicine name.
+     */
+    private Optional<ReplenishmentOrder> findPendingOrder(String input, List<ReplenishmentOrder> pendingOrders) {
+        try {
+            int choice = Integer.parseInt(input);
+            return choice >= 1 && choice <= pendingOrders.size() ? Optional.of(pendingOrders.get(choice - 1)) : Optional.empty();
+        } catch (NumberFormatException e) {
+            // Not a list number; try a request ID, then a medicine name
+        }
+        Optional<ReplenishmentRequest> request = requestData.findRequestByID(input.toUpperCase());
+        if (request.isPresent() && request.get().getStatus() == RequestStatus.PENDING) {
+            return requestData.findPendingOrder(request.get().getMedicineName());
+        }
+        return requestData.findPendingOrder(input);
+    }
+
+    /**
+     * Lets administrators approve or deny many pending orders at once: those picked by number,
+     * all of them, or all requested by one staff member. The selection is applied as one batch.
+     *
+     * @param scanner the Scanner for user input
+     */
+    public void batchManagePendingRequests(Scanner scanner) {
+        System.out.println("\n======== Batch Approve or Deny Replenishment Requests ========");
+        List<ReplenishmentOrder> pendingOrders = requestData.getPendingOrders();
+
+        if (pendingOrders.isEmpty()) {
+            System.out.println("No pending requests to manage.");
+            return;
+        }
 
-            // If the medicine exists, update its stock
-            Optional<Medicine> medicine = medicineManager.getMedicineData().findMedicineByName(selectedRequest.getMedicineName());
-            if (medicine.isPresent()) {
-                Medicine updatedMedicine = medicine.get();
-                updatedMedicine.refillStock(selectedRequest.getRequestedStock());
+        System.out.printf("%-5s %-20s %-12s %-10s %-25s%n", "No.", "Medicine Name", "Total Qty", "Requests", "Requested By");
+        System.out.println("------------------------------------------------------------------------------");
+        int index = 1;
+        for (ReplenishmentOrder order : pendingOrders) {
+            System.out.printf("%-5d %-20s %-12d %-10d %-25s%n",
+                    index++,
+                    order.getMedicineName(),
+                    order.getTotalQuantity(),
+                    order.getRequests().size(),
+                    String.join(" ", order.getRequesters()));
+        }
+        System.out.println("==============================================================================");
+
+        System.out.println("Select orders:");
+        System.out.println("1. By number");
+        System.out.println("2. All pending orders");
+        System.out.println("3. All requests by one requester");
+        System.out.print("Enter your choice: ");
+        String mode = scanner.nextLine().trim();
+
+        List<ReplenishmentOrder> selected = new ArrayList<>();
+        if (mode.equals("1")) {
+            System.out.print("Enter the order numbers, separated by commas: ");
+            for (String part : scanner.nextLine().split(",")) {
                 try {
-                    medicineManager.getMedicineData().updateMedicine(updatedMedicine);
-                    System.out.println("Stock updated successfully.");
-                } catch (Exception e) {
-                    System.err.println("Error updating stock: " + e.getMessage());
+                    int choice = Integer.parseInt(part.trim());
+                    if (choice < 1 || choice > pendingOrders.size()) {
+                        System.out.println("Ignoring invalid order number: " + choice);
+                    } else if (!selected.contains(pendingOrders.get(choice - 1))) {
+                        selected.add(pendingOrders.get(choice - 1));
+                    }
+                } catch (NumberFormatException e) {
+                    System.out.println("Ignoring invalid input: " + part.trim());
+                }
+            }
+        } else if (mode.equals("2")) {
+            selected.addAll(pendingOrders);
+        } else if (mode.equals("3")) {
+            System.out.print("Enter the requester ID: ");
+            String requester = scanner.nextLine().trim();
+            for (ReplenishmentOrder order : pendingOrders) {
+                List<ReplenishmentRequest> requests = order.getRequests().stream()
+                        .filter(request -> request.getRequestBy().equalsIgnoreCase(requester))
+                        .collect(Collectors.toList());
+                if (!requests.isEmpty()) {
+                    selected.add(new ReplenishmentOrder(order.getMedicineName(), requests));
                 }
             }
+        } else {
+            System.out.println("Invalid choice.");
+            return;
+        }
+
+        if (selected.isEmpty()) {
+            System.out.println("No orders selected.");
+            return;
+        }
+        int requestCount = selected.stream().mapToInt(order -> order.getRequests().size()).sum();
+        System.out.print("Approve or Deny the " + selected.size() + " selected order(s) (" + requestCount + " request(s))? (approve/deny): ");
+        String action = scanner.nextLine().trim().toLowerCase();
 
-            requestData.updateRequest(selectedRequest);
-            System.out.println("Request approved.");
+        if (action.equals("approve")) {
+            if (approveOrders(selected)) {
+                System.out.println("Approved " + selected.size() + " order(s) (" + requestCount + " request(s)).");
+            }
         } else if (action.equals("deny")) {
-            selectedRequest.setStatus(RequestStatus.CANCELLED);
-            requestData.updateRequest(selectedRequest);
-            System.out.println("Request denied.");
+            closeRequests(selected, RequestStatus.CANCELLED);
+            System.out.println("Denied " + selected.size() + " order(s) (" + requestCount + " request(s)).");
         } else {
-            System.out.println("Invalid action. Request remains unchanged.");
+            System.out.println("Invalid action. Orders remain unchanged.");
         }
     }
+
+    /**
+     * Approves a batch of orders as one transaction. The stock of every medicine in the batch is checked
+     * first; then the quantities are added, the stock changes are flushed once, and all requests are marked
+     * fulfilled with a single save of the request file. If a stock change still fails part way, the changes
+     * already made are reversed and no request is closed.
+     *
+     * @param orders the orders to approve
+     * @return true if the batch was applied
+     */
+    private boolean approveOrders(List<ReplenishmentOrder> orders) {
+        MedicineData medicineData = medicineManager.getMedicineData();
+        Map<ReplenishmentOrder, Medicine> stocked = new LinkedHashMap<>();
+        Map<Medicine, Long> resultingStock = new HashMap<>();
+        for (ReplenishmentOrder order : orders) {
+            Optional<Medicine> medicine = medicineData.findMedicineByName(order.getMedicineName());
+            if (medicine.isEmpty()) {
+                continue; // New medicines are added to the inventory separately
+            }
+            long stock = resultingStock.getOrDefault(medicine.get(), (long) medicine.get().getInitialStock()) + order.getTotalQuantity();
+            if (stock > Integer.MAX_VALUE) {
+                System.out.println("Batch not applied: the stock of " + order.getMedicineName() + " would exceed the maximum.");
+                return false;
+            }
+            resultingStock.put(medicine.get(), stock);
+            stocked.put(order, medicine.get());
+        }
+
+        List<ReplenishmentOrder> applied = new ArrayList<>();
+        try {
+            for (Map.Entry<ReplenishmentOrder, Medicine> entry : stocked.entrySet()) {
+                medicineData.adjustStock(entry.getValue(), entry.getKey().getTotalQuantity(),
+                        StockMovementType.REPLENISHMENT, "ADMIN", entry.getKey().getReference());
+                applied.add(entry.getKey());
+            }
+        } catch (Exception e) {
+            System.err.println("Error updating stock, reversing the batch: " + e.getMessage());
+            for (ReplenishmentOrder order : applied) {
+                medicineData.adjustStock(stocked.get(order), -order.getTotalQuantity(),
+                        StockMovementType.ADJUSTMENT, "ADMIN", order.getReference());
+            }
+            medicineData.flushStockChanges();
+            return false;
+        }
+        medicineData.flushStockChanges();
+        if (!stocked.isEmpty()) {
+            System.out.println("Stock updated successfully for " + stocked.size() + " medicine(s).");
+        }
+        closeRequests(orders, RequestStatus.FULFILLED);
+        return true;
+    }
+
+    private void closeRequests(List<ReplenishmentOrder> orders, RequestStatus status) {
+        List<ReplenishmentRequest> requests = new ArrayList<>();
+        for (ReplenishmentOrder order : orders) {
+            for (ReplenishmentRequest request : order.getRequests()) {
+                request.setStatus(status);
+                requests.add(request);
+            }
+        }
+        requestData.updateRequests(requests);
+    }
+
+    /**
+     * Shows the medicines whose stock will not last {@link DemandForecaster#DEFAULT_DAYS_OF_COVER} days
+     * at their forecast consumption, and optionally submits requests for those without a pending request.
+     *
+     * @param scanner the Scanner for user input
+     */
+    public void reviewForecastRecommendations(Scanner scanner) {
+        System.out.println("\n======== Replenishment Forecast ========");
+        MedicineData medicineData = medicineManager.getMedicineData();
+        List<ReplenishmentRecommendation> recommendations = medicineData.getDemandForecaster()
+                .forecast(medicineData.getAllData(), LocalDate.now(), DemandForecaster.DEFAULT_DAYS_OF_COVER);
+
+        if (recommendations.isEmpty()) {
+            System.out.println("All medicines are stocked for the next " + DemandForecaster.DEFAULT_DAYS_OF_COVER + " days.");
+            return;
+        }
+
+        System.out.printf("%-20s %-10s %-12s %-15s %-15s %-10s%n", "Medicine Name", "Stock", "Daily Use", "Days of Cover", "Suggested Qty", "Pending");
+        System.out.println("-----------------------------------------------------------------------------------------");
+        int submittable = 0;
+        for (ReplenishmentRecommendation recommendation : recommendations) {
+            boolean pending = requestData.hasPendingRequest(recommendation.getMedicineName());
+            if (!pending) {
+                submittable++;
+            }
+            System.out.printf("%-20s %-10d %-12.1f %-15.1f %-15d %-10s%n",
+                    recommendation.getMedicineName(),
+                    recommendation.getCurrentStock(),
+                    recommendation.getDailyDemand(),
+                    recommendation.getDaysOfCover(),
+                    recommendation.getRecommendedQuantity(),
+                    pending ? "Yes" : "No");
+        }
+        System.out.println("=========================================================================================");
+
+        if (submittable == 0) {
+            System.out.println("Every medicine listed already has a pending request.");
+            return;
+        }
+        System.out.print("Submit requests for the " + submittable + " medicine(s) without a pending request? (yes/no): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("yes")) {
+            System.out.println("No requests submitted.");
+            return;
+        }
+        for (ReplenishmentRecommendation recommendation : recommendations) {
+            if (!requestData.hasPendingRequest(recommendation.getMedicineName())) {
+                submitSystemRequest(recommendation.getMedicineName(), recommendation.getRecommendedQuantity());
+            }
+        }
+    }
+
     /**
      * Searches for replenishment requests by medicine name.
      *
@@ -237,12 +508,13 @@ public class ReplenishmentRequestManager {
         }
 
         // Display matching requests
-        System.out.printf("%-5s %-20s %-15s %-15s %-15s %-10s%n", "No.", "Medicine Name", "Requested Qty", "Status", "Requested By", "New Medicine");
+        System.out.printf("%-5s %-10s %-20s %-15s %-15s %-15s %-10s%n", "No.", "Request ID", "Medicine Name", "Requested Qty", "Status", "Requested By", "New Medicine");
         System.out.println("-----------------------------------------------------------------------------------------");
         int index = 1;
         for (ReplenishmentRequest request : matchingRequests) {
-            System.out.printf("%-5d %-20s %-15d %-15s %-15s %-10s%n",
+            System.out.printf("%-5d %-10s %-20s %-15d %-15s %-15s %-10s%n",
                     index++,
+                    request.getRequestID(),
                     request.getMedicineName(),
                     request.getRequestedStock(),
                     request.getStatus(),
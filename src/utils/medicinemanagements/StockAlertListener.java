@@ -0,0 +1,23 @@
+package utils.medicinemanagements;
+
+/**
+ * Receives low stock alerts. Each alert is sent once per crossing of the alert level,
+ * not on every stock change while the stock stays low.
+ */
+public interface StockAlertListener {
+    /**
+     * Called when a medicine's stock falls to or below its low stock alert level.
+     *
+     * @param medicine the medicine
+     * @param stock    the stock after the change
+     */
+    void onLowStock(Medicine medicine, int stock);
+
+    /**
+     * Called when a medicine's stock has recovered clearly above its alert level.
+     *
+     * @param medicine the medicine
+     * @param stock    the stock after the change
+     */
+    void onStockRecovered(Medicine medicine, int stock);
+}
@@ -0,0 +1,35 @@
+package utils.medicinemanagements;
+
+/**
+ * The outcome of one atomic stock change: the stock before and after it, and the resulting version.
+ */
+public class StockChange {
+    private final int stockBefore;
+    private final int stockAfter;
+    private final long version;
+
+    /**
+     * Constructs a StockChange.
+     *
+     * @param stockBefore the stock before the change
+     * @param stockAfter  the stock after the change
+     * @param version     the stock version after the change
+     */
+    public StockChange(int stockBefore, int stockAfter, long version) {
+        this.stockBefore = stockBefore;
+        this.stockAfter = stockAfter;
+        this.version = version;
+    }
+
+    public int getStockBefore() {
+        return stockBefore;
+    }
+
+    public int getStockAfter() {
+        return stockAfter;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
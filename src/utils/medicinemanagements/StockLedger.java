@@ -0,0 +1,160 @@
+package utils.medicinemanagements;
+
+import datamgmt.retrievers.StockLedgerData;
+import utils.enums.StockMovementType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records every stock movement in an append-only ledger and answers "what was the stock at time T"
+ * from the nearest snapshot at or before T plus a replay of the movements after it.
+ * A new snapshot is derived from the ledger itself every {@link #SNAPSHOT_INTERVAL} movements,
+ * so replays stay short however long the history grows.
+ */
+public class StockLedger {
+    public static final int SNAPSHOT_INTERVAL = 200;
+
+    private final StockLedgerData data;
+    private final TreeMap<LocalDateTime, StockSnapshot> snapshots;
+    private final Queue<StockMovement> pending = new ConcurrentLinkedQueue<>();
+    private LocalDateTime lastWritten = LocalDateTime.MIN;
+    private int movementsSinceSnapshot;
+
+    /**
+     * Constructs the ledger, loading the snapshot index and counting the movements after the latest snapshot.
+     *
+     * @param data the ledger file handler
+     */
+    public StockLedger(StockLedgerData data) {
+        this.data = data;
+        this.snapshots = data.loadSnapshots();
+        if (!snapshots.isEmpty()) {
+            List<StockMovement> tail = data.readMovementsFrom(snapshots.lastEntry().getValue().getLedgerOffset(), null);
+            movementsSinceSnapshot = tail.size();
+            lastWritten = tail.isEmpty() ? snapshots.lastKey() : tail.get(tail.size() - 1).getTimestamp();
+        }
+    }
+
+    /**
+     * Records the current stock as the starting point of the ledger if it has no snapshot yet.
+     *
+     * @param currentStock the current stock per medicine name
+     */
+    public synchronized void ensureBaseline(Map<String, Integer> currentStock) {
+        if (snapshots.isEmpty() && !currentStock.isEmpty()) {
+            StockSnapshot baseline = new StockSnapshot(LocalDateTime.now(), data.getLedgerLength(), currentStock);
+            data.appendSnapshot(baseline);
+            snapshots.put(baseline.getTimestamp(), baseline);
+            lastWritten = baseline.getTimestamp();
+        }
+    }
+
+    /**
+     * Queues a movement for the ledger. Call {@link #flush()} to write queued movements.
+     *
+     * @param medicineName the name of the medicine
+     * @param type         the kind of movement
+     * @param quantity     the change in stock
+     * @param actor        the ID of the staff member responsible
+     * @param reference    the appointment or request the movement belongs to
+     */
+    public void record(String medicineName, StockMovementType type, int quantity, String actor, String reference) {
+        pending.add(new StockMovement(LocalDateTime.now(), medicineName, type, quantity, actor, reference));
+    }
+
+    /**
+     * Appends all queued movements to the ledger in one write, taking a snapshot when enough have accumulated.
+     */
+    public synchronized void flush() {
+        List<StockMovement> batch = new ArrayList<>();
+        StockMovement movement;
+        while ((movement = pending.poll()) != null) {
+            // Keep the ledger in timestamp order even if threads queued slightly out of order
+            if (movement.getTimestamp().isBefore(lastWritten)) {
+                movement = movement.withTimestamp(lastWritten);
+            }
+            lastWritten = movement.getTimestamp();
+            batch.add(movement);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long ledgerEnd = data.appendMovements(batch);
+        movementsSinceSnapshot += batch.size();
+        if (movementsSinceSnapshot >= SNAPSHOT_INTERVAL && !snapshots.isEmpty()) {
+            StockSnapshot latest = snapshots.lastEntry().getValue();
+            Map<String, Integer> stock = replay(latest, data.readMovementsFrom(latest.getLedgerOffset(), null));
+            StockSnapshot snapshot = new StockSnapshot(lastWritten, ledgerEnd, stock);
+            data.appendSnapshot(snapshot);
+            snapshots.put(snapshot.getTimestamp(), snapshot);
+            movementsSinceSnapshot = 0;
+        }
+    }
+
+    /**
+     * Returns the stock of every medicine at a moment in time.
+     *
+     * @param at the moment
+     * @return the stock per medicine name, or an empty map if the moment is before the ledger began
+     */
+    public synchronized Map<String, Integer> getInventoryAt(LocalDateTime at) {
+        Map.Entry<LocalDateTime, StockSnapshot> nearest = snapshots.floorEntry(at);
+        if (nearest == null) {
+            return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        }
+        return replay(nearest.getValue(), data.readMovementsFrom(nearest.getValue().getLedgerOffset(), at));
+    }
+
+    /**
+     * Returns the stock of one medicine at a moment in time.
+     *
+     * @param medicineName the name of the medicine
+     * @param at           the moment
+     * @return the stock, or empty if the medicine was not in the inventory then
+     */
+    public Optional<Integer> getStockAt(String medicineName, LocalDateTime at) {
+        return Optional.ofNullable(getInventoryAt(at).get(medicineName));
+    }
+
+    /**
+     * Returns the movements of one medicine within a time range, reading the ledger from the
+     * nearest snapshot before the range.
+     *
+     * @param medicineName the name of the medicine, or null for all medicines
+     * @param from         the start of the range
+     * @param to           the end of the range
+     * @return the movements, oldest first
+     */
+    public synchronized List<StockMovement> getMovements(String medicineName, LocalDateTime from, LocalDateTime to) {
+        Map.Entry<LocalDateTime, StockSnapshot> nearest = snapshots.floorEntry(from);
+        long offset = nearest != null ? nearest.getValue().getLedgerOffset() : 0;
+        List<StockMovement> movements = new ArrayList<>();
+        for (StockMovement movement : data.readMovementsFrom(offset, to)) {
+            if (!movement.getTimestamp().isBefore(from)
+                    && (medicineName == null || movement.getMedicineName().equalsIgnoreCase(medicineName))) {
+                movements.add(movement);
+            }
+        }
+        return movements;
+    }
+
+    private static Map<String, Integer> replay(StockSnapshot snapshot, List<StockMovement> movements) {
+        Map<String, Integer> stock = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        stock.putAll(snapshot.getStock());
+        for (StockMovement movement : movements) {
+            if (movement.getType() == StockMovementType.REMOVED) {
+                stock.remove(movement.getMedicineName());
+            } else {
+                stock.merge(movement.getMedicineName(), movement.getQuantity(), Integer::sum);
+            }
+        }
+        return stock;
+    }
+}
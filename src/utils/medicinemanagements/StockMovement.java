@@ -0,0 +1,110 @@
+package utils.medicinemanagements;
+
+import utils.CSVSerializable;
+import utils.enums.StockMovementType;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One change to a medicine's stock, as recorded in the stock movement ledger.
+ */
+public class StockMovement implements CSVSerializable {
+    private final LocalDateTime timestamp;
+    private final String medicineName;
+    private final StockMovementType type;
+    private final int quantity;
+    private final String actor;
+    private final String reference;
+
+    /**
+     * Constructs a StockMovement.
+     *
+     * @param timestamp    when the stock changed
+     * @param medicineName the name of the medicine
+     * @param type         the kind of movement
+     * @param quantity     the change in stock, negative for stock leaving the inventory
+     * @param actor        the ID of the staff member responsible
+     * @param reference    the appointment or request the movement belongs to, or "-"
+     */
+    public StockMovement(LocalDateTime timestamp, String medicineName, StockMovementType type, int quantity,
+                         String actor, String reference) {
+        if (medicineName == null || medicineName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Medicine name cannot be null or empty.");
+        }
+        if (timestamp == null || type == null) {
+            throw new IllegalArgumentException("Timestamp and movement type cannot be null.");
+        }
+        this.timestamp = timestamp;
+        this.medicineName = medicineName;
+        this.type = type;
+        this.quantity = quantity;
+        this.actor = actor == null || actor.isEmpty() ? "-" : actor;
+        this.reference = reference == null || reference.isEmpty() ? "-" : reference;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public StockMovementType getType() {
+        return type;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    /**
+     * Returns a copy of this movement with a different timestamp.
+     *
+     * @param timestamp the new timestamp
+     * @return the re-stamped movement
+     */
+    public StockMovement withTimestamp(LocalDateTime timestamp) {
+        return new StockMovement(timestamp, medicineName, type, quantity, actor, reference);
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", timestamp.toString(), medicineName, type.name(), String.valueOf(quantity), actor, reference);
+    }
+
+    /**
+     * Parses a ledger row.
+     *
+     * @param csvLine the CSV row
+     * @return the movement
+     * @throws IllegalArgumentException if the row is invalid
+     */
+    public static StockMovement fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Invalid CSV format for StockMovement: " + csvLine);
+        }
+        try {
+            return new StockMovement(LocalDateTime.parse(fields[0].trim()), fields[1].trim(),
+                    StockMovementType.valueOf(fields[2].trim()), Integer.parseInt(fields[3].trim()),
+                    fields[4].trim(), fields[5].trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid movement timestamp: " + fields[0]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s  %-20s %-13s %+6d  by %-8s ref %s", timestamp.withNano(0), medicineName, type, quantity, actor, reference);
+    }
+}
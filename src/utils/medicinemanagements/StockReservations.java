@@ -0,0 +1,88 @@
+package utils.medicinemanagements;
+
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+import utils.enums.PrescriptionStatus;
+import utils.medicalrecords.OutcomeRecord;
+import utils.medicalrecords.Prescription;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sets stock aside for prescriptions that have not been dispensed yet. A reservation is created when an
+ * outcome record with a PENDING prescription is saved and released when the prescription is dispensed
+ * (at which point the stock itself goes down) or rejected. Reservations are derived from the appointment
+ * data, so they are rebuilt on load and never persisted separately.
+ * Counters are per medicine and atomic, so availability can be read at any time without locking the inventory.
+ */
+public class StockReservations implements AppointmentListener {
+    private final Map<String, AtomicInteger> reserved = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Integer>> reservationsByAppointment = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the quantity of a medicine reserved for undispensed prescriptions.
+     *
+     * @param medicineName the name of the medicine
+     * @return the reserved quantity
+     */
+    public int getReserved(String medicineName) {
+        AtomicInteger count = reserved.get(medicineName.toLowerCase());
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the stock of a medicine that is not reserved.
+     *
+     * @param medicine the medicine
+     * @return the stock on hand minus the reserved quantity; negative if more is reserved than in stock
+     */
+    public int getAvailable(Medicine medicine) {
+        return medicine.getInitialStock() - getReserved(medicine.getName());
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        reserved.clear();
+        reservationsByAppointment.clear();
+        for (Appointment appointment : appointments) {
+            onAppointmentChanged(appointment);
+        }
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        Map<String, Integer> current = new HashMap<>();
+        OutcomeRecord outcome = appointment.getOutcomeRecord();
+        if (outcome != null) {
+            for (Prescription prescription : outcome.getPrescriptions()) {
+                PrescriptionStatus status = prescription.getStatus();
+                if (status == PrescriptionStatus.PENDING || status == PrescriptionStatus.CLAIMED) {
+                    current.merge(prescription.getMedicationName().toLowerCase(), prescription.getQuantity(), Integer::sum);
+                }
+            }
+        }
+        Map<String, Integer> previous = current.isEmpty()
+                ? reservationsByAppointment.remove(appointment.getAppointmentID())
+                : reservationsByAppointment.put(appointment.getAppointmentID(), current);
+        if (previous != null) {
+            previous.forEach((medicine, quantity) -> adjust(medicine, -quantity));
+        }
+        current.forEach(this::adjust);
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        Map<String, Integer> previous = reservationsByAppointment.remove(appointment.getAppointmentID());
+        if (previous != null) {
+            previous.forEach((medicine, quantity) -> adjust(medicine, -quantity));
+        }
+    }
+
+    private void adjust(String medicine, int delta) {
+        reserved.computeIfAbsent(medicine, m -> new AtomicInteger()).addAndGet(delta);
+    }
+}
@@ -0,0 +1,45 @@
+package utils.medicinemanagements;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The stock of every medicine at one moment, together with the position in the movement ledger
+ * right after the last movement it includes, so later stock can be replayed from there.
+ */
+public class StockSnapshot {
+    private final LocalDateTime timestamp;
+    private final long ledgerOffset;
+    private final Map<String, Integer> stock = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Constructs a StockSnapshot.
+     *
+     * @param timestamp    the moment the snapshot describes
+     * @param ledgerOffset the ledger position after the last included movement
+     * @param stock        the stock per medicine name
+     */
+    public StockSnapshot(LocalDateTime timestamp, long ledgerOffset, Map<String, Integer> stock) {
+        this.timestamp = timestamp;
+        this.ledgerOffset = ledgerOffset;
+        this.stock.putAll(stock);
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public long getLedgerOffset() {
+        return ledgerOffset;
+    }
+
+    /**
+     * Returns the stock per medicine name, looked up case-insensitively.
+     *
+     * @return the stock levels
+     */
+    public Map<String, Integer> getStock() {
+        return stock;
+    }
+}
@@ -0,0 +1,216 @@
+package utils.resources;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An augmented interval tree holding the bookings of one resource on one day.
+ * Nodes are ordered by start time (ties broken by booking ID) and balanced as a treap;
+ * each node also records the latest end time in its subtree, so overlap queries
+ * skip every subtree that ends before the queried range starts.
+ * Times are stored as minutes of the day and intervals are half-open.
+ */
+class IntervalTree {
+    private static final Random PRIORITIES = new Random();
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds a booking to the tree.
+     *
+     * @param booking the booking to add
+     */
+    void insert(ResourceBooking booking) {
+        root = insert(root, new Node(booking));
+        size++;
+    }
+
+    /**
+     * Removes a booking from the tree.
+     *
+     * @param booking the booking to remove
+     * @return true if the booking was in the tree
+     */
+    boolean remove(ResourceBooking booking) {
+        int before = size;
+        root = remove(root, minuteOf(booking.getStartTime()), booking.getBookingID());
+        return size < before;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds every booking that overlaps the given range.
+     *
+     * @param start the start of the range, in minutes of the day
+     * @param end   the end of the range (exclusive), in minutes of the day
+     * @return the overlapping bookings
+     */
+    List<ResourceBooking> findOverlapping(int start, int end) {
+        List<ResourceBooking> overlapping = new ArrayList<>();
+        collectOverlapping(root, start, end, overlapping);
+        return overlapping;
+    }
+
+    /**
+     * Returns the highest number of bookings in use at the same moment within the given range.
+     *
+     * @param start the start of the range, in minutes of the day
+     * @param end   the end of the range (exclusive), in minutes of the day
+     * @return the peak concurrent usage within the range
+     */
+    int peakUsage(int start, int end) {
+        List<ResourceBooking> overlapping = findOverlapping(start, end);
+        int[] starts = new int[overlapping.size()];
+        int[] ends = new int[overlapping.size()];
+        for (int i = 0; i < overlapping.size(); i++) {
+            starts[i] = Math.max(start, minuteOf(overlapping.get(i).getStartTime()));
+            ends[i] = Math.min(end, endMinuteOf(overlapping.get(i)));
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+
+        int peak = 0;
+        int inUse = 0;
+        for (int i = 0, j = 0; i < starts.length; i++) {
+            while (j < ends.length && ends[j] <= starts[i]) {
+                inUse--;
+                j++;
+            }
+            peak = Math.max(peak, ++inUse);
+        }
+        return peak;
+    }
+
+    static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    static int endMinuteOf(ResourceBooking booking) {
+        // Bookings that run to the end of the day are stored with 23:59 as their end
+        return booking.getEndTime().equals(LocalTime.of(23, 59)) ? 24 * 60 : minuteOf(booking.getEndTime());
+    }
+
+    private void collectOverlapping(Node node, int start, int end, List<ResourceBooking> overlapping) {
+        if (node == null || node.maxEnd <= start) {
+            return; // Nothing in this subtree ends after the range starts
+        }
+        collectOverlapping(node.left, start, end, overlapping);
+        if (node.start >= end) {
+            return; // This node and its right subtree start after the range ends
+        }
+        if (node.end > start) {
+            overlapping.add(node.booking);
+        }
+        collectOverlapping(node.right, start, end, overlapping);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.booking.getBookingID(), node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, int start, String bookingID) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, bookingID, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, bookingID);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, bookingID);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private int compare(int start, String bookingID, Node node) {
+        int byStart = Integer.compare(start, node.start);
+        return byStart != 0 ? byStart : bookingID.compareTo(node.booking.getBookingID());
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static class Node {
+        private final ResourceBooking booking;
+        private final int start;
+        private final int end;
+        private final int priority = PRIORITIES.nextInt();
+        private int maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(ResourceBooking booking) {
+            this.booking = booking;
+            this.start = minuteOf(booking.getStartTime());
+            this.end = endMinuteOf(booking);
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package utils.resources;
+
+import utils.CSVSerializable;
+import utils.enums.ResourceType;
+
+/**
+ * Represents a bookable hospital resource such as a consultation room or a piece of equipment.
+ * The capacity is the number of appointments that can use the resource at the same time.
+ */
+public class Resource implements CSVSerializable {
+    private final String resourceID;
+    private final String name;
+    private final ResourceType type;
+    private final int capacity;
+
+    /**
+     * Constructs a Resource.
+     *
+     * @param resourceID the unique ID of the resource
+     * @param name       the display name of the resource
+     * @param type       the kind of resource
+     * @param capacity   the number of concurrent bookings the resource supports
+     */
+    public Resource(String resourceID, String name, ResourceType type, int capacity) {
+        if (resourceID == null || resourceID.trim().isEmpty()) {
+            throw new IllegalArgumentException("Resource ID cannot be null or empty.");
+        }
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Resource name cannot be null or empty.");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Resource type cannot be null.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Resource capacity must be positive.");
+        }
+        this.resourceID = resourceID;
+        this.name = name;
+        this.type = type;
+        this.capacity = capacity;
+    }
+
+    public String getResourceID() {
+        return resourceID;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ResourceType getType() {
+        return type;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", resourceID, name, type.name(), String.valueOf(capacity));
+    }
+
+    /**
+     * Parses a CSV string to create a Resource.
+     *
+     * @param csvLine the CSV string
+     * @return the parsed Resource
+     * @throws IllegalArgumentException if the CSV string is invalid
+     */
+    public static Resource fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Invalid CSV format for Resource: " + csvLine);
+        }
+        try {
+            return new Resource(fields[0].trim(), fields[1].trim(),
+                    ResourceType.valueOf(fields[2].trim().toUpperCase()), Integer.parseInt(fields[3].trim()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Failed to parse Resource from CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Resource ID: %s, Name: %s, Type: %s, Capacity: %d", resourceID, name, type, capacity);
+    }
+}
@@ -0,0 +1,108 @@
+package utils.resources;
+
+import utils.CSVSerializable;
+import utils.appointments.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Represents the reservation of a resource for an appointment on a given date and time range.
+ */
+public class ResourceBooking implements CSVSerializable {
+    private final String bookingID;
+    private final String resourceID;
+    private final String appointmentID;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+
+    /**
+     * Constructs a ResourceBooking.
+     *
+     * @param bookingID     the unique ID of the booking
+     * @param resourceID    the ID of the reserved resource
+     * @param appointmentID the ID of the appointment using the resource
+     * @param date          the date of the booking
+     * @param startTime     the start of the booking
+     * @param endTime       the end of the booking (exclusive)
+     */
+    public ResourceBooking(String bookingID, String resourceID, String appointmentID, LocalDate date,
+                           LocalTime startTime, LocalTime endTime) {
+        if (bookingID == null || resourceID == null || appointmentID == null) {
+            throw new IllegalArgumentException("Booking, resource and appointment IDs cannot be null.");
+        }
+        if (date == null || startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Booking date and times cannot be null.");
+        }
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Booking start must be before its end.");
+        }
+        this.bookingID = bookingID;
+        this.resourceID = resourceID;
+        this.appointmentID = appointmentID;
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public String getBookingID() {
+        return bookingID;
+    }
+
+    public String getResourceID() {
+        return resourceID;
+    }
+
+    public String getAppointmentID() {
+        return appointmentID;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public String toCSV() {
+        return String.join(",", bookingID, resourceID, appointmentID,
+                date.format(Appointment.DATE_FORMAT),
+                startTime.format(Appointment.TIME_FORMAT),
+                endTime.format(Appointment.TIME_FORMAT));
+    }
+
+    /**
+     * Parses a CSV string to create a ResourceBooking.
+     *
+     * @param csvLine the CSV string
+     * @return the parsed ResourceBooking
+     * @throws IllegalArgumentException if the CSV string is invalid
+     */
+    public static ResourceBooking fromCSV(String csvLine) {
+        String[] fields = csvLine.split(",", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Invalid CSV format for ResourceBooking: " + csvLine);
+        }
+        try {
+            return new ResourceBooking(fields[0].trim(), fields[1].trim(), fields[2].trim(),
+                    LocalDate.parse(fields[3].trim(), Appointment.DATE_FORMAT),
+                    LocalTime.parse(fields[4].trim(), Appointment.TIME_FORMAT),
+                    LocalTime.parse(fields[5].trim(), Appointment.TIME_FORMAT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Failed to parse ResourceBooking from CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s-%s: %s (appointment %s)", date.format(Appointment.DATE_FORMAT),
+                startTime, endTime, resourceID, appointmentID);
+    }
+}
@@ -0,0 +1,304 @@
+package utils.resources;
+
+import datamgmt.retrievers.ResourceBookingData;
+import datamgmt.retrievers.ResourceData;
+import utils.appointments.Appointment;
+import utils.appointments.AppointmentListener;
+import utils.enums.AppointmentStatus;
+import utils.enums.ResourceType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Allocates rooms and equipment to appointments. Each resource keeps one {@link IntervalTree}
+ * of bookings per day, so availability checks only touch the bookings that overlap the requested time.
+ * Reservations of several resources for one appointment are all-or-nothing.
+ * Bookings follow their appointment: they move when it is rescheduled and are released when it is
+ * cancelled or removed.
+ */
+public class ResourceScheduler implements AppointmentListener {
+    private final ResourceBookingData bookingData;
+    private final Map<String, Resource> resources = new LinkedHashMap<>();
+    private final Map<ResourceType, List<Resource>> resourcesByType = new EnumMap<>(ResourceType.class);
+    private final Map<String, Map<LocalDate, IntervalTree>> trees = new HashMap<>();
+    private final Map<String, List<ResourceBooking>> bookingsByAppointment = new HashMap<>();
+    private boolean dirty;
+
+    /**
+     * Constructs the ResourceScheduler and indexes all bookings from today onwards.
+     *
+     * @param resourceData the resource data handler
+     * @param bookingData  the booking data handler
+     */
+    public ResourceScheduler(ResourceData resourceData, ResourceBookingData bookingData) {
+        this.bookingData = bookingData;
+        resourceData.importData();
+        for (Resource resource : resourceData.getResources()) {
+            resources.put(resource.getResourceID(), resource);
+            resourcesByType.computeIfAbsent(resource.getType(), t -> new ArrayList<>()).add(resource);
+        }
+
+        bookingData.importData();
+        Map<String, ResourceBooking> latest = new LinkedHashMap<>();
+        for (ResourceBooking booking : bookingData.getBookings()) {
+            latest.put(booking.getBookingID(), booking); // A re-appended booking supersedes its older row
+        }
+        LocalDate today = LocalDate.now();
+        for (ResourceBooking booking : latest.values()) {
+            if (!booking.getDate().isBefore(today) && resources.containsKey(booking.getResourceID())) {
+                index(booking);
+            }
+        }
+    }
+
+    /**
+     * Returns all managed resources.
+     *
+     * @return the resources, in file order
+     */
+    public Collection<Resource> getResources() {
+        return resources.values();
+    }
+
+    /**
+     * Checks whether any resource of the given type is managed at all.
+     *
+     * @param type the resource type
+     * @return true if at least one resource of that type exists
+     */
+    public boolean hasResources(ResourceType type) {
+        return !resourcesByType.getOrDefault(type, List.of()).isEmpty();
+    }
+
+    /**
+     * Finds a resource by its ID.
+     *
+     * @param resourceID the resource ID
+     * @return the resource, or empty if not found
+     */
+    public Optional<Resource> getResource(String resourceID) {
+        return Optional.ofNullable(resources.get(resourceID));
+    }
+
+    /**
+     * Checks whether a resource has spare capacity for a consultation starting at the given time.
+     *
+     * @param resourceID the resource ID
+     * @param date       the date
+     * @param time       the start time
+     * @return true if the resource can take another booking for the whole consultation
+     */
+    public boolean isAvailable(String resourceID, LocalDate date, LocalTime time) {
+        Resource resource = resources.get(resourceID);
+        if (resource == null) {
+            return false;
+        }
+        IntervalTree tree = trees.getOrDefault(resourceID, Map.of()).get(date);
+        if (tree == null) {
+            return true;
+        }
+        int start = IntervalTree.minuteOf(time);
+        return tree.peakUsage(start, start + Appointment.DURATION_MINUTES) < resource.getCapacity();
+    }
+
+    /**
+     * Finds the first resource of a type that is free for a consultation starting at the given time.
+     *
+     * @param type the resource type
+     * @param date the date
+     * @param time the start time
+     * @return a free resource, or empty if all are taken
+     */
+    public Optional<Resource> findAvailable(ResourceType type, LocalDate date, LocalTime time) {
+        for (Resource resource : resourcesByType.getOrDefault(type, List.of())) {
+            if (isAvailable(resource.getResourceID(), date, time)) {
+                return Optional.of(resource);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reserves several resources for an appointment, all or nothing. Nothing is booked unless
+     * every resource is known and free for the whole consultation.
+     *
+     * @param appointmentID the appointment ID
+     * @param resourceIDs   the IDs of the resources to reserve
+     * @param date          the appointment date
+     * @param time          the appointment start time
+     * @return true if every resource was reserved
+     */
+    public boolean reserve(String appointmentID, Collection<String> resourceIDs, LocalDate date, LocalTime time) {
+        Set<String> distinctIDs = new HashSet<>(resourceIDs);
+        for (String resourceID : distinctIDs) {
+            if (!isAvailable(resourceID, date, time)) {
+                return false;
+            }
+        }
+        LocalTime end = time.plusMinutes(Appointment.DURATION_MINUTES);
+        if (end.isBefore(time)) {
+            end = LocalTime.of(23, 59); // The consultation runs to the end of the day
+        }
+        List<ResourceBooking> bookings = new ArrayList<>();
+        for (String resourceID : distinctIDs) {
+            ResourceBooking booking = new ResourceBooking(appointmentID + "-" + resourceID, resourceID,
+                    appointmentID, date, time, end);
+            bookings.add(booking);
+            index(booking);
+        }
+        bookingData.addBookings(bookings);
+        return true;
+    }
+
+    /**
+     * Returns the resources reserved for an appointment.
+     *
+     * @param appointmentID the appointment ID
+     * @return the appointment's bookings
+     */
+    public List<ResourceBooking> getBookingsForAppointment(String appointmentID) {
+        return new ArrayList<>(bookingsByAppointment.getOrDefault(appointmentID, List.of()));
+    }
+
+    /**
+     * Returns the bookings of a resource on a date, in order of start time.
+     *
+     * @param resourceID the resource ID
+     * @param date       the date
+     * @return the bookings of that day
+     */
+    public List<ResourceBooking> getBookings(String resourceID, LocalDate date) {
+        IntervalTree tree = trees.getOrDefault(resourceID, Map.of()).get(date);
+        return tree == null ? new ArrayList<>() : tree.findOverlapping(0, 24 * 60);
+    }
+
+    /**
+     * Releases every resource reserved for an appointment. Call {@link #flush()} to persist the change.
+     *
+     * @param appointmentID the appointment ID
+     * @return the released bookings
+     */
+    public List<ResourceBooking> release(String appointmentID) {
+        List<ResourceBooking> bookings = bookingsByAppointment.remove(appointmentID);
+        if (bookings == null) {
+            return List.of();
+        }
+        for (ResourceBooking booking : bookings) {
+            Map<LocalDate, IntervalTree> byDate = trees.get(booking.getResourceID());
+            IntervalTree tree = byDate.get(booking.getDate());
+            tree.remove(booking);
+            if (tree.size() == 0) {
+                byDate.remove(booking.getDate());
+            }
+        }
+        bookingData.removeBookings(bookings);
+        dirty = true;
+        return bookings;
+    }
+
+    /**
+     * Persists released and moved bookings in a single write, if anything changed since the last flush.
+     */
+    public void flush() {
+        if (dirty) {
+            bookingData.saveBookings();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void onAppointmentsLoaded(List<Appointment> appointments) {
+        Map<String, Appointment> open = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            if (isOpen(appointment)) {
+                open.put(appointment.getAppointmentID(), appointment);
+            }
+        }
+        for (String appointmentID : new ArrayList<>(bookingsByAppointment.keySet())) {
+            Appointment appointment = open.get(appointmentID);
+            if (appointment == null) {
+                release(appointmentID); // Cancelled, completed or removed while bookings were kept
+            } else {
+                onAppointmentChanged(appointment);
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public void onAppointmentChanged(Appointment appointment) {
+        List<ResourceBooking> bookings = bookingsByAppointment.get(appointment.getAppointmentID());
+        if (bookings == null) {
+            return;
+        }
+        if (!isOpen(appointment)) {
+            release(appointment.getAppointmentID());
+            return;
+        }
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = appointment.getLocalDate();
+            time = appointment.getLocalTime();
+        } catch (Exception e) {
+            return;
+        }
+        ResourceBooking first = bookings.get(0);
+        if (first.getDate().equals(date) && first.getStartTime().equals(time)) {
+            return;
+        }
+        move(appointment.getAppointmentID(), release(appointment.getAppointmentID()), date, time);
+    }
+
+    @Override
+    public void onAppointmentRemoved(Appointment appointment) {
+        release(appointment.getAppointmentID());
+    }
+
+    /**
+     * Re-reserves the same resources at a rescheduled time, falling back to another resource
+     * of the same type when the original one is taken.
+     */
+    private void move(String appointmentID, List<ResourceBooking> previous, LocalDate date, LocalTime time) {
+        List<String> resourceIDs = new ArrayList<>();
+        for (ResourceBooking booking : previous) {
+            String resourceID = booking.getResourceID();
+            if (!isAvailable(resourceID, date, time)) {
+                Optional<Resource> alternative = findAvailable(resources.get(resourceID).getType(), date, time);
+                if (alternative.isEmpty() || resourceIDs.contains(alternative.get().getResourceID())) {
+                    System.out.println("Warning: " + resources.get(resourceID).getName() + " is not available for rescheduled appointment "
+                            + appointmentID + "; the resource has been released.");
+                    continue;
+                }
+                resourceID = alternative.get().getResourceID();
+            }
+            resourceIDs.add(resourceID);
+        }
+        if (!resourceIDs.isEmpty()) {
+            reserve(appointmentID, resourceIDs, date, time);
+        }
+    }
+
+    private void index(ResourceBooking booking) {
+        trees.computeIfAbsent(booking.getResourceID(), r -> new HashMap<>())
+                .computeIfAbsent(booking.getDate(), d -> new IntervalTree())
+                .insert(booking);
+        bookingsByAppointment.computeIfAbsent(booking.getAppointmentID(), a -> new ArrayList<>()).add(booking);
+    }
+
+    private boolean isOpen(Appointment appointment) {
+        return appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.ACCEPTED;
+    }
+}